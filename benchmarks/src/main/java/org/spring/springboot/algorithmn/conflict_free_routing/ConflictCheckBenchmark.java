@@ -0,0 +1,74 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spring.springboot.benchmark.BenchmarkLayout;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+//Checking the head-on and catch-up conflicts of an edge against the reserved time windows, the scores are per check
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictCheckBenchmark {
+
+    private static final int CHECKS = 1024;
+    private static final long SEED = 1;
+
+    @Param({BenchmarkLayout.TEST_GRAPH_2, "grid10", "grid30"})
+    public String layout;
+
+    //Number of routes reserved, 0 for an empty reservation table
+    @Param({"0", "10", "40"})
+    public int reservedRoutes;
+
+    private Routing routing;
+    private final int[][] edges = new int[CHECKS][];
+    private final double[][] times = new double[CHECKS][];
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkLayout benchmarkLayout = BenchmarkLayout.create(layout);
+        CongestedRouting congestedRouting = new CongestedRouting(benchmarkLayout, reservedRoutes, SEED);
+        congestedRouting.createChecks(benchmarkLayout, CHECKS, SEED + 1, edges, times);
+        routing = congestedRouting.getRouting();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHECKS)
+    public int noHeadOnConflict() {
+        int noConflicts = 0;
+        for (int i = 0; i < CHECKS; i++) {
+            if (routing.noHeadOnConflict(edges[i][0], edges[i][1], times[i][0], times[i][1])) {
+                noConflicts++;
+            }
+        }
+        return noConflicts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHECKS)
+    public int noCatchUpConflict() {
+        int noConflicts = 0;
+        for (int i = 0; i < CHECKS; i++) {
+            if (routing.noCatchUpConflict(edges[i][0], edges[i][1], times[i][0], times[i][1])) {
+                noConflicts++;
+            }
+        }
+        return noConflicts;
+    }
+}
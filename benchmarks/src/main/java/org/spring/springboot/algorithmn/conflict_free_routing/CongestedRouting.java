@@ -0,0 +1,133 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.exception.NoPathFeasibleException;
+import org.spring.springboot.benchmark.BenchmarkLayout;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Routing whose reservation table is filled the way the decoding fills it: a few AGVs start from different crossings,
+ * and the AGV released earliest is routed from where its last route ends to a random crossing, until the number of routes
+ * is reserved. The table is marked as the checkpoint, so a benchmark can route on it and roll back.
+ */
+class CongestedRouting {
+
+    private static final int INITIAL_CAPACITY = 30;
+    private static final int MAX_RESERVED_AGVS = 8;
+
+    private final Routing routing;
+    private final int reservedAGVs;
+    //Crossings the reserved AGVs start from, another AGV starting there at the beginning would run into them
+    private final Set<Integer> startNodes = new HashSet<>();
+    //Edges the reserved AGVs pass, with the time they enter and leave each of them
+    private final List<int[]> reservedEdges = new ArrayList<>();
+    private final List<double[]> reservedTimes = new ArrayList<>();
+
+    /**
+     * @param layout Layout to route on
+     * @param reservedRoutes Number of routes reserved, 0 for an empty reservation table
+     * @param seed Seed of the random generator, so every run reserves the same routes
+     */
+    CongestedRouting(BenchmarkLayout layout, int reservedRoutes, long seed) {
+        routing = new Routing(layout.getRoutingGraph(), BenchmarkLayout.AGV_SPEED, INITIAL_CAPACITY);
+        Random random = new Random(seed);
+        int nodeNumber = layout.getGraph().getNodeNumber();
+        reservedAGVs = reservedRoutes == 0 ? 0 : Math.min(MAX_RESERVED_AGVS, nodeNumber / 2);
+        int[] currentNodes = new int[reservedAGVs];
+        double[] releaseTimes = new double[reservedAGVs];
+        boolean[] stopped = new boolean[reservedAGVs];
+        for (int i = 0; i < reservedAGVs; i++) {
+            currentNodes[i] = i * nodeNumber / reservedAGVs;
+            startNodes.add(currentNodes[i]);
+        }
+        double crossingTime = CommonConstant.CROSSING_DISTANCE / BenchmarkLayout.AGV_SPEED;
+        for (int route = 0; route < reservedRoutes; route++) {
+            int agv = -1;
+            for (int i = 0; i < reservedAGVs; i++) {
+                if (!stopped[i] && (agv == -1 || releaseTimes[i] < releaseTimes[agv])) {
+                    agv = i;
+                }
+            }
+            if (agv == -1) {
+                break;
+            }
+            int endNode = random.nextInt(nodeNumber - 1);
+            if (endNode >= currentNodes[agv]) {
+                endNode++;
+            }
+            List<Path> paths;
+            try {
+                paths = routing.getPath(currentNodes[agv], releaseTimes[agv], agv, endNode);
+            } catch (NoPathFeasibleException e) {
+                //The AGV waits where it is for good, like an AGV failing to be routed in the decoding
+                stopped[agv] = true;
+                continue;
+            }
+            double time = releaseTimes[agv];
+            for (Path path : paths) {
+                if (path.getStartNode() != path.getEndNode()) {
+                    reservedEdges.add(new int[]{path.getStartNode(), path.getEndNode()});
+                    reservedTimes.add(new double[]{time + crossingTime, time + crossingTime + path.getTime()});
+                    time += crossingTime + path.getTime();
+                }
+            }
+            currentNodes[agv] = endNode;
+            releaseTimes[agv] = time;
+        }
+        routing.markCheckpoint();
+    }
+
+    Routing getRouting() {
+        return routing;
+    }
+
+    /**
+     * @return Index of the next AGV to route on the table
+     */
+    int getNextAGV() {
+        return reservedAGVs;
+    }
+
+    /**
+     * @param node Crossing of the layout
+     * @return If an AGV may start from the crossing at the beginning
+     */
+    boolean isFreeAtStart(int node) {
+        return !startNodes.contains(node);
+    }
+
+    /**
+     * Create edges and times to check the conflicts for, around the time the reserved AGVs pass the edges,
+     * or anywhere on the graph if no route is reserved
+     * @param layout Layout the routing is on
+     * @param number Number of checks
+     * @param seed Seed of the random generator
+     * @param edges Start and end node of each check
+     * @param times Time of entering and leaving the edge of each check
+     */
+    void createChecks(BenchmarkLayout layout, int number, long seed, int[][] edges, double[][] times) {
+        Random random = new Random(seed);
+        for (int i = 0; i < number; i++) {
+            if (reservedEdges.isEmpty()) {
+                int startNode = random.nextInt(layout.getGraph().getNodeNumber());
+                int edge = layout.getGraph().getFirstEdge(startNode) + random.nextInt(layout.getGraph().getDegree(startNode));
+                double time = random.nextDouble() * 100;
+                edges[i] = new int[]{startNode, layout.getGraph().getEndNode(edge)};
+                times[i] = new double[]{time, time + 5};
+            }
+            else {
+                int reserved = random.nextInt(reservedEdges.size());
+                //Shift the time a bit, so both conflicting and free checks are made
+                double shift = (random.nextDouble() - 0.5) * 10;
+                edges[i] = reservedEdges.get(reserved);
+                times[i] = new double[]{reservedTimes.get(reserved)[0] + shift, reservedTimes.get(reserved)[1] + shift};
+            }
+        }
+    }
+}
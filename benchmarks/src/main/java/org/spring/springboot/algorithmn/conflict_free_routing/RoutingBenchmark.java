@@ -0,0 +1,82 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.exception.NoPathFeasibleException;
+import org.spring.springboot.benchmark.BenchmarkLayout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Routing one AGV from a node to another on an empty or a congested reservation table
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final int ROUTES = 64;
+    private static final long SEED = 1;
+
+    @Param({BenchmarkLayout.TEST_GRAPH_2, "grid10", "grid30"})
+    public String layout;
+
+    //Number of routes reserved before the routed one, 0 for an empty reservation table
+    @Param({"0", "10", "40"})
+    public int reservedRoutes;
+
+    private Routing routing;
+    private int indexOfAGV;
+    //Routes feasible on the reservation table, taken in turn
+    private final List<Integer[]> routes = new ArrayList<>();
+    private int nextRoute = 0;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkLayout benchmarkLayout = BenchmarkLayout.create(layout);
+        CongestedRouting congestedRouting = new CongestedRouting(benchmarkLayout, reservedRoutes, SEED);
+        routing = congestedRouting.getRouting();
+        indexOfAGV = congestedRouting.getNextAGV();
+        for (Integer[] route : benchmarkLayout.createTasks(ROUTES, SEED + 1)) {
+            if (!congestedRouting.isFreeAtStart(route[0])) {
+                continue;
+            }
+            try {
+                routing.getPath(route[0], 0, indexOfAGV, route[1]);
+                routes.add(route);
+            } catch (NoPathFeasibleException e) {
+                //A route failing on the table would measure the exception instead of the routing
+            }
+            routing.rollbackToCheckpoint();
+        }
+        if (routes.isEmpty()) {
+            throw new IllegalStateException("No route is feasible on the reservation table!");
+        }
+    }
+
+    @Benchmark
+    public List<Path> getPath() throws NoPathFeasibleException {
+        Integer[] route = routes.get(nextRoute);
+        nextRoute = (nextRoute + 1) % routes.size();
+        try {
+            return routing.getPath(route[0], 0, indexOfAGV, route[1]);
+        }
+        finally {
+            routing.rollbackToCheckpoint();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.exception.NoAGVInTheBuffer;
+import org.spring.springboot.benchmark.BenchmarkLayout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task sequences of a population, one generation and a full solve of the genetic algorithm. The algorithm cannot be solved
+ * twice, so a new one with the same seed is created before each solve, sharing the routing graph of the layout like the
+ * solves on a registered layout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class GeneticAlgorithmBenchmark {
+
+    private static final long SEED = 1;
+
+    @State(Scope.Thread)
+    public static class Request {
+
+        //Layout and number of tasks, the crowded TestGraph2 cannot be decoded with many more tasks than its crossings
+        @Param({BenchmarkLayout.TEST_GRAPH_2 + ":10", "grid10:10", "grid10:30"})
+        public String request;
+
+        @Param({"3"})
+        public int agvNumber;
+
+        private BenchmarkLayout benchmarkLayout;
+        private Integer[][] tasks;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            String[] layoutAndTasks = request.split(":");
+            benchmarkLayout = BenchmarkLayout.create(layoutAndTasks[0]);
+            tasks = benchmarkLayout.createTasks(Integer.parseInt(layoutAndTasks[1]), SEED);
+        }
+
+        AGV_GA createGeneticAlgorithm() {
+            AGV_GA geneticAlgorithm = benchmarkLayout.createGeneticAlgorithm(tasks, agvNumber);
+            geneticAlgorithm.setSeed(SEED);
+            return geneticAlgorithm;
+        }
+    }
+
+    //The population is not changed by sorting it, so one algorithm is kept for the trial
+    @State(Scope.Thread)
+    public static class Population {
+
+        private AGV_GA geneticAlgorithm;
+
+        @Setup(Level.Trial)
+        public void setUp(Request request) {
+            geneticAlgorithm = request.createGeneticAlgorithm();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class NewAlgorithm {
+
+        private AGV_GA geneticAlgorithm;
+
+        @Setup(Level.Invocation)
+        public void setUp(Request request) {
+            geneticAlgorithm = request.createGeneticAlgorithm();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<int[]> getTaskSequence(Population population) {
+        List<int[]> taskSequence = new ArrayList<>();
+        population.geneticAlgorithm.getTaskSequence(taskSequence);
+        return taskSequence;
+    }
+
+    //The generation limit stops the evolution right after the first generation, however fast it is decoded
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<List<Path>> oneGeneration(NewAlgorithm newAlgorithm) throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithm = newAlgorithm.geneticAlgorithm;
+        geneticAlgorithm.setGenerationLimit(1);
+        return geneticAlgorithm.singleObjectGenericAlgorithm();
+    }
+
+    //A solve takes up to seconds, each one is measured on its own
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2, batchSize = 1)
+    @Measurement(iterations = 5, batchSize = 1)
+    public List<List<Path>> singleObjectGenericAlgorithm(NewAlgorithm newAlgorithm) throws NoAGVInTheBuffer {
+        return newAlgorithm.geneticAlgorithm.singleObjectGenericAlgorithm();
+    }
+}
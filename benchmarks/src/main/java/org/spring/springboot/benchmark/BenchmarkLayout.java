@@ -0,0 +1,193 @@
+package org.spring.springboot.benchmark;
+
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.common.SparseGraph;
+import org.spring.springboot.algorithmn.conflict_free_routing.RoutingGraph;
+import org.spring.springboot.algorithmn.genetic_algorithm.AGV_GA;
+import org.ujmp.core.Matrix;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Layout the benchmarks run on, either TestGraph2 of the unit tests or a generated grid, with two buffers whose nodes are
+ * numbered as in the unit tests (101 to 105 and 201 to 205)
+ */
+public class BenchmarkLayout {
+
+    public static final double AGV_SPEED = 2;
+    public static final String TEST_GRAPH_2 = "testGraph2";
+    //Generated layouts are named by the side of the grid, e.g. grid10 for 10 x 10 crossings
+    public static final String GRID_PREFIX = "grid";
+
+    private static final int BUFFER_LENGTH = 5;
+    private static final double GRID_DISTANCE = 10;
+    private static final double GRID_SHORT_DISTANCE = 8;
+
+    private final SparseGraph graph;
+    private final List<List<Integer>> bufferSet;
+    private final RoutingGraph routingGraph;
+
+    private BenchmarkLayout(SparseGraph graph, List<List<Integer>> bufferSet) {
+        this.graph = graph;
+        this.bufferSet = bufferSet;
+        this.routingGraph = new RoutingGraph(graph, bufferSet);
+    }
+
+    /**
+     * @param name TestGraph2, or the grid prefix followed by the side of the grid
+     * @return The layout
+     * @throws IOException TestGraph2 cannot be read
+     */
+    public static BenchmarkLayout create(String name) throws IOException {
+        if (TEST_GRAPH_2.equals(name)) {
+            return createTestGraph2();
+        }
+        if (name.startsWith(GRID_PREFIX)) {
+            return createGrid(Integer.parseInt(name.substring(GRID_PREFIX.length())));
+        }
+        throw new IllegalArgumentException("Unknown layout " + name + "!");
+    }
+
+    //The buffers of TestGraph2 are the ones of the unit tests
+    private static BenchmarkLayout createTestGraph2() throws IOException {
+        //The benchmarks run either in the repo or in the benchmark module
+        File file = new File("TestGraphSet/TestGraph2.csv");
+        if (!file.exists()) {
+            file = new File("../TestGraphSet/TestGraph2.csv");
+        }
+        double[][] graph = Matrix.Factory.importFrom().file(file).asDenseCSV().toDoubleArray();
+        List<List<Integer>> bufferSet = new ArrayList<>();
+        bufferSet.add(createBuffer(0, 2, 3));
+        bufferSet.add(createBuffer(1, 0, 7));
+        return new BenchmarkLayout(SparseGraph.fromAdjacencyMatrix(graph), bufferSet);
+    }
+
+    /**
+     * Grid of side x side crossings, the rows are 10 apart and the columns are 8 apart like TestGraph2.
+     * One buffer runs from the first crossing to its right neighbour, and the other one from the last crossing to its left neighbour.
+     * @param side Number of crossings in a row and in a column
+     * @return The layout
+     */
+    static BenchmarkLayout createGrid(int side) {
+        if (side < 2) {
+            throw new IllegalArgumentException("Side of the grid should be at least 2!");
+        }
+        int nodeNumber = side * side;
+        int edgeNumber = 4 * side * (side - 1);
+        int[] startNodes = new int[edgeNumber];
+        int[] endNodes = new int[edgeNumber];
+        double[] distances = new double[edgeNumber];
+        int edge = 0;
+        for (int node = 0; node < nodeNumber; node++) {
+            int row = node / side;
+            int column = node % side;
+            if (column + 1 < side) {
+                edge = addEdge(startNodes, endNodes, distances, edge, node, node + 1, GRID_SHORT_DISTANCE);
+            }
+            if (row + 1 < side) {
+                edge = addEdge(startNodes, endNodes, distances, edge, node, node + side, GRID_DISTANCE);
+            }
+        }
+        List<List<Integer>> bufferSet = new ArrayList<>();
+        bufferSet.add(createBuffer(0, 0, 1));
+        bufferSet.add(createBuffer(1, nodeNumber - 1, nodeNumber - 2));
+        return new BenchmarkLayout(new SparseGraph(nodeNumber, startNodes, endNodes, distances), bufferSet);
+    }
+
+    //Add the edge in both directions
+    private static int addEdge(int[] startNodes, int[] endNodes, double[] distances, int edge, int node, int otherNode, double distance) {
+        startNodes[edge] = node;
+        endNodes[edge] = otherNode;
+        distances[edge] = distance;
+        startNodes[edge + 1] = otherNode;
+        endNodes[edge + 1] = node;
+        distances[edge + 1] = distance;
+        return edge + 2;
+    }
+
+    private static List<Integer> createBuffer(int bufferIndex, int entrance, int exit) {
+        List<Integer> buffer = new ArrayList<>();
+        buffer.add(entrance);
+        for (int i = 1; i <= BUFFER_LENGTH; i++) {
+            buffer.add(getBufferNode(bufferIndex, i));
+        }
+        buffer.add(exit);
+        return buffer;
+    }
+
+    private static int getBufferNode(int bufferIndex, int position) {
+        return (bufferIndex + 1) * 100 + position;
+    }
+
+    /**
+     * @param taskNumber Number of tasks
+     * @param seed Seed of the random generator, so every run gets the same tasks
+     * @return Tasks between two different crossings
+     */
+    public Integer[][] createTasks(int taskNumber, long seed) {
+        Random random = new Random(seed);
+        int nodeNumber = graph.getNodeNumber();
+        Integer[][] tasks = new Integer[taskNumber][];
+        for (int i = 0; i < taskNumber; i++) {
+            int startNode = random.nextInt(nodeNumber);
+            int endNode = random.nextInt(nodeNumber - 1);
+            if (endNode >= startNode) {
+                endNode++;
+            }
+            tasks[i] = new Integer[]{startNode, endNode};
+        }
+        return tasks;
+    }
+
+    /**
+     * Create the algorithm for idle AGVs waiting in the buffers like the unit tests, AGVs take the buffers in turn
+     * from the end of the buffer
+     * @param tasks Tasks to be scheduled
+     * @param agvNumber Number of AGVs, at most twice the buffer length
+     * @return The algorithm sharing the routing graph of the layout
+     */
+    public AGV_GA createGeneticAlgorithm(Integer[][] tasks, int agvNumber) {
+        if (agvNumber > bufferSet.size() * BUFFER_LENGTH) {
+            throw new IllegalArgumentException("There are only " + bufferSet.size() * BUFFER_LENGTH + " places in the buffers!");
+        }
+        List<List<Path>> pathsForAGVs = new ArrayList<>();
+        Integer[] bufferForAGVs = new Integer[agvNumber];
+        Double[] timeAlreadyPassed = new Double[agvNumber];
+        for (int i = 0; i < agvNumber; i++) {
+            int bufferIndex = i % bufferSet.size();
+            int node = getBufferNode(bufferIndex, BUFFER_LENGTH - i / bufferSet.size());
+            List<Path> pathsForAGV = new ArrayList<>();
+            pathsForAGV.add(new Path(node, node, 0, false));
+            pathsForAGVs.add(pathsForAGV);
+            bufferForAGVs[i] = bufferIndex;
+            timeAlreadyPassed[i] = -1.0;
+        }
+        Map<Integer, Integer> taskMap = new HashMap<>();
+        for (int i = 0; i < tasks.length; i++) {
+            taskMap.put(i, i);
+        }
+        List<List<Record>> bestRecords = new ArrayList<>();
+        return new AGV_GA(routingGraph, tasks, timeAlreadyPassed, pathsForAGVs, AGV_SPEED, bufferSet, bufferForAGVs, taskMap,
+                CommonConstant.BUFFER_PATH_LENGTH, bestRecords);
+    }
+
+    public SparseGraph getGraph() {
+        return graph;
+    }
+
+    public List<List<Integer>> getBufferSet() {
+        return bufferSet;
+    }
+
+    public RoutingGraph getRoutingGraph() {
+        return routingGraph;
+    }
+}
@@ -0,0 +1,126 @@
+package org.spring.springboot.algorithmn.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds with buckets of the same relative width, as an HDR histogram does. Latencies below 64
+ * have a bucket each, the larger ones are counted by their leading 6 bits, so a percentile is within 1/32 of the latency.
+ * Latencies are recorded from many threads without a lock.
+ */
+public class LatencyHistogram {
+
+    private static final int MANTISSA_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << MANTISSA_BITS;
+    //Latencies below this have a bucket each
+    private static final int EXACT_BUCKETS = SUB_BUCKETS * 2;
+    private static final int EXACT_BITS = MANTISSA_BITS + 1;
+    //Latencies from 2^45 nanoseconds, more than 9 hours, are counted in the last bucket
+    private static final int MAX_BITS = 45;
+    private static final int BUCKETS = EXACT_BUCKETS + (MAX_BITS - EXACT_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param latency Latency in nanoseconds, a negative one is counted as 0
+     */
+    public void record(long latency) {
+        latency = Math.max(latency, 0);
+        counts.incrementAndGet(bucketOf(latency));
+        count.increment();
+        total.add(latency);
+        if (latency > max.get()) {
+            max.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Add the latencies recorded by the other histogram to this one
+     * @param other Histogram not changed while it is added
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = other.counts.get(i);
+            if (bucketCount != 0) {
+                counts.addAndGet(i, bucketCount);
+            }
+        }
+        count.add(other.getCount());
+        total.add(other.getTotal());
+        max.accumulateAndGet(other.getMax(), Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return Sum of the latencies in nanoseconds
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long numberOfLatencies = getCount();
+        return numberOfLatencies == 0 ? 0 : (double) getTotal() / numberOfLatencies;
+    }
+
+    /**
+     * @param percentile Percentile from 0 to 100
+     * @return The largest latency in the bucket the percentile falls in, never more than the max, 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile should be from 0 to 100!");
+        }
+        long numberOfLatencies = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            numberOfLatencies += counts.get(i);
+        }
+        if (numberOfLatencies == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * numberOfLatencies));
+        long countSoFar = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            countSoFar += counts.get(i);
+            if (countSoFar >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int bucketOf(long latency) {
+        if (latency < EXACT_BUCKETS) {
+            return (int) latency;
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(latency);
+        if (bits > MAX_BITS) {
+            return BUCKETS - 1;
+        }
+        int mantissa = (int) (latency >>> (bits - EXACT_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_BUCKETS + (bits - EXACT_BITS - 1) * SUB_BUCKETS + mantissa;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < EXACT_BUCKETS) {
+            return bucket;
+        }
+        if (bucket == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        int shift = (bucket - EXACT_BUCKETS) / SUB_BUCKETS + 1;
+        long mantissa = SUB_BUCKETS + (bucket - EXACT_BUCKETS) % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,51 @@
+package org.spring.springboot.algorithmn.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    //Every latency should fall in a bucket holding it, and the buckets should be within 1/32 of the latency.
+    @Test
+    public void shouldBucketHoldTheLatency() {
+        for (long latency = 0; latency < 1L << 44; latency = latency * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.bucketOf(latency);
+            long highestValue = LatencyHistogram.highestValueOf(bucket);
+            assertTrue(highestValue >= latency);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < latency);
+            assertTrue(highestValue - latency <= latency / 32);
+        }
+    }
+
+    @Test
+    public void shouldPercentilesBeWithinTheBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long latency = 1; latency <= 1000; latency++) {
+            histogram.record(latency * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500500, histogram.getMean(), 0);
+        assertEquals(500000, histogram.getValueAtPercentile(50), 500000 / 32);
+        assertEquals(990000, histogram.getValueAtPercentile(99), 990000 / 32);
+        assertEquals(1000000, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+
+    @Test
+    public void shouldAddedHistogramCountBoth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record(10);
+        other.record(30);
+        other.record(1L << 50);
+        histogram.add(other);
+        assertEquals(3, histogram.getCount());
+        assertEquals(1L << 50, histogram.getMax());
+        assertEquals(10, histogram.getValueAtPercentile(10));
+        assertEquals(30, histogram.getValueAtPercentile(50));
+        assertEquals(1L << 50, histogram.getValueAtPercentile(100));
+    }
+}
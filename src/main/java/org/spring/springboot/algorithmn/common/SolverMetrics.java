@@ -0,0 +1,87 @@
+package org.spring.springboot.algorithmn.common;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of each phase and counters of one solve, or of all the solves once they are added together. The decoding threads and
+ * the islands of a solve record into the same metrics, so recording takes no lock.
+ */
+public class SolverMetrics {
+
+    public enum Phase {
+        //Reading the request and building the routing graph
+        PREPROCESS,
+        //Crossover and mutation of one generation
+        CROSSOVER,
+        MUTATION,
+        //Decoding one individual, and routing one AGV from a node to another
+        DECODE,
+        ROUTING,
+        //Roulette selection of the survivors of one generation
+        SELECTION
+    }
+
+    public enum Counter {
+        GENERATIONS,
+        INDIVIDUALS_DECODED,
+        //Individuals taken from the decoding cache, aborted for being worse than the elitist, or not decoded for the time budget
+        DECODING_CACHE_HITS,
+        INDIVIDUALS_ABORTED,
+        INDIVIDUALS_PAST_DEADLINE,
+        ROUTES,
+        ROUTING_FAILURES,
+        //Time windows settled and relaxed by the routings, and the reachability checked against the reserved time windows
+        TIME_WINDOWS_SETTLED,
+        TIME_WINDOWS_SCANNED,
+        CONFLICT_CHECKS
+    }
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+
+    public SolverMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param phase Phase taking the time
+     * @param latency Nanoseconds the phase takes
+     */
+    public void record(Phase phase, long latency) {
+        histograms[phase.ordinal()].record(latency);
+    }
+
+    public void add(Counter counter, long value) {
+        counters[counter.ordinal()].add(value);
+    }
+
+    public void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * Add the latencies and counters of the other metrics to these ones
+     * @param other Metrics of a finished solve
+     */
+    public void add(SolverMetrics other) {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i].add(other.histograms[i]);
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i].add(other.counters[i].sum());
+        }
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+}
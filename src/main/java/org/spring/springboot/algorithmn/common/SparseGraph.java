@@ -0,0 +1,247 @@
+package org.spring.springboot.algorithmn.common;
+
+import java.util.Arrays;
+
+//Directed graph stored in compressed sparse row form. The edges going out of node i are the ones from offsets[i] to offsets[i + 1] - 1,
+//sorted by their end node. It takes memory in proportion to the number of edges instead of the square of the number of nodes.
+public class SparseGraph {
+
+    private final int nodeNumber;
+    private final int[] offsets;
+    private final int[] endNodes;
+    private final double[] distances;
+
+    /**
+     * Create the graph from the directed edges. If the same edge appears more than once, the last distance is used.
+     * @param nodeNumber Number of nodes in the graph
+     * @param startNodes Start node of each edge
+     * @param endNodes End node of each edge
+     * @param distances Distance of each edge
+     */
+    public SparseGraph(int nodeNumber, int[] startNodes, int[] endNodes, double[] distances) {
+        if (startNodes.length != endNodes.length || startNodes.length != distances.length) {
+            throw new IllegalArgumentException("Start nodes, end nodes and distances should have the same size!");
+        }
+        this.nodeNumber = nodeNumber;
+        int edgeNumber = startNodes.length;
+        //Count the edges of each node and put them into their rows in the given order
+        int[] rowOffsets = new int[nodeNumber + 1];
+        for (int i = 0; i < edgeNumber; i++) {
+            checkNode(startNodes[i]);
+            checkNode(endNodes[i]);
+            rowOffsets[startNodes[i] + 1]++;
+        }
+        for (int i = 0; i < nodeNumber; i++) {
+            rowOffsets[i + 1] += rowOffsets[i];
+        }
+        int[] rowEndNodes = new int[edgeNumber];
+        double[] rowDistances = new double[edgeNumber];
+        int[] position = Arrays.copyOf(rowOffsets, nodeNumber);
+        for (int i = 0; i < edgeNumber; i++) {
+            int index = position[startNodes[i]]++;
+            rowEndNodes[index] = endNodes[i];
+            rowDistances[index] = distances[i];
+        }
+        //Sort each row by the end node and keep the last distance of the repeated edges
+        this.offsets = new int[nodeNumber + 1];
+        int count = 0;
+        for (int i = 0; i < nodeNumber; i++) {
+            int rowStart = rowOffsets[i];
+            int rowEnd = rowOffsets[i + 1];
+            //Rows are short in the warehouse layout, so insertion sort is enough. It is stable so the repeated edges keep their order.
+            for (int j = rowStart + 1; j < rowEnd; j++) {
+                int endNode = rowEndNodes[j];
+                double distance = rowDistances[j];
+                int k = j - 1;
+                while (k >= rowStart && rowEndNodes[k] > endNode) {
+                    rowEndNodes[k + 1] = rowEndNodes[k];
+                    rowDistances[k + 1] = rowDistances[k];
+                    k--;
+                }
+                rowEndNodes[k + 1] = endNode;
+                rowDistances[k + 1] = distance;
+            }
+            offsets[i] = count;
+            for (int j = rowStart; j < rowEnd; j++) {
+                if (j + 1 < rowEnd && rowEndNodes[j + 1] == rowEndNodes[j]) {
+                    continue;
+                }
+                rowEndNodes[count] = rowEndNodes[j];
+                rowDistances[count] = rowDistances[j];
+                count++;
+            }
+        }
+        offsets[nodeNumber] = count;
+        this.endNodes = Arrays.copyOf(rowEndNodes, count);
+        this.distances = Arrays.copyOf(rowDistances, count);
+    }
+
+    /**
+     * Convert the adjacency matrix to the sparse graph, MAX_EDGE means there is no edge
+     * @param graph Adjacency matrix
+     * @return Sparse graph with the same edges
+     */
+    public static SparseGraph fromAdjacencyMatrix(double[][] graph) {
+        int nodeNumber = graph.length;
+        int edgeNumber = 0;
+        for (double[] row : graph) {
+            for (double distance : row) {
+                if (distance != CommonConstant.MAX_EDGE) {
+                    edgeNumber++;
+                }
+            }
+        }
+        int[] startNodes = new int[edgeNumber];
+        int[] endNodes = new int[edgeNumber];
+        double[] distances = new double[edgeNumber];
+        int count = 0;
+        for (int i = 0; i < nodeNumber; i++) {
+            for (int j = 0; j < graph[i].length; j++) {
+                if (graph[i][j] != CommonConstant.MAX_EDGE) {
+                    startNodes[count] = i;
+                    endNodes[count] = j;
+                    distances[count] = graph[i][j];
+                    count++;
+                }
+            }
+        }
+        return new SparseGraph(nodeNumber, startNodes, endNodes, distances);
+    }
+
+    /**
+     * Create a larger graph with the same edges and some new edges
+     * @param newNodeNumber Number of nodes in the new graph, not less than the current one
+     * @param startNodes Start node of each new edge
+     * @param endNodes End node of each new edge
+     * @param distances Distance of each new edge
+     * @return New graph, this one is not changed
+     */
+    public SparseGraph withEdges(int newNodeNumber, int[] startNodes, int[] endNodes, double[] distances) {
+        if (newNodeNumber < nodeNumber) {
+            throw new IllegalArgumentException("The new graph cannot have less nodes!");
+        }
+        int edgeNumber = getEdgeNumber();
+        int newEdgeNumber = edgeNumber + startNodes.length;
+        int[] allStartNodes = new int[newEdgeNumber];
+        int[] allEndNodes = Arrays.copyOf(this.endNodes, newEdgeNumber);
+        double[] allDistances = Arrays.copyOf(this.distances, newEdgeNumber);
+        for (int i = 0; i < nodeNumber; i++) {
+            Arrays.fill(allStartNodes, offsets[i], offsets[i + 1], i);
+        }
+        System.arraycopy(startNodes, 0, allStartNodes, edgeNumber, startNodes.length);
+        System.arraycopy(endNodes, 0, allEndNodes, edgeNumber, endNodes.length);
+        System.arraycopy(distances, 0, allDistances, edgeNumber, distances.length);
+        return new SparseGraph(newNodeNumber, allStartNodes, allEndNodes, allDistances);
+    }
+
+    public int getNodeNumber() {
+        return nodeNumber;
+    }
+
+    public int getEdgeNumber() {
+        return offsets[nodeNumber];
+    }
+
+    /**
+     * @param node Node number
+     * @return Index of the first edge going out of the node
+     */
+    public int getFirstEdge(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * @param node Node number
+     * @return Index after the last edge going out of the node
+     */
+    public int getEndEdge(int node) {
+        return offsets[node + 1];
+    }
+
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * @param edge Index of the edge
+     * @return End node of the edge
+     */
+    public int getEndNode(int edge) {
+        return endNodes[edge];
+    }
+
+    /**
+     * @param edge Index of the edge
+     * @return Distance of the edge
+     */
+    public double getEdgeDistance(int edge) {
+        return distances[edge];
+    }
+
+    /**
+     * Find the edge by binary search in the row of the start node
+     * @param startNode Start node of the edge
+     * @param endNode End node of the edge
+     * @return Index of the edge or -1 if there is no such edge
+     */
+    public int findEdge(int startNode, int endNode) {
+        int low = offsets[startNode];
+        int high = offsets[startNode + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (endNodes[middle] < endNode) {
+                low = middle + 1;
+            }
+            else if (endNodes[middle] > endNode) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasEdge(int startNode, int endNode) {
+        return findEdge(startNode, endNode) != -1;
+    }
+
+    /**
+     * @param startNode Start node of the edge
+     * @param endNode End node of the edge
+     * @return Distance of the edge or MAX_EDGE if there is no such edge, the same as the adjacency matrix
+     */
+    public double getDistance(int startNode, int endNode) {
+        int edge = findEdge(startNode, endNode);
+        return edge == -1 ? CommonConstant.MAX_EDGE : distances[edge];
+    }
+
+    /**
+     * Convert the graph back to the adjacency matrix, only for small graphs
+     * @return Adjacency matrix with MAX_EDGE for no edge
+     */
+    public double[][] toAdjacencyMatrix() {
+        double[][] graph = new double[nodeNumber][nodeNumber];
+        for (int i = 0; i < nodeNumber; i++) {
+            Arrays.fill(graph[i], CommonConstant.MAX_EDGE);
+            for (int edge = offsets[i]; edge < offsets[i + 1]; edge++) {
+                graph[i][endNodes[edge]] = distances[edge];
+            }
+        }
+        return graph;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeNumber) {
+            throw new IllegalArgumentException("Node " + node + " is out of the graph with " + nodeNumber + " nodes!");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SparseGraph{" +
+                "nodeNumber=" + nodeNumber +
+                ", edgeNumber=" + getEdgeNumber() +
+                '}';
+    }
+}
@@ -0,0 +1,229 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import java.util.Arrays;
+
+//Time intervals the AGVs occupy one directed edge, built from the reserved time windows of its two nodes.
+//An AGV enters the edge when it leaves the start node and exits it when it reaches the end node. An AGV looping at the
+//start node through the end node occupies the edge until it comes back to the start node.
+//The intervals are sorted by the time entering the edge with the latest exit time till each one, so a conflict with an
+//interval is found by binary search. It is rebuilt when the time windows of either node are changed.
+class EdgeOccupancy {
+
+    private final int startNode;
+    private final int endNode;
+    //Queues and their modifications the intervals are built from
+    private SortedTimeWindowQueue startQueue;
+    private SortedTimeWindowQueue endQueue;
+    private int startQueueModificationCount;
+    private int endQueueModificationCount;
+    private final Intervals passingIntervals = new Intervals();
+    private final Intervals loopIntervals = new Intervals();
+
+    EdgeOccupancy(int startNode, int endNode) {
+        this.startNode = startNode;
+        this.endNode = endNode;
+    }
+
+    /**
+     * Build the intervals again if the time windows of the nodes are changed since they are built
+     * @param startQueue Reserved time windows of the start node
+     * @param endQueue Reserved time windows of the end node
+     */
+    void update(SortedTimeWindowQueue startQueue, SortedTimeWindowQueue endQueue) {
+        if (this.startQueue == startQueue && this.endQueue == endQueue
+                && startQueueModificationCount == startQueue.getModificationCount()
+                && endQueueModificationCount == endQueue.getModificationCount()) {
+            return;
+        }
+        passingIntervals.clear();
+        loopIntervals.clear();
+        for (int i = 0; i < startQueue.size(); i++) {
+            int AGVNumber = startQueue.getAGVNumber(i);
+            double timeEnterEdge = startQueue.getEndTime(i);
+            if (startQueue.getNextNodeNumber(i) == endNode) {
+                passingIntervals.add(timeEnterEdge, getStartTime(endQueue, endQueue.indexOfNextTimeWindow(AGVNumber, timeEnterEdge)));
+            }
+            else if (startQueue.getPathNode(i, 1) == endNode && startQueue.getPathNode(i, 2) == startNode) {
+                loopIntervals.add(timeEnterEdge, getStartTime(startQueue, startQueue.indexOfNextTimeWindow(AGVNumber, timeEnterEdge)));
+            }
+        }
+        passingIntervals.sort();
+        loopIntervals.sort();
+        this.startQueue = startQueue;
+        this.endQueue = endQueue;
+        this.startQueueModificationCount = startQueue.getModificationCount();
+        this.endQueueModificationCount = endQueue.getModificationCount();
+    }
+
+    //The exit time is unknown if the AGV has no time window after it, it is checked when the interval is used
+    private static double getStartTime(SortedTimeWindowQueue queue, int index) {
+        return index == -1 ? Double.NaN : queue.getStartTime(index);
+    }
+
+    /**
+     * Check the AGVs going in the reverse direction: one passing the edge when the AGV is on it,
+     * or one looping back through the edge when the AGV exits it
+     * @param timeEnterPath The time the AGV enters the reverse edge
+     * @param timeExitPath The time the AGV leaves the reverse edge
+     * @return If there is a head-on conflict
+     */
+    boolean hasHeadOnConflict(double timeEnterPath, double timeExitPath) {
+        return passingIntervals.getLatestExitTimeEnteringTill(timeExitPath) >= timeEnterPath
+                || loopIntervals.getLatestExitTimeEnteringTill(timeExitPath) >= timeExitPath;
+    }
+
+    /**
+     * Check the AGVs going in the same direction: one entering earlier and exiting later than the AGV or the reverse,
+     * or one looping through the edge when the AGV enters it
+     * @param timeEnterPath The time the AGV enters the edge
+     * @param timeExitPath The time the AGV leaves the edge
+     * @return If there is a catch-up conflict
+     */
+    boolean hasCatchUpConflict(double timeEnterPath, double timeExitPath) {
+        if (passingIntervals.getLatestExitTimeEnteringBefore(timeEnterPath) > timeExitPath) {
+            return true;
+        }
+        //An interval exits no earlier than it enters, so the ones exiting before the AGV exits enter before that as well
+        if (passingIntervals.hasIntervalExitingBefore(timeEnterPath, timeExitPath)) {
+            return true;
+        }
+        return loopIntervals.getLatestExitTimeEnteringBefore(timeEnterPath) > timeEnterPath;
+    }
+
+    @Override
+    public String toString() {
+        return "EdgeOccupancy{" +
+                "startNode=" + startNode +
+                ", endNode=" + endNode +
+                '}';
+    }
+
+    //Intervals sorted by the time entering the edge
+    private class Intervals {
+
+        private double[] enterTimes = new double[4];
+        private double[] exitTimes = new double[4];
+        //The latest exit time of the intervals from the first one to each position
+        private double[] latestExitTimes = new double[4];
+        private int size = 0;
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(double enterTime, double exitTime) {
+            if (size == enterTimes.length) {
+                enterTimes = Arrays.copyOf(enterTimes, size * 2);
+                exitTimes = Arrays.copyOf(exitTimes, size * 2);
+                latestExitTimes = Arrays.copyOf(latestExitTimes, size * 2);
+            }
+            enterTimes[size] = enterTime;
+            exitTimes[size] = exitTime;
+            size++;
+        }
+
+        //The time windows are added in the order of start time, so the enter times are almost sorted already
+        void sort() {
+            for (int i = 1; i < size; i++) {
+                double enterTime = enterTimes[i];
+                double exitTime = exitTimes[i];
+                int j = i - 1;
+                while (j >= 0 && enterTimes[j] > enterTime) {
+                    enterTimes[j + 1] = enterTimes[j];
+                    exitTimes[j + 1] = exitTimes[j];
+                    j--;
+                }
+                enterTimes[j + 1] = enterTime;
+                exitTimes[j + 1] = exitTime;
+            }
+            double latestExitTime = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                //An unknown exit time stays unknown, so it is found by the check of any interval after it
+                latestExitTime = Math.max(latestExitTime, exitTimes[i]);
+                latestExitTimes[i] = latestExitTime;
+            }
+        }
+
+        /**
+         * @param time Time to compare
+         * @return The latest exit time of the intervals entering at or before the time
+         */
+        double getLatestExitTimeEnteringTill(double time) {
+            return getLatestExitTime(indexOfFirstEnteringAfter(time));
+        }
+
+        /**
+         * @param time Time to compare
+         * @return The latest exit time of the intervals entering before the time
+         */
+        double getLatestExitTimeEnteringBefore(double time) {
+            return getLatestExitTime(indexOfFirstEnteringFrom(time));
+        }
+
+        /**
+         * @param enterTime Time to compare
+         * @param exitTime Time to compare
+         * @return If there is an interval entering after the enter time and exiting before the exit time
+         */
+        boolean hasIntervalExitingBefore(double enterTime, double exitTime) {
+            for (int i = indexOfFirstEnteringAfter(enterTime); i < size && enterTimes[i] < exitTime; i++) {
+                checkExitTime(i);
+                if (exitTimes[i] < exitTime) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private double getLatestExitTime(int end) {
+            if (end == 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            if (Double.isNaN(latestExitTimes[end - 1])) {
+                for (int i = 0; i < end; i++) {
+                    checkExitTime(i);
+                }
+            }
+            return latestExitTimes[end - 1];
+        }
+
+        private void checkExitTime(int index) {
+            if (Double.isNaN(exitTimes[index])) {
+                throw new IllegalStateException("No time window is reserved after the AGV enters the edge from node "
+                        + startNode + " to node " + endNode + " at " + enterTimes[index] + "!");
+            }
+        }
+
+        //Position of the first interval entering at or after the time, size if there is none
+        private int indexOfFirstEnteringFrom(double time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (enterTimes[middle] < time) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        //Position of the first interval entering after the time, size if there is none
+        private int indexOfFirstEnteringAfter(double time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (enterTimes[middle] <= time) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EdgeOccupancyTest {
+
+    //AGV 0 passes the edge from node 0 to node 1 between time 2 and 6, AGV 1 loops at node 0 through node 1 between time 10 and 14.
+    private static SortedTimeWindowQueue[] createQueues() {
+        SortedTimeWindowQueue queueOfNode0 = new SortedTimeWindowQueue(4);
+        SortedTimeWindowQueue queueOfNode1 = new SortedTimeWindowQueue(4);
+        queueOfNode0.add(new TimeWindow(0, 1, 2, 0, 1, new int[]{0, 1, -1}));
+        queueOfNode1.add(new TimeWindow(1, 6, 7, 0, -1, new int[]{-1, -1, -1}));
+        queueOfNode0.add(new TimeWindow(0, 9, 10, 1, 0, new int[]{0, 1, 0}));
+        queueOfNode0.add(new TimeWindow(0, 14, 15, 1, -1, new int[]{-1, -1, -1}));
+        return new SortedTimeWindowQueue[]{queueOfNode0, queueOfNode1};
+    }
+
+    //An AGV going from node 1 to node 0 meets the AGV passing or looping in the reverse direction.
+    @Test
+    public void shouldHeadOnConflictBeFoundWithThePassingAndLoopingAGV() {
+        SortedTimeWindowQueue[] queues = createQueues();
+        EdgeOccupancy edgeOccupancy = new EdgeOccupancy(0, 1);
+        edgeOccupancy.update(queues[0], queues[1]);
+        assertTrue(edgeOccupancy.hasHeadOnConflict(5, 8));
+        assertTrue(edgeOccupancy.hasHeadOnConflict(0, 2));
+        assertFalse(edgeOccupancy.hasHeadOnConflict(7, 9));
+        assertTrue(edgeOccupancy.hasHeadOnConflict(11, 12));
+        assertFalse(edgeOccupancy.hasHeadOnConflict(15, 20));
+    }
+
+    //An AGV going from node 0 to node 1 conflicts with the one it catches up or is caught up by, or the looping one.
+    @Test
+    public void shouldCatchUpConflictBeFoundWithThePassingAndLoopingAGV() {
+        SortedTimeWindowQueue[] queues = createQueues();
+        EdgeOccupancy edgeOccupancy = new EdgeOccupancy(0, 1);
+        edgeOccupancy.update(queues[0], queues[1]);
+        assertTrue(edgeOccupancy.hasCatchUpConflict(1, 7));
+        assertTrue(edgeOccupancy.hasCatchUpConflict(3, 5));
+        assertFalse(edgeOccupancy.hasCatchUpConflict(1, 5));
+        assertFalse(edgeOccupancy.hasCatchUpConflict(3, 7));
+        assertFalse(edgeOccupancy.hasCatchUpConflict(2, 6));
+        assertTrue(edgeOccupancy.hasCatchUpConflict(12, 16));
+        assertFalse(edgeOccupancy.hasCatchUpConflict(14, 16));
+    }
+
+    //The occupancy should follow the change of the reserved time windows.
+    @Test
+    public void shouldOccupancyBeBuiltAgainWhenTheQueueIsChanged() {
+        SortedTimeWindowQueue[] queues = createQueues();
+        EdgeOccupancy edgeOccupancy = new EdgeOccupancy(0, 1);
+        edgeOccupancy.update(queues[0], queues[1]);
+        assertFalse(edgeOccupancy.hasHeadOnConflict(20, 22));
+        queues[0].add(new TimeWindow(0, 20, 21, 2, 1, new int[]{0, 1, -1}));
+        queues[1].add(new TimeWindow(1, 25, 26, 2, -1, new int[]{-1, -1, -1}));
+        edgeOccupancy.update(queues[0], queues[1]);
+        assertTrue(edgeOccupancy.hasHeadOnConflict(20, 22));
+    }
+}
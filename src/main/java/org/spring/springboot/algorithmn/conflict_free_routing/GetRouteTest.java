@@ -27,7 +27,8 @@ public class GetRouteTest {
         graph = CommonTestConstant.initializeGraph();
     }
 
-    //Start from source node 9, and try to add free time window in node 1. it should fail because no link exists.
+    //Start from source node 9, and try to route to the free time window in node 1. it should fail because no link exists,
+    //and the time window should not be labelled.
     @Test
     public void shouldNextPossibleTimeWindowNotBeAddedWhenItIsNotReachable() {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
@@ -42,25 +43,26 @@ public class GetRouteTest {
         freeTimeWindowList.get(0).add(endTimeWindow);
         freeTimeWindowList.get(9).add(currentTimeWindow);
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, task, graph, currentTimeWindow, bufferSet, CommonTestConstant.AGV_SPEED);
-        List<TimeWindow> occupiedTimeWindow = new ArrayList<>();
-        occupiedTimeWindow.add(currentTimeWindow);
-        List<TimeWindow> possibleTimeWindow = new ArrayList<>();
-        routing.findPossibleNextTimeWindow(endTimeWindow, occupiedTimeWindow, possibleTimeWindow);
-        assertEquals(0, possibleTimeWindow.size());
-        assertEquals(1, occupiedTimeWindow.size());
-        assertEquals(currentTimeWindow, occupiedTimeWindow.get(0));
+        try {
+            routing.getRoute();
+            fail("No path should be found to the time window which is not reachable!");
+        } catch (NoPathFeasibleException e) {
+            //The only free time window is not reachable
+        }
+        assertEquals(1, reservedTimeWindowList.get(9).size());
         assertEquals(CommonConstant.INFINITE, endTimeWindow.getLeastTimeReachHere(), 0.000000001);
         assertNull(endTimeWindow.getLastTimeWindow());
-        assertEquals(-1, (int) endTimeWindow.getPath()[0]);
+        assertEquals(-1, endTimeWindow.getPath()[0]);
     }
 
-    //Start from source node 9, and try to add free time window in node 4. it should succeed because there is a link and he time window is available.
+    //Start from source node 9, and try to route to the free time window in node 4. it should succeed because there is a link and
+    //the time window is available. The time window should be reached from the current time window.
     @Test
-    public void shouldNextPossibleTimeWindowBeAddedAndTimeWindowStatusChangesCorrectlyWhenItIsReachable() {
+    public void shouldNextPossibleTimeWindowBeAddedAndTimeWindowStatusChangesCorrectlyWhenItIsReachable() throws NoPathFeasibleException {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        int task = 0;
+        int task = 3;
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(9, 0, CommonConstant.INFINITE, 0, -1, 0);
         currentTimeWindow.setFirstStep(true);
@@ -69,19 +71,16 @@ public class GetRouteTest {
         freeTimeWindowList.get(3).add(endTimeWindow);
         freeTimeWindowList.get(9).add(currentTimeWindow);
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, task, graph, currentTimeWindow, bufferSet, CommonTestConstant.AGV_SPEED);
-        List<TimeWindow> occupiedTimeWindow = new ArrayList<>();
-        occupiedTimeWindow.add(currentTimeWindow);
-        List<TimeWindow> possibleTimeWindow = new ArrayList<>();
-        routing.findPossibleNextTimeWindow(endTimeWindow, occupiedTimeWindow, possibleTimeWindow);
-        assertEquals(1, possibleTimeWindow.size());
-        assertEquals(endTimeWindow, possibleTimeWindow.get(0));
-        assertEquals(1, occupiedTimeWindow.size());
-        assertEquals(currentTimeWindow, occupiedTimeWindow.get(0));
+        List<TimeWindow> path = routing.getRoute();
+        assertEquals(2, path.size());
+        assertEquals(currentTimeWindow, path.get(0));
+        assertEquals(endTimeWindow, path.get(1));
         assertEquals((CommonConstant.BUFFER_PATH_LENGTH) / 2.0, endTimeWindow.getLeastTimeReachHere(), 0.000000001);
         assertEquals(currentTimeWindow, endTimeWindow.getLastTimeWindow());
-        assertEquals(9, (int) endTimeWindow.getPath()[0]);
-        assertEquals(3, (int) endTimeWindow.getPath()[1]);
-        assertEquals(-1, (int) endTimeWindow.getPath()[2]);
+        //The buffer end node is converted back to the buffer node
+        assertEquals(105, endTimeWindow.getPath()[0]);
+        assertEquals(3, endTimeWindow.getPath()[1]);
+        assertEquals(-1, endTimeWindow.getPath()[2]);
     }
 
     //Given just one AGV and task started from node 10(start from the first buffer(right one)) to node 6, check if the path is one of the best one and the time calculation is correct.
@@ -115,9 +114,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow0.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow0.getStartTime(), 0.000000001);
         assertEquals(3, timeWindow0.getNextNodeNumber());
-        assertEquals(-1, (int) timeWindow0.getPath()[0]);
-        assertEquals(-1, (int) timeWindow0.getPath()[1]);
-        assertEquals(-1, (int) timeWindow0.getPath()[2]);
+        assertEquals(-1, timeWindow0.getPath()[0]);
+        assertEquals(-1, timeWindow0.getPath()[1]);
+        assertEquals(-1, timeWindow0.getPath()[2]);
 
         //Test for the second time window(node 4)
         double timeToReachNode4 = 0 + CommonConstant.BUFFER_PATH_LENGTH / CommonTestConstant.AGV_SPEED;
@@ -128,9 +127,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow1.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow1.getStartTime(), 0.000000001);
         assertTrue(timeWindow1.getNextNodeNumber() == 4);
-        assertEquals(105, (int) timeWindow1.getPath()[0]);
-        assertEquals(3, (int) timeWindow1.getPath()[1]);
-        assertEquals(-1, (int) timeWindow1.getPath()[2]);
+        assertEquals(105, timeWindow1.getPath()[0]);
+        assertEquals(3, timeWindow1.getPath()[1]);
+        assertEquals(-1, timeWindow1.getPath()[2]);
 
         //Test for third time window (node 5)
         double timeToReachNode5 = timeToReachNode4 + (8 + CommonConstant.CROSSING_DISTANCE) / CommonTestConstant.AGV_SPEED;
@@ -140,9 +139,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow2.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow2.getStartTime(), 0.000000001);
         assertTrue(timeWindow2.getNextNodeNumber() == 5);
-        assertEquals(3, (int) timeWindow2.getPath()[0]);
+        assertEquals(3, timeWindow2.getPath()[0]);
         assertTrue(timeWindow2.getPath()[1] == 4);
-        assertEquals(-1, (int) timeWindow2.getPath()[2]);
+        assertEquals(-1, timeWindow2.getPath()[2]);
 
 
         //Test for last time window(node 6)
@@ -155,8 +154,8 @@ public class GetRouteTest {
         assertEquals(0, timeWindow3.getStartTime(), 0.000000001);
         assertTrue(timeWindow3.getNextNodeNumber() == -1);
         assertTrue(timeWindow3.getPath()[0] == 4);
-        assertEquals(5, (int) timeWindow3.getPath()[1]);
-        assertEquals(-1, (int) timeWindow3.getPath()[2]);
+        assertEquals(5, timeWindow3.getPath()[1]);
+        assertEquals(-1, timeWindow3.getPath()[2]);
 
         //Test for free time window list
         Queue<TimeWindow> freeTimeWindowListForNode10 = freeTimeWindowList.get(9);
@@ -200,33 +199,33 @@ public class GetRouteTest {
         //Check the path of the reserved time window list
         Queue<TimeWindow> reservedTimeWindowListForNode10 = reservedTimeWindowList.get(9);
         assertEquals(3, reservedTimeWindowListForNode10.peek().getNextNodeNumber());
-        assertEquals(9, (int)reservedTimeWindowListForNode10.peek().getPath()[0]);
-        assertEquals(3, (int)reservedTimeWindowListForNode10.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode10.peek().getPath()[2]);
+        assertEquals(9, reservedTimeWindowListForNode10.peek().getPath()[0]);
+        assertEquals(3, reservedTimeWindowListForNode10.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode10.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode10.poll(), new TimeWindow(9, 0,CommonConstant.AGV_LENGTH / CommonTestConstant.AGV_SPEED,
                  0, 4));
 
         Queue<TimeWindow> reservedTimeWindowListForNode4 = reservedTimeWindowList.get(3);
         assertEquals(4, reservedTimeWindowListForNode4.peek().getNextNodeNumber());
-        assertEquals(3, (int)reservedTimeWindowListForNode4.peek().getPath()[0]);
-        assertEquals(4, (int)reservedTimeWindowListForNode4.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode4.peek().getPath()[2]);
+        assertEquals(3, reservedTimeWindowListForNode4.peek().getPath()[0]);
+        assertEquals(4, reservedTimeWindowListForNode4.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode4.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode4.poll(), new TimeWindow(3, 
                 timeToReachNode4, getCrossingTime(timeToReachNode4),
                 0, 4));
 
         Queue<TimeWindow> reservedTimeWindowListForNode5 = reservedTimeWindowList.get(4);
-        assertEquals(4, (int)reservedTimeWindowListForNode5.peek().getPath()[0]);
-        assertEquals(5, (int)reservedTimeWindowListForNode5.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode5.peek().getPath()[2]);
+        assertEquals(4, reservedTimeWindowListForNode5.peek().getPath()[0]);
+        assertEquals(5, reservedTimeWindowListForNode5.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode5.peek().getPath()[2]);
         assertEquals(5, reservedTimeWindowListForNode5.peek().getNextNodeNumber());
         assertTrue(reservedTimeWindowListForNode5.poll().equals(new TimeWindow(4,
                         timeToReachNode5, getCrossingTime(timeToReachNode5),0, 5)));
 
         Queue<TimeWindow> reservedTimeWindowListForNode6 = reservedTimeWindowList.get(5);
-        assertEquals(-1, (int)reservedTimeWindowListForNode6.peek().getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode6.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode6.peek().getPath()[2]);
+        assertEquals(-1, reservedTimeWindowListForNode6.peek().getPath()[0]);
+        assertEquals(-1, reservedTimeWindowListForNode6.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode6.peek().getPath()[2]);
         assertEquals(-1, reservedTimeWindowListForNode6.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode6.poll(), new TimeWindow(5,
                  timeToReachNode6, getCrossingTime(timeToReachNode6),0, -1));
@@ -253,9 +252,9 @@ public class GetRouteTest {
         TimeWindow currentTimeWindow = new TimeWindow(9, 0, CommonConstant.INFINITE, 0, -1, 0);
         currentTimeWindow.setFirstStep(true);
         TimeWindow reservedTimeWindow = new TimeWindow(9, 0, CommonConstant.INFINITE, 0, -1);
-        TimeWindow reservedTimeWindowForNode5 = new TimeWindow(4, 0, 1, 1, 3, new Integer[] {4, 3, -1});
-        TimeWindow reservedTimeWindowForNode4 = new TimeWindow(3, 5, 8, 1, 2, new Integer[] {3, 2, -1});
-        TimeWindow reservedTimeWindowForNode3 = new TimeWindow(2, 10, CommonConstant.INFINITE, 1, -1, new Integer[] {-1, -1, -1});
+        TimeWindow reservedTimeWindowForNode5 = new TimeWindow(4, 0, 1, 1, 3, new int[] {4, 3, -1});
+        TimeWindow reservedTimeWindowForNode4 = new TimeWindow(3, 5, 8, 1, 2, new int[] {3, 2, -1});
+        TimeWindow reservedTimeWindowForNode3 = new TimeWindow(2, 10, CommonConstant.INFINITE, 1, -1, new int[] {-1, -1, -1});
         reservedTimeWindowList.get(9).add(reservedTimeWindow);
         reservedTimeWindowList.get(4).add(reservedTimeWindowForNode5);
         reservedTimeWindowList.get(3).add(reservedTimeWindowForNode4);
@@ -288,9 +287,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow0.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow0.getStartTime(), 0.000000001);
         assertEquals(3, timeWindow0.getNextNodeNumber());
-        assertEquals(-1, (int) timeWindow0.getPath()[0]);
-        assertEquals(-1, (int) timeWindow0.getPath()[1]);
-        assertEquals(-1, (int) timeWindow0.getPath()[2]);
+        assertEquals(-1, timeWindow0.getPath()[0]);
+        assertEquals(-1, timeWindow0.getPath()[1]);
+        assertEquals(-1, timeWindow0.getPath()[2]);
 
         //Test for the second time window(node 4)
         double timeToReachNode4 = 0 + CommonConstant.BUFFER_PATH_LENGTH / CommonTestConstant.AGV_SPEED;
@@ -301,9 +300,9 @@ public class GetRouteTest {
         assertEquals(5, timeWindow1.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow1.getStartTime(), 0.000000001);
         assertEquals(8, timeWindow1.getNextNodeNumber());
-        assertEquals(105, (int) timeWindow1.getPath()[0]);
-        assertEquals(3, (int) timeWindow1.getPath()[1]);
-        assertEquals(-1, (int) timeWindow1.getPath()[2]);
+        assertEquals(105, timeWindow1.getPath()[0]);
+        assertEquals(3, timeWindow1.getPath()[1]);
+        assertEquals(-1, timeWindow1.getPath()[2]);
 
         //Test for third time window(node 9)
         double timeToReachNode9 = timeToReachNode4 + (10 + CommonConstant.CROSSING_DISTANCE) / CommonTestConstant.AGV_SPEED;
@@ -314,9 +313,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow2.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow2.getStartTime(), 0.000000001);
         assertEquals(5, timeWindow2.getNextNodeNumber());
-        assertEquals(3, (int) timeWindow2.getPath()[0]);
-        assertEquals(8, (int) timeWindow2.getPath()[1]);
-        assertEquals(-1, (int) timeWindow2.getPath()[2]);
+        assertEquals(3, timeWindow2.getPath()[0]);
+        assertEquals(8, timeWindow2.getPath()[1]);
+        assertEquals(-1, timeWindow2.getPath()[2]);
 
 
         //Test for last time window(node 6)
@@ -328,9 +327,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow3.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow3.getStartTime(), 0.000000001);
         assertEquals(-1, timeWindow3.getNextNodeNumber());
-        assertEquals(8, (int) timeWindow3.getPath()[0]);
-        assertEquals(5, (int) timeWindow3.getPath()[1]);
-        assertEquals(-1, (int) timeWindow3.getPath()[2]);
+        assertEquals(8, timeWindow3.getPath()[0]);
+        assertEquals(5, timeWindow3.getPath()[1]);
+        assertEquals(-1, timeWindow3.getPath()[2]);
 
         //Test for free time window list
         Queue<TimeWindow> freeTimeWindowListForNode10 = freeTimeWindowList.get(9);
@@ -382,18 +381,18 @@ public class GetRouteTest {
         //Test for reserved time window list
         //reserved time window needs to check the next node
         Queue<TimeWindow> reservedTimeWindowListForNode10 = reservedTimeWindowList.get(9);
-        assertEquals(9, (int)reservedTimeWindowListForNode10.peek().getPath()[0]);
-        assertEquals(3, (int)reservedTimeWindowListForNode10.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode10.peek().getPath()[2]);
+        assertEquals(9, reservedTimeWindowListForNode10.peek().getPath()[0]);
+        assertEquals(3, reservedTimeWindowListForNode10.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode10.peek().getPath()[2]);
         assertEquals(3, reservedTimeWindowListForNode10.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode10.poll(), new TimeWindow(9, 0,CommonConstant.AGV_LENGTH / CommonTestConstant.AGV_SPEED,
                 0));
 
         Queue<TimeWindow> reservedTimeWindowListForNode4 = reservedTimeWindowList.get(3);
         assertEquals(8, reservedTimeWindowListForNode4.peek().getNextNodeNumber());
-        assertEquals(3, (int)reservedTimeWindowListForNode4.peek().getPath()[0]);
-        assertEquals(8, (int)reservedTimeWindowListForNode4.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode4.peek().getPath()[2]);
+        assertEquals(3, reservedTimeWindowListForNode4.peek().getPath()[0]);
+        assertEquals(8, reservedTimeWindowListForNode4.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode4.peek().getPath()[2]);
         assertEquals(2, reservedTimeWindowListForNode4.size());
         assertEquals(reservedTimeWindowListForNode4.poll(), new TimeWindow(3,
                 timeToReachNode4, getCrossingTime(timeToReachNode4), 0));
@@ -401,32 +400,32 @@ public class GetRouteTest {
         assertEquals(reservedTimeWindowListForNode4.poll(), reservedTimeWindowForNode4);
 
         Queue<TimeWindow> reservedTimeWindowListForNode5 = reservedTimeWindowList.get(4);
-        assertEquals(4, (int)reservedTimeWindowListForNode5.peek().getPath()[0]);
-        assertEquals(3, (int)reservedTimeWindowListForNode5.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode5.peek().getPath()[2]);
+        assertEquals(4, reservedTimeWindowListForNode5.peek().getPath()[0]);
+        assertEquals(3, reservedTimeWindowListForNode5.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode5.peek().getPath()[2]);
         assertEquals(3, reservedTimeWindowListForNode5.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode5.poll(), reservedTimeWindowForNode5);
 
         Queue<TimeWindow> reservedTimeWindowListForNode9 = reservedTimeWindowList.get(8);
-        assertEquals(8, (int)reservedTimeWindowListForNode9.peek().getPath()[0]);
-        assertEquals(5, (int)reservedTimeWindowListForNode9.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode9.peek().getPath()[2]);
+        assertEquals(8, reservedTimeWindowListForNode9.peek().getPath()[0]);
+        assertEquals(5, reservedTimeWindowListForNode9.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode9.peek().getPath()[2]);
         assertEquals(5, reservedTimeWindowListForNode9.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode9.poll(), new TimeWindow(8,
                 timeToReachNode9, getCrossingTime(timeToReachNode9), 0, 5));
 
         Queue<TimeWindow> reservedTimeWindowListForNode6 = reservedTimeWindowList.get(5);
-        assertEquals(-1, (int)reservedTimeWindowListForNode6.peek().getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode6.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode6.peek().getPath()[2]);
+        assertEquals(-1, reservedTimeWindowListForNode6.peek().getPath()[0]);
+        assertEquals(-1, reservedTimeWindowListForNode6.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode6.peek().getPath()[2]);
         assertEquals(-1, reservedTimeWindowListForNode6.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode6.poll(), new TimeWindow(5,
                 timeToReachNode6, getCrossingTime(timeToReachNode6),0, -1));
 
         Queue<TimeWindow> reservedTimeWindowListForNode3 = reservedTimeWindowList.get(2);
-        assertEquals(-1, (int)reservedTimeWindowListForNode3.peek().getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode3.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode3.peek().getPath()[2]);
+        assertEquals(-1, reservedTimeWindowListForNode3.peek().getPath()[0]);
+        assertEquals(-1, reservedTimeWindowListForNode3.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode3.peek().getPath()[2]);
         assertEquals(-1, reservedTimeWindowListForNode3.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode3.poll(), reservedTimeWindowForNode3);
 
@@ -452,13 +451,13 @@ public class GetRouteTest {
         TimeWindow currentTimeWindow = new TimeWindow(9, 0, CommonConstant.INFINITE, 0, 0, 0);
         currentTimeWindow.setFirstStep(true);
         TimeWindow reservedTimeWindow = new TimeWindow(9, 0, CommonConstant.INFINITE, 0, -1);
-        TimeWindow reservedTimeWindowForNode2 = new TimeWindow(1, 0, 1, 1, 8, new Integer[]{1, 8, -1});
-        TimeWindow reservedTimeWindow1ForNode9 = new TimeWindow(8, 11, 12, 1, 7, new Integer[]{8, 7, -1});
-        TimeWindow reservedTimeWindowForNode8 = new TimeWindow(7, 14, 18, 1, 0, new Integer[]{7, 0, -1});
-        TimeWindow reservedTimeWindow2ForNode9 = new TimeWindow(8, 12, 15, 2, 3,new Integer[]{8, 3, -1});
-        TimeWindow reservedTimeWindow2ForNode4 = new TimeWindow(3, 18, CommonConstant.INFINITE, 2, -1, new Integer[]{-1, -1, -1});
-        TimeWindow reservedTimeWindow1ForNode4 = new TimeWindow(3, 4, 5, 2, 8, new Integer[]{3, 8, -1});
-        TimeWindow reservedTimeWindowForNode1= new TimeWindow(0, 20, CommonConstant.INFINITE, 1, -1, new Integer[]{-1, -1, -1});
+        TimeWindow reservedTimeWindowForNode2 = new TimeWindow(1, 0, 1, 1, 8, new int[]{1, 8, -1});
+        TimeWindow reservedTimeWindow1ForNode9 = new TimeWindow(8, 11, 12, 1, 7, new int[]{8, 7, -1});
+        TimeWindow reservedTimeWindowForNode8 = new TimeWindow(7, 14, 18, 1, 0, new int[]{7, 0, -1});
+        TimeWindow reservedTimeWindow2ForNode9 = new TimeWindow(8, 12, 15, 2, 3,new int[]{8, 3, -1});
+        TimeWindow reservedTimeWindow2ForNode4 = new TimeWindow(3, 18, CommonConstant.INFINITE, 2, -1, new int[]{-1, -1, -1});
+        TimeWindow reservedTimeWindow1ForNode4 = new TimeWindow(3, 4, 5, 2, 8, new int[]{3, 8, -1});
+        TimeWindow reservedTimeWindowForNode1= new TimeWindow(0, 20, CommonConstant.INFINITE, 1, -1, new int[]{-1, -1, -1});
         reservedTimeWindowList.get(9).add(reservedTimeWindow);
         reservedTimeWindowList.get(1).add(reservedTimeWindowForNode2);
         reservedTimeWindowList.get(8).add(reservedTimeWindow1ForNode9);
@@ -504,9 +503,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow0.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow0.getStartTime(), 0.000000001);
         assertEquals(3, timeWindow0.getNextNodeNumber());
-        assertEquals(-1, (int) timeWindow0.getPath()[0]);
-        assertEquals(-1, (int) timeWindow0.getPath()[1]);
-        assertEquals(-1, (int) timeWindow0.getPath()[2]);
+        assertEquals(-1, timeWindow0.getPath()[0]);
+        assertEquals(-1, timeWindow0.getPath()[1]);
+        assertEquals(-1, timeWindow0.getPath()[2]);
 
         //Test for the second time window(node 4)
         double timeToReachNode4 = 0 + CommonConstant.BUFFER_PATH_LENGTH / CommonTestConstant.AGV_SPEED;
@@ -517,9 +516,9 @@ public class GetRouteTest {
         assertEquals(4, timeWindow1.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow1.getStartTime(), 0.000000001);
         assertEquals(8, timeWindow1.getNextNodeNumber());
-        assertEquals(105, (int) timeWindow1.getPath()[0]);
-        assertEquals(3, (int) timeWindow1.getPath()[1]);
-        assertEquals(-1, (int) timeWindow1.getPath()[2]);
+        assertEquals(105, timeWindow1.getPath()[0]);
+        assertEquals(3, timeWindow1.getPath()[1]);
+        assertEquals(-1, timeWindow1.getPath()[2]);
 
         //Test for third time window(node 9)
         double timeToReachNode9 = timeToReachNode4 + (10 + CommonConstant.CROSSING_DISTANCE) / CommonTestConstant.AGV_SPEED;
@@ -530,9 +529,9 @@ public class GetRouteTest {
         assertEquals(11, timeWindow2.getEndTime(), 0.000000001);
         assertEquals(0, timeWindow2.getStartTime(), 0.000000001);
         assertEquals(8, timeWindow2.getNextNodeNumber());
-        assertEquals(3, (int) timeWindow2.getPath()[0]);
-        assertEquals(8, (int) timeWindow2.getPath()[1]);
-        assertEquals(-1, (int) timeWindow2.getPath()[2]);
+        assertEquals(3, timeWindow2.getPath()[0]);
+        assertEquals(8, timeWindow2.getPath()[1]);
+        assertEquals(-1, timeWindow2.getPath()[2]);
 
 
         //Test for fourth time window(node 9)
@@ -544,9 +543,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow3.getEndTime(), 0.000000001);
         assertEquals(15, timeWindow3.getStartTime(), 0.000000001);
         assertEquals(7, timeWindow3.getNextNodeNumber());
-        assertEquals(8, (int) timeWindow3.getPath()[0]);
-        assertEquals(5, (int) timeWindow3.getPath()[1]);
-        assertEquals(8, (int) timeWindow3.getPath()[2]);
+        assertEquals(8, timeWindow3.getPath()[0]);
+        assertEquals(5, timeWindow3.getPath()[1]);
+        assertEquals(8, timeWindow3.getPath()[2]);
 
         //Test for last time window(node 6)
         double timeToReachNode8 = loopTimeToReachNode9 + (10 + CommonConstant.CROSSING_DISTANCE) / CommonTestConstant.AGV_SPEED;
@@ -557,9 +556,9 @@ public class GetRouteTest {
         assertEquals(CommonConstant.INFINITE, timeWindow4.getEndTime(), 0.000000001);
         assertEquals(18, timeWindow4.getStartTime(), 0.000000001);
         assertEquals(-1, timeWindow4.getNextNodeNumber());
-        assertEquals(8, (int) timeWindow4.getPath()[0]);
-        assertEquals(7, (int) timeWindow4.getPath()[1]);
-        assertEquals(-1, (int) timeWindow4.getPath()[2]);
+        assertEquals(8, timeWindow4.getPath()[0]);
+        assertEquals(7, timeWindow4.getPath()[1]);
+        assertEquals(-1, timeWindow4.getPath()[2]);
 
         //Test for free time window list
         Queue<TimeWindow> freeTimeWindowListForNode10 = freeTimeWindowList.get(9);
@@ -616,85 +615,85 @@ public class GetRouteTest {
         //reserved time window needs to check the next node
         Queue<TimeWindow> reservedTimeWindowListForNode10 = reservedTimeWindowList.get(9);
         assertEquals(3, reservedTimeWindowListForNode10.peek().getNextNodeNumber());
-        assertEquals(9, (int)reservedTimeWindowListForNode10.peek().getPath()[0]);
-        assertEquals(3, (int)reservedTimeWindowListForNode10.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode10.peek().getPath()[2]);
+        assertEquals(9, reservedTimeWindowListForNode10.peek().getPath()[0]);
+        assertEquals(3, reservedTimeWindowListForNode10.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode10.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode10.poll(), new TimeWindow(9, 0,CommonConstant.AGV_LENGTH / CommonTestConstant.AGV_SPEED,
                 0, 4));
 
         Queue<TimeWindow> reservedTimeWindowListForNode4 = reservedTimeWindowList.get(3);
-        assertEquals(3, (int)reservedTimeWindowListForNode4.peek().getPath()[0]);
-        assertEquals(8, (int)reservedTimeWindowListForNode4.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode4.peek().getPath()[2]);
+        assertEquals(3, reservedTimeWindowListForNode4.peek().getPath()[0]);
+        assertEquals(8, reservedTimeWindowListForNode4.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode4.peek().getPath()[2]);
         assertEquals(8, reservedTimeWindowListForNode4.peek().getNextNodeNumber());
         assertEquals(3, reservedTimeWindowListForNode4.size());
         assertEquals(reservedTimeWindowListForNode4.poll(), new TimeWindow(3,
                 timeToReachNode4, 4, 0));
 
         assertEquals(8, reservedTimeWindowListForNode4.peek().getNextNodeNumber());
-        assertEquals(3, (int)reservedTimeWindowListForNode4.peek().getPath()[0]);
-        assertEquals(8, (int)reservedTimeWindowListForNode4.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode4.peek().getPath()[2]);
+        assertEquals(3, reservedTimeWindowListForNode4.peek().getPath()[0]);
+        assertEquals(8, reservedTimeWindowListForNode4.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode4.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode4.poll(), reservedTimeWindow1ForNode4);
         assertEquals(-1, reservedTimeWindowListForNode4.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode4.poll(), reservedTimeWindow2ForNode4);
 
         Queue<TimeWindow> reservedTimeWindowListForNode2 = reservedTimeWindowList.get(1);
         assertEquals(1, reservedTimeWindowListForNode2.size());
-        assertEquals(1, (int)reservedTimeWindowListForNode2.peek().getPath()[0]);
-        assertEquals(8, (int)reservedTimeWindowListForNode2.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode2.peek().getPath()[2]);
+        assertEquals(1, reservedTimeWindowListForNode2.peek().getPath()[0]);
+        assertEquals(8, reservedTimeWindowListForNode2.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode2.peek().getPath()[2]);
         assertEquals(8, reservedTimeWindowListForNode2.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode2.poll(), reservedTimeWindowForNode2);
 
         Queue<TimeWindow> reservedTimeWindowListForNode9 = reservedTimeWindowList.get(8);
         assertEquals(4, reservedTimeWindowListForNode9.size());
         assertEquals(8, reservedTimeWindowListForNode9.peek().getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindowListForNode9.peek().getPath()[0]);
-        assertEquals(5, (int)reservedTimeWindowListForNode9.peek().getPath()[1]);
-        assertEquals(8, (int)reservedTimeWindowListForNode9.peek().getPath()[2]);
+        assertEquals(8, reservedTimeWindowListForNode9.peek().getPath()[0]);
+        assertEquals(5, reservedTimeWindowListForNode9.peek().getPath()[1]);
+        assertEquals(8, reservedTimeWindowListForNode9.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode9.poll(), new TimeWindow(8,
                 timeToReachNode9, getCrossingTime(timeToReachNode9), 0));
 
         assertEquals(7, reservedTimeWindowListForNode9.peek().getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindowListForNode9.peek().getPath()[0]);
-        assertEquals(7, (int)reservedTimeWindowListForNode9.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode9.peek().getPath()[2]);
+        assertEquals(8, reservedTimeWindowListForNode9.peek().getPath()[0]);
+        assertEquals(7, reservedTimeWindowListForNode9.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode9.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode9.poll(), reservedTimeWindow1ForNode9);
 
         assertEquals(3, reservedTimeWindowListForNode9.peek().getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindowListForNode9.peek().getPath()[0]);
-        assertEquals(3, (int)reservedTimeWindowListForNode9.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode9.peek().getPath()[2]);
+        assertEquals(8, reservedTimeWindowListForNode9.peek().getPath()[0]);
+        assertEquals(3, reservedTimeWindowListForNode9.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode9.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode9.poll(), reservedTimeWindow2ForNode9);
 
         assertEquals(7, reservedTimeWindowListForNode9.peek().getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindowListForNode9.peek().getPath()[0]);
-        assertEquals(7, (int)reservedTimeWindowListForNode9.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode9.peek().getPath()[2]);
+        assertEquals(8, reservedTimeWindowListForNode9.peek().getPath()[0]);
+        assertEquals(7, reservedTimeWindowListForNode9.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode9.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode9.poll(), new TimeWindow(8,
                 loopTimeToReachNode9, getCrossingTime(loopTimeToReachNode9), 0, 0));
 
         Queue<TimeWindow> reservedTimeWindowListForNode8 = reservedTimeWindowList.get(7);
         assertEquals(2, reservedTimeWindowListForNode8.size());
         assertEquals(0, reservedTimeWindowListForNode8.peek().getNextNodeNumber());
-        assertEquals(7, (int)reservedTimeWindowListForNode8.peek().getPath()[0]);
-        assertEquals(0, (int)reservedTimeWindowListForNode8.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode8.peek().getPath()[2]);
+        assertEquals(7, reservedTimeWindowListForNode8.peek().getPath()[0]);
+        assertEquals(0, reservedTimeWindowListForNode8.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode8.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode8.poll(), reservedTimeWindowForNode8);
 
         assertEquals(-1, reservedTimeWindowListForNode8.peek().getNextNodeNumber());
-        assertEquals(-1, (int)reservedTimeWindowListForNode8.peek().getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode8.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode8.peek().getPath()[2]);
+        assertEquals(-1, reservedTimeWindowListForNode8.peek().getPath()[0]);
+        assertEquals(-1, reservedTimeWindowListForNode8.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode8.peek().getPath()[2]);
         assertEquals(reservedTimeWindowListForNode8.poll(), new TimeWindow(7,
                 timeToReachNode8, getCrossingTime(timeToReachNode8), 0, 0));
 
         Queue<TimeWindow> reservedTimeWindowListForNode1 = reservedTimeWindowList.get(0);
         assertEquals(1, reservedTimeWindowListForNode1.size());
-        assertEquals(-1, (int)reservedTimeWindowListForNode1.peek().getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode1.peek().getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowListForNode1.peek().getPath()[2]);
+        assertEquals(-1, reservedTimeWindowListForNode1.peek().getPath()[0]);
+        assertEquals(-1, reservedTimeWindowListForNode1.peek().getPath()[1]);
+        assertEquals(-1, reservedTimeWindowListForNode1.peek().getPath()[2]);
         assertEquals(-1, reservedTimeWindowListForNode1.peek().getNextNodeNumber());
         assertEquals(reservedTimeWindowListForNode1.poll(), reservedTimeWindowForNode1);
 
@@ -716,9 +715,9 @@ public class GetRouteTest {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
 
-        TimeWindow reservedTimeWindowForNode5 = new TimeWindow(4, 0, 1, 1, 3, new Integer[] {4, 3, -1});
-        TimeWindow reservedTimeWindowForNode4 = new TimeWindow(3, 5, 8, 1, 2, new Integer[] {3, 2, -1});
-        TimeWindow reservedTimeWindowForNode3 = new TimeWindow(2, 10, CommonConstant.INFINITE, 1, -1, new Integer[] {-1, -1, -1});
+        TimeWindow reservedTimeWindowForNode5 = new TimeWindow(4, 0, 1, 1, 3, new int[] {4, 3, -1});
+        TimeWindow reservedTimeWindowForNode4 = new TimeWindow(3, 5, 8, 1, 2, new int[] {3, 2, -1});
+        TimeWindow reservedTimeWindowForNode3 = new TimeWindow(2, 10, CommonConstant.INFINITE, 1, -1, new int[] {-1, -1, -1});
         reservedTimeWindowList.get(4).add(reservedTimeWindowForNode5);
         reservedTimeWindowList.get(3).add(reservedTimeWindowForNode4);
         reservedTimeWindowList.get(2).add(reservedTimeWindowForNode3);
@@ -801,13 +800,13 @@ public class GetRouteTest {
         //AGV 0
         TimeWindow currentTimeWindow = new TimeWindow(9, 0, CommonConstant.INFINITE, 0, -1, 0);
         currentTimeWindow.setFirstStep(true);
-        TimeWindow reservedTimeWindowForNode2 = new TimeWindow(1, 0, 1, 1, 8, new Integer[] {1, 8, -1});
-        TimeWindow reservedTimeWindow1ForNode9 = new TimeWindow(8, 11, 12, 1, 7, new Integer[] {8, 7, -1});
-        TimeWindow reservedTimeWindowForNode8 = new TimeWindow(7, 14, 18, 1, 0, new Integer[] {7, 0, -1});
-        TimeWindow reservedTimeWindow2ForNode9 = new TimeWindow(8, 12, 15, 2, 3, new Integer[] {8, 3, -1});
-        TimeWindow reservedTimeWindow2ForNode4 = new TimeWindow(3, 18, CommonConstant.INFINITE, 2, -1, new Integer[] {-1, -1, -1});
-        TimeWindow reservedTimeWindow1ForNode4 = new TimeWindow(3, 4, 5, 2, 8, new Integer[] {3, 8, -1});
-        TimeWindow reservedTimeWindowForNode1 = new TimeWindow(0, 20, CommonConstant.INFINITE, 1, -1, new Integer[] {-1, -1, -1});
+        TimeWindow reservedTimeWindowForNode2 = new TimeWindow(1, 0, 1, 1, 8, new int[] {1, 8, -1});
+        TimeWindow reservedTimeWindow1ForNode9 = new TimeWindow(8, 11, 12, 1, 7, new int[] {8, 7, -1});
+        TimeWindow reservedTimeWindowForNode8 = new TimeWindow(7, 14, 18, 1, 0, new int[] {7, 0, -1});
+        TimeWindow reservedTimeWindow2ForNode9 = new TimeWindow(8, 12, 15, 2, 3, new int[] {8, 3, -1});
+        TimeWindow reservedTimeWindow2ForNode4 = new TimeWindow(3, 18, CommonConstant.INFINITE, 2, -1, new int[] {-1, -1, -1});
+        TimeWindow reservedTimeWindow1ForNode4 = new TimeWindow(3, 4, 5, 2, 8, new int[] {3, 8, -1});
+        TimeWindow reservedTimeWindowForNode1 = new TimeWindow(0, 20, CommonConstant.INFINITE, 1, -1, new int[] {-1, -1, -1});
         reservedTimeWindowList.get(1).add(reservedTimeWindowForNode2);
         reservedTimeWindowList.get(8).add(reservedTimeWindow1ForNode9);
         reservedTimeWindowList.get(8).add(reservedTimeWindow2ForNode9);
@@ -910,22 +909,22 @@ public class GetRouteTest {
         TimeWindow reservedTimeWindowForNode9 = reservedTimeWindows.get(2);
         assertEquals(reservedTimeWindowInNode9, reservedTimeWindowForNode9);
         assertEquals(1, reservedTimeWindowForNode9.getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindowForNode9.getPath()[0]);
-        assertEquals(1, (int)reservedTimeWindowForNode9.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode9.getPath()[2]);
+        assertEquals(8, reservedTimeWindowForNode9.getPath()[0]);
+        assertEquals(1, reservedTimeWindowForNode9.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode9.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode2 = reservedTimeWindows.get(0);
         assertEquals(reservedTimeWindowInNode2, reservedTimeWindowForNode2);
         assertEquals(2, reservedTimeWindowForNode2.getNextNodeNumber());
-        assertEquals(1, (int)reservedTimeWindowForNode2.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode2.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode2.getPath()[2]);
+        assertEquals(1, reservedTimeWindowForNode2.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode2.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode2.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode3 = reservedTimeWindows.get(1);
         assertEquals(reservedTimeWindowInNode3, reservedTimeWindowForNode3);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[2]);
         assertEquals(-1, reservedTimeWindowForNode3.getNextNodeNumber());
     }
 
@@ -966,15 +965,15 @@ public class GetRouteTest {
         TimeWindow reservedTimeWindowForNode2 = reservedTimeWindows.get(0);
         assertEquals(reservedTimeWindowInNode2, reservedTimeWindowForNode2);
         assertEquals(2, reservedTimeWindowForNode2.getNextNodeNumber());
-        assertEquals(1, (int)reservedTimeWindowForNode2.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode2.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode2.getPath()[2]);
+        assertEquals(1, reservedTimeWindowForNode2.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode2.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode2.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode3 = reservedTimeWindows.get(1);
         assertEquals(reservedTimeWindowInNode3, reservedTimeWindowForNode3);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[2]);
         assertEquals(-1, reservedTimeWindowForNode3.getNextNodeNumber());
     }
 
@@ -1014,15 +1013,15 @@ public class GetRouteTest {
         TimeWindow reservedTimeWindowForNode2 = reservedTimeWindows.get(0);
         assertEquals(reservedTimeWindowInNode2, reservedTimeWindowForNode2);
         assertEquals(2, reservedTimeWindowForNode2.getNextNodeNumber());
-        assertEquals(1, (int)reservedTimeWindowForNode2.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode2.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode2.getPath()[2]);
+        assertEquals(1, reservedTimeWindowForNode2.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode2.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode2.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode3 = reservedTimeWindows.get(1);
         assertEquals(reservedTimeWindowInNode3, reservedTimeWindowForNode3);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[2]);
         assertEquals(-1, reservedTimeWindowForNode3.getNextNodeNumber());
     }
 
@@ -1062,15 +1061,15 @@ public class GetRouteTest {
         TimeWindow reservedTimeWindowForNode2 = reservedTimeWindows.get(0);
         assertEquals(reservedTimeWindowInNode2, reservedTimeWindowForNode2);
         assertEquals(2, reservedTimeWindowForNode2.getNextNodeNumber());
-        assertEquals(1, (int)reservedTimeWindowForNode2.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode2.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode2.getPath()[2]);
+        assertEquals(1, reservedTimeWindowForNode2.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode2.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode2.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode3 = reservedTimeWindows.get(1);
         assertEquals(reservedTimeWindowInNode3, reservedTimeWindowForNode3);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[2]);
         assertEquals(-1, reservedTimeWindowForNode3.getNextNodeNumber());
     }
 
@@ -1110,15 +1109,15 @@ public class GetRouteTest {
         TimeWindow reservedTimeWindowForNode2 = reservedTimeWindows.get(0);
         assertEquals(reservedTimeWindowInNode2, reservedTimeWindowForNode2);
         assertEquals(2, reservedTimeWindowForNode2.getNextNodeNumber());
-        assertEquals(1, (int)reservedTimeWindowForNode2.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode2.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode2.getPath()[2]);
+        assertEquals(1, reservedTimeWindowForNode2.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode2.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode2.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode3 = reservedTimeWindows.get(1);
         assertEquals(reservedTimeWindowInNode3, reservedTimeWindowForNode3);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[2]);
         assertEquals(-1, reservedTimeWindowForNode3.getNextNodeNumber());
     }
 
@@ -1164,31 +1163,31 @@ public class GetRouteTest {
         TimeWindow reservedTimeWindowForNode2 = reservedTimeWindows.get(0);
         assertEquals(reservedTimeWindowInNode2, reservedTimeWindowForNode2);
         assertEquals(2, reservedTimeWindowForNode2.getNextNodeNumber());
-        assertEquals(1, (int)reservedTimeWindowForNode2.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode2.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode2.getPath()[2]);
+        assertEquals(1, reservedTimeWindowForNode2.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode2.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode2.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode3 = reservedTimeWindows.get(1);
         assertEquals(reservedTimeWindowInNode3, reservedTimeWindowForNode3);
         assertEquals(-1, reservedTimeWindowForNode3.getNextNodeNumber());
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[2]);
 
 
         TimeWindow reservedTimeWindowForNode9 = reservedTimeWindows.get(2);
         assertEquals(reservedTimeWindowInNode9, reservedTimeWindowForNode9);
         assertEquals(8, reservedTimeWindowForNode9.getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindowForNode9.getPath()[0]);
-        assertEquals(7, (int)reservedTimeWindowForNode9.getPath()[1]);
-        assertEquals(8, (int)reservedTimeWindowForNode9.getPath()[2]);
+        assertEquals(8, reservedTimeWindowForNode9.getPath()[0]);
+        assertEquals(7, reservedTimeWindowForNode9.getPath()[1]);
+        assertEquals(8, reservedTimeWindowForNode9.getPath()[2]);
 
         TimeWindow reservedTimeWindow1ForNode9 = reservedTimeWindows.get(3);
         assertEquals(reservedTimeWindow1InNode9, reservedTimeWindow1ForNode9);
         assertEquals(1, reservedTimeWindow1ForNode9.getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindow1ForNode9.getPath()[0]);
-        assertEquals(1, (int)reservedTimeWindow1ForNode9.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindow1ForNode9.getPath()[2]);
+        assertEquals(8, reservedTimeWindow1ForNode9.getPath()[0]);
+        assertEquals(1, reservedTimeWindow1ForNode9.getPath()[1]);
+        assertEquals(-1, reservedTimeWindow1ForNode9.getPath()[2]);
     }
 
     @Test
@@ -1246,38 +1245,38 @@ public class GetRouteTest {
         TimeWindow reservedTimeWindowForNode2 = reservedTimeWindows.get(0);
         assertEquals(reservedTimeWindowInNode2, reservedTimeWindowForNode2);
         assertEquals(2, reservedTimeWindowForNode2.getNextNodeNumber());
-        assertEquals(1, (int)reservedTimeWindowForNode2.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode2.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode2.getPath()[2]);
+        assertEquals(1, reservedTimeWindowForNode2.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode2.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode2.getPath()[2]);
 
         TimeWindow reservedTimeWindowForNode3 = reservedTimeWindows.get(1);
         assertEquals(reservedTimeWindowInNode3, reservedTimeWindowForNode3);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode3.getPath()[2]);
         assertEquals(-1, reservedTimeWindowForNode3.getNextNodeNumber());
 
         TimeWindow anotherReservedTimeWindowForNode3 = reservedTimeWindows.get(2);
         assertEquals(anotherReservedTimeWindowInNode3, anotherReservedTimeWindowForNode3);
-        assertEquals(-1, (int)anotherReservedTimeWindowForNode3.getPath()[0]);
-        assertEquals(-1, (int)anotherReservedTimeWindowForNode3.getPath()[1]);
-        assertEquals(-1, (int)anotherReservedTimeWindowForNode3.getPath()[2]);
+        assertEquals(-1, anotherReservedTimeWindowForNode3.getPath()[0]);
+        assertEquals(-1, anotherReservedTimeWindowForNode3.getPath()[1]);
+        assertEquals(-1, anotherReservedTimeWindowForNode3.getPath()[2]);
         assertEquals(-1, anotherReservedTimeWindowForNode3.getNextNodeNumber());
 
         TimeWindow reservedTimeWindowForNode4 = reservedTimeWindows.get(3);
         assertEquals(reservedTimeWindowInNode4, reservedTimeWindowForNode4);
-        assertEquals(3, (int)reservedTimeWindowForNode4.getPath()[0]);
-        assertEquals(2, (int)reservedTimeWindowForNode4.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode4.getPath()[2]);
+        assertEquals(3, reservedTimeWindowForNode4.getPath()[0]);
+        assertEquals(2, reservedTimeWindowForNode4.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode4.getPath()[2]);
         assertEquals(2, reservedTimeWindowForNode4.getNextNodeNumber());
 
 
         TimeWindow reservedTimeWindowForNode9 = reservedTimeWindows.get(4);
         assertEquals(reservedTimeWindowInNode9, reservedTimeWindowForNode9);
         assertEquals(1, reservedTimeWindowForNode9.getNextNodeNumber());
-        assertEquals(8, (int)reservedTimeWindowForNode9.getPath()[0]);
-        assertEquals(1, (int)reservedTimeWindowForNode9.getPath()[1]);
-        assertEquals(-1, (int)reservedTimeWindowForNode9.getPath()[2]);
+        assertEquals(8, reservedTimeWindowForNode9.getPath()[0]);
+        assertEquals(1, reservedTimeWindowForNode9.getPath()[1]);
+        assertEquals(-1, reservedTimeWindowForNode9.getPath()[2]);
     }
 
     //Set 2 reserved time windows for node 4 and 1 for node 5 and node 3 to stand for the path 4--5--4--3--...
@@ -1346,4 +1345,86 @@ public class GetRouteTest {
     }
 
 
+
+    //Labels given by a search should be out of date once the next search starts, and be reset when the time window is labelled again.
+    @Test
+    public void shouldLabelsBeOutOfDateWhenTheNextSearchStarts() {
+        RoutingSearch search = new RoutingSearch();
+        TimeWindow timeWindow = new TimeWindow(0, 0, CommonConstant.INFINITE);
+        timeWindow.label(search);
+        timeWindow.setLeastTimeReachHere(3);
+        timeWindow.setSettled(true);
+        timeWindow.label(search);
+        assertEquals(3, timeWindow.getLeastTimeReachHere(), 0.0000000001);
+        assertTrue(timeWindow.isSettled());
+        search.next();
+        assertEquals(CommonConstant.INFINITE, timeWindow.getLeastTimeReachHere(), 0.0000000001);
+        assertFalse(timeWindow.isSettled());
+        timeWindow.label(search);
+        assertEquals(CommonConstant.INFINITE, timeWindow.getLeastTimeReachHere(), 0.0000000001);
+        //Another routing should not see the labels of this one
+        timeWindow.setLeastTimeReachHere(2);
+        timeWindow.label(new RoutingSearch());
+        assertEquals(CommonConstant.INFINITE, timeWindow.getLeastTimeReachHere(), 0.0000000001);
+    }
+
+    //The routing directed to the end node should arrive at the same time as the one settling by the least time to reach.
+    @Test
+    public void shouldGoalDirectedRoutingArriveAtTheSameTime() throws NoPathFeasibleException {
+        List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
+        for (int startNode = 0; startNode < 9; startNode++) {
+            for (int endNode = 0; endNode < 9; endNode++) {
+                double[] timeOfPath = new double[2];
+                for (int i = 0; i < 2; i++) {
+                    Routing routing = new Routing(graph, bufferSet, CommonTestConstant.AGV_SPEED, 10);
+                    routing.setGoalDirected(i == 1);
+                    routing.setFreeTimeWindow();
+                    for (Path path : routing.getPath(startNode, 0, 0, endNode)) {
+                        timeOfPath[i] += path.getTime();
+                    }
+                }
+                assertEquals(timeOfPath[0], timeOfPath[1], 0.0000000001);
+            }
+        }
+    }
+
+    //AGV 0 goes 9--1 first, so AGV 1 going 2--6 cannot take 2--9--6 and detours by 2--1--8--7--6.
+    //The routing directed to the end node should take the same detour at the same times.
+    @Test
+    public void shouldGoalDirectedRoutingTakeTheSameDetourAroundAReservedPath() throws NoPathFeasibleException {
+        List<Path> path = getPathAfterAGV0(false, 8, 0, 1, 5);
+        assertEquals(path, getPathAfterAGV0(true, 8, 0, 1, 5));
+        assertEquals(4, path.size());
+        assertTrue(getTimeOfPath(path) > getTimeOfPath(getPathAfterAGV0(false, -1, -1, 1, 5)));
+    }
+
+    //AGV 0 goes 9--4 first, so AGV 1 going 4--8 has to loop to 3 and back while AGV 0 passes, and then goes 4--9--8.
+    //The routing directed to the end node should wait in the same way and arrive at the same time.
+    @Test
+    public void shouldGoalDirectedRoutingWaitForAReservedPathInTheSameWay() throws NoPathFeasibleException {
+        List<Path> path = getPathAfterAGV0(false, 8, 3, 3, 7);
+        assertEquals(path, getPathAfterAGV0(true, 8, 3, 3, 7));
+        assertTrue(path.get(0).isLoop());
+        assertTrue(getTimeOfPath(path) > getTimeOfPath(getPathAfterAGV0(false, -1, -1, 3, 7)));
+    }
+
+    //Route AGV 0 without directing the search, unless its start node is -1, and then route AGV 1 on the time windows left
+    private List<Path> getPathAfterAGV0(boolean goalDirected, int startNodeOfAGV0, int endNodeOfAGV0, int startNode, int endNode)
+            throws NoPathFeasibleException {
+        Routing routing = new Routing(graph, CommonTestConstant.getBufferForTestGraph2(), CommonTestConstant.AGV_SPEED, 10);
+        routing.setFreeTimeWindow();
+        if (startNodeOfAGV0 >= 0) {
+            routing.getPath(startNodeOfAGV0, 0, 0, endNodeOfAGV0);
+        }
+        routing.setGoalDirected(goalDirected);
+        return routing.getPath(startNode, 0, 1, endNode);
+    }
+
+    private double getTimeOfPath(List<Path> path) {
+        double time = 0;
+        for (Path pathOfEdge : path) {
+            time += pathOfEdge.getTime();
+        }
+        return time;
+    }
 }
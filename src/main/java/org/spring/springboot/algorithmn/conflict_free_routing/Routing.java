@@ -1,9 +1,10 @@
 package org.spring.springboot.algorithmn.conflict_free_routing;
 import org.spring.springboot.algorithmn.common.CommonConstant;
 import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.SolverMetrics;
+import org.spring.springboot.algorithmn.common.SparseGraph;
 import org.spring.springboot.algorithmn.exception.NoPathFeasibleException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 //This is the algorithm to calculate the conflict-free route for one AGV given the current time windows.
 public class Routing {
@@ -15,26 +16,47 @@ public class Routing {
     private List<Queue<TimeWindow>> reservedTimeWindowList;
     //The endNode for the specific AGV to go
     private int endNode;
-    private double[][] graph;
+    //Graph with buffer end node shared by the routings of the same layout
+    private RoutingGraph routingGraph;
+    private SparseGraph graph;
     //Current time window the AGV occupies. It contains the time the AGV is available. It should also contain the AGV number for reference.
     //But it will not contain the path. The next time window will start to contain path info.
     private TimeWindow currentTimeWindow;
-    //Consider the buffer information by conversing the graph to the special one with buffer added to it
-    //Use map to store the mapped buffer node value
-    private HashMap<Integer, Integer> graphNodeToBuffer = new HashMap<>();
     private double speed;
     private int initialCapacity;
     private int graphNodeNumber;
     private int originalGraphNodeNumber;
+    //Search labelling the time windows, it moves on to forget all the labels at once
+    private final RoutingSearch search = new RoutingSearch();
+    //If the search is directed to the end node, and the least distance from each node to the end node of the current routing
+    private boolean goalDirected = false;
+    private double[] leastDistancesToEndNode;
+    //Occupancy of each directed edge of the graph, built when it is checked
+    private EdgeOccupancy[] edgeOccupancies;
+    //Search state reused by every routing, so a routing allocates as little as possible: the reachable time windows,
+    //the path of the time window being relaxed, and the nodes incident to a node with the ones excluded from a loop
+    private TimeWindowHeap possibleTimeWindows;
+    private final int[] possiblePath = {-1, -1, -1};
+    private int[] incidentNodes = new int[0];
+    private boolean[] isIncidentNodeExcluded = new boolean[0];
+    //Undo journals of the time windows changed since the checkpoint, null if no checkpoint is marked
+    private TimeWindowJournal freeTimeWindowJournal;
+    private TimeWindowJournal reservedTimeWindowJournal;
+    //Metrics of the solve the routing is for, null if they are not collected
+    private SolverMetrics metrics;
+    //Time windows settled and relaxed, and the reachability checked, by the routing being run
+    private long settledTimeWindows;
+    private long scannedTimeWindows;
+    private long conflictChecks;
     Routing() {
 
     }
 
     Routing(List<Queue<TimeWindow>> freeTimeWindowList, List<Queue<TimeWindow>> reservedTimeWindowList, int endNode, double[][] graph, TimeWindow currentTimeWindow, List<List<Integer>> bufferSet, double speed) {
         this.freeTimeWindowList = freeTimeWindowList;
-        this.reservedTimeWindowList = reservedTimeWindowList;
+        this.reservedTimeWindowList = indexReservedTimeWindowList(reservedTimeWindowList);
         this.endNode = endNode;
-        this.graph = initializeGraphWithBufferEndNode(graph, bufferSet);
+        setRoutingGraph(new RoutingGraph(graph, bufferSet));
         this.currentTimeWindow = currentTimeWindow;
         this.speed = speed;
     }
@@ -42,23 +64,115 @@ public class Routing {
     //Used for test situation with some initial time window
     Routing(List<Queue<TimeWindow>> freeTimeWindowList, List<Queue<TimeWindow>> reservedTimeWindowList, double[][] graph, List<List<Integer>> bufferSet, double speed) {
         this.freeTimeWindowList = freeTimeWindowList;
-        this.reservedTimeWindowList = reservedTimeWindowList;
-        this.graph = initializeGraphWithBufferEndNode(graph, bufferSet);
+        this.reservedTimeWindowList = indexReservedTimeWindowList(reservedTimeWindowList);
+        setRoutingGraph(new RoutingGraph(graph, bufferSet));
         this.speed = speed;
     }
     //Used for realistic situation without initial time window
     public Routing(double[][] graph, List<List<Integer>> bufferSet, double speed, int initialCapacity) {
-        this.originalGraphNodeNumber = graph.length;
-        this.graph = initializeGraphWithBufferEndNode(graph, bufferSet);
-        this.graphNodeNumber = this.graph.length;
+        this(new RoutingGraph(graph, bufferSet), speed, initialCapacity);
+    }
+
+    /**
+     * Create the routing with its own time windows on the shared graph, it is cheap enough to create one for each individual
+     * @param routingGraph Graph with buffer end node built once for the layout
+     * @param speed Speed of AGV
+     * @param initialCapacity Initial capacity of the time windows in each node
+     */
+    public Routing(RoutingGraph routingGraph, double speed, int initialCapacity) {
+        setRoutingGraph(routingGraph);
+        this.graphNodeNumber = routingGraph.getGraphNodeNumber();
         this.initialCapacity = initialCapacity;
         this.freeTimeWindowList = initTimeWindowList(graphNodeNumber, initialCapacity);
-        this.reservedTimeWindowList = initTimeWindowList(graphNodeNumber, initialCapacity);
+        this.reservedTimeWindowList = initReservedTimeWindowList(graphNodeNumber, initialCapacity);
         //Create free time window for all nodes
         initializeFreeTimeWindowList(graphNodeNumber);
         this.speed = speed;
     }
 
+    //Used for the routing starting from the time windows of the snapshot
+    Routing(RoutingSnapshot routingSnapshot) {
+        setRoutingGraph(routingSnapshot.getRoutingGraph());
+        this.graphNodeNumber = routingGraph.getGraphNodeNumber();
+        this.initialCapacity = routingSnapshot.getInitialCapacity();
+        this.freeTimeWindowList = routingSnapshot.createFreeTimeWindowList();
+        this.reservedTimeWindowList = routingSnapshot.createReservedTimeWindowList();
+        this.speed = routingSnapshot.getSpeed();
+    }
+
+    /**
+     * Take the current time windows as a snapshot, so other routings can start from them without setting them again
+     * @return Snapshot of the time windows
+     */
+    public RoutingSnapshot createSnapshot() {
+        return new RoutingSnapshot(routingGraph, speed, initialCapacity, freeTimeWindowList, reservedTimeWindowList);
+    }
+
+    /**
+     * Mark the current time windows as the checkpoint. From now on every change of the time windows is journaled,
+     * so the routing can be rolled back and reused instead of creating a new one.
+     */
+    public void markCheckpoint() {
+        if (freeTimeWindowJournal == null) {
+            freeTimeWindowJournal = new TimeWindowJournal(freeTimeWindowList.size());
+            reservedTimeWindowJournal = new TimeWindowJournal(reservedTimeWindowList.size());
+        }
+        freeTimeWindowJournal.clear();
+        reservedTimeWindowJournal.clear();
+    }
+
+    /**
+     * Roll the time windows back to the checkpoint, only the nodes changed since the checkpoint are restored.
+     * The checkpoint is kept, so the routing can be rolled back to it again.
+     */
+    public void rollbackToCheckpoint() {
+        if (freeTimeWindowJournal == null) {
+            throw new IllegalStateException("Checkpoint should be marked before rolling back!");
+        }
+        //A routing stopped by an exception leaves its labels in the time windows
+        search.next();
+        for (int i = 0; i < freeTimeWindowJournal.getChangedNodeNumber(); i++) {
+            int nodeNumber = freeTimeWindowJournal.getChangedNode(i);
+            Queue<TimeWindow> freeTimeWindows = freeTimeWindowList.get(nodeNumber);
+            freeTimeWindowJournal.restore(nodeNumber, freeTimeWindows);
+            //The free time windows in the path are changed when they are reserved
+            for (TimeWindow freeTimeWindow : freeTimeWindows) {
+                freeTimeWindow.resetFreeTimeWindow(nodeNumber);
+            }
+        }
+        for (int i = 0; i < reservedTimeWindowJournal.getChangedNodeNumber(); i++) {
+            int nodeNumber = reservedTimeWindowJournal.getChangedNode(i);
+            reservedTimeWindowJournal.restore(nodeNumber, reservedTimeWindowList.get(nodeNumber));
+        }
+        freeTimeWindowJournal.clear();
+        reservedTimeWindowJournal.clear();
+    }
+
+    //Free time windows of the node which are going to be changed, they are journaled first if there is a checkpoint
+    private Queue<TimeWindow> changeFreeTimeWindows(int nodeNumber) {
+        Queue<TimeWindow> freeTimeWindows = freeTimeWindowList.get(nodeNumber);
+        if (freeTimeWindowJournal != null) {
+            freeTimeWindowJournal.record(nodeNumber, freeTimeWindows);
+        }
+        return freeTimeWindows;
+    }
+
+    //Reserved time windows of the node which are going to be changed, they are journaled first if there is a checkpoint
+    private Queue<TimeWindow> changeReservedTimeWindows(int nodeNumber) {
+        Queue<TimeWindow> reservedTimeWindows = reservedTimeWindowList.get(nodeNumber);
+        if (reservedTimeWindowJournal != null) {
+            reservedTimeWindowJournal.record(nodeNumber, reservedTimeWindows);
+        }
+        return reservedTimeWindows;
+    }
+
+    private void setRoutingGraph(RoutingGraph routingGraph) {
+        this.routingGraph = routingGraph;
+        this.graph = routingGraph.getGraph();
+        this.edgeOccupancies = null;
+        this.originalGraphNodeNumber = routingGraph.getOriginalGraphNodeNumber();
+    }
+
     List<Queue<TimeWindow>> getFreeTimeWindowList() {
         return freeTimeWindowList;
     }
@@ -84,6 +198,24 @@ public class Routing {
         this.endNode = endNode;
     }
 
+    /**
+     * Set if the time windows are settled in the order of the least time to reach the end node through them, rather than
+     * the least time to reach them. The routing arrives at the same time with much fewer time windows settled, but it may
+     * take another path of the same time when there are several.
+     * @param goalDirected True to direct the search to the end node
+     */
+    public void setGoalDirected(boolean goalDirected) {
+        this.goalDirected = goalDirected;
+    }
+
+    /**
+     * Set the metrics to record the latency and the search of each routing into
+     * @param metrics Metrics of the solve, null to collect nothing
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public void setInitialCapacity(int initialCapacity) {
         this.initialCapacity = initialCapacity;
     }
@@ -99,6 +231,34 @@ public class Routing {
         return timeWindowList;
     }
 
+    //Initialize the reserved time window list for the graph, the reserved time windows are sorted and indexed for the conflict check
+    private static List<Queue<TimeWindow>> initReservedTimeWindowList(int graphNodeNumber, int initialCapacity) {
+        List<Queue<TimeWindow>> timeWindowList = new ArrayList<>(graphNodeNumber);
+        for (int i = 0; i < graphNodeNumber; i++) {
+            timeWindowList.add(new SortedTimeWindowQueue(initialCapacity));
+        }
+        return timeWindowList;
+    }
+
+    /**
+     * Replace the reserved time windows of each node by the sorted queue in place, so the ones already added are kept
+     * @param reservedTimeWindowList Reserved time windows given
+     * @return The same list with sorted queues
+     */
+    private static List<Queue<TimeWindow>> indexReservedTimeWindowList(List<Queue<TimeWindow>> reservedTimeWindowList) {
+        for (int i = 0; i < reservedTimeWindowList.size(); i++) {
+            reservedTimeWindowList.set(i, asSortedQueue(reservedTimeWindowList.get(i)));
+        }
+        return reservedTimeWindowList;
+    }
+
+    private static SortedTimeWindowQueue asSortedQueue(Queue<TimeWindow> timeWindows) {
+        if (timeWindows instanceof SortedTimeWindowQueue) {
+            return (SortedTimeWindowQueue) timeWindows;
+        }
+        return new SortedTimeWindowQueue(timeWindows);
+    }
+
     /**
      *
      * @param nodeNumber Node number of the current position
@@ -109,6 +269,29 @@ public class Routing {
      * @throws NoPathFeasibleException No feasible path to be found.
      */
     public List<Path> getPath(int nodeNumber, double leastTimeReachHere, int indexOfAGV, int terminalNode) throws NoPathFeasibleException {
+        if (metrics == null) {
+            return findPath(nodeNumber, leastTimeReachHere, indexOfAGV, terminalNode);
+        }
+        long startTime = System.nanoTime();
+        settledTimeWindows = 0;
+        scannedTimeWindows = 0;
+        conflictChecks = 0;
+        boolean isFound = false;
+        try {
+            List<Path> paths = findPath(nodeNumber, leastTimeReachHere, indexOfAGV, terminalNode);
+            isFound = true;
+            return paths;
+        }
+        finally {
+            metrics.record(SolverMetrics.Phase.ROUTING, System.nanoTime() - startTime);
+            metrics.increment(isFound ? SolverMetrics.Counter.ROUTES : SolverMetrics.Counter.ROUTING_FAILURES);
+            metrics.add(SolverMetrics.Counter.TIME_WINDOWS_SETTLED, settledTimeWindows);
+            metrics.add(SolverMetrics.Counter.TIME_WINDOWS_SCANNED, scannedTimeWindows);
+            metrics.add(SolverMetrics.Counter.CONFLICT_CHECKS, conflictChecks);
+        }
+    }
+
+    private List<Path> findPath(int nodeNumber, double leastTimeReachHere, int indexOfAGV, int terminalNode) throws NoPathFeasibleException {
         //To prevent searching buffer node, first transfer the buffer node number into graph node number
         if ((graphNodeNumber = findGraphNumberFromBufferNumber(nodeNumber)) != -1) {
             nodeNumber = graphNodeNumber;
@@ -147,11 +330,8 @@ public class Routing {
             }
             paths.add(path);
         }
-        //Clear the least time reach here in free time window
-        List<TimeWindow> freeTimeWindows = freeTimeWindowList.stream().flatMap(Queue::stream).collect(Collectors.toList());
-        for (TimeWindow timeWindow : freeTimeWindows) {
-            timeWindow.setLeastTimeReachHere(CommonConstant.INFINITE);
-        }
+        //Clear the least time reach here in the time windows labelled by this routing
+        search.next();
         return paths;
     }
 
@@ -162,39 +342,43 @@ public class Routing {
      */
     List<TimeWindow> getRoute() throws NoPathFeasibleException {
         List<TimeWindow> path = new ArrayList<>();
-        //The time window has been included in the path
-        List<TimeWindow> occupiedTimeWindows = new ArrayList<>();
-        //The time window is free and reachable.
-        List<TimeWindow> possibleTimeWindows = new ArrayList<>();
+        //The time window is free and reachable, the one with least time to reach is at the head.
+        if (possibleTimeWindows == null) {
+            possibleTimeWindows = new TimeWindowHeap(initialCapacity);
+        }
+        //It may be left with time windows if the last routing finds no path
+        possibleTimeWindows.clear();
         int indexOfAGV = currentTimeWindow.getAGVNumber();
         //Easy to be removed from the free time window using path info
         currentTimeWindow.setAGVNumber(-1);
         TimeWindow headTimeWindow = currentTimeWindow;
-        occupiedTimeWindows.add(headTimeWindow);
-        boolean isPathFound = false;
+        //The labels of the last search are out of date from now on
+        search.next();
+        leastDistancesToEndNode = goalDirected && endNode >= 0 && endNode < graph.getNodeNumber()
+                ? routingGraph.getLeastDistancesTo(endNode) : null;
+        headTimeWindow.label(search);
+        headTimeWindow.setSettled(true);
         TimeWindow endTimeWindow = null;
-        while(!isPathFound) {
-            //Find all the elements that are reachable from the occupied time window
-            List<TimeWindow> possibleNextTimeWindows = freeTimeWindowList.stream().flatMap(Queue::stream).collect(Collectors.toList());
-            for (TimeWindow possibleNextTimeWindow : possibleNextTimeWindows) {
-                findPossibleNextTimeWindow(possibleNextTimeWindow, occupiedTimeWindows, possibleTimeWindows);
-            }
-            //Find the head time window by checking the time window with least time to get to it
-            headTimeWindow = possibleTimeWindows.stream().min(Comparator.comparing(TimeWindow::getLeastTimeReachHere)).orElse(null);
+        while (endTimeWindow == null) {
+            //Only the time windows in the same node and the nearby nodes can be reached from the newly settled time window
+            expandTimeWindow(headTimeWindow, possibleTimeWindows);
             if (possibleTimeWindows.isEmpty()) {
+                search.next();
                 throw new NoPathFeasibleException("Cannot find any possible time window to form the path!");
             }
-            possibleTimeWindows.remove(headTimeWindow);
-            occupiedTimeWindows.add(headTimeWindow);
+            //Find the head time window by checking the time window with least time to get to it
+            headTimeWindow = possibleTimeWindows.poll();
+            headTimeWindow.setSettled(true);
+            settledTimeWindows++;
             //If the endNode is got, break the loop
-            for (TimeWindow possibleEndTimeWindow: occupiedTimeWindows) {
-                if (possibleEndTimeWindow.getNodeNumber() == endNode) {
-                    isPathFound = true;
-                    endTimeWindow = possibleEndTimeWindow;
-                    break;
-                }
+            if (currentTimeWindow.getNodeNumber() == endNode) {
+                endTimeWindow = currentTimeWindow;
+            }
+            else if (headTimeWindow.getNodeNumber() == endNode) {
+                endTimeWindow = headTimeWindow;
             }
         }
+        possibleTimeWindows.clear();
         //Add all time windows into the path with correct order
         TimeWindow pathTimeWindow = endTimeWindow;
         while (pathTimeWindow != null) {
@@ -207,7 +391,7 @@ public class Routing {
 
         //Change the time window list owing to the newly created time window path
         //Remove the current time window from reserved time window, should add the AGV number for verification
-        reservedTimeWindowList.get(currentTimeWindow.getNodeNumber()).remove(currentTimeWindow);
+        changeReservedTimeWindows(currentTimeWindow.getNodeNumber()).remove(currentTimeWindow);
         int countOfPath = 0;
         for (TimeWindow newPath: path) {
             int nodeNumber = newPath.getNodeNumber();
@@ -221,20 +405,20 @@ public class Routing {
                 endTime = getTimeCrossTheCrossing(startTime, speed);
             }
             int nextNodeNumber = newPath.getNextNodeNumber();
-            Integer[] pathForTimeWindow = {nodeNumber, nextNodeNumber, -1};
+            int[] pathForTimeWindow = {nodeNumber, nextNodeNumber, -1};
             //Last path
             if (countOfPath == path.size() - 1) {
-                pathForTimeWindow = new Integer[]{-1, -1, -1};
+                pathForTimeWindow = new int[]{-1, -1, -1};
             }
             //It is a loop time window and it must have next path.
             if (nextNodeNumber == nodeNumber) {
                 TimeWindow nextPath = path.get(countOfPath + 1);
-                pathForTimeWindow = new Integer[] {nodeNumber, nextPath.getPath()[1], nodeNumber};
+                pathForTimeWindow = new int[] {nodeNumber, nextPath.getPath()[1], nodeNumber};
             }
             //Generate corresponding reserved time window
             TimeWindow newReservedTimeWindow = new TimeWindow(nodeNumber, startTime, endTime, indexOfAGV, nextNodeNumber, pathForTimeWindow);
-            Queue<TimeWindow> freeTimeWindowsForThisNode = freeTimeWindowList.get(nodeNumber);
-            Queue<TimeWindow> reservedTimeWindowsForThisNode = reservedTimeWindowList.get(nodeNumber);
+            Queue<TimeWindow> freeTimeWindowsForThisNode = changeFreeTimeWindows(nodeNumber);
+            Queue<TimeWindow> reservedTimeWindowsForThisNode = changeReservedTimeWindows(nodeNumber);
             freeTimeWindowsForThisNode.remove(newPath);
             reservedTimeWindowsForThisNode.add(newReservedTimeWindow);
             double freeTimeWindowEndTime = newPath.getEndTime();
@@ -258,13 +442,13 @@ public class Routing {
         }
         //Convert the buffer node number to the original one
         for (TimeWindow newPath : path) {
-            if (graphNodeToBuffer.containsKey(newPath.getNodeNumber())) {
-                newPath.setNodeNumber(graphNodeToBuffer.get(newPath.getNodeNumber()));
+            if (routingGraph.isBufferEndNode(newPath.getNodeNumber())) {
+                newPath.setNodeNumber(routingGraph.findBufferNumberFromGraphNumber(newPath.getNodeNumber()));
             }
             for (int i = 0; i < newPath.getPath().length; i++) {
                 int nodeNumber = newPath.getPath()[i];
-                if (nodeNumber != -1 && graphNodeToBuffer.containsKey(nodeNumber)) {
-                    newPath.setNodeNumberInPath(graphNodeToBuffer.get(nodeNumber), i);
+                if (nodeNumber != -1 && routingGraph.isBufferEndNode(nodeNumber)) {
+                    newPath.setNodeNumberInPath(routingGraph.findBufferNumberFromGraphNumber(nodeNumber), i);
                 }
             }
         }
@@ -273,20 +457,49 @@ public class Routing {
 
 
     /**
-     * Labeling process
-     * Check if the time window is reachable form the occupied time window, if so, add it to the possible time window
-     * If the time to reach from some occupied time window is less, change the current time window, path and time of the possible next time window to the less one
+     * Labeling process for the newly settled time window
+     * Relax the free time windows in the same node and its nearby nodes. Nodes are visited in ascending order to keep
+     * the same order of reachable time windows as checking all of the free time windows.
+     * @param headTimeWindow The newly settled time window
+     * @param possibleTimeWindows Possible time windows that can be reached
+     */
+    private void expandTimeWindow(TimeWindow headTimeWindow, TimeWindowHeap possibleTimeWindows) {
+        int headNode = headTimeWindow.getNodeNumber();
+        boolean isHeadNodeVisited = false;
+        for (int edge = graph.getFirstEdge(headNode); edge < graph.getEndEdge(headNode); edge++) {
+            int nearbyNode = graph.getEndNode(edge);
+            if (nearbyNode == headNode) {
+                continue;
+            }
+            if (!isHeadNodeVisited && headNode < nearbyNode) {
+                relaxTimeWindowsInNode(headNode, headTimeWindow, possibleTimeWindows);
+                isHeadNodeVisited = true;
+            }
+            relaxTimeWindowsInNode(nearbyNode, headTimeWindow, possibleTimeWindows);
+        }
+        if (!isHeadNodeVisited) {
+            relaxTimeWindowsInNode(headNode, headTimeWindow, possibleTimeWindows);
+        }
+    }
+
+    private void relaxTimeWindowsInNode(int nodeNumber, TimeWindow headTimeWindow, TimeWindowHeap possibleTimeWindows) {
+        for (TimeWindow possibleNextTimeWindow : freeTimeWindowList.get(nodeNumber)) {
+            relaxTimeWindow(possibleNextTimeWindow, headTimeWindow, possibleTimeWindows);
+        }
+    }
+
+    /**
+     * Check if the time window is reachable from the newly settled time window. If the time is less, change the time,
+     * path and last time window of it and put it into the possible time windows.
      * @param possibleNextTimeWindow Potential time window that can be used as the next one
-     * @param occupiedTimeWindow All of the current time windows having the minimum distance path
-     * @param possibleTimeWindow possible time window that can be reached
+     * @param headTimeWindow The newly settled time window
+     * @param possibleTimeWindows Possible time windows that can be reached
      */
-    void findPossibleNextTimeWindow(TimeWindow possibleNextTimeWindow, List<TimeWindow> occupiedTimeWindow, List<TimeWindow> possibleTimeWindow) {
-        //Time window, time and path for the least time
-        double minimumTimeToReachTimeWindow = CommonConstant.INFINITE;
-        TimeWindow minimumTimeWindow = null;
-        Integer[] minimumPath = {-1, -1, -1};
-        //should not be the same time window in the occupied time window
-        if (occupiedTimeWindow.contains(possibleNextTimeWindow)) {
+    private void relaxTimeWindow(TimeWindow possibleNextTimeWindow, TimeWindow headTimeWindow, TimeWindowHeap possibleTimeWindows) {
+        scannedTimeWindows++;
+        possibleNextTimeWindow.label(search);
+        //should not be the settled time window, the current time window may also be listed in the free time windows
+        if (possibleNextTimeWindow.isSettled() || possibleNextTimeWindow.equals(currentTimeWindow)) {
             return;
         }
         //Don't loop when the time interval is too short to get through the time window
@@ -294,41 +507,41 @@ public class Routing {
                 speed, possibleNextTimeWindow.getStartTime(), possibleNextTimeWindow.getEndTime()) == -1) {
             return;
         }
-        //Find the least time required to go to the time window
-        for (TimeWindow headTimeWindow: occupiedTimeWindow) {
-            double timeToReachTimeWindow = CommonConstant.INFINITE;
-            Integer[] possiblePath = {-1, -1, -1};
-            //It has the same node number, test the reachability by using the testReachabilityForSameNode
-            if (headTimeWindow.getNodeNumber() == possibleNextTimeWindow.getNodeNumber()) {
-                timeToReachTimeWindow = testReachabilityForSameNode(possibleNextTimeWindow, headTimeWindow, possiblePath, speed);
-            }
-            //It has the different node number, test the reachability by using the testReachabilityForDifferentNode
-            else if (headTimeWindow.getNodeNumber() != possibleNextTimeWindow.getNodeNumber()) {
-                timeToReachTimeWindow = testReachabilityForDifferentNode(possibleNextTimeWindow, headTimeWindow, possiblePath, speed);
-            }
-            if (timeToReachTimeWindow < minimumTimeToReachTimeWindow) {
-                minimumTimeToReachTimeWindow = timeToReachTimeWindow;
-                minimumPath = possiblePath;
-                minimumTimeWindow = headTimeWindow;
-            }
+        double timeToReachTimeWindow;
+        conflictChecks++;
+        if (headTimeWindow.getNodeNumber() == possibleNextTimeWindow.getNodeNumber()) {
+            timeToReachTimeWindow = testReachabilityForSameNode(possibleNextTimeWindow, headTimeWindow, possiblePath, speed);
+        }
+        else {
+            timeToReachTimeWindow = testReachabilityForDifferentNode(possibleNextTimeWindow, headTimeWindow, possiblePath, speed);
+        }
+        if (timeToReachTimeWindow >= possibleNextTimeWindow.getLeastTimeReachHere()) {
+            return;
+        }
+        possibleNextTimeWindow.setLeastTimeReachHere(timeToReachTimeWindow);
+        //The path is reused by the next relaxation, so it is copied into the time window
+        int[] pathOfTimeWindow = possibleNextTimeWindow.getPath();
+        if (pathOfTimeWindow != null && pathOfTimeWindow.length == possiblePath.length) {
+            System.arraycopy(possiblePath, 0, pathOfTimeWindow, 0, possiblePath.length);
         }
-        // Less time required to go for the time window, so change the previous one
-        if (minimumTimeToReachTimeWindow < possibleNextTimeWindow.getLeastTimeReachHere()) {
-            possibleNextTimeWindow.setLeastTimeReachHere(minimumTimeToReachTimeWindow);
-            possibleNextTimeWindow.setPath(minimumPath);
-            possibleNextTimeWindow.setLastTimeWindow(minimumTimeWindow);
+        else {
+            possibleNextTimeWindow.setPath(possiblePath.clone());
         }
-        //Add it to the possible time window if it's reachable and it's not in the list
-        if (possibleNextTimeWindow.getLeastTimeReachHere() < CommonConstant.INFINITE
-                && !possibleTimeWindow.contains(possibleNextTimeWindow)) {
-            possibleTimeWindow.add(possibleNextTimeWindow);
+        possibleNextTimeWindow.setLastTimeWindow(headTimeWindow);
+        //The time to the end node is never overestimated, so the first time window settled in the end node is still the earliest
+        possibleNextTimeWindow.setLeastTimeToEndNode(leastDistancesToEndNode == null ? 0
+                : leastDistancesToEndNode[possibleNextTimeWindow.getNodeNumber()] / speed);
+        if (possibleTimeWindows.contains(possibleNextTimeWindow)) {
+            possibleTimeWindows.decreaseKey(possibleNextTimeWindow);
+        }
+        else {
+            possibleTimeWindows.add(possibleNextTimeWindow);
         }
     }
 
-
     //for testing
     Map<Integer, Integer> getGraphNodeToBuffer() {
-        return graphNodeToBuffer;
+        return routingGraph.getGraphNodeToBuffer();
     }
 
     /**
@@ -338,37 +551,8 @@ public class Routing {
      * @return Special graph contains the end node of buffers
      */
     double[][] initializeGraphWithBufferEndNode(double[][] graph, List<List<Integer>> bufferSet) {
-        if (bufferSet == null) {
-            return  graph;
-        }
-        int originalGraphSize = graph[0].length;
-        int bufferNumber = bufferSet.size();
-        int newGraphSize = originalGraphSize + bufferNumber;
-        double[][] newGraph = new double[newGraphSize][newGraphSize];
-        for (int i = 0; i < newGraphSize; i++) {
-            for (int j = 0; j < newGraphSize; j++) {
-                //The original graph should be reserved
-                if (i < originalGraphSize && j < originalGraphSize) {
-                    newGraph[i][j] = graph[i][j];
-                }
-                //The other part should remain infinite at first
-                else {
-                    newGraph[i][j] = CommonConstant.MAX_EDGE;
-                }
-            }
-        }
-        //Number of buffer
-        int index = 0;
-        //To store the actual number of the node into the map to fetch and set the linking relationship between buffer end node and graph node
-        for (List<Integer> bufferPath : bufferSet) {
-            int bufferSize = bufferPath.size();
-            int actualNodeNumber = bufferPath.get(bufferSize - 2);
-            int nodeLinkingBufferAndGraph = bufferPath.get(bufferSize - 1);
-            graphNodeToBuffer.put(originalGraphSize + index, actualNodeNumber);
-            newGraph[index + originalGraphSize][nodeLinkingBufferAndGraph] = CommonConstant.BUFFER_PATH_LENGTH;
-            index++;
-        }
-        return newGraph;
+        setRoutingGraph(new RoutingGraph(graph, bufferSet));
+        return this.graph.toAdjacencyMatrix();
     }
 
     /**
@@ -378,9 +562,8 @@ public class Routing {
      * @param speed Speed of AGV
      * @return Time required to go for the path, to the end node
      */
-    double testReachabilityForSameNode(TimeWindow endTimeWindow, TimeWindow currentTimeWindow, Integer[] path, double speed) {
+    double testReachabilityForSameNode(TimeWindow endTimeWindow, TimeWindow currentTimeWindow, int[] path, double speed) {
         int endNode = endTimeWindow.getNodeNumber();
-        int length = graph.length;
         //Initialize the path
         path[0] = -1;
         path[1] = -1;
@@ -389,49 +572,78 @@ public class Routing {
         if (endTimeWindow.getStartTime() < currentTimeWindow.getStartTime()) {
             return CommonConstant.INFINITE;
         }
-        ArrayList<Integer> incidentNodes = new ArrayList<>();// All lanes(node number) incident to node i
-        for(int i = 0; i < length && i != endNode; i++){
-            if (graph[endNode][i] != CommonConstant.MAX_EDGE && graph[i][endNode] != CommonConstant.MAX_EDGE) {
-                incidentNodes.add(i);
+        // All lanes(node number) incident to node i, in ascending order
+        int numberOfIncidentNodes = 0;
+        int numberOfEdges = graph.getEndEdge(endNode) - graph.getFirstEdge(endNode);
+        if (incidentNodes.length < numberOfEdges) {
+            incidentNodes = new int[numberOfEdges];
+            isIncidentNodeExcluded = new boolean[numberOfEdges];
+        }
+        //Only the nodes numbered before the end node are checked
+        for (int edge = graph.getFirstEdge(endNode); edge < graph.getEndEdge(endNode); edge++) {
+            int i = graph.getEndNode(edge);
+            if (i >= endNode) {
+                break;
+            }
+            if (graph.hasEdge(i, endNode)) {
+                isIncidentNodeExcluded[numberOfIncidentNodes] = false;
+                incidentNodes[numberOfIncidentNodes++] = i;
             }
         }
         //if incidentNodes is empty, then return(no lanes icident to node i)
-        if(incidentNodes.isEmpty())
+        if(numberOfIncidentNodes == 0)
             return CommonConstant.INFINITE;
 
-        //Find all reserve time windows between 2 free time windows and find all the lanes these cars will use to get in and out
-        Set<Integer> temp = new HashSet<>();
-        Queue<TimeWindow> reservedTimeWindowsInEndNode = reservedTimeWindowList.get(endNode);
-        for(TimeWindow t : reservedTimeWindowsInEndNode) {
+        //Find all reserve time windows between 2 free time windows and exclude all the lanes these cars will use to get in and out
+        SortedTimeWindowQueue reservedTimeWindowsInEndNode = asSortedQueue(reservedTimeWindowList.get(endNode));
+        //Only the time windows starting between the 2 free time windows are checked
+        int lastIndex = reservedTimeWindowsInEndNode.indexOfFirstStartingAfter(endTimeWindow.getStartTime());
+        for (int i = reservedTimeWindowsInEndNode.indexOfFirstStartingFrom(currentTimeWindow.getEndTime()); i < lastIndex; i++) {
             //To include the loop time window, we should use the path to check the outward direction
-            if (t.getStartTime() >= currentTimeWindow.getEndTime() &&
-                    t.getEndTime() <= endTimeWindow.getStartTime()) {
-                    temp.add(t.getPath()[1]);
+            if (reservedTimeWindowsInEndNode.getEndTime(i) <= endTimeWindow.getStartTime()) {
+                excludeIncidentNode(reservedTimeWindowsInEndNode.getPathNode(i, 1), numberOfIncidentNodes);
                 //Find the path going to the end time window
-                for (Integer incidentNode: incidentNodes) {
-                    TimeWindow lastTimeWindow = findLastTimeWindow(endNode, incidentNode, t.getStartTime(), t.getAGVNumber(), reservedTimeWindowList);
-                    if (lastTimeWindow != null) {
-                        int lastTimeWindowStartNode = lastTimeWindow.getNodeNumber();
-                        temp.add(lastTimeWindowStartNode);
+                for (int j = 0; j < numberOfIncidentNodes; j++) {
+                    int incidentNode = incidentNodes[j];
+                    int lastIndexOfAGV = asSortedQueue(reservedTimeWindowList.get(incidentNode)).indexOfLastTimeWindow(
+                            reservedTimeWindowsInEndNode.getAGVNumber(i), endNode, reservedTimeWindowsInEndNode.getStartTime(i));
+                    //The time window found is in the incident node
+                    if (lastIndexOfAGV != -1) {
+                        excludeIncidentNode(incidentNode, numberOfIncidentNodes);
                     }
                 }
             }
         }
-        //Find if there are lanes available for the loop
-        incidentNodes.removeAll(temp);
+        //Find if there are lanes available for the loop, the first one is used
+        int availableIncidentNode = -1;
+        for (int j = 0; j < numberOfIncidentNodes; j++) {
+            if (!isIncidentNodeExcluded[j]) {
+                availableIncidentNode = incidentNodes[j];
+                break;
+            }
+        }
 
         //if no avaliable lanes, then return
-        if(incidentNodes.isEmpty()) {
+        if(availableIncidentNode == -1) {
             return CommonConstant.INFINITE;
         }
 
         path[0] = endNode;
-        path[1] = incidentNodes.get(0);
+        path[1] = availableIncidentNode;
         path[2] = endNode;
 
         return endTimeWindow.getStartTime();
     }
 
+    private void excludeIncidentNode(int nodeNumber, int numberOfIncidentNodes) {
+        for (int j = 0; j < numberOfIncidentNodes; j++) {
+            if (incidentNodes[j] == nodeNumber) {
+                isIncidentNodeExcluded[j] = true;
+                return;
+            }
+        }
+    }
+
     /**
      * Test if one time window is reachable for the other different one and return the path and minimum time required to travel
      * @param endTimeWindow Possible Destination time window
@@ -440,7 +652,7 @@ public class Routing {
      * @param speed Speed of AGV
      * @return Time to reach the end node (start side of the crossing) from the time leaving the start time window
      */
-    double testReachabilityForDifferentNode(TimeWindow endTimeWindow, TimeWindow currentTimeWindow, Integer[] path, double speed) {
+    double testReachabilityForDifferentNode(TimeWindow endTimeWindow, TimeWindow currentTimeWindow, int[] path, double speed) {
         double currentAGVStartTime;
         //For the special case when the AGV starts to move first time in initial condition where the AGV locates at the end of the crossing
         if (currentTimeWindow.isFirstStep() && currentTimeWindow.getLeastTimeReachHere() == 0) {
@@ -456,11 +668,12 @@ public class Routing {
         path[1] = -1;
         path[2] = -1;
         //Check for space availability
-        if (graph[startNode][endNode] == CommonConstant.MAX_EDGE) {
+        int edge = graph.findEdge(startNode, endNode);
+        if (edge == -1) {
             return CommonConstant.INFINITE;
         }
         //Check for time availability. If the free time window is long enough for the AGV to pass the crossing
-        double distance = graph[startNode][endNode];
+        double distance = graph.getEdgeDistance(edge);
         //The time for the AGV to reach the entrance edge of crossing
         double timeToReachCrossing =  (distance - CommonConstant.AGV_LENGTH) / speed + currentAGVStartTime;
         //Check for the time availability
@@ -502,36 +715,8 @@ public class Routing {
      * @return If there is no head-on conflict
      */
     boolean noHeadOnConflict(int startNode, int endNode, double timeEnterPath, double timeExitPath) {
-        for (TimeWindow reverseAGVStartTimeWindow : reservedTimeWindowList.get(endNode)) {
-            int AGVNumber = reverseAGVStartTimeWindow.getAGVNumber();
-            //The time AGV has entered the edge
-            double reverseAGVStartTime = reverseAGVStartTimeWindow.getEndTime();
-            //One AGV comes into the edge in the reverse direction
-            if (reverseAGVStartTimeWindow.getNextNodeNumber() == startNode) {
-                TimeWindow reverseAGVEndTimeWindow = findNextTimeWindow(startNode, reverseAGVStartTime, AGVNumber, reservedTimeWindowList);
-                //The time AGV starts to leave the edge
-                double reverseAGVEndTime = reverseAGVEndTimeWindow.getStartTime();
-                //The other AGV comes before the AGV leaves and leaves after the AGV comes. It's a conflict.
-                if (reverseAGVStartTime <= timeExitPath &&
-                        reverseAGVEndTime >= timeEnterPath) {
-                    return false;
-                }
-            }
-            //consider the conflict generated by looping routing behavior
-            else if (reverseAGVStartTimeWindow.getPath()[1] == startNode && reverseAGVStartTimeWindow.getPath()[2] == endNode) {
-                TimeWindow reverseAGVEndTimeWindow = findNextTimeWindow(endNode, reverseAGVStartTime, AGVNumber, reservedTimeWindowList);
-                //The time AGV starts to leave the edge
-                if (reverseAGVEndTimeWindow == null) {
-                    System.out.println("null pointer");
-                }
-                double reverseAGVEndTime = reverseAGVEndTimeWindow.getStartTime();
-                //When the AGV exits at the time the reverseAGV still locates at the path, the conflict happens
-                if (timeExitPath <= reverseAGVEndTime && timeExitPath >= reverseAGVStartTime) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        //The reverse AGV passes or loops through the edge from the end node to the start node
+        return !getEdgeOccupancy(endNode, startNode).hasHeadOnConflict(timeEnterPath, timeExitPath);
     }
 
     /**
@@ -543,14 +728,9 @@ public class Routing {
      * @return Next Time Window
      */
     TimeWindow findNextTimeWindow(int nextNode, double startTime, int AGVNumber, List<Queue<TimeWindow>> reservedTimeWindowList) {
-        for (TimeWindow timeWindows : reservedTimeWindowList.get(nextNode)) {
-            //First time window the specific AGV arrives
-            //When it's in the buffer, the next time window start time can be equal to the current time window end time
-            if (timeWindows.getStartTime() >= startTime && timeWindows.getAGVNumber() == AGVNumber) {
-                return timeWindows;
-            }
-        }
-        return null;
+        //First time window the specific AGV arrives
+        //When it's in the buffer, the next time window start time can be equal to the current time window end time
+        return asSortedQueue(reservedTimeWindowList.get(nextNode)).findNextTimeWindow(AGVNumber, startTime);
     }
 
     /**
@@ -564,15 +744,8 @@ public class Routing {
      * @return Next Time Window
      */
     TimeWindow findLastTimeWindow(int endNode, int lastNode, double startTime, int indexOfAGV, List<Queue<TimeWindow>> reservedTimeWindowList) {
-        TimeWindow lastTimeWindow = null;
-        for (TimeWindow timeWindows : reservedTimeWindowList.get(lastNode)) {
-            //Last time window the specific AGV comes from, do not worry about the loop time window
-            if (timeWindows.getStartTime() <= startTime && timeWindows.getAGVNumber() == indexOfAGV
-                    && timeWindows.getNextNodeNumber() == endNode) {
-                lastTimeWindow =  timeWindows;
-            }
-        }
-        return lastTimeWindow;
+        //Last time window the specific AGV comes from, do not worry about the loop time window
+        return asSortedQueue(reservedTimeWindowList.get(lastNode)).findLastTimeWindow(indexOfAGV, endNode, startTime);
     }
 
     /**
@@ -592,38 +765,36 @@ public class Routing {
      * @return If there is no catch-up conflict
      */
     boolean noCatchUpConflict(int startNode, int endNode, double timeEnterPath, double timeExitPath) {
-        for (TimeWindow otherAGVStartTimeWindow : reservedTimeWindowList.get(startNode)) {
-            //The time AGV has entered the edge
-            double otherAGVStartTime;
-            int indexOfAGV = otherAGVStartTimeWindow.getAGVNumber();
-            //The other different AGV comes into the edge in the same direction
-            if ((otherAGVStartTimeWindow.getNextNodeNumber() == endNode) &&
-                    ((otherAGVStartTime = otherAGVStartTimeWindow.getEndTime()) != timeEnterPath)) {
-                TimeWindow otherAGVEndTimeWindow = findNextTimeWindow(endNode, otherAGVStartTime, indexOfAGV, reservedTimeWindowList);
-                //The time AGV starts to leave the edge
-                double otherAGVEndTime = otherAGVEndTimeWindow.getStartTime();
-                //The other AGV comes before the AGV comes and leaves after the AGV leaves.
-                // Or reverse the sequence of the two AGVs. Those are conflicts.
-                if ((otherAGVStartTime < timeEnterPath &&
-                        otherAGVEndTime > timeExitPath) ||
-                        (timeEnterPath < otherAGVStartTime  &&
-                                timeExitPath > otherAGVEndTime )) {
-                    return false;
-                }
-            }
-            //consider the conflict generated by looping routing behavior
-            else if (otherAGVStartTimeWindow.getPath()[1] == endNode && otherAGVStartTimeWindow.getPath()[2] == startNode) {
-                otherAGVStartTime = otherAGVStartTimeWindow.getEndTime();
-                TimeWindow otherAGVEndTimeWindow = findNextTimeWindow(startNode, otherAGVStartTime, indexOfAGV, reservedTimeWindowList);
-                //The time AGV starts to leave the edge
-                double otherAGVEndTime = otherAGVEndTimeWindow.getStartTime();
-                //Enter the path when the other AGV locates the entry, conflict happens
-                if (timeEnterPath < otherAGVEndTime && timeEnterPath > otherAGVStartTime) {
-                   return false;
-                }
-            }
-        }
-        return true;
+        //The other AGV passes or loops through the same edge
+        return !getEdgeOccupancy(startNode, endNode).hasCatchUpConflict(timeEnterPath, timeExitPath);
+    }
+
+    /**
+     * Get the occupancy of the directed edge, it is built again if the reserved time windows of its nodes are changed
+     * @param startNode Start node of the edge
+     * @param endNode End node of the edge
+     * @return Occupancy of the edge
+     */
+    private EdgeOccupancy getEdgeOccupancy(int startNode, int endNode) {
+        SortedTimeWindowQueue startQueue = asSortedQueue(reservedTimeWindowList.get(startNode));
+        SortedTimeWindowQueue endQueue = asSortedQueue(reservedTimeWindowList.get(endNode));
+        int edge = graph.findEdge(startNode, endNode);
+        EdgeOccupancy edgeOccupancy;
+        //No edge to keep the occupancy, AGVs should not be on it anyway
+        if (edge == -1) {
+            edgeOccupancy = new EdgeOccupancy(startNode, endNode);
+        }
+        else {
+            if (edgeOccupancies == null || edgeOccupancies.length != graph.getEdgeNumber()) {
+                edgeOccupancies = new EdgeOccupancy[graph.getEdgeNumber()];
+            }
+            if (edgeOccupancies[edge] == null) {
+                edgeOccupancies[edge] = new EdgeOccupancy(startNode, endNode);
+            }
+            edgeOccupancy = edgeOccupancies[edge];
+        }
+        edgeOccupancy.update(startQueue, endQueue);
+        return edgeOccupancy;
     }
 
 
@@ -654,14 +825,7 @@ public class Routing {
      * @return graph node number
      */
     private int findGraphNumberFromBufferNumber(Integer bufferNodeNumber) {
-        int graphNumber = -1;
-        for (Integer graphNodeNumber : graphNodeToBuffer.keySet()) {
-            if (graphNodeToBuffer.get(graphNodeNumber).equals(bufferNodeNumber)) {
-                graphNumber = graphNodeNumber;
-                break;
-            }
-        }
-        return graphNumber;
+        return routingGraph.findGraphNumberFromBufferNumber(bufferNodeNumber);
     }
 
     /**
@@ -671,15 +835,17 @@ public class Routing {
      */
     public void releaseReservedTimeWindow(Integer bufferNodeNumber) {
         //Change the last time window to a new time window
-        Queue<TimeWindow> timeWindowQueue = reservedTimeWindowList.get(bufferNodeNumber);
-        TimeWindow removedTimeWindow = (TimeWindow) timeWindowQueue.toArray()[timeWindowQueue.size() - 1];
+        SortedTimeWindowQueue timeWindowQueue = asSortedQueue(changeReservedTimeWindows(bufferNodeNumber));
+        TimeWindow removedTimeWindow = timeWindowQueue.peekLast();
         timeWindowQueue.remove(removedTimeWindow);
         double startTime = removedTimeWindow.getStartTime();
         double endTime = getTimeCrossTheCrossing(startTime, speed);
-        removedTimeWindow.setEndTime(endTime);
-        timeWindowQueue.add(removedTimeWindow);
+        //Change a copy, the reserved time window may be shared with a snapshot
+        TimeWindow releasedTimeWindow = new TimeWindow(removedTimeWindow);
+        releasedTimeWindow.setEndTime(endTime);
+        timeWindowQueue.add(releasedTimeWindow);
         TimeWindow newFreeTimeWindow = new TimeWindow(bufferNodeNumber, endTime, CommonConstant.INFINITE);
-        freeTimeWindowList.get(bufferNodeNumber).add(newFreeTimeWindow);
+        changeFreeTimeWindows(bufferNodeNumber).add(newFreeTimeWindow);
     }
 
     /**
@@ -698,12 +864,12 @@ public class Routing {
             double timeToNextNode = path.getTime();
             boolean isLoop = path.isLoop();
             int nextNodeNumber = isLoop ? startNode : path.getEndNode();
-            Integer[] pathForTimeWindow = {-1, -1, -1};
+            int[] pathForTimeWindow = {-1, -1, -1};
             //AGV is still going.
             if (nextNodeNumber < originalGraphNodeNumber) {
                 //Check if the path is loop to determine the end node
                 int loopNode = isLoop ? path.getStartNode() : -1;
-                pathForTimeWindow = new Integer[]{startNode, path.getEndNode(), loopNode};
+                pathForTimeWindow = new int[]{startNode, path.getEndNode(), loopNode};
             }
             TimeWindow reservedTimeWindow;
             if (nextNodeNumber >= originalGraphNodeNumber) {
@@ -729,7 +895,7 @@ public class Routing {
                     if (startNode < originalGraphNodeNumber) {
                         reservedTimeWindow = new TimeWindow(startNode, startTime, endTime, indexOfAGV,
                                 nextNodeNumber, pathForTimeWindow);
-                        reservedTimeWindowList.get(startNode).add(reservedTimeWindow);
+                        changeReservedTimeWindows(startNode).add(reservedTimeWindow);
                     }
                     startTime = endTime + timeToNextNode - CommonConstant.AGV_LENGTH / speed;
                     endTime += timeToNextNode + CommonConstant.CROSSING_DISTANCE / speed;
@@ -739,7 +905,7 @@ public class Routing {
                 if (startNode < originalGraphNodeNumber) {
                     reservedTimeWindow = new TimeWindow(startNode, startTime, endTime, indexOfAGV, nextNodeNumber,
                             pathForTimeWindow);
-                    reservedTimeWindowList.get(startNode).add(reservedTimeWindow);
+                    changeReservedTimeWindows(startNode).add(reservedTimeWindow);
                 }
                 startTime = endTime + timeToNextNode - CommonConstant.AGV_LENGTH / speed;
                 endTime += timeToNextNode + CommonConstant.CROSSING_DISTANCE / speed;
@@ -754,7 +920,8 @@ public class Routing {
     public void setFreeTimeWindow() {
         int indexOfNodeNumber = 0;
         for (Queue<TimeWindow> reservedTimeWindowQueue : reservedTimeWindowList) {
-            Queue<TimeWindow> freeTimeWindows = freeTimeWindowList.get(indexOfNodeNumber);
+            Queue<TimeWindow> freeTimeWindows = reservedTimeWindowQueue.isEmpty() ?
+                    freeTimeWindowList.get(indexOfNodeNumber) : changeFreeTimeWindows(indexOfNodeNumber);
             for (TimeWindow reservedTimeWindow : reservedTimeWindowQueue) {
                 double endTimeForFirstTimeWindow = reservedTimeWindow.getStartTime();
                 double startTimeForSecondTimeWindow = reservedTimeWindow.getEndTime();
@@ -0,0 +1,191 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.SparseGraph;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+//The graph with buffer end node used by the routing. It is built once for a layout and never changed afterwards,
+//so the routings of different individuals and threads can share it.
+public class RoutingGraph {
+
+    //Special graph contains the end node of buffers
+    private final SparseGraph graph;
+    private final int originalGraphNodeNumber;
+    //Buffer end node in the special graph to the actual node number of the buffer
+    private final Map<Integer, Integer> graphNodeToBuffer;
+    //Actual node number of the buffer to the buffer end node in the special graph
+    private final Map<Integer, Integer> bufferToGraphNode;
+    //Least distance from every node to each end node, computed when the end node is routed to for the first time
+    private final AtomicReferenceArray<double[]> leastDistancesToNode;
+
+    /**
+     * @param graph Original graph without adding buffer node
+     * @param bufferSet A list stores the path of all buffers, null if the buffer is not considered
+     */
+    public RoutingGraph(double[][] graph, List<List<Integer>> bufferSet) {
+        this(SparseGraph.fromAdjacencyMatrix(graph), bufferSet);
+    }
+
+    /**
+     * @param graph Original graph without adding buffer node
+     * @param bufferSet A list stores the path of all buffers, null if the buffer is not considered
+     */
+    public RoutingGraph(SparseGraph graph, List<List<Integer>> bufferSet) {
+        this.originalGraphNodeNumber = graph.getNodeNumber();
+        Map<Integer, Integer> graphNodeToBuffer = new HashMap<>();
+        this.graph = initializeGraphWithBufferEndNode(graph, bufferSet, graphNodeToBuffer);
+        Map<Integer, Integer> bufferToGraphNode = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : graphNodeToBuffer.entrySet()) {
+            bufferToGraphNode.putIfAbsent(entry.getValue(), entry.getKey());
+        }
+        this.graphNodeToBuffer = Collections.unmodifiableMap(graphNodeToBuffer);
+        this.bufferToGraphNode = Collections.unmodifiableMap(bufferToGraphNode);
+        this.leastDistancesToNode = new AtomicReferenceArray<>(this.graph.getNodeNumber());
+    }
+
+    /**
+     * @return Special graph contains the end node of buffers
+     */
+    public SparseGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Number of nodes in the special graph
+     */
+    public int getGraphNodeNumber() {
+        return graph.getNodeNumber();
+    }
+
+    /**
+     * @return Number of nodes in the original graph
+     */
+    public int getOriginalGraphNodeNumber() {
+        return originalGraphNodeNumber;
+    }
+
+    Map<Integer, Integer> getGraphNodeToBuffer() {
+        return graphNodeToBuffer;
+    }
+
+    /**
+     * @param nodeNumber Node number in the special graph
+     * @return If the node is a buffer end node
+     */
+    boolean isBufferEndNode(int nodeNumber) {
+        return graphNodeToBuffer.containsKey(nodeNumber);
+    }
+
+    /**
+     * @param graphNodeNumber Buffer end node in the special graph
+     * @return Actual node number of the buffer
+     */
+    int findBufferNumberFromGraphNumber(int graphNodeNumber) {
+        return graphNodeToBuffer.get(graphNodeNumber);
+    }
+
+    /**
+     * Find the node number for the node in the special graph given the node number in the buffer.
+     * @param bufferNodeNumber buffer node number
+     * @return graph node number or -1 if it is not a buffer node
+     */
+    int findGraphNumberFromBufferNumber(int bufferNodeNumber) {
+        Integer graphNodeNumber = bufferToGraphNode.get(bufferNodeNumber);
+        return graphNodeNumber == null ? -1 : graphNodeNumber;
+    }
+
+    /**
+     * Least distance an AGV goes from each node to the end node ignoring the other AGVs. Each step along an edge counts
+     * the crossing at the end of it as well, so divided by the speed it never exceeds the time the routing finds.
+     * @param endNode End node in the special graph
+     * @return Least distance from each node, CommonConstant.INFINITE if the end node cannot be reached. It is shared and should not be changed
+     */
+    public double[] getLeastDistancesTo(int endNode) {
+        double[] leastDistances = leastDistancesToNode.get(endNode);
+        if (leastDistances == null) {
+            //Computing it twice in different threads gives the same result, so only the first one is kept
+            leastDistancesToNode.compareAndSet(endNode, null, computeLeastDistancesTo(endNode));
+            leastDistances = leastDistancesToNode.get(endNode);
+        }
+        return leastDistances;
+    }
+
+    //Dijkstra from the end node along the reverse edges
+    private double[] computeLeastDistancesTo(int endNode) {
+        int nodeNumber = graph.getNodeNumber();
+        //Reverse edges grouped by their start node, that is the end node of the original edge
+        int[] offsets = new int[nodeNumber + 1];
+        for (int edge = 0; edge < graph.getEdgeNumber(); edge++) {
+            offsets[graph.getEndNode(edge) + 1]++;
+        }
+        for (int i = 0; i < nodeNumber; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] reverseEndNodes = new int[graph.getEdgeNumber()];
+        double[] reverseDistances = new double[graph.getEdgeNumber()];
+        int[] nextPositions = Arrays.copyOf(offsets, nodeNumber);
+        for (int node = 0; node < nodeNumber; node++) {
+            for (int edge = graph.getFirstEdge(node); edge < graph.getEndEdge(node); edge++) {
+                int position = nextPositions[graph.getEndNode(edge)]++;
+                reverseEndNodes[position] = node;
+                reverseDistances[position] = graph.getEdgeDistance(edge) + CommonConstant.CROSSING_DISTANCE;
+            }
+        }
+        double[] leastDistances = new double[nodeNumber];
+        Arrays.fill(leastDistances, CommonConstant.INFINITE);
+        leastDistances[endNode] = 0;
+        boolean[] isSettled = new boolean[nodeNumber];
+        PriorityQueue<double[]> nodesToSettle = new PriorityQueue<>(Comparator.comparingDouble(node -> node[0]));
+        nodesToSettle.add(new double[]{0, endNode});
+        while (!nodesToSettle.isEmpty()) {
+            int node = (int) nodesToSettle.poll()[1];
+            if (isSettled[node]) {
+                continue;
+            }
+            isSettled[node] = true;
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                int nextNode = reverseEndNodes[i];
+                double distance = leastDistances[node] + reverseDistances[i];
+                if (!isSettled[nextNode] && distance < leastDistances[nextNode]) {
+                    leastDistances[nextNode] = distance;
+                    nodesToSettle.add(new double[]{distance, nextNode});
+                }
+            }
+        }
+        return leastDistances;
+    }
+
+    /**
+     * Put the buffer end node into the graph to create a new graph, note that the buffer end node cannot be reached outsides (one-direction)
+     * @param graph Original graph without adding buffer node
+     * @param bufferSet A list stores the path of all buffers
+     * @param graphNodeToBuffer Map to store the buffer end node to the actual node number of the buffer
+     * @return Special graph contains the end node of buffers
+     */
+    private static SparseGraph initializeGraphWithBufferEndNode(SparseGraph graph, List<List<Integer>> bufferSet, Map<Integer, Integer> graphNodeToBuffer) {
+        if (bufferSet == null) {
+            return graph;
+        }
+        int originalGraphSize = graph.getNodeNumber();
+        int bufferNumber = bufferSet.size();
+        int[] startNodes = new int[bufferNumber];
+        int[] endNodes = new int[bufferNumber];
+        double[] distances = new double[bufferNumber];
+        //Number of buffer
+        int index = 0;
+        //To store the actual number of the node into the map to fetch and set the linking relationship between buffer end node and graph node
+        for (List<Integer> bufferPath : bufferSet) {
+            int bufferSize = bufferPath.size();
+            int actualNodeNumber = bufferPath.get(bufferSize - 2);
+            int nodeLinkingBufferAndGraph = bufferPath.get(bufferSize - 1);
+            graphNodeToBuffer.put(originalGraphSize + index, actualNodeNumber);
+            startNodes[index] = originalGraphSize + index;
+            endNodes[index] = nodeLinkingBufferAndGraph;
+            distances[index] = CommonConstant.BUFFER_PATH_LENGTH;
+            index++;
+        }
+        return graph.withEdges(originalGraphSize + bufferNumber, startNodes, endNodes, distances);
+    }
+}
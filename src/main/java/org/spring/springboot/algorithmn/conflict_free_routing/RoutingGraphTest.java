@@ -0,0 +1,83 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.CommonTestConstant;
+import org.spring.springboot.algorithmn.common.SparseGraph;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class RoutingGraphTest {
+
+    private double[][] graph;
+
+    @Before
+    public void initializeGraph() throws IOException {
+        graph = CommonTestConstant.initializeGraph();
+    }
+
+    //The buffer end nodes 9 and 10 should be mapped to the buffer nodes 105 and 205 in both directions.
+    @Test
+    public void shouldBufferEndNodeBeMappedInBothDirections() {
+        RoutingGraph routingGraph = new RoutingGraph(graph, CommonTestConstant.getBufferForTestGraph2());
+        assertEquals(11, routingGraph.getGraphNodeNumber());
+        assertEquals(9, routingGraph.getOriginalGraphNodeNumber());
+        assertTrue(routingGraph.isBufferEndNode(9));
+        assertFalse(routingGraph.isBufferEndNode(3));
+        assertEquals(105, routingGraph.findBufferNumberFromGraphNumber(9));
+        assertEquals(10, routingGraph.findGraphNumberFromBufferNumber(205));
+        assertEquals(-1, routingGraph.findGraphNumberFromBufferNumber(3));
+    }
+
+    //The buffer end node can only go to the node linking the buffer and the graph, and no node can go to the buffer end node.
+    @Test
+    public void shouldBufferEndNodeOnlyGoToTheLinkingNode() {
+        SparseGraph sparseGraph = new RoutingGraph(graph, CommonTestConstant.getBufferForTestGraph2()).getGraph();
+        assertEquals(1, sparseGraph.getDegree(9));
+        assertEquals(3, sparseGraph.getEndNode(sparseGraph.getFirstEdge(9)));
+        assertEquals(2.0, sparseGraph.getDistance(9, 3), 0);
+        assertEquals(1, sparseGraph.getDegree(10));
+        assertEquals(7, sparseGraph.getEndNode(sparseGraph.getFirstEdge(10)));
+        for (int i = 0; i < 9; i++) {
+            assertFalse(sparseGraph.hasEdge(i, 9));
+            assertFalse(sparseGraph.hasEdge(i, 10));
+        }
+    }
+
+    //Without buffer, the graph is the same as the original one.
+    @Test
+    public void shouldOriginalGraphBeUsedWithoutBuffer() {
+        RoutingGraph routingGraph = new RoutingGraph(graph, null);
+        assertEquals(9, routingGraph.getGraphNodeNumber());
+        assertArrayEquals(graph, routingGraph.getGraph().toAdjacencyMatrix());
+        assertFalse(routingGraph.isBufferEndNode(8));
+    }
+
+    //The least distance to the end node should count the crossing of each step and never be longer than going along any edge.
+    @Test
+    public void shouldLeastDistancesToTheEndNodeBeFound() {
+        RoutingGraph routingGraph = new RoutingGraph(graph, CommonTestConstant.getBufferForTestGraph2());
+        SparseGraph sparseGraph = routingGraph.getGraph();
+        double[] leastDistances = routingGraph.getLeastDistancesTo(5);
+        assertEquals(0, leastDistances[5], 0);
+        assertEquals(2.0 + CommonConstant.CROSSING_DISTANCE + leastDistances[3], leastDistances[9], 0.0000000001);
+        for (int node = 0; node < sparseGraph.getNodeNumber(); node++) {
+            for (int edge = sparseGraph.getFirstEdge(node); edge < sparseGraph.getEndEdge(node); edge++) {
+                if (sparseGraph.getEndNode(edge) == node) {
+                    continue;
+                }
+                assertTrue(leastDistances[node] <= sparseGraph.getEdgeDistance(edge) + CommonConstant.CROSSING_DISTANCE
+                        + leastDistances[sparseGraph.getEndNode(edge)] + 0.0000000001);
+            }
+        }
+        assertSame(leastDistances, routingGraph.getLeastDistancesTo(5));
+        //No node can go to the buffer end node
+        double[] leastDistancesToBufferEndNode = routingGraph.getLeastDistancesTo(9);
+        for (int node = 0; node < 9; node++) {
+            assertEquals(CommonConstant.INFINITE, leastDistancesToBufferEndNode[node], 0);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+//Number of the search a routing is running. A time window keeps the number of the search labelling it, and its labels are
+//out of date once the routing starts the next search, so the time windows labelled before need not be reset one by one.
+class RoutingSearch {
+
+    private long number = 0;
+
+    long getNumber() {
+        return number;
+    }
+
+    /**
+     * Start the next search, all the labels given before are out of date
+     */
+    void next() {
+        number++;
+    }
+}
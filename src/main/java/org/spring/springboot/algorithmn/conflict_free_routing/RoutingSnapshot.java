@@ -0,0 +1,114 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+//Time windows of a routing at some moment, e.g. after the ongoing AGVs have been reserved. It is never changed after it is taken,
+//so the routings created from it can share it. A routing copies the time windows of a node only when the node is first used.
+public class RoutingSnapshot {
+
+    private final RoutingGraph routingGraph;
+    private final double speed;
+    private final int initialCapacity;
+    //Free time windows of each node in the iteration order of the priority queue, so the copy is iterated in the same order
+    private final TimeWindow[][] freeTimeWindows;
+    //Reserved time windows of each node, they are not changed by the routing so the copies share them
+    private final SortedTimeWindowQueue[] reservedTimeWindows;
+
+    RoutingSnapshot(RoutingGraph routingGraph, double speed, int initialCapacity,
+                    List<Queue<TimeWindow>> freeTimeWindowList, List<Queue<TimeWindow>> reservedTimeWindowList) {
+        this.routingGraph = routingGraph;
+        this.speed = speed;
+        this.initialCapacity = initialCapacity;
+        int nodeNumber = freeTimeWindowList.size();
+        this.freeTimeWindows = new TimeWindow[nodeNumber][];
+        this.reservedTimeWindows = new SortedTimeWindowQueue[nodeNumber];
+        for (int i = 0; i < nodeNumber; i++) {
+            Queue<TimeWindow> freeTimeWindowQueue = freeTimeWindowList.get(i);
+            freeTimeWindows[i] = new TimeWindow[freeTimeWindowQueue.size()];
+            int count = 0;
+            for (TimeWindow freeTimeWindow : freeTimeWindowQueue) {
+                freeTimeWindows[i][count++] = new TimeWindow(freeTimeWindow);
+            }
+            reservedTimeWindows[i] = new SortedTimeWindowQueue(reservedTimeWindowList.get(i));
+        }
+    }
+
+    /**
+     * Create a routing starting from the time windows in the snapshot, the snapshot is not changed by it
+     * @return New routing
+     */
+    public Routing createRouting() {
+        return new Routing(this);
+    }
+
+    RoutingGraph getRoutingGraph() {
+        return routingGraph;
+    }
+
+    double getSpeed() {
+        return speed;
+    }
+
+    int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    List<Queue<TimeWindow>> createFreeTimeWindowList() {
+        return new LazyTimeWindowList(freeTimeWindows.length, this::copyFreeTimeWindows);
+    }
+
+    List<Queue<TimeWindow>> createReservedTimeWindowList() {
+        return new LazyTimeWindowList(reservedTimeWindows.length, this::copyReservedTimeWindows);
+    }
+
+    //Adding the time windows in the iteration order of a heap keeps the same heap, so the search visits them in the same order
+    private Queue<TimeWindow> copyFreeTimeWindows(int nodeNumber) {
+        TimeWindow[] timeWindows = freeTimeWindows[nodeNumber];
+        Queue<TimeWindow> timeWindowQueue =
+                new PriorityQueue<>(Math.max(initialCapacity, timeWindows.length), new TimeWindowComparator());
+        for (TimeWindow timeWindow : timeWindows) {
+            timeWindowQueue.add(new TimeWindow(timeWindow));
+        }
+        return timeWindowQueue;
+    }
+
+    private Queue<TimeWindow> copyReservedTimeWindows(int nodeNumber) {
+        return new SortedTimeWindowQueue(reservedTimeWindows[nodeNumber]);
+    }
+
+    //Time window list of a routing, the queue of each node is copied from the snapshot when it is first got
+    private static class LazyTimeWindowList extends AbstractList<Queue<TimeWindow>> implements RandomAccess {
+
+        private final Queue<TimeWindow>[] timeWindowQueues;
+        private final IntFunction<Queue<TimeWindow>> copyOfNode;
+
+        @SuppressWarnings("unchecked")
+        LazyTimeWindowList(int nodeNumber, IntFunction<Queue<TimeWindow>> copyOfNode) {
+            this.timeWindowQueues = (Queue<TimeWindow>[]) new Queue<?>[nodeNumber];
+            this.copyOfNode = copyOfNode;
+        }
+
+        @Override
+        public Queue<TimeWindow> get(int index) {
+            Queue<TimeWindow> timeWindowQueue = timeWindowQueues[index];
+            if (timeWindowQueue == null) {
+                timeWindowQueue = copyOfNode.apply(index);
+                timeWindowQueues[index] = timeWindowQueue;
+            }
+            return timeWindowQueue;
+        }
+
+        @Override
+        public Queue<TimeWindow> set(int index, Queue<TimeWindow> timeWindowQueue) {
+            Queue<TimeWindow> previousQueue = get(index);
+            timeWindowQueues[index] = timeWindowQueue;
+            return previousQueue;
+        }
+
+        @Override
+        public int size() {
+            return timeWindowQueues.length;
+        }
+    }
+}
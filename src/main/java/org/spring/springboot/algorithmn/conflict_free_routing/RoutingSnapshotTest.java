@@ -0,0 +1,64 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.CommonTestConstant;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.exception.NoPathFeasibleException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RoutingSnapshotTest {
+
+    private double[][] graph;
+
+    @Before
+    public void initializeGraph() throws IOException {
+        graph = CommonTestConstant.initializeGraph();
+    }
+
+    //AGV 0 goes 9-2-3 into buffer 0, the snapshot is taken after its path is reserved.
+    private RoutingSnapshot createSnapshotWithOngoingAGV() {
+        Routing routing = new Routing(graph, CommonTestConstant.getBufferForTestGraph2(), CommonTestConstant.AGV_SPEED, 10);
+        List<Path> paths = new ArrayList<>();
+        paths.add(new Path(8, 1, 8 / CommonTestConstant.AGV_SPEED, false));
+        paths.add(new Path(1, 2, 10 / CommonTestConstant.AGV_SPEED, false));
+        paths.add(new Path(2, 101, CommonConstant.BUFFER_PATH_LENGTH / CommonTestConstant.AGV_SPEED, false));
+        routing.setCurrentPathsToTimeWindows(paths, 0.0, 0);
+        routing.setFreeTimeWindow();
+        return routing.createSnapshot();
+    }
+
+    //Two routings from the same snapshot should find the same path, the first routing should not change the snapshot.
+    @Test
+    public void shouldRoutingsFromTheSameSnapshotFindTheSamePath() throws NoPathFeasibleException {
+        RoutingSnapshot routingSnapshot = createSnapshotWithOngoingAGV();
+        Routing routing1 = routingSnapshot.createRouting();
+        List<Path> paths1 = routing1.getPath(0, 0, 1, 3);
+        Routing routing2 = routingSnapshot.createRouting();
+        List<Path> paths2 = routing2.getPath(0, 0, 1, 3);
+        assertEquals(paths1, paths2);
+        //Each routing reserves the path in its own time windows
+        assertEquals(1, routing1.getReservedTimeWindowList().get(0).size());
+        assertEquals(1, routing2.getReservedTimeWindowList().get(0).size());
+        assertTrue(routingSnapshot.createRouting().getReservedTimeWindowList().get(0).isEmpty());
+    }
+
+    //The reserved time windows are shared, so releasing one in a routing should not change the others.
+    @Test
+    public void shouldReleasingReservedTimeWindowNotChangeTheSnapshot() {
+        RoutingSnapshot routingSnapshot = createSnapshotWithOngoingAGV();
+        Routing routing = routingSnapshot.createRouting();
+        TimeWindow reservedTimeWindow = routing.getReservedTimeWindowList().get(2).peek();
+        double endTime = reservedTimeWindow.getEndTime();
+        routing.releaseReservedTimeWindow(2);
+        assertEquals(endTime, reservedTimeWindow.getEndTime(), 0);
+        assertEquals(endTime, routingSnapshot.createRouting().getReservedTimeWindowList().get(2).peek().getEndTime(), 0);
+        assertNotSame(reservedTimeWindow, routing.getReservedTimeWindowList().get(2).peek());
+    }
+}
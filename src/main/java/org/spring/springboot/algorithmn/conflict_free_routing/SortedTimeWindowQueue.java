@@ -0,0 +1,451 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import java.util.*;
+
+//Time windows of one node sorted by their start time. Time windows starting at the same time keep the order they are added.
+//The time windows of each AGV are indexed as well, so the time window of some AGV around a time can be found by binary search.
+//The reservation of each time window is also kept in primitive columns at the same position, so the conflict checks read
+//them by the position without touching the time windows.
+public class SortedTimeWindowQueue extends AbstractQueue<TimeWindow> {
+
+    //Number of nodes in the path of a time window
+    private static final int PATH_LENGTH = 3;
+
+    private TimeWindow[] timeWindows;
+    private double[] startTimes;
+    private double[] endTimes;
+    private int[] AGVNumbers;
+    private int[] nextNodeNumbers;
+    //Path of the time window at each position, PATH_LENGTH nodes for one position
+    private int[] pathNodes;
+    private int size = 0;
+    //Positions of the time windows of each AGV in ascending start time, the ones of the AGV are from its offset to the next
+    //offset. Offsets are indexed by the AGV number plus 1 to keep the time windows without AGV. Null if it needs to be rebuilt.
+    private int[] offsetsOfAGV;
+    private int[] positionsOfAGV;
+    //The latest end time of the time windows from the first one to each position, null if it needs to be rebuilt
+    private double[] maxEndTimeTillPosition;
+    //Number of changes of the queue, for the indexes built outside of it to know when to be rebuilt
+    private int modificationCount = 0;
+
+    public SortedTimeWindowQueue(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 1));
+    }
+
+    public SortedTimeWindowQueue(Collection<TimeWindow> timeWindowCollection) {
+        this(timeWindowCollection.size());
+        for (TimeWindow timeWindow : timeWindowCollection) {
+            offer(timeWindow);
+        }
+    }
+
+    //Copy the queue without sorting again, the time windows are shared
+    public SortedTimeWindowQueue(SortedTimeWindowQueue timeWindowQueue) {
+        int capacity = Math.max(timeWindowQueue.size, 1);
+        this.timeWindows = Arrays.copyOf(timeWindowQueue.timeWindows, capacity);
+        this.startTimes = Arrays.copyOf(timeWindowQueue.startTimes, capacity);
+        this.endTimes = Arrays.copyOf(timeWindowQueue.endTimes, capacity);
+        this.AGVNumbers = Arrays.copyOf(timeWindowQueue.AGVNumbers, capacity);
+        this.nextNodeNumbers = Arrays.copyOf(timeWindowQueue.nextNodeNumbers, capacity);
+        this.pathNodes = Arrays.copyOf(timeWindowQueue.pathNodes, capacity * PATH_LENGTH);
+        this.size = timeWindowQueue.size;
+    }
+
+    @Override
+    public boolean offer(TimeWindow timeWindow) {
+        if (timeWindow == null) {
+            throw new NullPointerException("Time window cannot be added because it is null!");
+        }
+        if (size == timeWindows.length) {
+            grow(size * 2);
+        }
+        int position = indexOfFirstStartingAfter(timeWindow.getStartTime());
+        int numberToMove = size - position;
+        System.arraycopy(timeWindows, position, timeWindows, position + 1, numberToMove);
+        System.arraycopy(startTimes, position, startTimes, position + 1, numberToMove);
+        System.arraycopy(endTimes, position, endTimes, position + 1, numberToMove);
+        System.arraycopy(AGVNumbers, position, AGVNumbers, position + 1, numberToMove);
+        System.arraycopy(nextNodeNumbers, position, nextNodeNumbers, position + 1, numberToMove);
+        System.arraycopy(pathNodes, position * PATH_LENGTH, pathNodes, (position + 1) * PATH_LENGTH, numberToMove * PATH_LENGTH);
+        timeWindows[position] = timeWindow;
+        startTimes[position] = timeWindow.getStartTime();
+        endTimes[position] = timeWindow.getEndTime();
+        AGVNumbers[position] = timeWindow.getAGVNumber();
+        nextNodeNumbers[position] = timeWindow.getNextNodeNumber();
+        int[] path = timeWindow.getPath();
+        for (int i = 0; i < PATH_LENGTH; i++) {
+            pathNodes[position * PATH_LENGTH + i] = path == null ? -1 : path[i];
+        }
+        size++;
+        invalidateIndex();
+        return true;
+    }
+
+    @Override
+    public TimeWindow poll() {
+        if (size == 0) {
+            return null;
+        }
+        return removeAt(0);
+    }
+
+    @Override
+    public TimeWindow peek() {
+        return size == 0 ? null : timeWindows[0];
+    }
+
+    /**
+     * @return The time window starting at the latest time or null if the queue is empty
+     */
+    public TimeWindow peekLast() {
+        return size == 0 ? null : timeWindows[size - 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index Position in the start time order
+     * @return The time window in the position
+     */
+    public TimeWindow get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return timeWindows[index];
+    }
+
+    /**
+     * @return Number of changes of the queue so far
+     */
+    int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * @param index Position in the start time order
+     * @return Start time of the time window in the position
+     */
+    public double getStartTime(int index) {
+        return startTimes[index];
+    }
+
+    /**
+     * @param index Position in the start time order
+     * @return End time of the time window in the position
+     */
+    public double getEndTime(int index) {
+        return endTimes[index];
+    }
+
+    /**
+     * @param index Position in the start time order
+     * @return AGV reserving the time window in the position
+     */
+    public int getAGVNumber(int index) {
+        return AGVNumbers[index];
+    }
+
+    /**
+     * @param index Position in the start time order
+     * @return Node the AGV goes to from the time window in the position
+     */
+    public int getNextNodeNumber(int index) {
+        return nextNodeNumbers[index];
+    }
+
+    /**
+     * @param index Position in the start time order
+     * @param positionInPath Position of the node in the path, from 0 to 2
+     * @return Node in the path of the time window in the position
+     */
+    public int getPathNode(int index, int positionInPath) {
+        return pathNodes[index * PATH_LENGTH + positionInPath];
+    }
+
+    //Remove the first time window equal to the given one, the same as the priority queue does
+    @Override
+    public boolean remove(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (o.equals(timeWindows[i])) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(timeWindows, 0, size, null);
+        size = 0;
+        invalidateIndex();
+    }
+
+    @Override
+    public Iterator<TimeWindow> iterator() {
+        return new Iterator<TimeWindow>() {
+            private int cursor = 0;
+            private int lastReturned = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public TimeWindow next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = cursor;
+                return timeWindows[cursor++];
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned < 0) {
+                    throw new IllegalStateException();
+                }
+                removeAt(lastReturned);
+                cursor = lastReturned;
+                lastReturned = -1;
+            }
+        };
+    }
+
+    /**
+     * @param time Time to compare
+     * @return Position of the first time window starting at or after the time, size if there is none
+     */
+    public int indexOfFirstStartingFrom(double time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startTimes[middle] < time) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param time Time to compare
+     * @return Position of the first time window starting after the time, size if there is none
+     */
+    public int indexOfFirstStartingAfter(double time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startTimes[middle] <= time) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * No time window before the position ends at or after the time.
+     * @param time Time to compare
+     * @return Position of the first time window that could end at or after the time, size if there is none
+     */
+    public int indexOfFirstEndingFrom(double time) {
+        buildIndex();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEndTimeTillPosition[middle] < time) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the time windows overlapping the interval, including the ones just touching it
+     * @param startTime Start of the interval
+     * @param endTime End of the interval
+     * @return Time windows in ascending start time
+     */
+    public List<TimeWindow> findOverlappingTimeWindows(double startTime, double endTime) {
+        List<TimeWindow> overlappingTimeWindows = new ArrayList<>();
+        int end = indexOfFirstStartingAfter(endTime);
+        for (int i = indexOfFirstEndingFrom(startTime); i < end; i++) {
+            if (endTimes[i] >= startTime) {
+                overlappingTimeWindows.add(timeWindows[i]);
+            }
+        }
+        return overlappingTimeWindows;
+    }
+
+    /**
+     * Find the first time window of the AGV starting at or after the time
+     * @param AGVNumber Index of AGV
+     * @param startTime Time to compare
+     * @return The time window or null if there is none
+     */
+    public TimeWindow findNextTimeWindow(int AGVNumber, double startTime) {
+        int index = indexOfNextTimeWindow(AGVNumber, startTime);
+        return index == -1 ? null : timeWindows[index];
+    }
+
+    /**
+     * Find the first time window of the AGV starting at or after the time
+     * @param AGVNumber Index of AGV
+     * @param startTime Time to compare
+     * @return Position of the time window or -1 if there is none
+     */
+    public int indexOfNextTimeWindow(int AGVNumber, double startTime) {
+        buildIndex();
+        if (!hasTimeWindowOfAGV(AGVNumber)) {
+            return -1;
+        }
+        int first = offsetsOfAGV[AGVNumber + 1];
+        int low = first;
+        int high = offsetsOfAGV[AGVNumber + 2];
+        int end = high;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startTimes[positionsOfAGV[middle]] < startTime) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low < end ? positionsOfAGV[low] : -1;
+    }
+
+    /**
+     * Find the latest time window of the AGV starting at or before the time and going to the next node
+     * @param AGVNumber Index of AGV
+     * @param nextNodeNumber Node the AGV goes to from the time window
+     * @param startTime Time to compare
+     * @return The time window or null if there is none
+     */
+    public TimeWindow findLastTimeWindow(int AGVNumber, int nextNodeNumber, double startTime) {
+        int index = indexOfLastTimeWindow(AGVNumber, nextNodeNumber, startTime);
+        return index == -1 ? null : timeWindows[index];
+    }
+
+    /**
+     * Find the latest time window of the AGV starting at or before the time and going to the next node
+     * @param AGVNumber Index of AGV
+     * @param nextNodeNumber Node the AGV goes to from the time window
+     * @param startTime Time to compare
+     * @return Position of the time window or -1 if there is none
+     */
+    public int indexOfLastTimeWindow(int AGVNumber, int nextNodeNumber, double startTime) {
+        buildIndex();
+        if (!hasTimeWindowOfAGV(AGVNumber)) {
+            return -1;
+        }
+        int first = offsetsOfAGV[AGVNumber + 1];
+        int low = first;
+        int high = offsetsOfAGV[AGVNumber + 2];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startTimes[positionsOfAGV[middle]] <= startTime) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        for (int i = low - 1; i >= first; i--) {
+            if (nextNodeNumbers[positionsOfAGV[i]] == nextNodeNumber) {
+                return positionsOfAGV[i];
+            }
+        }
+        return -1;
+    }
+
+    private boolean hasTimeWindowOfAGV(int AGVNumber) {
+        return AGVNumber >= -1 && AGVNumber + 2 < offsetsOfAGV.length;
+    }
+
+    private TimeWindow removeAt(int position) {
+        TimeWindow removedTimeWindow = timeWindows[position];
+        int numberToMove = size - position - 1;
+        System.arraycopy(timeWindows, position + 1, timeWindows, position, numberToMove);
+        System.arraycopy(startTimes, position + 1, startTimes, position, numberToMove);
+        System.arraycopy(endTimes, position + 1, endTimes, position, numberToMove);
+        System.arraycopy(AGVNumbers, position + 1, AGVNumbers, position, numberToMove);
+        System.arraycopy(nextNodeNumbers, position + 1, nextNodeNumbers, position, numberToMove);
+        System.arraycopy(pathNodes, (position + 1) * PATH_LENGTH, pathNodes, position * PATH_LENGTH, numberToMove * PATH_LENGTH);
+        size--;
+        timeWindows[size] = null;
+        invalidateIndex();
+        return removedTimeWindow;
+    }
+
+    private void allocate(int capacity) {
+        timeWindows = new TimeWindow[capacity];
+        startTimes = new double[capacity];
+        endTimes = new double[capacity];
+        AGVNumbers = new int[capacity];
+        nextNodeNumbers = new int[capacity];
+        pathNodes = new int[capacity * PATH_LENGTH];
+    }
+
+    private void grow(int capacity) {
+        timeWindows = Arrays.copyOf(timeWindows, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        endTimes = Arrays.copyOf(endTimes, capacity);
+        AGVNumbers = Arrays.copyOf(AGVNumbers, capacity);
+        nextNodeNumbers = Arrays.copyOf(nextNodeNumbers, capacity);
+        pathNodes = Arrays.copyOf(pathNodes, capacity * PATH_LENGTH);
+    }
+
+    private void invalidateIndex() {
+        modificationCount++;
+        offsetsOfAGV = null;
+        maxEndTimeTillPosition = null;
+    }
+
+    //The same as the priority queue, the time window should not be changed while it is in the queue.
+    //The columns are copied when it is added, and the index is built from them.
+    private void buildIndex() {
+        if (offsetsOfAGV != null) {
+            return;
+        }
+        int maxAGVNumber = -1;
+        for (int i = 0; i < size; i++) {
+            maxAGVNumber = Math.max(maxAGVNumber, AGVNumbers[i]);
+        }
+        //Count the time windows of each AGV, then turn the counts into offsets
+        int[] offsets = new int[maxAGVNumber + 3];
+        for (int i = 0; i < size; i++) {
+            offsets[AGVNumbers[i] + 2]++;
+        }
+        for (int i = 2; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] positions = positionsOfAGV != null && positionsOfAGV.length >= size ? positionsOfAGV : new int[size];
+        int[] nextPositions = Arrays.copyOf(offsets, offsets.length);
+        double[] maxEndTime = new double[size];
+        double latestEndTime = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            positions[nextPositions[AGVNumbers[i] + 1]++] = i;
+            latestEndTime = Math.max(latestEndTime, endTimes[i]);
+            maxEndTime[i] = latestEndTime;
+        }
+        offsetsOfAGV = offsets;
+        positionsOfAGV = positions;
+        maxEndTimeTillPosition = maxEndTime;
+    }
+}
@@ -0,0 +1,116 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+public class SortedTimeWindowQueueTest {
+
+    //Add time windows out of order, they should be iterated from the earliest start time and the ones starting at the same time keep the added order.
+    @Test
+    public void shouldTimeWindowsBeIteratedInTheOrderOfStartTime() {
+        SortedTimeWindowQueue queue = new SortedTimeWindowQueue(1);
+        TimeWindow timeWindow1 = new TimeWindow(0, 8, 9, 0, 1);
+        TimeWindow timeWindow2 = new TimeWindow(0, 2, 3, 1, 1);
+        TimeWindow timeWindow3 = new TimeWindow(0, 5, 6, 2, 1);
+        TimeWindow timeWindow4 = new TimeWindow(0, 5, 7, 0, 1);
+        queue.add(timeWindow1);
+        queue.add(timeWindow2);
+        queue.add(timeWindow3);
+        queue.add(timeWindow4);
+        Iterator<TimeWindow> iterator = queue.iterator();
+        assertSame(timeWindow2, iterator.next());
+        assertSame(timeWindow3, iterator.next());
+        assertSame(timeWindow4, iterator.next());
+        assertSame(timeWindow1, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertSame(timeWindow1, queue.peekLast());
+        assertSame(timeWindow2, queue.poll());
+        assertEquals(3, queue.size());
+    }
+
+    //Find the time windows of one AGV around some time from the time windows of several AGVs.
+    @Test
+    public void shouldNextAndLastTimeWindowOfAGVBeFound() {
+        TimeWindow timeWindow1 = new TimeWindow(0, 0, 1, 0, 1);
+        TimeWindow timeWindow2 = new TimeWindow(0, 2, 3, 1, 2);
+        TimeWindow timeWindow3 = new TimeWindow(0, 4, 5, 0, 2);
+        TimeWindow timeWindow4 = new TimeWindow(0, 6, 7, 1, 1);
+        TimeWindow timeWindow5 = new TimeWindow(0, 8, 9, 0, 1);
+        SortedTimeWindowQueue queue = new SortedTimeWindowQueue(Arrays.asList(timeWindow5, timeWindow3, timeWindow1, timeWindow4, timeWindow2));
+        assertSame(timeWindow3, queue.findNextTimeWindow(0, 1));
+        assertSame(timeWindow3, queue.findNextTimeWindow(0, 4));
+        assertSame(timeWindow4, queue.findNextTimeWindow(1, 3));
+        assertNull(queue.findNextTimeWindow(1, 7));
+        assertNull(queue.findNextTimeWindow(2, 0));
+        assertSame(timeWindow1, queue.findLastTimeWindow(0, 1, 7));
+        assertSame(timeWindow5, queue.findLastTimeWindow(0, 1, 8));
+        assertSame(timeWindow3, queue.findLastTimeWindow(0, 2, 8));
+        assertNull(queue.findLastTimeWindow(1, 2, 1));
+        //The index should follow the change of the queue
+        queue.remove(timeWindow3);
+        assertSame(timeWindow5, queue.findNextTimeWindow(0, 1));
+    }
+
+    //Only the time windows overlapping or touching the interval should be found.
+    @Test
+    public void shouldOverlappingTimeWindowsBeFound() {
+        TimeWindow timeWindow1 = new TimeWindow(0, 0, 10, 0, 1);
+        TimeWindow timeWindow2 = new TimeWindow(0, 11, 12, 1, 1);
+        TimeWindow timeWindow3 = new TimeWindow(0, 14, 15, 2, 1);
+        TimeWindow timeWindow4 = new TimeWindow(0, 20, 21, 3, 1);
+        SortedTimeWindowQueue queue = new SortedTimeWindowQueue(Arrays.asList(timeWindow1, timeWindow2, timeWindow3, timeWindow4));
+        assertEquals(Arrays.asList(timeWindow1, timeWindow2), queue.findOverlappingTimeWindows(5, 11));
+        assertEquals(Arrays.asList(timeWindow2, timeWindow3), queue.findOverlappingTimeWindows(12, 19));
+        assertTrue(queue.findOverlappingTimeWindows(16, 19).isEmpty());
+        assertEquals(1, queue.indexOfFirstStartingFrom(11));
+        assertEquals(2, queue.indexOfFirstStartingAfter(11));
+    }
+
+    //The columns of the reservations should move with their time windows when the queue changes.
+    @Test
+    public void shouldReservationsBeReadByPosition() {
+        TimeWindow timeWindow1 = new TimeWindow(0, 4, 5, 1, 2, new int[]{0, 2, -1});
+        TimeWindow timeWindow2 = new TimeWindow(0, 0, 1, 0, 0, new int[]{0, 3, 0});
+        TimeWindow timeWindow3 = new TimeWindow(0, 2, 3, 2, 1);
+        SortedTimeWindowQueue queue = new SortedTimeWindowQueue(1);
+        queue.add(timeWindow1);
+        queue.add(timeWindow2);
+        queue.add(timeWindow3);
+        assertEquals(0, queue.getStartTime(0), 0);
+        assertEquals(3, queue.getEndTime(1), 0);
+        assertEquals(1, queue.getAGVNumber(2));
+        assertEquals(0, queue.getNextNodeNumber(0));
+        assertEquals(3, queue.getPathNode(0, 1));
+        assertEquals(0, queue.getPathNode(0, 2));
+        assertEquals(-1, queue.getPathNode(1, 0));
+        queue.remove(timeWindow2);
+        assertEquals(2, queue.getAGVNumber(0));
+        assertEquals(2, queue.getPathNode(1, 1));
+        SortedTimeWindowQueue copiedQueue = new SortedTimeWindowQueue(queue);
+        queue.clear();
+        assertEquals(4, copiedQueue.getStartTime(1), 0);
+        assertEquals(2, copiedQueue.getNextNodeNumber(1));
+    }
+
+    //The positions of the time windows of one AGV should be found, or -1 if there is none.
+    @Test
+    public void shouldPositionsOfNextAndLastTimeWindowOfAGVBeFound() {
+        TimeWindow timeWindow1 = new TimeWindow(0, 0, 1, 0, 1);
+        TimeWindow timeWindow2 = new TimeWindow(0, 2, 3, 3, 2);
+        TimeWindow timeWindow3 = new TimeWindow(0, 4, 5, 0, 2);
+        TimeWindow timeWindow4 = new TimeWindow(0, 6, 7);
+        SortedTimeWindowQueue queue = new SortedTimeWindowQueue(Arrays.asList(timeWindow4, timeWindow3, timeWindow1, timeWindow2));
+        assertEquals(2, queue.indexOfNextTimeWindow(0, 1));
+        assertEquals(1, queue.indexOfNextTimeWindow(3, 2));
+        assertEquals(3, queue.indexOfNextTimeWindow(-1, 0));
+        assertEquals(-1, queue.indexOfNextTimeWindow(1, 0));
+        assertEquals(-1, queue.indexOfNextTimeWindow(5, 0));
+        assertEquals(0, queue.indexOfLastTimeWindow(0, 1, 4));
+        assertEquals(2, queue.indexOfLastTimeWindow(0, 2, 4));
+        assertEquals(-1, queue.indexOfLastTimeWindow(3, 2, 1));
+    }
+}
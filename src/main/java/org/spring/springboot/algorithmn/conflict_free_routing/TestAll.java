@@ -5,7 +5,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({GetRouteTest.class, TestReachabilityTest.class})
+@Suite.SuiteClasses({GetRouteTest.class, TestReachabilityTest.class, TimeWindowHeapTest.class, SortedTimeWindowQueueTest.class, RoutingGraphTest.class, RoutingSnapshotTest.class,
+        TimeWindowJournalTest.class, EdgeOccupancyTest.class})
 public class TestAll {
 
 }
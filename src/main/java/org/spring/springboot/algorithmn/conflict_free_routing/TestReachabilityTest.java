@@ -180,7 +180,7 @@ public class TestReachabilityTest {
     public void shouldAGVGoWhenGoingToThePathWillNotCauseHeadOnConflict() {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, 22, 1, -1,6);
         //AGV 2
@@ -200,9 +200,9 @@ public class TestReachabilityTest {
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         double timeArriveNode9 = (10 - CommonConstant.AGV_LENGTH)/CommonTestConstant.AGV_SPEED + 9;
         assertEquals((double)timeArriveNode9, timeGoThroughPath);
-        assertEquals(7, (int)path[0]);
-        assertEquals(8, (int)path[1]);
-        assertEquals(-1, (int)path[2]);
+        assertEquals(7, path[0]);
+        assertEquals(8, path[1]);
+        assertEquals(-1, path[2]);
     }
     //AGV 1 starts from node 9 and goes to time window at node 3. But the given time window is earlier than current time window.
     @Test
@@ -210,7 +210,7 @@ public class TestReachabilityTest {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer[] path = {-2, -2, -2};
+        int[] path = {-2, -2, -2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(8, 3, 6, 1, -1, 0);
         reservedTimeWindowList.get(8).add(currentTimeWindow);
@@ -218,9 +218,9 @@ public class TestReachabilityTest {
         freeTimeWindowList.get(8).add(endTimeWindow);
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, bufferSet, CommonTestConstant.AGV_SPEED);
         double timeGoThrough = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
-        assertEquals(-1, (int) path[0]);
-        assertEquals(-1, (int) path[0]);
-        assertEquals(-1, (int) path[2]);
+        assertEquals(-1, path[0]);
+        assertEquals(-1, path[0]);
+        assertEquals(-1, path[2]);
         assertEquals((double) CommonConstant.INFINITE, timeGoThrough);
     }
 
@@ -229,7 +229,7 @@ public class TestReachabilityTest {
     public void shouldAGVNotGoWhenGoingToThePathWillCauseHeadOnConflict() {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, 22, 1, -1, 6);
         //AGV 2
@@ -248,7 +248,7 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, null,CommonTestConstant.AGV_SPEED);
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         assertEquals((double) CommonConstant.INFINITE, timeGoThroughPath);
-        assertEquals(-1, (int)path[0]);
+        assertEquals(-1, path[0]);
     }
 
     //The AGV 1 at node 8 wants to choose to go node 9, but the other AGV 0 comes from 8 to 9 latter at first and surpasses the other AGV
@@ -256,7 +256,7 @@ public class TestReachabilityTest {
     public void shouldAGVNotGoWhenGoingToThePathWillCauseCatchUpConflict()  {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, 9, 1, -1, 6);
         // AGV 0
@@ -275,7 +275,7 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, null,CommonTestConstant.AGV_SPEED);
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         assertEquals((double) CommonConstant.INFINITE, timeGoThroughPath);
-        assertEquals(-1, (int)path[0]);
+        assertEquals(-1, path[0]);
     }
 
     //The AGV 1 at node 8 wants to choose to go node 9, but the other AGV 0 comes from 8 to 9 latter at first and crosses the path still later
@@ -283,7 +283,7 @@ public class TestReachabilityTest {
     public void shouldAGVGoWhenGoingToThePathWillNotCauseCatchUpConflict()  {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, 9, 1, -1, 6);
         // AGV 0
@@ -303,9 +303,9 @@ public class TestReachabilityTest {
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         double timeArriveNode9 = (10 - CommonConstant.AGV_LENGTH)/CommonTestConstant.AGV_SPEED + 9;
         assertEquals(timeArriveNode9, timeGoThroughPath);
-        assertEquals(7, (int)path[0]);
-        assertEquals(8, (int)path[1]);
-        assertEquals(-1, (int)path[2]);
+        assertEquals(7, path[0]);
+        assertEquals(8, path[1]);
+        assertEquals(-1, path[2]);
     }
 
 
@@ -314,7 +314,7 @@ public class TestReachabilityTest {
     public void shouldAGVNotGoWhenPathNotExists()  {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, CommonConstant.INFINITE, 1, -1, 6);
         TimeWindow endTimeWindow = new TimeWindow(5, 0, CommonConstant.INFINITE, -1, -1);
@@ -323,7 +323,7 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, null,CommonTestConstant.AGV_SPEED);
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         assertEquals((double) CommonConstant.INFINITE, timeGoThroughPath);
-        assertEquals(-1, (int)path[0]);
+        assertEquals(-1, path[0]);
     }
 
     //The AGV 1 at node 8 wants to choose to go node 9, but the free time window is not available.
@@ -331,7 +331,7 @@ public class TestReachabilityTest {
     public void shouldAGVNotGoWhenTimeWindowIsNotAvailable() {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, CommonConstant.INFINITE, 1, -1, 6);
         double timeArriveNode9 = (10 - CommonConstant.AGV_LENGTH) / CommonTestConstant.AGV_SPEED + 9;
@@ -349,7 +349,7 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, null,CommonTestConstant.AGV_SPEED);
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         assertEquals((double) CommonConstant.INFINITE, timeGoThroughPath);
-        assertEquals(-1, (int)path[0]);
+        assertEquals(-1, path[0]);
     }
 
     //The AGV 1 at node 8 wants to choose to go node 9, and the free time window is available
@@ -357,7 +357,7 @@ public class TestReachabilityTest {
     public void shouldAGVGoCorrectlyWhenTimeWindowIsAvailable() {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, CommonConstant.INFINITE, 1, -1, 6);
         double timeArriveNode9 = (10 - CommonConstant.AGV_LENGTH)/CommonTestConstant.AGV_SPEED + 9;
@@ -375,9 +375,9 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, null,CommonTestConstant.AGV_SPEED);
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         assertEquals(timeArriveNode9, timeGoThroughPath);
-        assertEquals(7, (int)path[0]);
-        assertEquals(8, (int)path[1]);
-        assertEquals(-1, (int)path[2]);
+        assertEquals(7, path[0]);
+        assertEquals(8, path[1]);
+        assertEquals(-1, path[2]);
     }
 
     //The AGV at node 8 wants to choose to go node 9, and the first free time window is just long enough to cross.
@@ -385,7 +385,7 @@ public class TestReachabilityTest {
     public void shouldAGVGoCorrectlyWhenTimeWindowIsJustAvailable() {
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, CommonConstant.INFINITE, 1, -1, 6);
         double timeArriveNode9 = (10 - CommonConstant.AGV_LENGTH)/CommonTestConstant.AGV_SPEED + 9;
@@ -402,9 +402,9 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, null,CommonTestConstant.AGV_SPEED);
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         assertEquals(timeArriveNode9, timeGoThroughPath);
-        assertEquals(7, (int)path[0]);
-        assertEquals(8, (int)path[1]);
-        assertEquals(-1, (int)path[2]);
+        assertEquals(7, path[0]);
+        assertEquals(8, path[1]);
+        assertEquals(-1, path[2]);
     }
 
     //should two buffer from graph 2 can be added into the special graph
@@ -447,7 +447,7 @@ public class TestReachabilityTest {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(9, 0, CommonConstant.INFINITE, 1, -1, 6);
         double timeArriveNode4 = (2 - CommonConstant.AGV_LENGTH)/CommonTestConstant.AGV_SPEED + 9;
@@ -464,9 +464,9 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, bufferSet, CommonTestConstant.AGV_SPEED);
         double timeGoThroughPath = routing.testReachabilityForDifferentNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
         assertEquals((double) timeArriveNode4, timeGoThroughPath);
-        assertEquals(9, (int)path[0]);
-        assertEquals(3, (int)path[1]);
-        assertEquals(-1, (int)path[2]);
+        assertEquals(9, path[0]);
+        assertEquals(3, path[1]);
+        assertEquals(-1, path[2]);
     }
 
     //The AGV 1 at node 8 wants to choose to go node 9, but the other AGV 0 comes from 9 wants to loop at the end node 9 and goes to node 4
@@ -478,9 +478,9 @@ public class TestReachabilityTest {
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, CommonConstant.INFINITE, 1, -1,6);
         // AGV 0
         TimeWindow reservedAGVTimeWindow1 = new TimeWindow(8, 7, 10, 0, 8);
-        reservedAGVTimeWindow1.setPath(new Integer[]{8, 7, 8});
+        reservedAGVTimeWindow1.setPath(new int[]{8, 7, 8});
         TimeWindow reservedAGVTimeWindow2 = new TimeWindow(8, 16, 18, 0, 3);
-        reservedAGVTimeWindow2.setPath(new Integer[]{8, 3, -1});
+        reservedAGVTimeWindow2.setPath(new int[]{8, 3, -1});
         reservedTimeWindowList.get(8).add(reservedAGVTimeWindow1);
         reservedTimeWindowList.get(8).add(reservedAGVTimeWindow2);
         TimeWindow freeAGVTimeWindow3 = new TimeWindow(8, 0, 7, -1, -1);
@@ -505,9 +505,9 @@ public class TestReachabilityTest {
         TimeWindow currentTimeWindow = new TimeWindow(7, 0, CommonConstant.INFINITE, 1, -1,6);
         // AGV 0
         TimeWindow reservedAGVTimeWindow1 = new TimeWindow(8, 7, 10, 0, 8);
-        reservedAGVTimeWindow1.setPath(new Integer[]{8, 7, 8});
+        reservedAGVTimeWindow1.setPath(new int[]{8, 7, 8});
         TimeWindow reservedAGVTimeWindow2 = new TimeWindow(8, 12, 15, 0, 3);
-        reservedAGVTimeWindow2.setPath(new Integer[]{8, 3, -1});
+        reservedAGVTimeWindow2.setPath(new int[]{8, 3, -1});
         reservedTimeWindowList.get(8).add(reservedAGVTimeWindow1);
         reservedTimeWindowList.get(8).add(reservedAGVTimeWindow2);
         TimeWindow freeAGVTimeWindow3 = new TimeWindow(8, 0, 7, -1, -1);
@@ -532,9 +532,9 @@ public class TestReachabilityTest {
         TimeWindow currentTimeWindow = new TimeWindow(7, 6, 16, 1, -1,6);
         // AGV 0
         TimeWindow reservedAGVTimeWindow1 = new TimeWindow(7, 4, 6, 0, 7);
-        reservedAGVTimeWindow1.setPath(new Integer[]{7, 8, 7});
+        reservedAGVTimeWindow1.setPath(new int[]{7, 8, 7});
         TimeWindow reservedAGVTimeWindow2 = new TimeWindow(7, 16, 18, 0, 6);
-        reservedAGVTimeWindow2.setPath(new Integer[]{7, 6, -1});
+        reservedAGVTimeWindow2.setPath(new int[]{7, 6, -1});
         reservedTimeWindowList.get(7).add(reservedAGVTimeWindow1);
         reservedTimeWindowList.get(7).add(reservedAGVTimeWindow2);
         TimeWindow freeAGVTimeWindow3 = new TimeWindow(7, 0, 4, -1, -1);
@@ -559,9 +559,9 @@ public class TestReachabilityTest {
         TimeWindow currentTimeWindow = new TimeWindow(7, 8, CommonConstant.INFINITE, 1, -1,8);
         // AGV 0
         TimeWindow reservedAGVTimeWindow1 = new TimeWindow(7, 0, 3, 0, 7);
-        reservedAGVTimeWindow1.setPath(new Integer[]{7, 8, 7});
+        reservedAGVTimeWindow1.setPath(new int[]{7, 8, 7});
         TimeWindow reservedAGVTimeWindow2 = new TimeWindow(7, 6, 8, 0, 6);
-        reservedAGVTimeWindow2.setPath(new Integer[]{7, 6, -1});
+        reservedAGVTimeWindow2.setPath(new int[]{7, 6, -1});
         reservedTimeWindowList.get(7).add(reservedAGVTimeWindow1);
         reservedTimeWindowList.get(7).add(reservedAGVTimeWindow2);
         TimeWindow freeAGVTimeWindow3 = new TimeWindow(7, 3, 6, -1, -1);
@@ -581,7 +581,7 @@ public class TestReachabilityTest {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(8, 3, 6, 1, -1, 0);
 
@@ -590,9 +590,9 @@ public class TestReachabilityTest {
         freeTimeWindowList.get(8).add(endTimeWindow);
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, bufferSet, CommonTestConstant.AGV_SPEED);
         double timeGoThrough = routing.testReachabilityForSameNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
-        assertEquals(-1, (int)path[0]);
-        assertEquals(-1, (int)path[1]);
-        assertEquals(-1, (int)path[2]);
+        assertEquals(-1, path[0]);
+        assertEquals(-1, path[1]);
+        assertEquals(-1, path[2]);
         assertEquals((double) CommonConstant.INFINITE, timeGoThrough);
     }
 
@@ -602,7 +602,7 @@ public class TestReachabilityTest {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
 
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(8, 0, 6, 1, -1, 0);
@@ -620,9 +620,9 @@ public class TestReachabilityTest {
         Routing routing = new Routing(freeTimeWindowList, reservedTimeWindowList, -1, graph, currentTimeWindow, bufferSet, CommonTestConstant.AGV_SPEED);
         double timeGoThrough = routing.testReachabilityForSameNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
 
-        assertEquals(8, (int)path[0]);
+        assertEquals(8, path[0]);
         assertTrue(path[1] == 1 || path[1] == 3 || path[1] == 5);
-        assertEquals(8, (int)path[2]);
+        assertEquals(8, path[2]);
         assertEquals(10.0, timeGoThrough);
     }
 
@@ -633,17 +633,17 @@ public class TestReachabilityTest {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
 
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(8, 0, 7, 1, -1, 3);
         // AGV 0 and 2
-        TimeWindow reservedAGVTimeWindow1 = new TimeWindow(1, 5, 6, 0, 8, new Integer[] {1,8,-1});
-        TimeWindow reservedAGVTimeWindow3 = new TimeWindow(8, 7, 8, 0, 5, new Integer[] {8,5,8});
-        TimeWindow reservedAGVTimeWindow7 = new TimeWindow(5, 15, CommonConstant.INFINITE, 0, -1, new Integer[] {-1,-1,-1});
-        TimeWindow reservedAGVTimeWindow2 = new TimeWindow(7, 5, 6, 2, 8, new Integer[] {7,8,-1});
-        TimeWindow reservedAGVTimeWindow4 = new TimeWindow(8, 8, 9, 2, 3, new Integer[] {8,3,-1});
-        TimeWindow reservedAGVTimeWindow6 = new TimeWindow(3, 15,  CommonConstant.INFINITE, 2, -1, new Integer[] {-1,-1,-1});
+        TimeWindow reservedAGVTimeWindow1 = new TimeWindow(1, 5, 6, 0, 8, new int[] {1,8,-1});
+        TimeWindow reservedAGVTimeWindow3 = new TimeWindow(8, 7, 8, 0, 5, new int[] {8,5,8});
+        TimeWindow reservedAGVTimeWindow7 = new TimeWindow(5, 15, CommonConstant.INFINITE, 0, -1, new int[] {-1,-1,-1});
+        TimeWindow reservedAGVTimeWindow2 = new TimeWindow(7, 5, 6, 2, 8, new int[] {7,8,-1});
+        TimeWindow reservedAGVTimeWindow4 = new TimeWindow(8, 8, 9, 2, 3, new int[] {8,3,-1});
+        TimeWindow reservedAGVTimeWindow6 = new TimeWindow(3, 15,  CommonConstant.INFINITE, 2, -1, new int[] {-1,-1,-1});
 
         reservedTimeWindowList.get(7).add(reservedAGVTimeWindow2);
         reservedTimeWindowList.get(8).add(reservedAGVTimeWindow3);
@@ -661,9 +661,9 @@ public class TestReachabilityTest {
         double timeGoThrough = routing.testReachabilityForSameNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
 
         assertEquals((double)CommonConstant.INFINITE, timeGoThrough);
-        assertEquals(-1, (int)path[0]);
-        assertEquals(-1, (int)path[1]);
-        assertEquals(-1, (int)path[2]);
+        assertEquals(-1, path[0]);
+        assertEquals(-1, path[1]);
+        assertEquals(-1, path[2]);
     }
 
     //Agv1 loops at node 9，AGV0 goes 2---9-(loop at 9 to 4)--2  AGV2 goes 8---9---8. So AGV should loop at 9 (9 to 6)
@@ -672,18 +672,18 @@ public class TestReachabilityTest {
         List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
         List<Queue<TimeWindow>> reservedTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
         List<Queue<TimeWindow>> freeTimeWindowList = CommonTestConstant.initTimeWindowList(CommonTestConstant.SPECIAL_GRAPH_SIZE);;
-        Integer [] path = {-2,-2,-2};
+        int[] path = {-2,-2,-2};
 
         //AGV 1
         TimeWindow currentTimeWindow = new TimeWindow(8, 0, 7, 1, -1, 3);
         // AGV 0 and 2
-        TimeWindow reservedAGVTimeWindow1 = new TimeWindow(1, 5, 6, 0, 8, new Integer[] {1,8,-1});
-        TimeWindow reservedAGVTimeWindow3 = new TimeWindow(8, 7, 8, 0, 8, new Integer[] {8,3,8});
-        TimeWindow reservedAGVTimeWindow5 = new TimeWindow(8, 9, 10, 0, 1, new Integer[] {8,1,-1});
-        TimeWindow reservedAGVTimeWindow7 = new TimeWindow(1, 15, CommonConstant.INFINITE, 0, -1, new Integer[] {-1,-1,-1});
-        TimeWindow reservedAGVTimeWindow2 = new TimeWindow(7, 5, 6, 2, 8, new Integer[] {7,8,-1});
-        TimeWindow reservedAGVTimeWindow4 = new TimeWindow(8, 8, 9, 2, 7, new Integer[] {8,7,-1});
-        TimeWindow reservedAGVTimeWindow6 = new TimeWindow(7, 15, CommonConstant.INFINITE, 2, -1, new Integer[] {-1,-1,-1});
+        TimeWindow reservedAGVTimeWindow1 = new TimeWindow(1, 5, 6, 0, 8, new int[] {1,8,-1});
+        TimeWindow reservedAGVTimeWindow3 = new TimeWindow(8, 7, 8, 0, 8, new int[] {8,3,8});
+        TimeWindow reservedAGVTimeWindow5 = new TimeWindow(8, 9, 10, 0, 1, new int[] {8,1,-1});
+        TimeWindow reservedAGVTimeWindow7 = new TimeWindow(1, 15, CommonConstant.INFINITE, 0, -1, new int[] {-1,-1,-1});
+        TimeWindow reservedAGVTimeWindow2 = new TimeWindow(7, 5, 6, 2, 8, new int[] {7,8,-1});
+        TimeWindow reservedAGVTimeWindow4 = new TimeWindow(8, 8, 9, 2, 7, new int[] {8,7,-1});
+        TimeWindow reservedAGVTimeWindow6 = new TimeWindow(7, 15, CommonConstant.INFINITE, 2, -1, new int[] {-1,-1,-1});
 
         reservedTimeWindowList.get(7).add(reservedAGVTimeWindow2);
         reservedTimeWindowList.get(8).add(reservedAGVTimeWindow3);
@@ -702,9 +702,9 @@ public class TestReachabilityTest {
         double timeGoThrough = routing.testReachabilityForSameNode(endTimeWindow, currentTimeWindow, path, CommonTestConstant.AGV_SPEED);
 
         assertEquals((double)10, timeGoThrough, 0.0001);
-        assertEquals(8, (int)path[0]);
-        assertEquals(5, (int)path[1]);
-        assertEquals(8, (int)path[2]);
+        assertEquals(8, path[0]);
+        assertEquals(5, path[1]);
+        assertEquals(8, path[2]);
     }
 
 
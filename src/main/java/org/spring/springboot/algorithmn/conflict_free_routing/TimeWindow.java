@@ -14,11 +14,20 @@ public class TimeWindow {
     //The time window linked to it as a previous one
     private TimeWindow lastTimeWindow = null;
     //The path links this time window to the last time window, it should be useful when two nodes are same
-    private Integer[] path = {-1, -1, -1};
+    private int[] path = {-1, -1, -1};
     //The time needed to get to this time window at least
     private double leastTimeReachHere = CommonConstant.INFINITE;
     //If it is first step, the time to start routing should be subtract the crossing time
     private boolean isFirstStep = false;
+    //Search state of the routing: if the least time to reach here is final, its position in the heap and when it becomes reachable
+    private boolean isSettled = false;
+    private int heapIndex = -1;
+    private long reachOrder = 0;
+    //Least time from the node to the end node of the routing ignoring the other AGVs, it directs the search to the end node
+    private double leastTimeToEndNode = 0;
+    //Search labelling the time window and its number, the labels above are out of date when the search moves on
+    private RoutingSearch search = null;
+    private long searchNumber = 0;
 
     TimeWindow(int nodeNumber, double startTime, double endTime) {
         this.nodeNumber = nodeNumber;
@@ -26,7 +35,7 @@ public class TimeWindow {
         this.endTime = endTime;
     }
 
-    TimeWindow(int nodeNumber, double startTime, double endTime, int indexOfAGV, int nextNodeNumber, Integer[] path) {
+    TimeWindow(int nodeNumber, double startTime, double endTime, int indexOfAGV, int nextNodeNumber, int[] path) {
         this.nodeNumber = nodeNumber;
         this.startTime = startTime;
         this.endTime = endTime;
@@ -69,6 +78,64 @@ public class TimeWindow {
         this.leastTimeReachHere = leastTimeReachHere;
     }
 
+    //Copy the interval and reservation of the time window without the search state of the routing
+    TimeWindow(TimeWindow timeWindow) {
+        this.nodeNumber = timeWindow.nodeNumber;
+        this.startTime = timeWindow.startTime;
+        this.endTime = timeWindow.endTime;
+        this.AGVNumber = timeWindow.AGVNumber;
+        this.nextNodeNumber = timeWindow.nextNodeNumber;
+        this.path = timeWindow.path == null ? null : timeWindow.path.clone();
+        this.isFirstStep = timeWindow.isFirstStep;
+    }
+
+    //Put a free time window back to the state it is created in, after it has been used in a path that is rolled back
+    void resetFreeTimeWindow(int nodeNumber) {
+        this.nodeNumber = nodeNumber;
+        this.AGVNumber = -1;
+        this.nextNodeNumber = -1;
+        this.lastTimeWindow = null;
+        if (path == null || path[0] != -1 || path[1] != -1 || path[2] != -1) {
+            this.path = new int[]{-1, -1, -1};
+        }
+        this.leastTimeReachHere = CommonConstant.INFINITE;
+        this.isFirstStep = false;
+        this.isSettled = false;
+        this.heapIndex = -1;
+        this.search = null;
+    }
+
+    /**
+     * Take the time window into the current search of the routing. The labels given by an earlier search are reset first.
+     * @param search Search of the routing
+     */
+    void label(RoutingSearch search) {
+        if (this.search == search && searchNumber == search.getNumber()) {
+            return;
+        }
+        if (this.search != null) {
+            this.leastTimeReachHere = CommonConstant.INFINITE;
+            this.isSettled = false;
+            this.heapIndex = -1;
+        }
+        this.search = search;
+        this.searchNumber = search.getNumber();
+    }
+
+    private boolean isLabelOutOfDate() {
+        return search != null && searchNumber != search.getNumber();
+    }
+
+    //The labels set outside of a search start from the reset state
+    private void dropOutOfDateLabels() {
+        if (isLabelOutOfDate()) {
+            this.leastTimeReachHere = CommonConstant.INFINITE;
+            this.isSettled = false;
+            this.heapIndex = -1;
+            this.search = null;
+        }
+    }
+
 
     public boolean isFirstStep() {
         return isFirstStep;
@@ -78,6 +145,39 @@ public class TimeWindow {
         isFirstStep = firstStep;
     }
 
+    boolean isSettled() {
+        return isSettled && !isLabelOutOfDate();
+    }
+
+    void setSettled(boolean settled) {
+        dropOutOfDateLabels();
+        isSettled = settled;
+    }
+
+    int getHeapIndex() {
+        return heapIndex;
+    }
+
+    void setHeapIndex(int heapIndex) {
+        this.heapIndex = heapIndex;
+    }
+
+    double getLeastTimeToEndNode() {
+        return leastTimeToEndNode;
+    }
+
+    void setLeastTimeToEndNode(double leastTimeToEndNode) {
+        this.leastTimeToEndNode = leastTimeToEndNode;
+    }
+
+    long getReachOrder() {
+        return reachOrder;
+    }
+
+    void setReachOrder(long reachOrder) {
+        this.reachOrder = reachOrder;
+    }
+
     public int getNextNodeNumber() {
         return nextNodeNumber;
     }
@@ -90,22 +190,23 @@ public class TimeWindow {
         this.lastTimeWindow = lastTimeWindow;
     }
 
-    public Integer[] getPath() {
+    public int[] getPath() {
         return path;
     }
 
-    public void setPath(Integer[] path) {
+    public void setPath(int[] path) {
         this.path = path;
     }
 
-    public void setNodeNumberInPath(Integer nodeNumber, int position) {
+    public void setNodeNumberInPath(int nodeNumber, int position) {
         path[position] = nodeNumber;
     }
     public double getLeastTimeReachHere() {
-        return leastTimeReachHere;
+        return isLabelOutOfDate() ? CommonConstant.INFINITE : leastTimeReachHere;
     }
 
     public void setLeastTimeReachHere(double leastTimeReachHere) {
+        dropOutOfDateLabels();
         this.leastTimeReachHere = leastTimeReachHere;
     }
 
@@ -0,0 +1,130 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import java.util.Arrays;
+
+//Indexed min-heap of the reachable time windows, keyed by the least time to reach them plus the least time from them to the end node.
+//Time windows with the same time are ordered by the time they become reachable, so the earlier one is settled first.
+class TimeWindowHeap {
+
+    private TimeWindow[] heap;
+    private int size = 0;
+    //Count of time windows ever added, used to order the time windows with the same time
+    private long countOfAddition = 0;
+
+    TimeWindowHeap(int initialCapacity) {
+        heap = new TimeWindow[Math.max(initialCapacity, 1)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(TimeWindow timeWindow) {
+        int heapIndex = timeWindow.getHeapIndex();
+        return heapIndex >= 0 && heapIndex < size && heap[heapIndex] == timeWindow;
+    }
+
+    /**
+     * Add a newly reachable time window
+     * @param timeWindow Time window with its least time to reach here set
+     */
+    void add(TimeWindow timeWindow) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        timeWindow.setReachOrder(countOfAddition++);
+        heap[size] = timeWindow;
+        timeWindow.setHeapIndex(size);
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Restore the heap order after the least time to reach the time window has been decreased
+     * @param timeWindow Time window in the heap
+     */
+    void decreaseKey(TimeWindow timeWindow) {
+        siftUp(timeWindow.getHeapIndex());
+    }
+
+    /**
+     * Remove the time window with the least time to reach it
+     * @return The head time window or null if the heap is empty
+     */
+    TimeWindow poll() {
+        if (size == 0) {
+            return null;
+        }
+        TimeWindow head = heap[0];
+        size--;
+        TimeWindow last = heap[size];
+        heap[size] = null;
+        if (size > 0) {
+            heap[0] = last;
+            last.setHeapIndex(0);
+            siftDown(0);
+        }
+        head.setHeapIndex(-1);
+        return head;
+    }
+
+    /**
+     * Empty the heap and detach all the time windows left from it
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i].setHeapIndex(-1);
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        TimeWindow timeWindow = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBefore(timeWindow, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].setHeapIndex(index);
+            index = parent;
+        }
+        heap[index] = timeWindow;
+        timeWindow.setHeapIndex(index);
+    }
+
+    private void siftDown(int index) {
+        TimeWindow timeWindow = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && isBefore(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!isBefore(heap[child], timeWindow)) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].setHeapIndex(index);
+            index = child;
+        }
+        heap[index] = timeWindow;
+        timeWindow.setHeapIndex(index);
+    }
+
+    //The time windows are ordered by the least time to reach the end node through them
+    private static boolean isBefore(TimeWindow o1, TimeWindow o2) {
+        double estimatedTime1 = o1.getLeastTimeReachHere() + o1.getLeastTimeToEndNode();
+        double estimatedTime2 = o2.getLeastTimeReachHere() + o2.getLeastTimeToEndNode();
+        if (estimatedTime1 != estimatedTime2) {
+            return estimatedTime1 < estimatedTime2;
+        }
+        return o1.getReachOrder() < o2.getReachOrder();
+    }
+}
@@ -0,0 +1,61 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeWindowHeapTest {
+
+    //Add 3 time windows with different time to reach, they should be polled from the least time to the largest.
+    @Test
+    public void shouldTimeWindowsBePolledInTheOrderOfLeastTimeReachHere() {
+        TimeWindowHeap heap = new TimeWindowHeap(1);
+        TimeWindow timeWindow1 = new TimeWindow(0, 0, 10, -1, -1, 5.0);
+        TimeWindow timeWindow2 = new TimeWindow(1, 0, 10, -1, -1, 1.0);
+        TimeWindow timeWindow3 = new TimeWindow(2, 0, 10, -1, -1, 3.0);
+        heap.add(timeWindow1);
+        heap.add(timeWindow2);
+        heap.add(timeWindow3);
+        assertEquals(3, heap.size());
+        assertSame(timeWindow2, heap.poll());
+        assertSame(timeWindow3, heap.poll());
+        assertSame(timeWindow1, heap.poll());
+        assertTrue(heap.isEmpty());
+        assertNull(heap.poll());
+        assertEquals(-1, timeWindow1.getHeapIndex());
+    }
+
+    //Time windows with the same time to reach should be polled in the order they are added.
+    @Test
+    public void shouldTimeWindowsWithSameTimeBePolledInTheOrderTheyAreAdded() {
+        TimeWindowHeap heap = new TimeWindowHeap(4);
+        TimeWindow timeWindow1 = new TimeWindow(3, 0, 10, -1, -1, 2.0);
+        TimeWindow timeWindow2 = new TimeWindow(1, 0, 10, -1, -1, 2.0);
+        TimeWindow timeWindow3 = new TimeWindow(2, 0, 10, -1, -1, 2.0);
+        heap.add(timeWindow1);
+        heap.add(timeWindow2);
+        heap.add(timeWindow3);
+        assertSame(timeWindow1, heap.poll());
+        assertSame(timeWindow2, heap.poll());
+        assertSame(timeWindow3, heap.poll());
+    }
+
+    //Decrease the time to reach of the last time window, it should become the head and the others keep their order.
+    @Test
+    public void shouldTimeWindowBeMovedToHeadWhenItsTimeIsDecreased() {
+        TimeWindowHeap heap = new TimeWindowHeap(4);
+        TimeWindow timeWindow1 = new TimeWindow(0, 0, 10, -1, -1, 4.0);
+        TimeWindow timeWindow2 = new TimeWindow(1, 0, 10, -1, -1, 6.0);
+        TimeWindow timeWindow3 = new TimeWindow(2, 0, 10, -1, -1, 8.0);
+        heap.add(timeWindow1);
+        heap.add(timeWindow2);
+        heap.add(timeWindow3);
+        assertTrue(heap.contains(timeWindow3));
+        timeWindow3.setLeastTimeReachHere(1.0);
+        heap.decreaseKey(timeWindow3);
+        assertSame(timeWindow3, heap.poll());
+        assertFalse(heap.contains(timeWindow3));
+        assertSame(timeWindow1, heap.poll());
+        assertSame(timeWindow2, heap.poll());
+    }
+}
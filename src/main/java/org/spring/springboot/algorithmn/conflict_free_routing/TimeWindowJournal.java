@@ -0,0 +1,86 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+//Undo journal of the time windows of each node. The time windows of a node are saved in their iteration order when the node
+//is first changed after the checkpoint, so rolling back only touches the nodes changed since then.
+class TimeWindowJournal {
+
+    //Saved time windows of each node, the arrays are kept to be reused by the next checkpoint
+    private final TimeWindow[][] savedTimeWindows;
+    private final int[] savedSizes;
+    private final boolean[] isSaved;
+    //Nodes changed since the checkpoint
+    private final int[] changedNodes;
+    private int changedNodeNumber = 0;
+
+    TimeWindowJournal(int nodeNumber) {
+        this.savedTimeWindows = new TimeWindow[nodeNumber][];
+        this.savedSizes = new int[nodeNumber];
+        this.isSaved = new boolean[nodeNumber];
+        this.changedNodes = new int[nodeNumber];
+    }
+
+    /**
+     * Save the time windows of the node before it is changed, only the first change after the checkpoint is saved
+     * @param nodeNumber Node number
+     * @param timeWindows Time windows of the node before the change
+     */
+    void record(int nodeNumber, Queue<TimeWindow> timeWindows) {
+        if (isSaved[nodeNumber]) {
+            return;
+        }
+        TimeWindow[] saved = savedTimeWindows[nodeNumber];
+        if (saved == null || saved.length < timeWindows.size()) {
+            saved = new TimeWindow[Math.max(timeWindows.size(), 1)];
+            savedTimeWindows[nodeNumber] = saved;
+        }
+        int count = 0;
+        for (TimeWindow timeWindow : timeWindows) {
+            saved[count++] = timeWindow;
+        }
+        savedSizes[nodeNumber] = count;
+        isSaved[nodeNumber] = true;
+        changedNodes[changedNodeNumber++] = nodeNumber;
+    }
+
+    int getChangedNodeNumber() {
+        return changedNodeNumber;
+    }
+
+    /**
+     * @param index Index in the order the nodes are changed
+     * @return Node number
+     */
+    int getChangedNode(int index) {
+        return changedNodes[index];
+    }
+
+    /**
+     * Put the saved time windows back into the queue in their saved order. For the priority queue it gives the same heap,
+     * and for the sorted queue the time windows starting at the same time keep their order.
+     * @param nodeNumber Node number
+     * @param timeWindows Time windows of the node to be restored
+     */
+    void restore(int nodeNumber, Queue<TimeWindow> timeWindows) {
+        timeWindows.clear();
+        TimeWindow[] saved = savedTimeWindows[nodeNumber];
+        for (int i = 0; i < savedSizes[nodeNumber]; i++) {
+            timeWindows.add(saved[i]);
+        }
+    }
+
+    /**
+     * Forget the saved time windows, the current time windows become the checkpoint
+     */
+    void clear() {
+        for (int i = 0; i < changedNodeNumber; i++) {
+            int nodeNumber = changedNodes[i];
+            Arrays.fill(savedTimeWindows[nodeNumber], 0, savedSizes[nodeNumber], null);
+            savedSizes[nodeNumber] = 0;
+            isSaved[nodeNumber] = false;
+        }
+        changedNodeNumber = 0;
+    }
+}
@@ -0,0 +1,85 @@
+package org.spring.springboot.algorithmn.conflict_free_routing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.CommonTestConstant;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.exception.NoPathFeasibleException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+public class TimeWindowJournalTest {
+
+    private double[][] graph;
+
+    @Before
+    public void initializeGraph() throws IOException {
+        graph = CommonTestConstant.initializeGraph();
+    }
+
+    //AGV 0 goes 9-2-3 into buffer 0, the snapshot is taken after its path is reserved.
+    private RoutingSnapshot createSnapshotWithOngoingAGV() {
+        Routing routing = new Routing(graph, CommonTestConstant.getBufferForTestGraph2(), CommonTestConstant.AGV_SPEED, 10);
+        List<Path> paths = new ArrayList<>();
+        paths.add(new Path(8, 1, 8 / CommonTestConstant.AGV_SPEED, false));
+        paths.add(new Path(1, 2, 10 / CommonTestConstant.AGV_SPEED, false));
+        paths.add(new Path(2, 101, CommonConstant.BUFFER_PATH_LENGTH / CommonTestConstant.AGV_SPEED, false));
+        routing.setCurrentPathsToTimeWindows(paths, 0.0, 0);
+        routing.setFreeTimeWindow();
+        return routing.createSnapshot();
+    }
+
+    private static void assertSameTimeWindows(List<Queue<TimeWindow>> expected, List<Queue<TimeWindow>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(new ArrayList<>(expected.get(i)), new ArrayList<>(actual.get(i)));
+        }
+    }
+
+    //Routing again after rolling back should find the same path as a new routing, and the time windows should be the same in the same order.
+    @Test
+    public void shouldRoutingAfterRollbackBeTheSameAsNewRouting() throws NoPathFeasibleException {
+        RoutingSnapshot routingSnapshot = createSnapshotWithOngoingAGV();
+        Routing newRouting = routingSnapshot.createRouting();
+        List<Path> expectedPaths1 = newRouting.getPath(0, 0, 1, 3);
+        List<Path> expectedPaths2 = newRouting.getPath(3, 20, 1, 6);
+        Routing routing = routingSnapshot.createRouting();
+        routing.markCheckpoint();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expectedPaths1, routing.getPath(0, 0, 1, 3));
+            assertEquals(expectedPaths2, routing.getPath(3, 20, 1, 6));
+            assertSameTimeWindows(newRouting.getFreeTimeWindowList(), routing.getFreeTimeWindowList());
+            assertSameTimeWindows(newRouting.getReservedTimeWindowList(), routing.getReservedTimeWindowList());
+            routing.rollbackToCheckpoint();
+            assertSameTimeWindows(routingSnapshot.createRouting().getFreeTimeWindowList(), routing.getFreeTimeWindowList());
+            assertSameTimeWindows(routingSnapshot.createRouting().getReservedTimeWindowList(), routing.getReservedTimeWindowList());
+        }
+    }
+
+    //The released reserved time window and the new free time window in the buffer should be rolled back.
+    @Test
+    public void shouldReleasedTimeWindowBeRolledBack() {
+        Routing routing = createSnapshotWithOngoingAGV().createRouting();
+        routing.markCheckpoint();
+        TimeWindow reservedTimeWindow = routing.getReservedTimeWindowList().get(2).peek();
+        int freeTimeWindowNumber = routing.getFreeTimeWindowList().get(2).size();
+        routing.releaseReservedTimeWindow(2);
+        assertNotSame(reservedTimeWindow, routing.getReservedTimeWindowList().get(2).peek());
+        assertEquals(freeTimeWindowNumber + 1, routing.getFreeTimeWindowList().get(2).size());
+        routing.rollbackToCheckpoint();
+        assertSame(reservedTimeWindow, routing.getReservedTimeWindowList().get(2).peek());
+        assertEquals(freeTimeWindowNumber, routing.getFreeTimeWindowList().get(2).size());
+    }
+
+    //Without a checkpoint there is nothing to roll back to.
+    @Test(expected = IllegalStateException.class)
+    public void shouldRollbackWithoutCheckpointFail() {
+        new Routing(graph, CommonTestConstant.getBufferForTestGraph2(), CommonTestConstant.AGV_SPEED, 10).rollbackToCheckpoint();
+    }
+}
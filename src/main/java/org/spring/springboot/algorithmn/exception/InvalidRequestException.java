@@ -0,0 +1,12 @@
+package org.spring.springboot.algorithmn.exception;
+
+import java.io.IOException;
+
+public class InvalidRequestException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,131 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+
+//Indexed min-heap of the AGVs by the time they finish their jobs, ordered by the time and then the index of the AGV.
+//It reads the time array of the individual being decoded, so it should be updated whenever the time of an AGV changes.
+class AGVReleaseQueue {
+
+    private final double[] times;
+    //AGV at each position of the heap
+    private final int[] heap;
+    //Position in the heap of each AGV
+    private final int[] positions;
+    //Earliest AGVs found by the last search and the positions still to be searched
+    private final int[] earliestAGVs;
+    private final int[] positionsToSearch;
+
+    /**
+     * @param times Time of all the AGVs, it is read in place and not copied
+     */
+    AGVReleaseQueue(double[] times) {
+        this.times = times;
+        int size = times.length;
+        this.heap = new int[size];
+        this.positions = new int[size];
+        this.earliestAGVs = new int[size];
+        this.positionsToSearch = new int[size];
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            positions[i] = i;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Move the AGV to its place after its time is changed
+     * @param indexOfAGV Index of the AGV
+     */
+    void update(int indexOfAGV) {
+        siftUp(positions[indexOfAGV]);
+        siftDown(positions[indexOfAGV]);
+    }
+
+    /**
+     * Find the earliest AGV, one of them is chosen randomly if several AGVs finish at the same time.
+     * The random generator is drawn once with the number of the earliest AGVs, and they are ordered by their index.
+     * @param random Random generator to break the ties
+     * @return Index of the earliest AGV, -1 if there is no AGV
+     */
+    int getEarliest(Random random) {
+        if (heap.length == 0) {
+            return -1;
+        }
+        double earliestTime = times[heap[0]];
+        //The AGVs at the earliest time are on the top of the heap, search them from the root
+        int numberOfEarliestAGVs = 0;
+        int numberOfPositionsToSearch = 0;
+        positionsToSearch[numberOfPositionsToSearch++] = 0;
+        while (numberOfPositionsToSearch > 0) {
+            int position = positionsToSearch[--numberOfPositionsToSearch];
+            if (times[heap[position]] == earliestTime) {
+                earliestAGVs[numberOfEarliestAGVs++] = heap[position];
+                for (int child = 2 * position + 1; child <= 2 * position + 2 && child < heap.length; child++) {
+                    positionsToSearch[numberOfPositionsToSearch++] = child;
+                }
+            }
+        }
+        Arrays.sort(earliestAGVs, 0, numberOfEarliestAGVs);
+        return earliestAGVs[random.nextInt(numberOfEarliestAGVs)];
+    }
+
+    /**
+     * @param indexOfAGV Index of the AGV
+     * @return Time of the AGV
+     */
+    double getTime(int indexOfAGV) {
+        return times[indexOfAGV];
+    }
+
+    /**
+     * @return Number of the AGVs
+     */
+    int size() {
+        return heap.length;
+    }
+
+    private boolean isEarlier(int indexOfAGV1, int indexOfAGV2) {
+        return times[indexOfAGV1] < times[indexOfAGV2] || (times[indexOfAGV1] == times[indexOfAGV2] && indexOfAGV1 < indexOfAGV2);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!isEarlier(heap[position], heap[parent])) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int earliest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heap.length && isEarlier(heap[left], heap[earliest])) {
+                earliest = left;
+            }
+            if (right < heap.length && isEarlier(heap[right], heap[earliest])) {
+                earliest = right;
+            }
+            if (earliest == position) {
+                return;
+            }
+            swap(position, earliest);
+            position = earliest;
+        }
+    }
+
+    private void swap(int position1, int position2) {
+        int indexOfAGV = heap[position1];
+        heap[position1] = heap[position2];
+        heap[position2] = indexOfAGV;
+        positions[heap[position1]] = position1;
+        positions[heap[position2]] = position2;
+    }
+}
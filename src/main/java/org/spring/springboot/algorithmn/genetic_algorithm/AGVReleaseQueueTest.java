@@ -0,0 +1,67 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AGVReleaseQueueTest {
+
+    //The AGV with the least time is the earliest one, and it is updated when the time changes.
+    @Test
+    public void shouldFindTheEarliestAGVAfterTheTimeChanges() {
+        double[] times = {5.0, 3.0, 8.0, 4.0};
+        AGVReleaseQueue releaseQueue = new AGVReleaseQueue(times);
+        Random random = new Random(1);
+        assertEquals(1, releaseQueue.getEarliest(random));
+        times[1] = 10.0;
+        releaseQueue.update(1);
+        assertEquals(3, releaseQueue.getEarliest(random));
+        times[2] = 1.0;
+        releaseQueue.update(2);
+        assertEquals(2, releaseQueue.getEarliest(random));
+    }
+
+    //All the AGVs at the earliest time can be chosen, ordered by their index for the draw.
+    @Test
+    public void shouldChooseOneOfTheEarliestAGVsByTheDraw() {
+        double[] times = {2.0, 1.0, 3.0, 1.0, 1.0, 5.0};
+        AGVReleaseQueue releaseQueue = new AGVReleaseQueue(times);
+        int[] earliestAGVs = {1, 3, 4};
+        Set<Integer> chosenAGVs = new HashSet<>();
+        for (int seed = 0; seed < 50; seed++) {
+            int draw = new Random(seed).nextInt(earliestAGVs.length);
+            int indexOfAGV = releaseQueue.getEarliest(new Random(seed));
+            assertEquals(earliestAGVs[draw], indexOfAGV);
+            chosenAGVs.add(indexOfAGV);
+        }
+        assertEquals(3, chosenAGVs.size());
+    }
+
+    //Random times and updates should give the same earliest AGVs as searching all the AGVs.
+    @Test
+    public void shouldGiveTheSameEarliestAGVsAsSearchingAllTheAGVs() {
+        Random random = new Random(20190101L);
+        double[] times = new double[100];
+        AGVReleaseQueue releaseQueue = new AGVReleaseQueue(times);
+        for (int i = 0; i < 1000; i++) {
+            int indexOfAGV = random.nextInt(times.length);
+            times[indexOfAGV] += random.nextInt(5);
+            releaseQueue.update(indexOfAGV);
+            double earliestTime = Double.MAX_VALUE;
+            for (double time : times) {
+                earliestTime = Math.min(earliestTime, time);
+            }
+            assertTrue(times[releaseQueue.getEarliest(random)] == earliestTime);
+        }
+    }
+
+    @Test
+    public void shouldGiveNoAGVForAnEmptyFleet() {
+        assertEquals(-1, new AGVReleaseQueue(new double[0]).getEarliest(new Random()));
+    }
+}
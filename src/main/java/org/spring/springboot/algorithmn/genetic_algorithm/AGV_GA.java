@@ -4,17 +4,80 @@ import org.slf4j.LoggerFactory;
 import org.spring.springboot.algorithmn.common.CommonConstant;
 import org.spring.springboot.algorithmn.common.Path;
 import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.common.SolverMetrics;
+import org.spring.springboot.algorithmn.common.SparseGraph;
 import org.spring.springboot.algorithmn.conflict_free_routing.Routing;
+import org.spring.springboot.algorithmn.conflict_free_routing.RoutingGraph;
+import org.spring.springboot.algorithmn.conflict_free_routing.RoutingSnapshot;
 import org.spring.springboot.algorithmn.exception.NoAGVInTheBuffer;
 
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 //前端传的ongoingAGVPaths不要有个-1位
 //前端传的timeAlreadyPassing用-1表示空闲
 public class AGV_GA {
     private final Logger logger = LoggerFactory.getLogger(getClass());
-    private double[][] graph;
+    //Graph with buffer end node shared by the routings of all individuals
+    private RoutingGraph routingGraph;
+    //Time windows taken up by the ongoing AGVs, the same for all individuals of the request
+    private RoutingSnapshot baselineSnapshot;
+    //Path planning kept by each decoding thread, its routing is rolled back to the baseline snapshot before each individual
+    private ThreadLocal<PathPlanning> workerPathPlanning;
+    //Checkpoints of decoding, so the offspring sharing the first tasks with an individual decoded before resume from there
+    private DecodingCheckpointStore checkpointStore;
+    //Number of tasks between two checkpoints, 0 means no checkpoint is taken
+    private int checkpointInterval = 20;
+    //Results of the decoded task sequences, so the individuals decoded in the same way are not routed again
+    private DecodingCache decodingCache;
+    //Number of task sequences kept in the cache, 0 means no result is cached
+    private int decodingCacheSize = 1000;
+    //Keep only the time and fitness of the individuals, and decode the best one again at the end for its paths and records
+    private boolean lazyPaths = false;
+    //Route with A* toward the end node of each task, the reverse Dijkstra distances to the end node being the lower bounds
+    private boolean goalDirectedRouting = false;
+    //Stop decoding an individual once it cannot be better than the elitist, its fitness is marked as infinite then
+    private boolean earlyAbort = false;
+    //Total fitness an individual should not exceed to be decoded to the end, and the least time of each task ignoring the other AGVs
+    private double fitnessBound = Double.POSITIVE_INFINITY;
+    private double[] leastTimeOfTask;
+    private final AtomicLong abortedIndividuals = new AtomicLong();
+    //Milliseconds the evolution may take, 0 means no time budget, and the moment the budget runs out from System.nanoTime
+    private long timeBudget = 0;
+    private long deadline = Long.MAX_VALUE;
+    //Deadline checked while decoding, no deadline in the first generation as the elitist comes from it
+    private volatile long decodingDeadline = Long.MAX_VALUE;
+    //Generations after which the evolution stops whether it is stable or not, 0 means no limit
+    private int generationLimit = 0;
+    private final AtomicLong individualsPastDeadline = new AtomicLong();
+    //Number of sub-populations evolving on their own threads, and the generations between two migrations of their elitists
+    private int numberOfIslands = 1;
+    private int migrationInterval = 5;
+    //Elitists sent to this island by the last one, and the queue of the next island to send the elitist of this one to
+    private Queue<Migrant> incomingMigrants;
+    private Queue<Migrant> outgoingMigrants;
+    //Islands evolving for this algorithm, null if it evolves a single population
+    private volatile List<AGV_GA> runningIslands;
+    //Progress read by other threads: generations evolved and total fitness of the elitist, the best individual once it stops
+    private volatile int generation = 0;
+    private volatile double bestTotalFitness;
+    //Total fitness of the plan returned, found again by decoding it if the paths are not kept
+    private double planFitness;
+    //Set by another thread to stop the evolution as soon as possible
+    private volatile boolean cancelled = false;
+    //Latency of the phases and counters of the solve, shared by the islands, null if they are not collected
+    private SolverMetrics metrics;
+    //Seed mixed with the random key of the task to break ties when choosing the earliest AGV.
+    //The islands take the one of the main algorithm, so a migrant is decoded the same way on every island.
+    private long decodingSeed;
+    private boolean island = false;
     private int populationGen;
     // Priority of tasks have maintain in the array. First element for first priority.
     private Integer[][] tasks; // Each start and end for each task
@@ -23,7 +86,7 @@ public class AGV_GA {
     private List<List<Path>> ongoingAGVPaths; //Ongoing AGV path
     private List<List<Integer>> bufferSet; //All of the buffer and its path
     private Integer[] bufferForAGV; //Buffer number for each AGV
-    private List<Double[]> taskDistribution;//Generation for task distribution
+    private List<double[]> taskDistribution;//Generation for task distribution, random key of each task for each individual
     //path at least contain one node indicating the static position
     private List<List<List<Path>>> AGVPaths = new ArrayList<>(); //Path for each AGV in each generation
     private List<double[]> AGVTimes = new ArrayList<>(); //Gone time for each generation
@@ -31,7 +94,7 @@ public class AGV_GA {
     private List<List<List<Record>>> AGVRecords = new ArrayList<>(); // Record the finished tasks condition for the AGV
     private Map<Integer, Integer> taskMap;
 
-    private Double[] taskDistributionElitist;//Best generation for task elitist
+    private double[] taskDistributionElitist;//Best generation for task elitist
     private double[] AGVFitnessElitist;
     private double[] AGVTimesElitist;
     private List<List<Path>> AGVPathsElitist;
@@ -39,6 +102,11 @@ public class AGV_GA {
     private List<List<Record>> bestRecords = new ArrayList<>();
 
     private Random random = new Random();
+    //Random generator of the individual being decoded on this thread, the shared one is used out of decoding
+    private final ThreadLocal<Random> individualRandom = ThreadLocal.withInitial(() -> random);
+    //Number of threads to decode the individuals of one generation, 1 means decoding them one by one
+    private int parallelism = 1;
+    private ForkJoinPool forkJoinPool;
     private int taskNumber;
     private int sizeOfAGV;
     private double speedOfAGV;
@@ -58,23 +126,43 @@ public class AGV_GA {
     private final double PENALTY_FOR_CONFLICT = 99999;
     private final double RELATIVE_ERROR = 0.001;//收敛的相对误差，小于这个则表示稳定
     private final int INITIAL_CAPACITY = 30;
+    private final int MAX_CHECKPOINTS = 500;
 
 
     public AGV_GA(double[][] graph, Integer[][] tasks, Double[] timeAlreadyPassing, List<List<Path>> ongoingAGVPaths,
                   double speedOfAGV, List<List<Integer>> bufferSet, Integer[] bufferForAGV, Map<Integer, Integer> taskMap, double min_distance
     , List<List<Record>> bestRecords) {
-        this.graph = graph;
+        this(SparseGraph.fromAdjacencyMatrix(graph), tasks, timeAlreadyPassing, ongoingAGVPaths, speedOfAGV, bufferSet, bufferForAGV,
+                taskMap, min_distance, bestRecords);
+    }
+
+    public AGV_GA(SparseGraph graph, Integer[][] tasks, Double[] timeAlreadyPassing, List<List<Path>> ongoingAGVPaths,
+                  double speedOfAGV, List<List<Integer>> bufferSet, Integer[] bufferForAGV, Map<Integer, Integer> taskMap, double min_distance
+    , List<List<Record>> bestRecords) {
+        this(new RoutingGraph(graph, bufferSet), tasks, timeAlreadyPassing, ongoingAGVPaths, speedOfAGV, bufferSet, bufferForAGV,
+                taskMap, min_distance, bestRecords);
+    }
+
+    /**
+     * Create the algorithm on a routing graph built before, so the graph and the least distances found on it are shared
+     * by the requests on the same layout
+     * @param routingGraph Graph with the buffer end nodes built from the buffer set
+     */
+    public AGV_GA(RoutingGraph routingGraph, Integer[][] tasks, Double[] timeAlreadyPassing, List<List<Path>> ongoingAGVPaths,
+                  double speedOfAGV, List<List<Integer>> bufferSet, Integer[] bufferForAGV, Map<Integer, Integer> taskMap, double min_distance
+    , List<List<Record>> bestRecords) {
         this.tasks = tasks;
         this.timeAlreadyPassing = timeAlreadyPassing;
         this.ongoingAGVPaths = ongoingAGVPaths;
         this.speedOfAGV = speedOfAGV;
         this.bufferForAGV = bufferForAGV;
         this.bufferSet = bufferSet;
+        this.routingGraph = routingGraph;
         this.distanceOfBuffer = min_distance;
         populationGen = INITIAL_POPULATION;
         taskNumber = tasks.length;
         sizeOfAGV  = ongoingAGVPaths.size();
-        nodeSize = graph[0].length;
+        nodeSize = routingGraph.getOriginalGraphNodeNumber();
         this.taskMap = taskMap;
         taskDistribution = new ArrayList<>();
         this.bestRecords = bestRecords;
@@ -85,18 +173,18 @@ public class AGV_GA {
 
     AGV_GA(double[][] graph, Integer[][] tasks, Double[] timeAlreadyPassing, List<List<Path>> ongoingAGVPaths,
                   double speedOfAGV, List<List<Integer>> bufferSet, Integer[] bufferForAGV) {
-        this.graph = graph;
         this.tasks = tasks;
         this.timeAlreadyPassing = timeAlreadyPassing;
         this.ongoingAGVPaths = ongoingAGVPaths;
         this.speedOfAGV = speedOfAGV;
         this.bufferForAGV = bufferForAGV;
         this.bufferSet = bufferSet;
+        this.routingGraph = new RoutingGraph(graph, bufferSet);
         this.distanceOfBuffer = CommonConstant.BUFFER_PATH_LENGTH;
         populationGen = INITIAL_POPULATION;
         taskNumber = tasks.length;
         sizeOfAGV  = ongoingAGVPaths.size();
-        nodeSize = graph[0].length;
+        nodeSize = routingGraph.getOriginalGraphNodeNumber();
         taskDistribution = new ArrayList<>();
         timeForFinishingTasks = new Double[sizeOfAGV];
         initializeTaskMap();
@@ -104,6 +192,218 @@ public class AGV_GA {
         initializeAGVPopulation();
     }
 
+    /**
+     * Create an island sharing the request and the settings of the main algorithm, with a population of its own
+     * @param mainAlgorithm Algorithm the islands are created for
+     * @param seed Seed of the random generator of the island
+     */
+    private AGV_GA(AGV_GA mainAlgorithm, long seed) {
+        this.tasks = mainAlgorithm.tasks;
+        this.timeAlreadyPassing = mainAlgorithm.timeAlreadyPassing;
+        this.ongoingAGVPaths = mainAlgorithm.ongoingAGVPaths;
+        this.speedOfAGV = mainAlgorithm.speedOfAGV;
+        this.bufferForAGV = mainAlgorithm.bufferForAGV;
+        this.bufferSet = mainAlgorithm.bufferSet;
+        this.routingGraph = mainAlgorithm.routingGraph;
+        this.distanceOfBuffer = mainAlgorithm.distanceOfBuffer;
+        this.taskMap = mainAlgorithm.taskMap;
+        this.timeForFinishingTasks = mainAlgorithm.timeForFinishingTasks;
+        this.parallelism = mainAlgorithm.parallelism;
+        this.checkpointInterval = mainAlgorithm.checkpointInterval;
+        this.decodingCacheSize = mainAlgorithm.decodingCacheSize;
+        this.lazyPaths = mainAlgorithm.lazyPaths;
+        this.goalDirectedRouting = mainAlgorithm.goalDirectedRouting;
+        this.earlyAbort = mainAlgorithm.earlyAbort;
+        this.migrationInterval = mainAlgorithm.migrationInterval;
+        this.timeBudget = mainAlgorithm.timeBudget;
+        this.generationLimit = mainAlgorithm.generationLimit;
+        this.metrics = mainAlgorithm.metrics;
+        this.decodingSeed = mainAlgorithm.decodingSeed;
+        this.island = true;
+        populationGen = INITIAL_POPULATION;
+        taskNumber = tasks.length;
+        sizeOfAGV = ongoingAGVPaths.size();
+        nodeSize = mainAlgorithm.nodeSize;
+        taskDistribution = new ArrayList<>();
+        random.setSeed(seed);
+        initializeAGVPopulation();
+    }
+
+    /**
+     * Set the number of threads used to decode the individuals of one generation
+     * @param parallelism Size of the pool, 1 keeps the decoding sequential
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be at least 1!");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Set how often the decoding state is checkpointed. An offspring whose task sequence starts with the same tasks as an
+     * individual decoded in this or the last generation resumes from the nearest checkpoint instead of the first task.
+     * @param checkpointInterval Number of tasks between two checkpoints, 0 to decode every individual from the first task
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException("Checkpoint interval should not be negative!");
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Set how many decoded task sequences are cached. Random keys of different individuals often give the same task sequence,
+     * such an individual takes the result from the cache if it breaks the ties of choosing the earliest AGV in the same way.
+     * @param decodingCacheSize Number of task sequences kept, the least recently used one is evicted. 0 to decode every individual.
+     */
+    public void setDecodingCacheSize(int decodingCacheSize) {
+        if (decodingCacheSize < 0) {
+            throw new IllegalArgumentException("Size of the decoding cache should not be negative!");
+        }
+        this.decodingCacheSize = decodingCacheSize;
+    }
+
+    /**
+     * Set if only the time and fitness are kept for the individuals. Decoding is deterministic for the same random keys,
+     * so the paths and records of the best individual are got by decoding it again after the evolution stops.
+     * @param lazyPaths True to drop the paths and records of every individual once it is decoded
+     */
+    public void setLazyPaths(boolean lazyPaths) {
+        this.lazyPaths = lazyPaths;
+    }
+
+    /**
+     * Set if an individual stops being decoded once its fitness so far, plus the least time of the tasks left, exceeds the
+     * fitness of the elitist. The fitness only grows while decoding, so such an individual can never be the best one.
+     * Its fitness is marked as infinite, so it is never selected.
+     * @param earlyAbort True to stop decoding the individuals worse than the elitist
+     */
+    public void setEarlyAbort(boolean earlyAbort) {
+        this.earlyAbort = earlyAbort;
+    }
+
+    /**
+     * Set if the routings are directed to the end node of each task. The AGVs arrive at the same time with much less
+     * search, but the path may be another one of the same time, so the AGVs routed after may get a different plan.
+     * @param goalDirectedRouting True to direct the routings to the end node
+     */
+    public void setGoalDirectedRouting(boolean goalDirectedRouting) {
+        this.goalDirectedRouting = goalDirectedRouting;
+    }
+
+    /**
+     * Set how long the evolution may take. The budget is checked after each generation and before each task is decoded,
+     * the individuals left when it runs out are not decoded and never selected. The elitist of the generation is returned
+     * then. The first generation is always decoded in full, so it may take longer than the budget.
+     * @param timeBudget Milliseconds the evolution may take, 0 to stop only when the population is stable
+     */
+    public void setTimeBudget(long timeBudget) {
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("Time budget should not be negative!");
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Stop the evolution after a number of generations, whatever time it takes. The elitist of the last generation is
+     * returned then, like when the time budget runs out.
+     * @param generationLimit Generations to evolve at most, 0 to stop only when the population is stable
+     */
+    void setGenerationLimit(int generationLimit) {
+        if (generationLimit < 0) {
+            throw new IllegalArgumentException("Generation limit should not be negative!");
+        }
+        this.generationLimit = generationLimit;
+    }
+
+    /**
+     * Set the metrics to record the latency of each phase and the counters of the evolution and the routings into.
+     * The islands record into the same metrics.
+     * @param metrics Metrics of this solve, null to collect nothing
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stop the evolution from another thread. The individuals being decoded are dropped and the evolution stops after this
+     * generation, the plan returned then is not complete and should not be used.
+     */
+    public void cancel() {
+        cancelled = true;
+        List<AGV_GA> islands = runningIslands;
+        if (islands != null) {
+            for (AGV_GA island : islands) {
+                island.cancel();
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return Number of generations evolved so far, the most of all the islands
+     */
+    public int getGeneration() {
+        List<AGV_GA> islands = runningIslands;
+        if (islands == null) {
+            return generation;
+        }
+        int mostGenerations = 0;
+        for (AGV_GA island : islands) {
+            mostGenerations = Math.max(mostGenerations, island.getGeneration());
+        }
+        return mostGenerations;
+    }
+
+    /**
+     * @return Most generations the evolution takes if the population is never stable
+     */
+    public int getMaxGeneration() {
+        return MAX_GENERATION + 1;
+    }
+
+    /**
+     * Set the number of sub-populations evolving on their own threads. Each island has its own population and adapts its
+     * own crossover and mutation probability, the elitist of each island is sent to the next one every few generations.
+     * Islands take the migrants whenever they arrive, so the plan is only reproducible for the same seed with one island.
+     * @param numberOfIslands Number of islands, 1 evolves a single population on the calling thread
+     * @param migrationInterval Number of generations between two migrations
+     */
+    public void setIslands(int numberOfIslands, int migrationInterval) {
+        if (numberOfIslands < 1) {
+            throw new IllegalArgumentException("Number of islands should be at least 1!");
+        }
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval should be at least 1!");
+        }
+        this.numberOfIslands = numberOfIslands;
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * Fix the seed of the random generator so that the same plan comes out for the same input, whatever the parallelism is.
+     * The initial population is regenerated from the seed, so it should be called before the population is evolved.
+     * @param seed Seed of the random generator
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+        taskDistribution.clear();
+        populationGen = INITIAL_POPULATION;
+        initializeAGVPopulation();
+    }
+
     private void initializeTaskMap() {
         taskMap = new HashMap<>();
         for (int i = 0; i < taskNumber; i++) {
@@ -112,6 +412,10 @@ public class AGV_GA {
     }
 
     public List<List<Path>> singleObjectGenericAlgorithm() throws NoAGVInTheBuffer {
+        deadline = timeBudget > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudget) : Long.MAX_VALUE;
+        if (numberOfIslands > 1) {
+            return evolveIslands();
+        }
         //Record how many times the generation has been stable.
         int stableTimes = 0;
         //Record how many times it have evolved
@@ -119,204 +423,216 @@ public class AGV_GA {
         // When 10 consecutive mean fitness has been stable and the looping times exceeds the min generation looping times or it
         // has reached the max generation looping times, evolution stops.
         double[] totalFitness;
-        while (true) {
-            logger.info("Evolve to {} Generation", evolveTimes);
-            initializeCrossoverProbability();
-            //crossover taskDistribution
-            crossoverScheduling();
-            //Update population
-            populationGen = taskDistribution.size();
-            initializeMutateProbability();
-            //Mutate taskDistribution
-            mutateScheduling();
-
-            //Update elitist
-            if (taskDistributionElitist != null) {
-                taskDistribution.add(taskDistributionElitist);
-                AGVPaths.add(AGVPathsElitist);
-                AGVTimes.add(AGVTimesElitist);
-                AGVFitness.add(AGVFitnessElitist);
-                AGVRecords.add(AGVRecordsElitist);
-            }
-
-            //Update population
-            populationGen = taskDistribution.size();
-            int previousPopulationGen = AGVFitness.size();
-
-            //新增的子代的适应度，路径和时间的初始化
-            List<double[]> localAGVFitness = initialLocalAGVFitness(previousPopulationGen, populationGen);
-
-            //初始化该次循环下的路径，初始时间列表，AGV行驶记录，每一个子代的每一个车的路径
-            List<List<List<Path>>> localAGVPaths = initialLocalAGVPaths(previousPopulationGen, populationGen);
-
-            List<double[]> localAGVTimes = initialLocalAGVTimes(previousPopulationGen, populationGen);
-
-            List<List<List<Record>>> localAGVRecords = initialLocalAGVRecords(previousPopulationGen, populationGen);
-
-            // taskSequence所有子代的任务顺序 list存每个个体的任务顺序，数组存储每个个体的任务顺序，如3，2，0，1，表示先做第3个任务
-            List<Integer[]> taskSequence = new ArrayList<>();
-            getTaskSequence(taskSequence);
-            //Record the index of ongoing task
-            int countOfGeneration = 0;
-            logger.info("Number of Generation is {}", populationGen);
-            for (List<List<Path>> generationForAGVPaths : localAGVPaths) {
-                int countOfTasks = 0;
-                Routing routing = new Routing(graph, bufferSet, speedOfAGV, INITIAL_CAPACITY);
-                PathPlanning pathPlanning = new PathPlanning(sizeOfAGV, PENALTY_FOR_CONFLICT, speedOfAGV, distanceOfBuffer, routing);
-                double[] currentAGVsTime = localAGVTimes.get(countOfGeneration);
-                double[] currentAGVsFitness = localAGVFitness.get(countOfGeneration);
-                List<List<Record>> currentAGVsRecord = localAGVRecords.get(countOfGeneration);
-                // Set ongoing AGVs path take-up to the routing
-                for (int i = 0; i < sizeOfAGV; i++) {
-                    if (timeAlreadyPassing[i] != -1) {
-                        List<Path> path = generationForAGVPaths.get(i);
-                        routing.setCurrentPathsToTimeWindows(path, timeAlreadyPassing[i], i);
-                        //Set this ongoing AGV as the backing AGV to check later and delete the last backing path in the buffer
-                        deleteLastBufferPath(path);
-                        pathPlanning.setBackingAGV(i);
-                    }
+        baselineSnapshot = createBaselineSnapshot();
+        workerPathPlanning = ThreadLocal.withInitial(this::createWorkerPathPlanning);
+        if (!island) {
+            decodingSeed = random.nextLong();
+        }
+        checkpointStore = checkpointInterval > 0 ? new DecodingCheckpointStore(checkpointInterval, MAX_CHECKPOINTS) : null;
+        decodingCache = decodingCacheSize > 0 ? new DecodingCache(decodingCacheSize) : null;
+        leastTimeOfTask = earlyAbort ? computeLeastTimeOfTasks() : null;
+        fitnessBound = Double.POSITIVE_INFINITY;
+        decodingDeadline = Long.MAX_VALUE;
+        if (parallelism > 1) {
+            forkJoinPool = new ForkJoinPool(parallelism);
+        }
+        try {
+            while (true) {
+                logger.info("Evolve to {} Generation", evolveTimes);
+                takeMigrants();
+                long phaseStartTime = startPhase();
+                initializeCrossoverProbability();
+                //crossover taskDistribution
+                crossoverScheduling();
+                phaseStartTime = endPhase(SolverMetrics.Phase.CROSSOVER, phaseStartTime);
+                //Update population
+                populationGen = taskDistribution.size();
+                initializeMutateProbability();
+                //Mutate taskDistribution
+                mutateScheduling();
+                endPhase(SolverMetrics.Phase.MUTATION, phaseStartTime);
+
+                //Update elitist, put it after the parents so the keys stay at the same index as the results of the individual
+                if (taskDistributionElitist != null) {
+                    taskDistribution.add(AGVFitness.size(), taskDistributionElitist);
+                    AGVPaths.add(AGVPathsElitist);
+                    AGVTimes.add(AGVTimesElitist);
+                    AGVFitness.add(AGVFitnessElitist);
+                    AGVRecords.add(AGVRecordsElitist);
+                }
+
+                //Update population
+                populationGen = taskDistribution.size();
+                int previousPopulationGen = AGVFitness.size();
+
+                //新增的子代的适应度，路径和时间的初始化
+                List<double[]> localAGVFitness = initialLocalAGVFitness(previousPopulationGen, populationGen);
+
+                //初始化该次循环下的路径，初始时间列表，AGV行驶记录，每一个子代的每一个车的路径
+                List<List<List<Path>>> localAGVPaths = initialLocalAGVPaths(previousPopulationGen, populationGen);
+
+                List<double[]> localAGVTimes = initialLocalAGVTimes(previousPopulationGen, populationGen);
+
+                List<List<List<Record>>> localAGVRecords = initialLocalAGVRecords(previousPopulationGen, populationGen);
+
+                // taskSequence所有子代的任务顺序 list存每个个体的任务顺序，数组存储每个个体的任务顺序，如3，2，0，1，表示先做第3个任务
+                List<int[]> taskSequence = new ArrayList<>();
+                getTaskSequence(taskSequence);
+                int numberOfNewIndividuals = populationGen - previousPopulationGen;
+                if (checkpointStore != null) {
+                    checkpointStore.nextGeneration();
+                }
+                logger.info("Number of Generation is {}", populationGen);
+                if (earlyAbort && AGVFitnessElitist != null) {
+                    fitnessBound = sumOf(AGVFitnessElitist);
                 }
-                routing.setFreeTimeWindow();
-                while (countOfTasks < taskNumber) {
-                    int indexOfAGV = getEarliestAGV(currentAGVsTime);
-                    List<Integer> buffer = bufferSet.get(bufferForAGV[indexOfAGV]);
-                    List<Path> earliestAGVPath = generationForAGVPaths.get(indexOfAGV);
-                    //If the AGV is returning to the buffer, plan the path to the second to the last of the buffer first
-                    if (pathPlanning.isReturning(indexOfAGV)) {
-                        pathPlanning.returnAGVToBuffer(indexOfAGV, buffer, earliestAGVPath, buffer.size() - 2);
+                if (AGVFitnessElitist != null) {
+                    decodingDeadline = deadline;
+                }
+                if (parallelism > 1) {
+                    evaluateIndividualsInParallel(localAGVPaths, localAGVTimes, localAGVFitness, localAGVRecords,
+                            taskSequence, previousPopulationGen, numberOfNewIndividuals);
+                }
+                else {
+                    for (int countOfGeneration = 0; countOfGeneration < numberOfNewIndividuals; countOfGeneration++) {
+                        decodeNewIndividual(localAGVPaths, localAGVTimes, localAGVFitness, localAGVRecords, taskSequence,
+                                previousPopulationGen, countOfGeneration);
                     }
-                    int pathStartIndex = earliestAGVPath.size() - 1;
-                    Path startPath = earliestAGVPath.get(pathStartIndex);
-                    int numberOfTask = taskSequence.get(countOfGeneration + previousPopulationGen)[countOfTasks];
-                    //Set records for AGV
-                    setRecord(currentAGVsRecord.get(indexOfAGV), taskMap.get(numberOfTask));
-                    List<Path> paths1 = pathPlanning.getPath(tasks[numberOfTask][0],
-                            startPath.getEndNode(), indexOfAGV, currentAGVsFitness, currentAGVsTime);
-                    // No Feasible path, quit the task distribution
-                    if (paths1.isEmpty()) {
-                        break;
+                }
+                if (checkpointStore != null) {
+                    logger.info("{} of {} tasks are resumed from checkpoints", checkpointStore.getResumedTasks(),
+                            checkpointStore.getDispatchedTasks());
+                }
+                if (decodingCache != null) {
+                    logger.info("Decoding cache hits {} and misses {}", decodingCache.getHits(), decodingCache.getMisses());
+                }
+                if (earlyAbort) {
+                    logger.info("{} individuals are aborted for being worse than the elitist", abortedIndividuals.get());
+                }
+                if (timeBudget > 0) {
+                    logger.info("{} individuals are not decoded for the time budget", individualsPastDeadline.get());
+                }
+                if (!lazyPaths) {
+                    logger.info("Path is {}", localAGVPaths);
+                    logger.info("Records are {}", localAGVRecords);
+                }
+                //Put children and parents generation together
+                AGVFitness.addAll(localAGVFitness);
+                AGVTimes.addAll(localAGVTimes);
+                AGVPaths.addAll(localAGVPaths);
+                AGVRecords.addAll(localAGVRecords);
+                // Calculate all of the fitness for each generation. Use the 1/totalFitness to express the fitness.
+                totalFitness = new double[populationGen];
+                for (int j = 0; j < populationGen; j++) {
+                    double[] fitnessForThisGeneration = AGVFitness.get(j);
+                    for (int k = 0; k < sizeOfAGV; k++) {
+                        totalFitness[j] += fitnessForThisGeneration[k];
                     }
-                    //Get path2
-                    List<Path> paths2 = pathPlanning.getPath(tasks[numberOfTask][1],
-                            paths1.get(paths1.size() - 1).getEndNode(), indexOfAGV, currentAGVsFitness, currentAGVsTime);
-                    if (paths2.isEmpty()) {
-                        break;
+                    totalFitness[j] = 1 / totalFitness[j];
+                }
+
+
+                //Preserve the elitist, skip mutation and crossover
+                int index = elitistPreservation(totalFitness);
+                logger.info("Best generation fitness is {}", totalFitness[index]);
+                taskDistributionElitist = taskDistribution.get(index);
+
+                AGVFitnessElitist = AGVFitness.get(index);
+                AGVTimesElitist = AGVTimes.get(index);
+                AGVPathsElitist = AGVPaths.get(index);
+                AGVRecordsElitist= AGVRecords.get(index);
+                bestTotalFitness = totalFitness[index];
+                generation = evolveTimes;
+                if (outgoingMigrants != null && evolveTimes % migrationInterval == 0) {
+                    outgoingMigrants.offer(new Migrant(taskDistributionElitist, AGVFitnessElitist, AGVTimesElitist,
+                            AGVPathsElitist, AGVRecordsElitist));
+                }
+                //Stop before the selection, so the elitist is still in the population to be returned
+                if (System.nanoTime() >= deadline) {
+                    logger.info("Time budget runs out at {} Generation", evolveTimes);
+                    break;
+                }
+                if (generationLimit > 0 && evolveTimes >= generationLimit) {
+                    logger.info("Generation limit is reached at {} Generation", evolveTimes);
+                    break;
+                }
+                if (cancelled) {
+                    logger.info("Evolution is cancelled at {} Generation", evolveTimes);
+                    break;
+                }
+
+                //Use set to choose the survival generation left
+                long selectionStartTime = startPhase();
+                Set<Integer> survival = new HashSet<>();
+                for (int j = 0; j < populationGen; j++) {
+                    survival.add(rouletteSelect(totalFitness));
+                }
+                //Remove the dead generation in a reverse order to avoid index chaos
+                for (int j = populationGen - 1; j >= 0; j--) {
+                    if (!survival.contains(j)) {
+                        taskDistribution.remove(j);
+                        AGVFitness.remove(j);
+                        AGVPaths.remove(j);
+                        AGVTimes.remove(j);
+                        AGVRecords.remove(j);
                     }
-                    earliestAGVPath.addAll(paths1);
-                    earliestAGVPath.addAll(paths2);
-                    //Adjust all the other AGVs in the buffer, to move them forward once and change the reserved and free time window corresponding
-                    pathPlanning.adjustOtherAGVPositions(buffer, generationForAGVPaths, currentAGVsFitness);
-                    countOfTasks++;
-                    //If the next earliest AGV having jobs to get down is not the same one, drive the AGV back to start of the buffer instead of being stuck in the road
-                    //Increase time to the moment the AGV comes to the second to the last node in the buffer.
-                    if (!(getEarliestAGV(currentAGVsTime) == indexOfAGV && countOfTasks < taskNumber)) {
-                        Path lastPath = paths2.get(paths2.size() - 1);
-                        int startNode = lastPath.getEndNode();
-                        int endNode = buffer.get(0);
-                        List<Path> pathToStartOfBuffer = pathPlanning.getPath(endNode,
-                                startNode, indexOfAGV, currentAGVsFitness, currentAGVsTime);
-                        if (pathToStartOfBuffer.get(0).getStartNode() == pathToStartOfBuffer.get(0).getEndNode()) {
-                            pathToStartOfBuffer.remove(0);
-                        }
-                        earliestAGVPath.addAll(pathToStartOfBuffer);
-                        pathPlanning.setBackingAGV(indexOfAGV);
-                        int numberOfBufferToCross = buffer.size() - 2;
-                        currentAGVsTime[indexOfAGV] += timeForCrossingBuffers(numberOfBufferToCross);
-                        currentAGVsFitness[indexOfAGV] += timeForCrossingBuffers(numberOfBufferToCross);
+                }
+                //Update populationGen
+                populationGen = taskDistribution.size();
+                endPhase(SolverMetrics.Phase.SELECTION, selectionStartTime);
+                previousMeanFitness = currentMeanFitness;
+                totalFitness = new double[populationGen];
+                currentMeanFitness = 0;
+
+                double currentTotalFitness = 0;
+                for (int j = 0; j < populationGen; j++) {
+                    double[] fitnessForThisGeneration = AGVFitness.get(j);
+                    for (int k = 0; k < sizeOfAGV; k++) {
+                        totalFitness[j] += fitnessForThisGeneration[k];
                     }
+                    totalFitness[j] = 1 / totalFitness[j];
+                    //Calculate the current fitness
+                    currentTotalFitness += totalFitness[j];
                 }
-                //Navigate returning AGV back to their proper position in the buffer
-                pathPlanning.navigateAGVsToInnerBuffer(generationForAGVPaths, bufferSet, bufferForAGV, currentAGVsTime);
-                countOfGeneration++;
-            }
-            logger.info("Path is {}", localAGVPaths);
-            logger.info("Records are {}", localAGVRecords);
-            //Put children and parents generation together
-            AGVFitness.addAll(localAGVFitness);
-            AGVTimes.addAll(localAGVTimes);
-            AGVPaths.addAll(localAGVPaths);
-            AGVRecords.addAll(localAGVRecords);
-            // Calculate all of the fitness for each generation. Use the 1/totalFitness to express the fitness.
-            totalFitness = new double[populationGen];
-            for (int j = 0; j < populationGen; j++) {
-                double[] fitnessForThisGeneration = AGVFitness.get(j);
-                for (int k = 0; k < sizeOfAGV; k++) {
-                    totalFitness[j] += fitnessForThisGeneration[k];
-                }
-                totalFitness[j] = 1 / totalFitness[j];
-            }
-
-
-            //Preserve the elitist, skip mutation and crossover
-            int index = elitistPreservation(totalFitness);
-            logger.info("Best generation fitness is {}", totalFitness[index]);
-            taskDistributionElitist = taskDistribution.get(index);
-
-            AGVFitnessElitist = AGVFitness.get(index);
-            AGVTimesElitist = AGVTimes.get(index);
-            AGVPathsElitist = AGVPaths.get(index);
-            AGVRecordsElitist= AGVRecords.get(index);
-
-            //Use set to choose the survival generation left
-            Set<Integer> survival = new HashSet<>();
-            for (int j = 0; j < populationGen; j++) {
-                survival.add(rouletteSelect(totalFitness));
-            }
-            //Remove the dead generation in a reverse order to avoid index chaos
-            for (int j = populationGen - 1; j >= 0; j--) {
-                if (!survival.contains(j)) {
-                    taskDistribution.remove(j);
-                    AGVFitness.remove(j);
-                    AGVPaths.remove(j);
-                    AGVTimes.remove(j);
-                    AGVRecords.remove(j);
-                }
-            }
-            //Update populationGen
-            populationGen = taskDistribution.size();
-            previousMeanFitness = currentMeanFitness;
-            totalFitness = new double[populationGen];
-            currentMeanFitness = 0;
-
-            double currentTotalFitness = 0;
-            for (int j = 0; j < populationGen; j++) {
-                double[] fitnessForThisGeneration = AGVFitness.get(j);
-                for (int k = 0; k < sizeOfAGV; k++) {
-                    totalFitness[j] += fitnessForThisGeneration[k];
-                }
-                totalFitness[j] = 1 / totalFitness[j];
-                //Calculate the current fitness
-                currentTotalFitness += totalFitness[j];
-            }
-            //Current mean fitness calculation
-            currentMeanFitness = currentTotalFitness / populationGen;
-            //调整变异和交叉的概率
-            regulateProbability(previousMeanFitness, currentMeanFitness);
-
-            logger.info("Current mutation probability is {}, current crossover probability is {}", mutationProbability, crossoverProbability);
-
-            logger.info("Current fitness is {}, previous fitness is {}", currentMeanFitness, previousMeanFitness);
-
-            logger.info("Stable times is {}", stableTimes);
-            //If the variation between current and previous mean fitness is less than relative error, the model is stable.
-            if (currentMeanFitness - previousMeanFitness < currentMeanFitness * RELATIVE_ERROR &&
-                    currentMeanFitness - previousMeanFitness > -currentMeanFitness * RELATIVE_ERROR) {
-                stableTimes++;
-            }
-            else {
-                stableTimes = 0;
-            }
+                //Current mean fitness calculation
+                currentMeanFitness = currentTotalFitness / populationGen;
+                //调整变异和交叉的概率
+                regulateProbability(previousMeanFitness, currentMeanFitness);
 
-            logger.info("Current population is {}", populationGen);
+                logger.info("Current mutation probability is {}, current crossover probability is {}", mutationProbability, crossoverProbability);
 
-            if (((stableTimes >= 10 && evolveTimes > MIN_GENERATION) || evolveTimes > MAX_GENERATION )) {
-                break;
-            }
+                logger.info("Current fitness is {}, previous fitness is {}", currentMeanFitness, previousMeanFitness);
+
+                logger.info("Stable times is {}", stableTimes);
+                //If the variation between current and previous mean fitness is less than relative error, the model is stable.
+                if (currentMeanFitness - previousMeanFitness < currentMeanFitness * RELATIVE_ERROR &&
+                        currentMeanFitness - previousMeanFitness > -currentMeanFitness * RELATIVE_ERROR) {
+                    stableTimes++;
+                }
+                else {
+                    stableTimes = 0;
+                }
 
-            evolveTimes++;
+                logger.info("Current population is {}", populationGen);
+
+                if (((stableTimes >= 10 && evolveTimes > MIN_GENERATION) || evolveTimes > MAX_GENERATION )) {
+                    break;
+                }
+
+                evolveTimes++;
 //            for (double[] fitness : AGVFitness) {
 //                logger.info("AGV Fitness is {}", fitness);
 //            }
+            }
+        }
+        finally {
+            if (forkJoinPool != null) {
+                forkJoinPool.shutdown();
+                forkJoinPool = null;
+            }
+            //The threads of the pool are gone, only the routing kept by this thread is left
+            workerPathPlanning.remove();
+            addCountersToMetrics();
         }
 
         Double[] sortFitnessArray = new Double[populationGen];
@@ -332,16 +648,481 @@ public class AGV_GA {
             }
         }
         List<List<Record>> finalRecords = AGVRecords.get(maxFitnessGeneration);
+        List<List<Path>> optimalPaths = AGVPaths.get(maxFitnessGeneration);
+        planFitness = totalFitness[maxFitnessGeneration];
+        if (lazyPaths) {
+            finalRecords = initialLocalAGVRecords(0, 1).get(0);
+            optimalPaths = initialLocalAGVPaths(0, 1).get(0);
+            planFitness = redecodeIndividual(optimalPaths, finalRecords, taskDistribution.get(maxFitnessGeneration));
+        }
         logger.info("Last Stable times is {}", stableTimes);
-        logger.info("Best route is {}, its fitness is {}, its time is {}", AGVPaths.get(maxFitnessGeneration), totalFitness[maxFitnessGeneration], 1 / totalFitness[maxFitnessGeneration]);
+        logger.info("Best route is {}, its fitness is {}, its time is {}", optimalPaths, totalFitness[maxFitnessGeneration], 1 / totalFitness[maxFitnessGeneration]);
         logger.info("Best records are {}", finalRecords);
+        bestTotalFitness = totalFitness[maxFitnessGeneration];
 
         bestRecords.addAll(finalRecords);
-        List<List<Path>> optimalPaths = AGVPaths.get(maxFitnessGeneration);
         //Delete redundant path
         return deleteUnnecessaryPaths(optimalPaths);
     }
 
+    /**
+     * Evolve the islands on their own threads, linked in a ring to send their elitists to the next one.
+     * The plan of the island with the best individual is taken.
+     * @return Paths of the best individual of all the islands
+     * @throws NoAGVInTheBuffer Find no AGV is returning to specific buffer
+     */
+    private List<List<Path>> evolveIslands() throws NoAGVInTheBuffer {
+        List<AGV_GA> islands = new ArrayList<>(numberOfIslands);
+        List<Queue<Migrant>> migrationQueues = new ArrayList<>(numberOfIslands);
+        decodingSeed = random.nextLong();
+        for (int i = 0; i < numberOfIslands; i++) {
+            islands.add(new AGV_GA(this, random.nextLong()));
+            migrationQueues.add(new ConcurrentLinkedQueue<>());
+        }
+        List<Callable<List<List<Path>>>> evolutions = new ArrayList<>(numberOfIslands);
+        for (int i = 0; i < numberOfIslands; i++) {
+            AGV_GA island = islands.get(i);
+            island.incomingMigrants = migrationQueues.get(i);
+            island.outgoingMigrants = migrationQueues.get((i + 1) % numberOfIslands);
+            evolutions.add(island::singleObjectGenericAlgorithm);
+        }
+        runningIslands = islands;
+        //Cancelled before the islands can be reached
+        if (cancelled) {
+            cancel();
+        }
+        ForkJoinPool islandPool = new ForkJoinPool(numberOfIslands);
+        List<List<List<Path>>> islandPaths;
+        try {
+            islandPaths = invokeAll(islandPool, evolutions, "Evolution of the islands is interrupted");
+        }
+        finally {
+            islandPool.shutdown();
+        }
+        int bestIsland = 0;
+        for (int i = 1; i < numberOfIslands; i++) {
+            if (islands.get(i).bestTotalFitness > islands.get(bestIsland).bestTotalFitness) {
+                bestIsland = i;
+            }
+        }
+        logger.info("Best island is {}, its fitness is {}", bestIsland, islands.get(bestIsland).bestTotalFitness);
+        bestTotalFitness = islands.get(bestIsland).bestTotalFitness;
+        planFitness = islands.get(bestIsland).planFitness;
+        bestRecords.addAll(islands.get(bestIsland).bestRecords);
+        return islandPaths.get(bestIsland);
+    }
+
+    /**
+     * Put the elitists sent by the last island after the parents, they are selected with the parents in this generation
+     */
+    private void takeMigrants() {
+        //The first generation is not decoded yet, the migrants wait for the next one
+        if (incomingMigrants == null || AGVFitness.size() != taskDistribution.size()) {
+            return;
+        }
+        Migrant migrant;
+        while ((migrant = incomingMigrants.poll()) != null) {
+            taskDistribution.add(migrant.getTaskDistribution());
+            AGVFitness.add(migrant.getAGVFitness());
+            AGVTimes.add(migrant.getAGVTimes());
+            AGVPaths.add(migrant.getAGVPaths());
+            AGVRecords.add(migrant.getAGVRecords());
+        }
+        populationGen = taskDistribution.size();
+    }
+
+    /**
+     * Set the ongoing AGVs path take-up to a routing once, every individual starts routing from a copy of it.
+     * @return Snapshot of the time windows with the ongoing AGVs
+     */
+    private RoutingSnapshot createBaselineSnapshot() {
+        Routing routing = new Routing(routingGraph, speedOfAGV, INITIAL_CAPACITY);
+        for (int i = 0; i < sizeOfAGV; i++) {
+            if (timeAlreadyPassing[i] != -1) {
+                routing.setCurrentPathsToTimeWindows(ongoingAGVPaths.get(i), timeAlreadyPassing[i], i);
+            }
+        }
+        routing.setFreeTimeWindow();
+        return routing.createSnapshot();
+    }
+
+    private Routing createRouting(RoutingSnapshot routingSnapshot) {
+        Routing routing = routingSnapshot.createRouting();
+        routing.setGoalDirected(goalDirectedRouting);
+        routing.setMetrics(metrics);
+        return routing;
+    }
+
+    //Time from System.nanoTime the phase starts, 0 if no metrics are collected
+    private long startPhase() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Record the time the phase takes
+     * @param phase Phase ended
+     * @param startTime Time the phase starts
+     * @return Time the phase ends, so the next phase starts from it
+     */
+    private long endPhase(SolverMetrics.Phase phase, long startTime) {
+        if (metrics == null) {
+            return 0;
+        }
+        long endTime = System.nanoTime();
+        metrics.record(phase, endTime - startTime);
+        return endTime;
+    }
+
+    //The counters of this population are added once its evolution stops
+    private void addCountersToMetrics() {
+        if (metrics == null) {
+            return;
+        }
+        metrics.add(SolverMetrics.Counter.GENERATIONS, generation);
+        metrics.add(SolverMetrics.Counter.INDIVIDUALS_ABORTED, abortedIndividuals.get());
+        metrics.add(SolverMetrics.Counter.INDIVIDUALS_PAST_DEADLINE, individualsPastDeadline.get());
+        if (decodingCache != null) {
+            metrics.add(SolverMetrics.Counter.DECODING_CACHE_HITS, decodingCache.getHits());
+        }
+    }
+
+    /**
+     * The least time of each task from its start node to its end node ignoring the other AGVs, which is never more than the
+     * fitness the task adds. Going to the start node of the task is not counted.
+     * @return Least time of each task
+     */
+    private double[] computeLeastTimeOfTasks() {
+        double[] leastTimes = new double[taskNumber];
+        for (int i = 0; i < taskNumber; i++) {
+            int startNode = tasks[i][0];
+            int endNode = tasks[i][1];
+            if (endNode < 0 || endNode >= routingGraph.getGraphNodeNumber() || startNode < 0 || startNode >= routingGraph.getGraphNodeNumber()) {
+                continue;
+            }
+            double leastDistance = routingGraph.getLeastDistancesTo(endNode)[startNode];
+            //The task fails to be routed if the end node cannot be reached, which is penalized when it is decoded
+            if (leastDistance < CommonConstant.INFINITE) {
+                leastTimes[i] = leastDistance / speedOfAGV;
+            }
+        }
+        return leastTimes;
+    }
+
+    /**
+     * @return Total fitness of the best individual so far, 1 divided by the total time of its AGVs. It is the best one of
+     * the last generation once the evolution stops. 0 before the first generation is evolved.
+     */
+    public double getBestTotalFitness() {
+        List<AGV_GA> islands = runningIslands;
+        if (islands == null) {
+            return bestTotalFitness;
+        }
+        double bestOfIslands = bestTotalFitness;
+        for (AGV_GA island : islands) {
+            bestOfIslands = Math.max(bestOfIslands, island.getBestTotalFitness());
+        }
+        return bestOfIslands;
+    }
+
+    /**
+     * @return Total fitness of the plan returned once the evolution stops, found by decoding it again with lazy paths
+     */
+    double getPlanFitness() {
+        return planFitness;
+    }
+
+    /**
+     * @return Number of individuals stopped being decoded for being worse than the elitist
+     */
+    long getAbortedIndividuals() {
+        return abortedIndividuals.get();
+    }
+
+    private static double sumOf(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Create the path planning of a decoding thread with its routing marked at the baseline snapshot
+     * @return Path planning to be reused by the individuals decoded on this thread
+     */
+    private PathPlanning createWorkerPathPlanning() {
+        Routing routing = createRouting(baselineSnapshot);
+        routing.markCheckpoint();
+        return new PathPlanning(sizeOfAGV, PENALTY_FOR_CONFLICT, speedOfAGV, distanceOfBuffer, routing);
+    }
+
+    /**
+     * Decode one individual by dispatching its task sequence to the AGVs and routing them conflict-free.
+     * Every thread owns its routing and path planning, which are rolled back before the individual, and every individual
+     * owns its random generator, so individuals can be decoded concurrently. Ties are broken by the random key of the task
+     * being dispatched, so the state after some tasks only depends on those tasks and how their ties are broken. The individual
+     * takes the result from the cache or resumes from a checkpoint of another individual when they agree on both.
+     * @param generationForAGVPaths Paths of all the AGVs for this individual
+     * @param currentAGVsTime Time of all the AGVs for this individual
+     * @param currentAGVsFitness Fitness of all the AGVs for this individual
+     * @param currentAGVsRecord Records of the finished tasks of all the AGVs for this individual
+     * @param taskSequence Order of the tasks to be dispatched, it is kept by the cache and checkpoints so it should not be changed
+     * @param taskCode Random keys of the tasks of the individual
+     * @throws NoAGVInTheBuffer Find no AGV is returning to specific buffer
+     */
+    private void decodeIndividual(List<List<Path>> generationForAGVPaths, double[] currentAGVsTime, double[] currentAGVsFitness,
+                                  List<List<Record>> currentAGVsRecord, int[] taskSequence, double[] taskCode) throws NoAGVInTheBuffer {
+        TieBreakRandom tieBreakRandom = new TieBreakRandom(decodingSeed);
+        individualRandom.set(tieBreakRandom);
+        try {
+            int countOfTasks = 0;
+            long[] keySequence = new long[taskNumber];
+            for (int i = 0; i < taskNumber; i++) {
+                keySequence[i] = Double.doubleToLongBits(taskCode[taskSequence[i]]);
+            }
+            if (decodingCache != null && decodingCache.restore(taskSequence, keySequence, generationForAGVPaths, currentAGVsTime,
+                    currentAGVsFitness, currentAGVsRecord)) {
+                return;
+            }
+            long[] prefixHashes = null;
+            DecodingCheckpoint checkpoint = null;
+            if (checkpointStore != null) {
+                prefixHashes = DecodingCheckpointStore.hashPrefixes(taskSequence);
+                checkpoint = checkpointStore.findLongestPrefix(taskSequence, keySequence, prefixHashes);
+            }
+            PathPlanning pathPlanning;
+            if (checkpoint != null) {
+                //Resume from the state after the tasks shared with the individual decoded before
+                pathPlanning = new PathPlanning(sizeOfAGV, PENALTY_FOR_CONFLICT, speedOfAGV, distanceOfBuffer,
+                        createRouting(checkpoint.getRoutingSnapshot()));
+                checkpoint.restore(pathPlanning, generationForAGVPaths, currentAGVsTime, currentAGVsFitness, currentAGVsRecord);
+                tieBreakRandom.restore(checkpoint.getTieBreaks());
+                countOfTasks = checkpoint.getNumberOfTasks();
+            }
+            else {
+                //Ongoing AGVs path take-up is already in the baseline snapshot, roll back what the last individual has changed
+                pathPlanning = workerPathPlanning.get();
+                pathPlanning.reset();
+                for (int i = 0; i < sizeOfAGV; i++) {
+                    if (timeAlreadyPassing[i] != -1) {
+                        List<Path> path = generationForAGVPaths.get(i);
+                        //Set this ongoing AGV as the backing AGV to check later and delete the last backing path in the buffer
+                        deleteLastBufferPath(path);
+                        pathPlanning.setBackingAGV(i);
+                    }
+                }
+            }
+            int numberOfResumedTasks = countOfTasks;
+            AGVReleaseQueue releaseQueue = new AGVReleaseQueue(currentAGVsTime);
+            //Least time of the tasks from each position to the last one
+            double[] leastTimeOfTasksLeft = null;
+            if (leastTimeOfTask != null) {
+                leastTimeOfTasksLeft = new double[taskNumber + 1];
+                for (int i = taskNumber - 1; i >= countOfTasks; i--) {
+                    leastTimeOfTasksLeft[i] = leastTimeOfTasksLeft[i + 1] + leastTimeOfTask[taskSequence[i]];
+                }
+            }
+            while (countOfTasks < taskNumber) {
+                if (leastTimeOfTasksLeft != null && sumOf(currentAGVsFitness) + leastTimeOfTasksLeft[countOfTasks] > fitnessBound) {
+                    //It cannot be better than the elitist, so it is not decoded to the end nor kept in the cache
+                    abortedIndividuals.incrementAndGet();
+                    dropIndividual(currentAGVsFitness, countOfTasks, numberOfResumedTasks);
+                    return;
+                }
+                if (cancelled) {
+                    dropIndividual(currentAGVsFitness, countOfTasks, numberOfResumedTasks);
+                    return;
+                }
+                if (decodingDeadline != Long.MAX_VALUE && System.nanoTime() >= decodingDeadline) {
+                    individualsPastDeadline.incrementAndGet();
+                    dropIndividual(currentAGVsFitness, countOfTasks, numberOfResumedTasks);
+                    return;
+                }
+                if (checkpointStore != null && countOfTasks > numberOfResumedTasks && checkpointStore.isCheckpointPosition(countOfTasks)
+                        && checkpointStore.shouldPut(prefixHashes[countOfTasks])) {
+                    checkpointStore.put(prefixHashes[countOfTasks], new DecodingCheckpoint(Arrays.copyOf(taskSequence, countOfTasks),
+                            tieBreakRandom.getTieBreaks(), pathPlanning.getRouting().createSnapshot(), pathPlanning,
+                            generationForAGVPaths, currentAGVsTime, currentAGVsFitness, currentAGVsRecord));
+                }
+                tieBreakRandom.startTask(countOfTasks, keySequence[countOfTasks]);
+                int indexOfAGV = getEarliestAGV(releaseQueue);
+                List<Integer> buffer = bufferSet.get(bufferForAGV[indexOfAGV]);
+                List<Path> earliestAGVPath = generationForAGVPaths.get(indexOfAGV);
+                //If the AGV is returning to the buffer, plan the path to the second to the last of the buffer first
+                if (pathPlanning.isReturning(indexOfAGV)) {
+                    pathPlanning.returnAGVToBuffer(indexOfAGV, buffer, earliestAGVPath, buffer.size() - 2);
+                }
+                int pathStartIndex = earliestAGVPath.size() - 1;
+                Path startPath = earliestAGVPath.get(pathStartIndex);
+                int numberOfTask = taskSequence[countOfTasks];
+                //Set records for AGV
+                setRecord(currentAGVsRecord.get(indexOfAGV), taskMap.get(numberOfTask));
+                List<Path> paths1 = pathPlanning.getPath(tasks[numberOfTask][0],
+                        startPath.getEndNode(), indexOfAGV, currentAGVsFitness, currentAGVsTime);
+                // No Feasible path, quit the task distribution
+                if (paths1.isEmpty()) {
+                    break;
+                }
+                //Get path2
+                List<Path> paths2 = pathPlanning.getPath(tasks[numberOfTask][1],
+                        paths1.get(paths1.size() - 1).getEndNode(), indexOfAGV, currentAGVsFitness, currentAGVsTime);
+                if (paths2.isEmpty()) {
+                    break;
+                }
+                earliestAGVPath.addAll(paths1);
+                earliestAGVPath.addAll(paths2);
+                releaseQueue.update(indexOfAGV);
+                //Adjust all the other AGVs in the buffer, to move them forward once and change the reserved and free time window corresponding
+                pathPlanning.adjustOtherAGVPositions(buffer, generationForAGVPaths, currentAGVsFitness);
+                countOfTasks++;
+                //If the next earliest AGV having jobs to get down is not the same one, drive the AGV back to start of the buffer instead of being stuck in the road
+                //Increase time to the moment the AGV comes to the second to the last node in the buffer.
+                if (!(getEarliestAGV(releaseQueue) == indexOfAGV && countOfTasks < taskNumber)) {
+                    Path lastPath = paths2.get(paths2.size() - 1);
+                    int startNode = lastPath.getEndNode();
+                    int endNode = buffer.get(0);
+                    List<Path> pathToStartOfBuffer = pathPlanning.getPath(endNode,
+                            startNode, indexOfAGV, currentAGVsFitness, currentAGVsTime);
+                    if (pathToStartOfBuffer.get(0).getStartNode() == pathToStartOfBuffer.get(0).getEndNode()) {
+                        pathToStartOfBuffer.remove(0);
+                    }
+                    earliestAGVPath.addAll(pathToStartOfBuffer);
+                    pathPlanning.setBackingAGV(indexOfAGV);
+                    int numberOfBufferToCross = buffer.size() - 2;
+                    currentAGVsTime[indexOfAGV] += timeForCrossingBuffers(numberOfBufferToCross);
+                    currentAGVsFitness[indexOfAGV] += timeForCrossingBuffers(numberOfBufferToCross);
+                    releaseQueue.update(indexOfAGV);
+                }
+            }
+            if (checkpointStore != null) {
+                checkpointStore.count(taskNumber, numberOfResumedTasks);
+            }
+            //Navigate returning AGV back to their proper position in the buffer
+            pathPlanning.navigateAGVsToInnerBuffer(generationForAGVPaths, bufferSet, bufferForAGV, currentAGVsTime);
+            if (decodingCache != null) {
+                decodingCache.put(taskSequence, tieBreakRandom.getTieBreaks(), lazyPaths ? new DecodingState(currentAGVsTime, currentAGVsFitness)
+                        : new DecodingState(generationForAGVPaths, currentAGVsTime, currentAGVsFitness, currentAGVsRecord));
+            }
+        }
+        finally {
+            individualRandom.remove();
+        }
+    }
+
+    /**
+     * Stop decoding the individual, its fitness is infinite so it is never selected
+     * @param currentAGVsFitness Fitness of all the AGVs of the individual
+     * @param countOfTasks Number of tasks decoded
+     * @param numberOfResumedTasks Number of tasks resumed from a checkpoint
+     */
+    private void dropIndividual(double[] currentAGVsFitness, int countOfTasks, int numberOfResumedTasks) {
+        Arrays.fill(currentAGVsFitness, Double.POSITIVE_INFINITY);
+        if (checkpointStore != null) {
+            checkpointStore.count(countOfTasks, numberOfResumedTasks);
+        }
+    }
+
+    /**
+     * Decode a new individual of this generation into its own slot, its paths and records are dropped if they are not kept.
+     * @param countOfGeneration Index of the individual among the new ones
+     */
+    private void decodeNewIndividual(List<List<List<Path>>> localAGVPaths, List<double[]> localAGVTimes,
+                                     List<double[]> localAGVFitness, List<List<List<Record>>> localAGVRecords,
+                                     List<int[]> taskSequence, int previousPopulationGen, int countOfGeneration) throws NoAGVInTheBuffer {
+        long decodingStartTime = startPhase();
+        decodeIndividual(localAGVPaths.get(countOfGeneration), localAGVTimes.get(countOfGeneration),
+                localAGVFitness.get(countOfGeneration), localAGVRecords.get(countOfGeneration),
+                taskSequence.get(countOfGeneration + previousPopulationGen),
+                taskDistribution.get(countOfGeneration + previousPopulationGen));
+        if (metrics != null) {
+            endPhase(SolverMetrics.Phase.DECODE, decodingStartTime);
+            metrics.increment(SolverMetrics.Counter.INDIVIDUALS_DECODED);
+        }
+        if (lazyPaths) {
+            localAGVPaths.set(countOfGeneration, null);
+            localAGVRecords.set(countOfGeneration, null);
+        }
+    }
+
+    /**
+     * Decode the individual again on this thread to get the paths and records which are not kept during the evolution.
+     * The cache keeps no paths then, so the individual is decoded from the tasks or a checkpoint.
+     * @param AGVPaths Paths of all the AGVs starting from the ongoing paths
+     * @param AGVRecords Empty records of all the AGVs
+     * @param taskCode Random keys of the tasks of the individual
+     * @return Total fitness of the individual decoded again
+     * @throws NoAGVInTheBuffer Find no AGV is returning to specific buffer
+     */
+    private double redecodeIndividual(List<List<Path>> AGVPaths, List<List<Record>> AGVRecords, double[] taskCode) throws NoAGVInTheBuffer {
+        decodingCache = null;
+        leastTimeOfTask = null;
+        decodingDeadline = Long.MAX_VALUE;
+        double[] AGVsFitness = initialLocalAGVFitness(0, 1).get(0);
+        try {
+            decodeIndividual(AGVPaths, initialLocalAGVTimes(0, 1).get(0), AGVsFitness, AGVRecords,
+                    MergeSortAlgorithm.argsort(taskCode), taskCode);
+        }
+        finally {
+            workerPathPlanning.remove();
+        }
+        double totalFitness = 0;
+        for (double fitness : AGVsFitness) {
+            totalFitness += fitness;
+        }
+        return 1 / totalFitness;
+    }
+
+    /**
+     * Decode the new individuals of this generation concurrently on the fork join pool.
+     * Results are written to the slots of their own index, so they keep the same order as the sequential decoding.
+     */
+    private void evaluateIndividualsInParallel(List<List<List<Path>>> localAGVPaths, List<double[]> localAGVTimes,
+                                               List<double[]> localAGVFitness, List<List<List<Record>>> localAGVRecords,
+                                               List<int[]> taskSequence, int previousPopulationGen, int numberOfNewIndividuals) throws NoAGVInTheBuffer {
+        List<Callable<Void>> decodingTasks = new ArrayList<>();
+        for (int i = 0; i < numberOfNewIndividuals; i++) {
+            int countOfGeneration = i;
+            decodingTasks.add(() -> {
+                decodeNewIndividual(localAGVPaths, localAGVTimes, localAGVFitness, localAGVRecords, taskSequence,
+                        previousPopulationGen, countOfGeneration);
+                return null;
+            });
+        }
+        invokeAll(forkJoinPool, decodingTasks, "Decoding of the generation is interrupted");
+    }
+
+    /**
+     * Run the tasks on the pool and wait for all of them, the exception of the first failed task is thrown again
+     * @param pool Pool to run the tasks
+     * @param tasks Tasks to run
+     * @param interruptedMessage Message of the exception if the waiting thread is interrupted
+     * @return Results of the tasks in the same order
+     * @throws NoAGVInTheBuffer Find no AGV is returning to specific buffer
+     */
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks, String interruptedMessage) throws NoAGVInTheBuffer {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> result : pool.invokeAll(tasks)) {
+                results.add(result.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(interruptedMessage, e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NoAGVInTheBuffer) {
+                throw (NoAGVInTheBuffer) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
     /**
      * Set a record for the records set from a AGV
      * @param records AGV's records
@@ -545,7 +1326,7 @@ public class AGV_GA {
         //初始子代的建立
         //encode 任务分配
         for (int i = 0; i < populationGen; i++) {
-            Double[] task = new Double[taskNumber];
+            double[] task = new double[taskNumber];
             for (int j = 0; j < taskNumber; j++) {
                 //j代表第几个任务，值对应哪一个车
                 task[j] = random.nextDouble();
@@ -555,45 +1336,17 @@ public class AGV_GA {
     }
 
     //给每个子代一个任务的序列，找到最小的数字代表的索引，其为第一个任务，这边暂时不简化逻辑，保持全部的子代都算一遍task sequence
-    private void getTaskSequence(List<Integer[]> taskSequence) {
-        for (Double[] tasksCode : taskDistribution) {
-            Double[] sortArray = new Double[taskNumber];
-            System.arraycopy(tasksCode, 0, sortArray, 0, taskNumber);
-            Arrays.sort(sortArray);
-            Integer[] sequence = new Integer[taskNumber];
-            //最小的最早开始做，任务序号存在sequence中
-            for (int i = 0; i < taskNumber; i++) {
-                for (int j = 0; j < taskNumber; j++) {
-                    if (tasksCode[j].equals(sortArray[i])) {
-                        sequence[i] = j;
-                        break;
-                    }
-                }
-            }
-            taskSequence.add(sequence);
+    void getTaskSequence(List<int[]> taskSequence) {
+        for (double[] tasksCode : taskDistribution) {
+            //最小的最早开始做，任务序号存在sequence中，相同的数字按任务序号先后
+            taskSequence.add(MergeSortAlgorithm.argsort(tasksCode));
         }
     }
 
 
     //Find the earliest AGV that has finished the job randomly
-     Integer getEarliestAGV(double[] timeForFinishingTasks) {
-        double[] sortTimeArray = new double[timeForFinishingTasks.length];
-        System.arraycopy(timeForFinishingTasks, 0, sortTimeArray, 0, timeForFinishingTasks.length);
-        Arrays.sort(sortTimeArray);
-        //Store all of the earliest AGV in a list.
-        List<Integer> possibleIndexesOfAGV = new ArrayList<>();
-        for (int i = 0; i < timeForFinishingTasks.length; i++) {
-            if (timeForFinishingTasks[i] == sortTimeArray[0]) {
-                possibleIndexesOfAGV.add(i);
-            }
-        }
-        if (possibleIndexesOfAGV.isEmpty()) {
-            return -1;
-        }
-        else {
-            int index = random.nextInt(possibleIndexesOfAGV.size());
-            return possibleIndexesOfAGV.get(index);
-        }
+    int getEarliestAGV(AGVReleaseQueue releaseQueue) {
+        return releaseQueue.getEarliest(individualRandom.get());
     }
 
     //直接生成新的个体给人口作为mutation
@@ -601,7 +1354,7 @@ public class AGV_GA {
         int currentPopulationSize = taskDistribution.size();
         for (int i = 0; i < currentPopulationSize; i++) {
             if (mutateProbabilityArray[i] <= mutationProbability) {
-                Double[] newGeneration = new Double[taskNumber];
+                double[] newGeneration = new double[taskNumber];
                 for (int j = 0; j < taskNumber; j++) {
                     //j代表第几个任务，值对应哪一个车
                     newGeneration[j] = random.nextDouble();
@@ -628,22 +1381,12 @@ public class AGV_GA {
                 //从point到最后一位
                 int point2 = random.nextInt(taskNumber-point1)+point1;
 
-                Double[] newGeneration1 = new Double[taskNumber];
-                Double[] newGeneration2 = new Double[taskNumber];
-                Double[] parent1 = taskDistribution.get(i);
-                Double[] parent2 = taskDistribution.get(i + 1);
-                for (int j = 0; j < point1; j++) {
-                    newGeneration1[j] = parent1[j];
-                    newGeneration2[j] = parent2[j];
-                }
-                for (int k = point2 + 1; k < taskNumber; k++) {
-                    newGeneration1[k] = parent1[k];
-                    newGeneration2[k] = parent2[k];
-                }
-                for (int j = point1; j <= point2; j++) {
-                    newGeneration1[j] = parent2[j];
-                    newGeneration2[j] = parent1[j];
-                }
+                double[] parent1 = taskDistribution.get(i);
+                double[] parent2 = taskDistribution.get(i + 1);
+                double[] newGeneration1 = parent1.clone();
+                double[] newGeneration2 = parent2.clone();
+                System.arraycopy(parent2, point1, newGeneration1, point1, point2 - point1 + 1);
+                System.arraycopy(parent1, point1, newGeneration2, point1, point2 - point1 + 1);
                 taskDistribution.add(newGeneration1);
                 taskDistribution.add(newGeneration2);
             }
@@ -673,7 +1416,7 @@ public class AGV_GA {
 
     // Returns a uniformly distributed double value between 0.0 and 1.0
     double randUniformPositive() {
-        return new Random().nextDouble();
+        return random.nextDouble();
     }
 
 
@@ -2,14 +2,18 @@ package org.spring.springboot.algorithmn.genetic_algorithm;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentMatcher;
 import org.spring.springboot.algorithmn.common.CommonConstant;
 import org.spring.springboot.algorithmn.common.CommonTestConstant;
 import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.SolverMetrics;
 import org.spring.springboot.algorithmn.exception.NoAGVInTheBuffer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.doubleThat;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
@@ -220,7 +224,12 @@ public class AGV_GA_Test {
         Double[] timeAlreadyPassed = {-1.0, -1.0};
         AGV_GA geneticAlgorithmForAGV = new AGV_GA(graph, tasks, timeAlreadyPassed, pathsForAGVs, CommonTestConstant.AGV_SPEED, bufferSet, bufferForAGVs);
         AGV_GA spyGeneticAlgorithmForAGV = spy(geneticAlgorithmForAGV);
-        when(spyGeneticAlgorithmForAGV.getEarliestAGV(new double[] {0.0, 0.0})).thenReturn(0);
+        when(spyGeneticAlgorithmForAGV.getEarliestAGV(argThat(new ArgumentMatcher<AGVReleaseQueue>() {
+            @Override
+            public boolean matches(Object releaseQueue) {
+                return ((AGVReleaseQueue) releaseQueue).getTime(0) == 0.0 && ((AGVReleaseQueue) releaseQueue).getTime(1) == 0.0;
+            }
+        }))).thenReturn(0);
         List<List<Path>> paths = spyGeneticAlgorithmForAGV.singleObjectGenericAlgorithm();
         assertEquals(2, paths.size());
         Path adjustNode7To6 = new Path(6, 5, reservedTime + 10 / CommonTestConstant.AGV_SPEED, false);
@@ -461,6 +470,179 @@ public class AGV_GA_Test {
     }
 
 
+    //Solve 3 tasks(5--3, 4--9, 8--9) for 3 AGVs with the same seed one by one and on 4 threads, the plans should be the same.
+    @Test
+    public void shouldParallelDecodingGiveTheSamePathsAsSequentialDecodingWithTheSameSeed() throws NoAGVInTheBuffer {
+        AGV_GA sequentialGeneticAlgorithm = createGeneticAlgorithmForThreeTasks();
+        AGV_GA parallelGeneticAlgorithm = createGeneticAlgorithmForThreeTasks();
+        parallelGeneticAlgorithm.setParallelism(4);
+        assertEquals(sequentialGeneticAlgorithm.singleObjectGenericAlgorithm(), parallelGeneticAlgorithm.singleObjectGenericAlgorithm());
+    }
+
+
+    //Solve 3 tasks(5--3, 4--9, 8--9) for 3 AGVs with the same seed, resuming from a checkpoint after every task should give the same plan.
+    @Test
+    public void shouldResumingFromCheckpointsGiveTheSamePathsAsDecodingFromTheFirstTask() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmWithoutCheckpoint = createGeneticAlgorithmForThreeTasks();
+        geneticAlgorithmWithoutCheckpoint.setCheckpointInterval(0);
+        AGV_GA geneticAlgorithmWithCheckpoint = createGeneticAlgorithmForThreeTasks();
+        geneticAlgorithmWithCheckpoint.setCheckpointInterval(1);
+        assertEquals(geneticAlgorithmWithoutCheckpoint.singleObjectGenericAlgorithm(), geneticAlgorithmWithCheckpoint.singleObjectGenericAlgorithm());
+    }
+
+
+    //Solve 3 tasks(5--3, 4--9, 8--9) for 3 AGVs with the same seed, taking the individuals from the cache should give the same plan.
+    @Test
+    public void shouldCachedIndividualsGiveTheSamePathsAsDecodingEveryIndividual() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmWithoutCache = createGeneticAlgorithmForThreeTasks();
+        geneticAlgorithmWithoutCache.setCheckpointInterval(0);
+        geneticAlgorithmWithoutCache.setDecodingCacheSize(0);
+        AGV_GA geneticAlgorithmWithCache = createGeneticAlgorithmForThreeTasks();
+        geneticAlgorithmWithCache.setCheckpointInterval(0);
+        geneticAlgorithmWithCache.setDecodingCacheSize(10);
+        assertEquals(geneticAlgorithmWithoutCache.singleObjectGenericAlgorithm(), geneticAlgorithmWithCache.singleObjectGenericAlgorithm());
+    }
+
+
+    //Solve 3 tasks(5--3, 4--9, 8--9) for 3 AGVs with the same seed, decoding the best individual again should give the same plan.
+    @Test
+    public void shouldLazyPathsGiveTheSamePathsAsKeepingThePathsOfEveryIndividual() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmKeepingPaths = createGeneticAlgorithmForThreeTasks();
+        AGV_GA geneticAlgorithmWithLazyPaths = createGeneticAlgorithmForThreeTasks();
+        geneticAlgorithmWithLazyPaths.setLazyPaths(true);
+        assertEquals(geneticAlgorithmKeepingPaths.singleObjectGenericAlgorithm(), geneticAlgorithmWithLazyPaths.singleObjectGenericAlgorithm());
+    }
+
+
+    //Solve 6 tasks(5--3, 4--9, 8--9, 3--6, 1--7, 6--2) for 3 AGVs with the same seed, stopping the individuals worse than the elitist.
+    //Some individuals should be stopped, and the plan of the best one should still be complete.
+    @Test
+    public void shouldEarlyAbortStopIndividualsWorseThanTheElitist() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmForAGV = createGeneticAlgorithmForSixTasks();
+        geneticAlgorithmForAGV.setEarlyAbort(true);
+        List<List<Path>> paths = geneticAlgorithmForAGV.singleObjectGenericAlgorithm();
+        assertEquals(3, paths.size());
+        for (List<Path> path : paths) {
+            assertTrue(path.size() > 1);
+        }
+        assertTrue(geneticAlgorithmForAGV.getAbortedIndividuals() > 0);
+    }
+
+
+    //Solve 6 tasks(5--3, 4--9, 8--9, 3--6, 1--7, 6--2) for 3 AGVs on 3 islands exchanging their elitists every generation.
+    //The best plan of the islands should be complete and free of conflict.
+    @Test
+    public void shouldIslandsGiveACompletePlan() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmForAGV = createGeneticAlgorithmForSixTasks();
+        geneticAlgorithmForAGV.setIslands(3, 1);
+        List<List<Path>> paths = geneticAlgorithmForAGV.singleObjectGenericAlgorithm();
+        assertEquals(3, paths.size());
+        for (List<Path> path : paths) {
+            assertTrue(path.size() > 1);
+        }
+        assertTrue(1 / geneticAlgorithmForAGV.getBestTotalFitness() < 99999);
+    }
+
+
+    //Solve 6 tasks(5--3, 4--9, 8--9, 3--6, 1--7, 6--2) for 3 AGVs on 3 islands without keeping the paths of the individuals.
+    //The best individual may have migrated from another island, decoding it again should still give the plan of its fitness.
+    @Test
+    public void shouldIslandsWithLazyPathsGiveThePlanOfTheBestFitness() throws NoAGVInTheBuffer {
+        for (long seed = 20190101L; seed < 20190111L; seed++) {
+            AGV_GA geneticAlgorithmForAGV = createGeneticAlgorithmForSixTasks();
+            geneticAlgorithmForAGV.setSeed(seed);
+            geneticAlgorithmForAGV.setIslands(3, 1);
+            geneticAlgorithmForAGV.setLazyPaths(true);
+            geneticAlgorithmForAGV.singleObjectGenericAlgorithm();
+            assertEquals(1 / geneticAlgorithmForAGV.getBestTotalFitness(), 1 / geneticAlgorithmForAGV.getPlanFitness(), 1e-9);
+        }
+    }
+
+    //Solve 6 tasks(5--3, 4--9, 8--9, 3--6, 1--7, 6--2) for 3 AGVs with a time budget of 1 millisecond.
+    //The elitist of the first generation should be returned as a complete plan.
+    @Test
+    public void shouldTimeBudgetGiveTheElitistWhenItRunsOut() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmForAGV = createGeneticAlgorithmForSixTasks();
+        geneticAlgorithmForAGV.setTimeBudget(1);
+        List<List<Path>> paths = geneticAlgorithmForAGV.singleObjectGenericAlgorithm();
+        assertEquals(3, paths.size());
+        for (List<Path> path : paths) {
+            assertTrue(path.size() > 1);
+        }
+        assertTrue(1 / geneticAlgorithmForAGV.getBestTotalFitness() < 99999);
+    }
+
+    //Solve the same 6 tasks with a generation limit of 1, the evolution should stop after the first generation
+    //and return its elitist as a complete plan.
+    @Test
+    public void shouldGenerationLimitStopTheEvolution() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmForAGV = createGeneticAlgorithmForSixTasks();
+        geneticAlgorithmForAGV.setGenerationLimit(1);
+        List<List<Path>> paths = geneticAlgorithmForAGV.singleObjectGenericAlgorithm();
+        assertEquals(1, geneticAlgorithmForAGV.getGeneration());
+        assertEquals(3, paths.size());
+        for (List<Path> path : paths) {
+            assertTrue(path.size() > 1);
+        }
+    }
+
+    //Solve the same 6 tasks with the same seed, a time budget long enough should not change the plan.
+    @Test
+    public void shouldTimeBudgetNotChangeThePlanIfItIsEnough() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmWithoutBudget = createGeneticAlgorithmForSixTasks();
+        AGV_GA geneticAlgorithmWithBudget = createGeneticAlgorithmForSixTasks();
+        geneticAlgorithmWithBudget.setTimeBudget(600000);
+        assertEquals(geneticAlgorithmWithoutBudget.singleObjectGenericAlgorithm(), geneticAlgorithmWithBudget.singleObjectGenericAlgorithm());
+    }
+
+    //Collecting the metrics should not change the plan, every new individual should be decoded once and every task routed.
+    @Test
+    public void shouldMetricsNotChangeThePlan() throws NoAGVInTheBuffer {
+        AGV_GA geneticAlgorithmWithoutMetrics = createGeneticAlgorithmForSixTasks();
+        AGV_GA geneticAlgorithmWithMetrics = createGeneticAlgorithmForSixTasks();
+        SolverMetrics metrics = new SolverMetrics();
+        geneticAlgorithmWithMetrics.setMetrics(metrics);
+        assertEquals(geneticAlgorithmWithoutMetrics.singleObjectGenericAlgorithm(), geneticAlgorithmWithMetrics.singleObjectGenericAlgorithm());
+        long generations = metrics.getCount(SolverMetrics.Counter.GENERATIONS);
+        assertTrue(generations > 0);
+        assertEquals(generations, metrics.getHistogram(SolverMetrics.Phase.CROSSOVER).getCount());
+        assertEquals(generations, metrics.getHistogram(SolverMetrics.Phase.MUTATION).getCount());
+        assertEquals(metrics.getCount(SolverMetrics.Counter.INDIVIDUALS_DECODED), metrics.getHistogram(SolverMetrics.Phase.DECODE).getCount());
+        assertEquals(metrics.getCount(SolverMetrics.Counter.ROUTES) + metrics.getCount(SolverMetrics.Counter.ROUTING_FAILURES),
+                metrics.getHistogram(SolverMetrics.Phase.ROUTING).getCount());
+        assertTrue(metrics.getCount(SolverMetrics.Counter.ROUTES) > 0);
+        assertTrue(metrics.getCount(SolverMetrics.Counter.TIME_WINDOWS_SCANNED) >= metrics.getCount(SolverMetrics.Counter.TIME_WINDOWS_SETTLED));
+    }
+
+    //3 AGVs idle in the buffers of TestGraph2 with the random generator seeded, so each solve gives the same plan
+    private AGV_GA createGeneticAlgorithmForThreeTasks() {
+        return createGeneticAlgorithmForThreeAGVs(new Integer[][]{{4, 2}, {3, 8}, {7, 8}});
+    }
+
+    private AGV_GA createGeneticAlgorithmForSixTasks() {
+        return createGeneticAlgorithmForThreeAGVs(new Integer[][]{{4, 2}, {3, 8}, {7, 8}, {2, 5}, {0, 6}, {5, 1}});
+    }
+
+    private AGV_GA createGeneticAlgorithmForThreeAGVs(Integer[][] tasks) {
+        List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
+        List<List<Path>> pathsForAGVs = new ArrayList<>();
+        List<Path> pathsForAGV0 = new ArrayList<>();
+        List<Path> pathsForAGV1 = new ArrayList<>();
+        List<Path> pathsForAGV2 = new ArrayList<>();
+        pathsForAGVs.add(pathsForAGV0);
+        pathsForAGVs.add(pathsForAGV1);
+        pathsForAGVs.add(pathsForAGV2);
+        pathsForAGV0.add(new Path(105, 105, 0, false));
+        pathsForAGV1.add(new Path(205, 205, 0, false));
+        pathsForAGV2.add(new Path(104, 104, 0, false));
+        Integer[] bufferForAGVs = {0, 1, 0};
+        Double[] timeAlreadyPassed = {-1.0, -1.0, -1.0};
+        AGV_GA geneticAlgorithmForAGV = new AGV_GA(graph, tasks, timeAlreadyPassed, pathsForAGVs, CommonTestConstant.AGV_SPEED, bufferSet, bufferForAGVs);
+        geneticAlgorithmForAGV.setSeed(20190101L);
+        return geneticAlgorithmForAGV;
+    }
+
+
     //Create one task(4--8) for one idle AGV in the buffer 0. AGV 1 is going as 205--8--9(slow mode)--2--1--201--202--203--204--205
     //AGV 2 is going as 3--4--9--2--3--101--102--103--104, finally it will go 105 after planning
     //Check if the path is optimal one.
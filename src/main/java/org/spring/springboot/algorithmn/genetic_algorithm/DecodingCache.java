@@ -0,0 +1,126 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Results of the decoded individuals keyed by their task sequence, the least recently used sequence is evicted when it is full.
+//Different random keys often give the same sequence, and such an individual is decoded in the same way if it breaks the ties
+//in the same way, so its result is copied from the cache instead of routing again. It is safe to be used by the decoding threads.
+class DecodingCache {
+
+    //Results kept for the same sequence with different tie breaks
+    private static final int MAX_RESULTS_OF_SEQUENCE = 4;
+
+    private final Map<TaskSequenceKey, List<DecodedIndividual>> results;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param capacity Most task sequences kept in the cache
+     */
+    DecodingCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of the decoding cache should be at least 1!");
+        }
+        this.results = new LinkedHashMap<TaskSequenceKey, List<DecodedIndividual>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TaskSequenceKey, List<DecodedIndividual>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Copy the result of an individual decoded before into this one if it is decoded in the same way
+     * @param taskSequence Order of the tasks
+     * @param keySequence Bits of the random keys of the tasks in the same order
+     * @param AGVPaths Paths of all the AGVs to be replaced
+     * @param AGVTimes Time of all the AGVs to be replaced
+     * @param AGVFitness Fitness of all the AGVs to be replaced
+     * @param AGVRecords Records of all the AGVs to be replaced
+     * @return If the result is found and copied
+     */
+    boolean restore(int[] taskSequence, long[] keySequence, List<List<Path>> AGVPaths, double[] AGVTimes,
+                    double[] AGVFitness, List<List<Record>> AGVRecords) {
+        DecodedIndividual decodedIndividual = find(taskSequence, keySequence);
+        if (decodedIndividual == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        hits.incrementAndGet();
+        decodedIndividual.decodingState.restore(AGVPaths, AGVTimes, AGVFitness, AGVRecords);
+        return true;
+    }
+
+    private synchronized DecodedIndividual find(int[] taskSequence, long[] keySequence) {
+        List<DecodedIndividual> decodedIndividuals = results.get(new TaskSequenceKey(taskSequence));
+        if (decodedIndividuals == null) {
+            return null;
+        }
+        for (DecodedIndividual decodedIndividual : decodedIndividuals) {
+            if (decodedIndividual.tieBreaks.isSameWith(keySequence)) {
+                return decodedIndividual;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param taskSequence Order of the tasks
+     * @param tieBreaks Tie breaks made when the individual is decoded
+     * @param decodingState Result of the individual
+     */
+    synchronized void put(int[] taskSequence, TieBreaks tieBreaks, DecodingState decodingState) {
+        List<DecodedIndividual> decodedIndividuals = results.computeIfAbsent(new TaskSequenceKey(taskSequence), key -> new ArrayList<>());
+        if (decodedIndividuals.size() == MAX_RESULTS_OF_SEQUENCE) {
+            decodedIndividuals.remove(0);
+        }
+        decodedIndividuals.add(new DecodedIndividual(tieBreaks, decodingState));
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    private static class DecodedIndividual {
+
+        private final TieBreaks tieBreaks;
+        private final DecodingState decodingState;
+
+        DecodedIndividual(TieBreaks tieBreaks, DecodingState decodingState) {
+            this.tieBreaks = tieBreaks;
+            this.decodingState = decodingState;
+        }
+    }
+
+    //Task sequence compared by its content
+    private static class TaskSequenceKey {
+
+        private final int[] taskSequence;
+        private final int hashCode;
+
+        TaskSequenceKey(int[] taskSequence) {
+            this.taskSequence = taskSequence;
+            this.hashCode = Arrays.hashCode(taskSequence);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(taskSequence, ((TaskSequenceKey) o).taskSequence);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DecodingCacheTest {
+
+    private static final long DECODING_SEED = 20190101L;
+
+    private List<List<Path>> AGVPaths;
+    private double[] AGVTimes;
+    private double[] AGVFitness;
+    private List<List<Record>> AGVRecords;
+
+    @Before
+    public void setUp() {
+        AGVPaths = new ArrayList<>();
+        List<Path> pathsForAGV0 = new ArrayList<>();
+        pathsForAGV0.add(new Path(3, 8, 1.0, false));
+        AGVPaths.add(pathsForAGV0);
+        AGVPaths.add(new ArrayList<>());
+        AGVTimes = new double[]{5.0, 0.0};
+        AGVFitness = new double[]{2.0, 0.0};
+        AGVRecords = new ArrayList<>();
+        List<Record> recordsForAGV0 = new ArrayList<>();
+        recordsForAGV0.add(new Record(0, 1));
+        AGVRecords.add(recordsForAGV0);
+        AGVRecords.add(new ArrayList<>());
+    }
+
+    //Decode 2 tasks where the second one has a tie between 2 AGVs, and return the tie breaks
+    private TieBreaks breakTies(long[] keySequence) {
+        TieBreakRandom tieBreakRandom = new TieBreakRandom(DECODING_SEED);
+        tieBreakRandom.startTask(0, keySequence[0]);
+        tieBreakRandom.nextInt(1);
+        tieBreakRandom.startTask(1, keySequence[1]);
+        tieBreakRandom.nextInt(2);
+        return tieBreakRandom.getTieBreaks();
+    }
+
+    //Only the draw of the task with a tie is kept, and it is replayed the same with the same keys.
+    @Test
+    public void shouldTieBreaksOnlyKeepTheTasksWithATie() {
+        long[] keySequence = {Double.doubleToLongBits(0.25), Double.doubleToLongBits(0.75)};
+        TieBreaks tieBreaks = breakTies(keySequence);
+        assertEquals(1, tieBreaks.getNumberOfDraws());
+        assertEquals(1, tieBreaks.getPosition(0));
+        assertEquals(2, tieBreaks.getBound(0));
+        assertTrue(tieBreaks.isSameWith(keySequence));
+    }
+
+    //The key of a task without a tie does not matter, the key of the task with a tie decides if the ties are broken the same way.
+    @Test
+    public void shouldTieBreaksOnlyDependOnTheKeysOfTheTasksWithATie() {
+        long[] keySequence = {Double.doubleToLongBits(0.25), Double.doubleToLongBits(0.75)};
+        TieBreaks tieBreaks = breakTies(keySequence);
+        assertTrue(tieBreaks.isSameWith(new long[]{Double.doubleToLongBits(0.5), keySequence[1]}));
+        int numberOfSame = 0;
+        for (int i = 0; i < 100; i++) {
+            long[] otherKeySequence = {keySequence[0], Double.doubleToLongBits(i / 100.0)};
+            TieBreaks otherTieBreaks = breakTies(otherKeySequence);
+            assertEquals(otherTieBreaks.getResult(0) == tieBreaks.getResult(0), tieBreaks.isSameWith(otherKeySequence));
+            if (tieBreaks.isSameWith(otherKeySequence)) {
+                numberOfSame++;
+            }
+        }
+        assertTrue(numberOfSame > 0 && numberOfSame < 100);
+    }
+
+    //The individual with the same sequence and the same tie breaks takes the result from the cache.
+    @Test
+    public void shouldRestoreTheResultOfTheSameTaskSequence() {
+        DecodingCache decodingCache = new DecodingCache(10);
+        int[] taskSequence = {1, 0};
+        long[] keySequence = {Double.doubleToLongBits(0.25), Double.doubleToLongBits(0.75)};
+        decodingCache.put(taskSequence, breakTies(keySequence), new DecodingState(AGVPaths, AGVTimes, AGVFitness, AGVRecords));
+        List<List<Path>> restoredPaths = new ArrayList<>();
+        restoredPaths.add(new ArrayList<>());
+        restoredPaths.add(new ArrayList<>());
+        double[] restoredTimes = new double[2];
+        double[] restoredFitness = new double[2];
+        List<List<Record>> restoredRecords = new ArrayList<>();
+        restoredRecords.add(new ArrayList<>());
+        restoredRecords.add(new ArrayList<>());
+        assertFalse(decodingCache.restore(new int[]{0, 1}, keySequence, restoredPaths, restoredTimes, restoredFitness, restoredRecords));
+        assertTrue(decodingCache.restore(new int[]{1, 0}, keySequence, restoredPaths, restoredTimes, restoredFitness, restoredRecords));
+        assertEquals(AGVPaths, restoredPaths);
+        assertEquals(5.0, restoredTimes[0], 0);
+        assertEquals(2.0, restoredFitness[0], 0);
+        assertEquals(1, restoredRecords.get(0).size());
+        assertEquals(1, decodingCache.getHits());
+        assertEquals(1, decodingCache.getMisses());
+    }
+
+    //The least recently used sequence is evicted when the cache is full.
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedTaskSequence() {
+        DecodingCache decodingCache = new DecodingCache(2);
+        long[] keySequence = {Double.doubleToLongBits(0.25), Double.doubleToLongBits(0.75)};
+        TieBreaks tieBreaks = breakTies(keySequence);
+        DecodingState decodingState = new DecodingState(AGVPaths, AGVTimes, AGVFitness, AGVRecords);
+        decodingCache.put(new int[]{0, 1}, tieBreaks, decodingState);
+        decodingCache.put(new int[]{1, 0}, tieBreaks, decodingState);
+        assertTrue(decodingCache.restore(new int[]{0, 1}, keySequence, AGVPaths, AGVTimes, AGVFitness, AGVRecords));
+        decodingCache.put(new int[]{1, 1}, tieBreaks, decodingState);
+        assertTrue(decodingCache.restore(new int[]{0, 1}, keySequence, AGVPaths, AGVTimes, AGVFitness, AGVRecords));
+        assertFalse(decodingCache.restore(new int[]{1, 0}, keySequence, AGVPaths, AGVTimes, AGVFitness, AGVRecords));
+    }
+}
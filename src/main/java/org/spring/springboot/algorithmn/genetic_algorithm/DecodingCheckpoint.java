@@ -0,0 +1,100 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.conflict_free_routing.RoutingSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+
+//State of decoding an individual after the first tasks of its sequence are dispatched. Another individual whose sequence
+//starts with the same tasks and breaks the ties of them in the same way can resume decoding from here.
+class DecodingCheckpoint {
+
+    private final int[] taskPrefix;
+    //Tie breaks of the tasks in the prefix
+    private final TieBreaks tieBreaks;
+    private final RoutingSnapshot routingSnapshot;
+    private final boolean[] returningAGV;
+    private final DecodingState decodingState;
+
+    /**
+     * @param taskPrefix Tasks already dispatched, in order
+     * @param tieBreaks Tie breaks of the tasks already dispatched
+     * @param routingSnapshot Time windows after the tasks are dispatched
+     * @param pathPlanning Path planning of the individual, to save the returning AGVs
+     * @param AGVPaths Paths of all the AGVs
+     * @param AGVTimes Time of all the AGVs
+     * @param AGVFitness Fitness of all the AGVs
+     * @param AGVRecords Records of the finished tasks of all the AGVs
+     */
+    DecodingCheckpoint(int[] taskPrefix, TieBreaks tieBreaks, RoutingSnapshot routingSnapshot, PathPlanning pathPlanning,
+                       List<List<Path>> AGVPaths, double[] AGVTimes, double[] AGVFitness, List<List<Record>> AGVRecords) {
+        this.taskPrefix = taskPrefix;
+        this.tieBreaks = tieBreaks;
+        this.routingSnapshot = routingSnapshot;
+        int sizeOfAGV = AGVTimes.length;
+        this.returningAGV = new boolean[sizeOfAGV];
+        for (int i = 0; i < sizeOfAGV; i++) {
+            returningAGV[i] = pathPlanning.isReturning(i);
+        }
+        this.decodingState = new DecodingState(AGVPaths, AGVTimes, AGVFitness, AGVRecords);
+    }
+
+    /**
+     * @param taskSequence Order of the tasks of some individual
+     * @param keySequence Bits of the random keys of the tasks in the same order
+     * @return If the sequence starts with the tasks of this checkpoint and breaks their ties in the same way
+     */
+    boolean isPrefixOf(int[] taskSequence, long[] keySequence) {
+        if (taskSequence.length < taskPrefix.length) {
+            return false;
+        }
+        for (int i = 0; i < taskPrefix.length; i++) {
+            if (taskPrefix[i] != taskSequence[i]) {
+                return false;
+            }
+        }
+        return tieBreaks.isSameWith(keySequence);
+    }
+
+    /**
+     * @return Number of tasks already dispatched
+     */
+    int getNumberOfTasks() {
+        return taskPrefix.length;
+    }
+
+    TieBreaks getTieBreaks() {
+        return tieBreaks;
+    }
+
+    RoutingSnapshot getRoutingSnapshot() {
+        return routingSnapshot;
+    }
+
+    /**
+     * Copy the state into the individual being decoded
+     * @param pathPlanning New path planning of the individual on a routing created from the snapshot
+     * @param AGVPaths Paths of all the AGVs to be replaced
+     * @param AGVTimes Time of all the AGVs to be replaced
+     * @param AGVFitness Fitness of all the AGVs to be replaced
+     * @param AGVRecords Records of all the AGVs to be replaced
+     */
+    void restore(PathPlanning pathPlanning, List<List<Path>> AGVPaths, double[] AGVTimes, double[] AGVFitness,
+                 List<List<Record>> AGVRecords) {
+        for (int i = 0; i < returningAGV.length; i++) {
+            if (returningAGV[i]) {
+                pathPlanning.setBackingAGV(i);
+            }
+        }
+        decodingState.restore(AGVPaths, AGVTimes, AGVFitness, AGVRecords);
+    }
+
+    @Override
+    public String toString() {
+        return "DecodingCheckpoint{" +
+                "taskPrefix=" + Arrays.toString(taskPrefix) +
+                '}';
+    }
+}
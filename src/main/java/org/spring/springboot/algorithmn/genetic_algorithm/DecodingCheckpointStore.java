@@ -0,0 +1,122 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Checkpoints taken while decoding the individuals, keyed by the hash of their task prefix. Offspring mostly share their
+//prefix with the parents, so the checkpoints of the last generation are kept besides the ones of this generation.
+//It is safe to be used by the threads decoding the individuals of the same generation.
+class DecodingCheckpointStore {
+
+    //A checkpoint is taken every interval tasks
+    private final int interval;
+    //Most checkpoints kept for one generation, to limit the memory taken by the snapshots
+    private final int maxCheckpoints;
+    private Map<Long, DecodingCheckpoint> currentCheckpoints = new ConcurrentHashMap<>();
+    private Map<Long, DecodingCheckpoint> previousCheckpoints = new ConcurrentHashMap<>();
+    //Tasks dispatched by all the individuals and tasks skipped by resuming from checkpoints
+    private final AtomicLong dispatchedTasks = new AtomicLong();
+    private final AtomicLong resumedTasks = new AtomicLong();
+
+    /**
+     * @param interval Number of tasks between two checkpoints of the same individual
+     * @param maxCheckpoints Most checkpoints kept for one generation
+     */
+    DecodingCheckpointStore(int interval, int maxCheckpoints) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval of checkpoints should be at least 1!");
+        }
+        this.interval = interval;
+        this.maxCheckpoints = maxCheckpoints;
+    }
+
+    /**
+     * Start a new generation, the checkpoints of the generation before the last one are dropped unless they are used again
+     */
+    void nextGeneration() {
+        previousCheckpoints = currentCheckpoints;
+        currentCheckpoints = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param numberOfTasks Number of tasks already dispatched
+     * @return If a checkpoint should be taken after the tasks
+     */
+    boolean isCheckpointPosition(int numberOfTasks) {
+        return numberOfTasks > 0 && numberOfTasks % interval == 0;
+    }
+
+    /**
+     * Hash of every prefix of the task sequence, the one at position k is for the first k tasks
+     * @param taskSequence Order of the tasks
+     * @return Hash of the prefixes
+     */
+    static long[] hashPrefixes(int[] taskSequence) {
+        long[] prefixHashes = new long[taskSequence.length + 1];
+        prefixHashes[0] = 17;
+        for (int i = 0; i < taskSequence.length; i++) {
+            prefixHashes[i + 1] = prefixHashes[i] * 1000003 + taskSequence[i];
+        }
+        return prefixHashes;
+    }
+
+    /**
+     * Find the checkpoint with the longest prefix of the task sequence
+     * @param taskSequence Order of the tasks
+     * @param keySequence Bits of the random keys of the tasks in the same order
+     * @param prefixHashes Hash of the prefixes of the sequence
+     * @return The checkpoint or null if no prefix has been checkpointed
+     */
+    DecodingCheckpoint findLongestPrefix(int[] taskSequence, long[] keySequence, long[] prefixHashes) {
+        for (int numberOfTasks = taskSequence.length - taskSequence.length % interval; numberOfTasks > 0; numberOfTasks -= interval) {
+            long key = prefixHashes[numberOfTasks];
+            DecodingCheckpoint checkpoint = currentCheckpoints.get(key);
+            if (checkpoint == null) {
+                checkpoint = previousCheckpoints.get(key);
+                //Keep it for the next generation since it is still useful
+                if (checkpoint != null && checkpoint.getNumberOfTasks() == numberOfTasks && checkpoint.isPrefixOf(taskSequence, keySequence)) {
+                    currentCheckpoints.putIfAbsent(key, checkpoint);
+                }
+            }
+            //Different prefixes may have the same hash, so the tasks are compared as well. The ties of the prefix may be broken
+            //differently by this sequence, then it is decoded from an earlier checkpoint.
+            if (checkpoint != null && checkpoint.getNumberOfTasks() == numberOfTasks && checkpoint.isPrefixOf(taskSequence, keySequence)) {
+                return checkpoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param prefixHash Hash of the task prefix
+     * @return If a checkpoint of the prefix should be taken, false if there is one already or there is no room
+     */
+    boolean shouldPut(long prefixHash) {
+        return currentCheckpoints.size() < maxCheckpoints && !currentCheckpoints.containsKey(prefixHash);
+    }
+
+    void put(long prefixHash, DecodingCheckpoint checkpoint) {
+        if (currentCheckpoints.size() < maxCheckpoints) {
+            currentCheckpoints.putIfAbsent(prefixHash, checkpoint);
+        }
+    }
+
+    /**
+     * Count the tasks of one decoded individual
+     * @param numberOfTasks Tasks of the individual
+     * @param numberOfResumedTasks Tasks skipped by resuming from a checkpoint
+     */
+    void count(int numberOfTasks, int numberOfResumedTasks) {
+        dispatchedTasks.addAndGet(numberOfTasks);
+        resumedTasks.addAndGet(numberOfResumedTasks);
+    }
+
+    long getDispatchedTasks() {
+        return dispatchedTasks.get();
+    }
+
+    long getResumedTasks() {
+        return resumedTasks.get();
+    }
+}
@@ -0,0 +1,83 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Copy of the paths, time, fitness and records of all the AGVs of an individual. It is copied in and out, so it is never changed
+//and can be restored into any number of individuals.
+class DecodingState {
+
+    private final List<List<Path>> AGVPaths;
+    private final double[] AGVTimes;
+    private final double[] AGVFitness;
+    private final List<List<Record>> AGVRecords;
+
+    /**
+     * @param AGVPaths Paths of all the AGVs
+     * @param AGVTimes Time of all the AGVs
+     * @param AGVFitness Fitness of all the AGVs
+     * @param AGVRecords Records of the finished tasks of all the AGVs
+     */
+    DecodingState(List<List<Path>> AGVPaths, double[] AGVTimes, double[] AGVFitness, List<List<Record>> AGVRecords) {
+        //Paths are not changed once they are planned, so the lists are copied but the paths are shared
+        this.AGVPaths = new ArrayList<>(AGVPaths.size());
+        for (List<Path> path : AGVPaths) {
+            this.AGVPaths.add(new ArrayList<>(path));
+        }
+        this.AGVTimes = AGVTimes.clone();
+        this.AGVFitness = AGVFitness.clone();
+        this.AGVRecords = new ArrayList<>(AGVRecords.size());
+        for (List<Record> records : AGVRecords) {
+            List<Record> recordsCopy = new ArrayList<>(records.size());
+            copyRecords(records, recordsCopy);
+            this.AGVRecords.add(recordsCopy);
+        }
+    }
+
+    /**
+     * Keep only the time and fitness, the paths and records of the individual are left as they are when it is restored
+     * @param AGVTimes Time of all the AGVs
+     * @param AGVFitness Fitness of all the AGVs
+     */
+    DecodingState(double[] AGVTimes, double[] AGVFitness) {
+        this.AGVPaths = null;
+        this.AGVTimes = AGVTimes.clone();
+        this.AGVFitness = AGVFitness.clone();
+        this.AGVRecords = null;
+    }
+
+    /**
+     * Copy the state into an individual
+     * @param AGVPaths Paths of all the AGVs to be replaced
+     * @param AGVTimes Time of all the AGVs to be replaced
+     * @param AGVFitness Fitness of all the AGVs to be replaced
+     * @param AGVRecords Records of all the AGVs to be replaced
+     */
+    void restore(List<List<Path>> AGVPaths, double[] AGVTimes, double[] AGVFitness, List<List<Record>> AGVRecords) {
+        System.arraycopy(this.AGVTimes, 0, AGVTimes, 0, AGVTimes.length);
+        System.arraycopy(this.AGVFitness, 0, AGVFitness, 0, AGVFitness.length);
+        if (this.AGVPaths == null) {
+            return;
+        }
+        for (int i = 0; i < AGVPaths.size(); i++) {
+            List<Path> path = AGVPaths.get(i);
+            path.clear();
+            path.addAll(this.AGVPaths.get(i));
+        }
+        for (int i = 0; i < AGVRecords.size(); i++) {
+            List<Record> records = AGVRecords.get(i);
+            records.clear();
+            copyRecords(this.AGVRecords.get(i), records);
+        }
+    }
+
+    //Records are counted up in place, so they are copied one by one
+    private static void copyRecords(List<Record> records, List<Record> recordsCopy) {
+        for (Record record : records) {
+            recordsCopy.add(new Record(record.getIndexOfTask(), record.getTimes()));
+        }
+    }
+}
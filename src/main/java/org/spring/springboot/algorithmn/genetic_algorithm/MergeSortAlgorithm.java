@@ -19,6 +19,20 @@ public class MergeSortAlgorithm {
         int[] temp = new int [length + 1];
         mergesort(a, temp, 0, length, time);
     }
+    /**
+     * Sort the indexes of the keys by the keys, equal keys keep the order of their indexes
+     * @param keys Random keys
+     * @return Indexes from the smallest key to the largest one
+     */
+    public static int[] argsort(double[] keys) {
+        int[] indexes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            indexes[i] = i;
+        }
+        mergesort(indexes, new int[keys.length], 0, keys.length - 1, keys);
+        return indexes;
+    }
+
     /**
      * Internal method that makes recursive calls.
      */
@@ -0,0 +1,28 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class MergeSortAlgorithmTest {
+
+    //Task with the smallest key goes first
+    @Test
+    public void shouldArgsortGiveTheIndexesFromTheSmallestKey() {
+        double[] keys = {0.7, 0.1, 0.9, 0.4};
+        assertArrayEquals(new int[]{1, 3, 0, 2}, MergeSortAlgorithm.argsort(keys));
+    }
+
+    //Every task is in the sequence once even if the keys are the same, the one with the smaller index goes first
+    @Test
+    public void shouldArgsortKeepTheOrderOfTheIndexesForTheSameKeys() {
+        double[] keys = {0.5, 0.2, 0.5, 0.2, 0.5};
+        assertArrayEquals(new int[]{1, 3, 0, 2, 4}, MergeSortAlgorithm.argsort(keys));
+    }
+
+    @Test
+    public void shouldArgsortWorkForOneOrNoKey() {
+        assertArrayEquals(new int[]{0}, MergeSortAlgorithm.argsort(new double[]{0.3}));
+        assertArrayEquals(new int[0], MergeSortAlgorithm.argsort(new double[0]));
+    }
+}
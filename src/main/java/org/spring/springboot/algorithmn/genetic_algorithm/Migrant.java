@@ -0,0 +1,53 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+
+import java.util.List;
+
+//Elitist of an island sent to the next island together with its decoded results, so it joins the population there without
+//being decoded again. Nothing of an individual is changed once it is decoded, so the results are shared instead of copied.
+class Migrant {
+
+    private final double[] taskDistribution;
+    private final double[] AGVFitness;
+    private final double[] AGVTimes;
+    private final List<List<Path>> AGVPaths;
+    private final List<List<Record>> AGVRecords;
+
+    /**
+     * @param taskDistribution Random keys of the tasks
+     * @param AGVFitness Fitness of all the AGVs
+     * @param AGVTimes Time of all the AGVs
+     * @param AGVPaths Paths of all the AGVs, null if the paths are not kept
+     * @param AGVRecords Records of the finished tasks of all the AGVs, null if the records are not kept
+     */
+    Migrant(double[] taskDistribution, double[] AGVFitness, double[] AGVTimes, List<List<Path>> AGVPaths,
+            List<List<Record>> AGVRecords) {
+        this.taskDistribution = taskDistribution;
+        this.AGVFitness = AGVFitness;
+        this.AGVTimes = AGVTimes;
+        this.AGVPaths = AGVPaths;
+        this.AGVRecords = AGVRecords;
+    }
+
+    double[] getTaskDistribution() {
+        return taskDistribution;
+    }
+
+    double[] getAGVFitness() {
+        return AGVFitness;
+    }
+
+    double[] getAGVTimes() {
+        return AGVTimes;
+    }
+
+    List<List<Path>> getAGVPaths() {
+        return AGVPaths;
+    }
+
+    List<List<Record>> getAGVRecords() {
+        return AGVRecords;
+    }
+}
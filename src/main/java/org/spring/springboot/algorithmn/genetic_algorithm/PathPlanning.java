@@ -178,6 +178,20 @@ public class PathPlanning {
     }
 
 
+    /**
+     * Start planning another individual on the same path planning, no AGV is returning and the routing is rolled back to its checkpoint
+     */
+    void reset() {
+        for (int i = 0; i < returningAGV.length; i++) {
+            returningAGV[i] = false;
+        }
+        routing.rollbackToCheckpoint();
+    }
+
+    Routing getRouting() {
+        return routing;
+    }
+
     public void setBackingAGV(int backingAGV) {
         returningAGV[backingAGV] = true;
     }
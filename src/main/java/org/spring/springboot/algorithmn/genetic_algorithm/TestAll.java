@@ -4,6 +4,6 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({AGV_GA_Test.class, PathPlanningTest.class})
+@Suite.SuiteClasses({AGV_GA_Test.class, PathPlanningTest.class, DecodingCacheTest.class, MergeSortAlgorithmTest.class, AGVReleaseQueueTest.class})
 public class TestAll {
 }
@@ -0,0 +1,106 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+
+//Random generator breaking the ties when choosing the earliest AGV for an individual. It is reseeded from the random key of
+//each task before the task is dispatched, so the choices only depend on the tasks and their keys. The draws of the tasks
+//with a real tie are recorded, so it can be told later if another individual would break the ties in the same way.
+class TieBreakRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final long decodingSeed;
+    //Position in the task sequence of the task being dispatched
+    private int position = -1;
+    //If the task being dispatched has more than one earliest AGV
+    private boolean isTie = false;
+    //Draws of the tasks with a tie: position of the task, bound and result of each draw
+    private int[] positions = new int[8];
+    private int[] bounds = new int[8];
+    private int[] results = new int[8];
+    private int numberOfDraws = 0;
+    //First draw of the task being dispatched
+    private int firstDrawOfTask = 0;
+
+    /**
+     * @param decodingSeed Seed of the run, mixed with the random key of each task
+     */
+    TieBreakRandom(long decodingSeed) {
+        this.decodingSeed = decodingSeed;
+    }
+
+    /**
+     * @param decodingSeed Seed of the run
+     * @param keyBits Bits of the random key of the task
+     * @return Seed of the draws for the task
+     */
+    static long seedOfTask(long decodingSeed, long keyBits) {
+        return decodingSeed + keyBits * SEED_STEP;
+    }
+
+    /**
+     * Reseed before dispatching the task at the position, the draws of the last task are dropped if it has no tie
+     * @param position Position in the task sequence
+     * @param keyBits Bits of the random key of the task
+     */
+    void startTask(int position, long keyBits) {
+        finishTask();
+        this.position = position;
+        setSeed(seedOfTask(decodingSeed, keyBits));
+    }
+
+    /**
+     * Start from the tie breaks of the tasks already dispatched, when the decoding is resumed from them
+     * @param tieBreaks Tie breaks of the tasks before the position to resume
+     */
+    void restore(TieBreaks tieBreaks) {
+        numberOfDraws = 0;
+        for (int i = 0; i < tieBreaks.getNumberOfDraws(); i++) {
+            addDraw(tieBreaks.getPosition(i), tieBreaks.getBound(i), tieBreaks.getResult(i));
+        }
+        firstDrawOfTask = numberOfDraws;
+        isTie = false;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        int result = super.nextInt(bound);
+        addDraw(position, bound, result);
+        if (bound > 1) {
+            isTie = true;
+        }
+        return result;
+    }
+
+    /**
+     * @return Tie breaks of the tasks dispatched so far
+     */
+    TieBreaks getTieBreaks() {
+        finishTask();
+        return new TieBreaks(Arrays.copyOf(positions, numberOfDraws), Arrays.copyOf(bounds, numberOfDraws),
+                Arrays.copyOf(results, numberOfDraws), decodingSeed);
+    }
+
+    //Without a tie the draws give the same result whatever the key is, so they are not needed to compare the individuals
+    private void finishTask() {
+        if (!isTie) {
+            numberOfDraws = firstDrawOfTask;
+        }
+        firstDrawOfTask = numberOfDraws;
+        isTie = false;
+    }
+
+    private void addDraw(int position, int bound, int result) {
+        if (numberOfDraws == positions.length) {
+            positions = Arrays.copyOf(positions, numberOfDraws * 2);
+            bounds = Arrays.copyOf(bounds, numberOfDraws * 2);
+            results = Arrays.copyOf(results, numberOfDraws * 2);
+        }
+        positions[numberOfDraws] = position;
+        bounds[numberOfDraws] = bound;
+        results[numberOfDraws] = result;
+        numberOfDraws++;
+    }
+}
@@ -0,0 +1,57 @@
+package org.spring.springboot.algorithmn.genetic_algorithm;
+
+import java.util.Random;
+
+//Draws made to break the ties when an individual is decoded, only for the tasks with more than one earliest AGV.
+//Two individuals with the same task sequence are decoded in the same way if the draws are the same with their keys.
+class TieBreaks {
+
+    private final int[] positions;
+    private final int[] bounds;
+    private final int[] results;
+    private final long decodingSeed;
+
+    TieBreaks(int[] positions, int[] bounds, int[] results, long decodingSeed) {
+        this.positions = positions;
+        this.bounds = bounds;
+        this.results = results;
+        this.decodingSeed = decodingSeed;
+    }
+
+    int getNumberOfDraws() {
+        return positions.length;
+    }
+
+    int getPosition(int draw) {
+        return positions[draw];
+    }
+
+    int getBound(int draw) {
+        return bounds[draw];
+    }
+
+    int getResult(int draw) {
+        return results[draw];
+    }
+
+    /**
+     * Replay the draws with the keys of another individual with the same task sequence. Decoding goes the same way until
+     * the first tie, and it keeps going the same way as long as the ties are broken the same, so the whole decoding is the same.
+     * @param keySequence Bits of the random keys of the tasks in the order of the sequence
+     * @return If the ties are broken in the same way
+     */
+    boolean isSameWith(long[] keySequence) {
+        Random random = new Random();
+        int lastPosition = -1;
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] != lastPosition) {
+                lastPosition = positions[i];
+                random.setSeed(TieBreakRandom.seedOfTask(decodingSeed, keySequence[lastPosition]));
+            }
+            if (random.nextInt(bounds[i]) != results[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
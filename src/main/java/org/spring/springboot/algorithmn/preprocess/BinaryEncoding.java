@@ -0,0 +1,343 @@
+package org.spring.springboot.algorithmn.preprocess;
+
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.exception.InvalidRequestException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of the request and the plan, for the clients polling the plans often. It carries the same numbers as
+ * the JSON: node numbers start from 1, and the time of each path in the plan is added 1 as in the JSON.
+ *
+ * Counts and node numbers are varints, the list of each AGV or buffer is prefixed with its length instead of ending with a -1
+ * path. A number is written as the varint of its difference from the number before it when the difference is a whole number
+ * giving it back exactly, otherwise as the 8 bytes of the double, so the times along a path take a byte or two and nothing is lost.
+ */
+public class BinaryEncoding {
+
+    public static final String MEDIA_TYPE = "application/vnd.agv.binary";
+    static final int VERSION = 1;
+
+    private static final int HAS_GRAPH = 1;
+    private static final int HAS_LAYOUT_ID = 2;
+    private static final int HAS_TIME_BUDGET = 4;
+    //A corrupted count is rejected instead of allocating the arrays of it
+    private static final int MAX_COUNT = 1 << 24;
+    //Whole number differences larger than this are written as double
+    private static final double MAX_WHOLE_DIFFERENCE = 1L << 52;
+
+    private BinaryEncoding() {
+    }
+
+    /**
+     * Read the request in the binary form, as StreamingRequestParser reads it in JSON
+     * @param inputStream Body of the request
+     * @return Data of the request
+     * @throws InvalidRequestException The body is not of this version or is cut short
+     */
+    public static RequestData readRequest(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        RequestData requestData = new RequestData();
+        try {
+            readVersion(in);
+            int flags = readCount(in);
+            if ((flags & HAS_LAYOUT_ID) != 0) {
+                byte[] layoutId = new byte[readCount(in)];
+                in.readFully(layoutId);
+                requestData.layoutId = new String(layoutId, StandardCharsets.UTF_8);
+            }
+            if ((flags & HAS_GRAPH) != 0) {
+                requestData.numberOfGraphNode = readCount(in);
+                int edgeNumber = readCount(in);
+                requestData.edgeStartNodes = new int[edgeNumber];
+                requestData.edgeEndNodes = new int[edgeNumber];
+                requestData.edgeDistances = new double[edgeNumber];
+                for (int i = 0; i < edgeNumber; i++) {
+                    requestData.edgeStartNodes[i] = readNode(in);
+                    requestData.edgeEndNodes[i] = readNode(in);
+                    requestData.edgeDistances[i] = readNumber(in, 0);
+                }
+            }
+            int bufferNumber = readCount(in);
+            requestData.bufferSet = new ArrayList<>(bufferNumber);
+            for (int i = 0; i < bufferNumber; i++) {
+                int bufferLength = readCount(in);
+                List<Integer> bufferPath = new ArrayList<>(bufferLength);
+                for (int j = 0; j < bufferLength; j++) {
+                    bufferPath.add(readNode(in));
+                }
+                requestData.bufferSet.add(bufferPath);
+            }
+            readTasks(in, requestData);
+            readAGVs(in, requestData);
+            requestData.speed = readNumber(in, 0);
+            requestData.precision = readNumber(in, 0);
+            if ((flags & HAS_TIME_BUDGET) != 0) {
+                requestData.timeBudget = readUnsignedVarint(in);
+                requestData.hasTimeBudget = true;
+                if (requestData.timeBudget < 0) {
+                    throw new InvalidRequestException("Time budget is too large!");
+                }
+            }
+        }
+        catch (EOFException e) {
+            throw new InvalidRequestException("The request is cut short!");
+        }
+        return requestData;
+    }
+
+    /**
+     * Write the request in the binary form, the sub-tasks of each task are written as the task once with its times
+     * @param requestData Data of the request
+     * @param outputStream Stream written to, it is not closed
+     */
+    public static void writeRequest(RequestData requestData, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeByte(VERSION);
+        boolean hasGraph = requestData.numberOfGraphNode >= 0 && requestData.edgeStartNodes != null;
+        int flags = (hasGraph ? HAS_GRAPH : 0) | (requestData.layoutId != null ? HAS_LAYOUT_ID : 0)
+                | (requestData.hasTimeBudget ? HAS_TIME_BUDGET : 0);
+        writeUnsignedVarint(out, flags);
+        if (requestData.layoutId != null) {
+            byte[] layoutId = requestData.layoutId.getBytes(StandardCharsets.UTF_8);
+            writeUnsignedVarint(out, layoutId.length);
+            out.write(layoutId);
+        }
+        if (hasGraph) {
+            writeUnsignedVarint(out, requestData.numberOfGraphNode);
+            writeUnsignedVarint(out, requestData.edgeStartNodes.length);
+            for (int i = 0; i < requestData.edgeStartNodes.length; i++) {
+                writeNode(out, requestData.edgeStartNodes[i]);
+                writeNode(out, requestData.edgeEndNodes[i]);
+                writeNumber(out, requestData.edgeDistances[i], 0);
+            }
+        }
+        List<List<Integer>> bufferSet = requestData.bufferSet == null ? new ArrayList<>() : requestData.bufferSet;
+        writeUnsignedVarint(out, bufferSet.size());
+        for (List<Integer> bufferPath : bufferSet) {
+            writeUnsignedVarint(out, bufferPath.size());
+            for (int node : bufferPath) {
+                writeNode(out, node);
+            }
+        }
+        writeTasks(out, requestData);
+        writeAGVs(out, requestData);
+        writeNumber(out, requestData.speed, 0);
+        writeNumber(out, requestData.precision, 0);
+        if (requestData.hasTimeBudget) {
+            writeUnsignedVarint(out, requestData.timeBudget);
+        }
+        out.flush();
+    }
+
+    /**
+     * Write the plan in the binary form, with the same numbers as the JSON of the plan
+     * @param paths Paths of each AGV
+     * @param bestRecords Tasks done by each AGV
+     * @return The plan in the binary form
+     */
+    public static byte[] writePlan(List<List<Path>> paths, List<List<Record>> bestRecords) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(VERSION);
+            writeUnsignedVarint(out, paths.size());
+            for (List<Path> pathsOfAGV : paths) {
+                writeUnsignedVarint(out, pathsOfAGV.size());
+                double previousTime = 0;
+                for (Path path : pathsOfAGV) {
+                    writeNode(out, path.getStartNode());
+                    writeNode(out, path.getEndNode());
+                    writeNumber(out, path.getTime() + 1, previousTime);
+                    out.writeByte(path.isLoop() ? 1 : 0);
+                    previousTime = path.getTime() + 1;
+                }
+            }
+            writeUnsignedVarint(out, bestRecords.size());
+            for (List<Record> recordsOfAGV : bestRecords) {
+                writeUnsignedVarint(out, recordsOfAGV.size());
+                for (Record record : recordsOfAGV) {
+                    writeSignedVarint(out, record.getIndexOfTask());
+                    writeSignedVarint(out, record.getTimes());
+                }
+            }
+        }
+        catch (IOException e) {
+            //Writing into the memory does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    //Each task is the start node, the end node and how many times it is done, as the "start,end,times" string in the JSON
+    private static void readTasks(DataInputStream in, RequestData requestData) throws IOException {
+        int taskNumber = readCount(in);
+        List<int[]> tasks = new ArrayList<>(taskNumber);
+        List<Integer> taskOfSubTask = new ArrayList<>(taskNumber);
+        for (int i = 0; i < taskNumber; i++) {
+            int startNode = readNode(in);
+            int endNode = readNode(in);
+            int times = readCount(in);
+            if (tasks.size() + times > MAX_COUNT) {
+                throw new InvalidRequestException("There are too many sub-tasks!");
+            }
+            for (int j = 0; j < times; j++) {
+                tasks.add(new int[]{startNode, endNode});
+                taskOfSubTask.add(i);
+            }
+        }
+        requestData.tasks = tasks.toArray(new int[tasks.size()][]);
+        requestData.taskOfSubTask = new int[taskOfSubTask.size()];
+        for (int i = 0; i < taskOfSubTask.size(); i++) {
+            requestData.taskOfSubTask[i] = taskOfSubTask.get(i);
+        }
+    }
+
+    private static void writeTasks(DataOutputStream out, RequestData requestData) throws IOException {
+        int subTaskNumber = requestData.tasks == null ? 0 : requestData.tasks.length;
+        int taskNumber = subTaskNumber == 0 ? 0 : requestData.taskOfSubTask[subTaskNumber - 1] + 1;
+        writeUnsignedVarint(out, taskNumber);
+        int subTask = 0;
+        for (int task = 0; task < taskNumber; task++) {
+            int firstSubTask = subTask;
+            while (subTask < subTaskNumber && requestData.taskOfSubTask[subTask] == task) {
+                subTask++;
+            }
+            //A task done no times has no sub-task, its nodes are not used
+            writeNode(out, firstSubTask < subTaskNumber ? requestData.tasks[firstSubTask][0] : 0);
+            writeNode(out, firstSubTask < subTaskNumber ? requestData.tasks[firstSubTask][1] : 0);
+            writeUnsignedVarint(out, subTask - firstSubTask);
+        }
+    }
+
+    //Each AGV has its time already passing, its buffer and its ongoing paths
+    private static void readAGVs(DataInputStream in, RequestData requestData) throws IOException {
+        int AGVNumber = readCount(in);
+        requestData.timeAlreadyPassing = new double[AGVNumber];
+        requestData.bufferForAGV = new int[AGVNumber];
+        requestData.AGVPaths = new ArrayList<>(AGVNumber);
+        for (int i = 0; i < AGVNumber; i++) {
+            requestData.timeAlreadyPassing[i] = readNumber(in, 0);
+            requestData.bufferForAGV[i] = readNode(in);
+            int pathNumber = readCount(in);
+            List<Path> AGVPath = new ArrayList<>(pathNumber);
+            double previousTime = 0;
+            for (int j = 0; j < pathNumber; j++) {
+                int startNode = readNode(in);
+                int endNode = readNode(in);
+                double time = readNumber(in, previousTime);
+                AGVPath.add(new Path(startNode, endNode, time, in.readUnsignedByte() == 1));
+                previousTime = time;
+            }
+            requestData.AGVPaths.add(AGVPath);
+        }
+    }
+
+    private static void writeAGVs(DataOutputStream out, RequestData requestData) throws IOException {
+        int AGVNumber = requestData.timeAlreadyPassing == null ? 0 : requestData.timeAlreadyPassing.length;
+        if (AGVNumber > 0 && (requestData.bufferForAGV.length != AGVNumber || requestData.AGVPaths.size() != AGVNumber)) {
+            throw new IllegalArgumentException("Time, buffer and paths should be given for each AGV!");
+        }
+        writeUnsignedVarint(out, AGVNumber);
+        for (int i = 0; i < AGVNumber; i++) {
+            writeNumber(out, requestData.timeAlreadyPassing[i], 0);
+            writeNode(out, requestData.bufferForAGV[i]);
+            List<Path> AGVPath = requestData.AGVPaths.get(i);
+            writeUnsignedVarint(out, AGVPath.size());
+            double previousTime = 0;
+            for (Path path : AGVPath) {
+                writeNode(out, path.getStartNode());
+                writeNode(out, path.getEndNode());
+                writeNumber(out, path.getTime(), previousTime);
+                out.writeByte(path.isLoop() ? 1 : 0);
+                previousTime = path.getTime();
+            }
+        }
+    }
+
+    private static void readVersion(DataInputStream in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidRequestException("Version " + version + " of the binary request is not supported!");
+        }
+    }
+
+    //Node numbers are written from 1 as in the JSON
+    private static int readNode(DataInputStream in) throws IOException {
+        return readCount(in) - 1;
+    }
+
+    private static void writeNode(DataOutputStream out, int node) throws IOException {
+        writeUnsignedVarint(out, node + 1);
+    }
+
+    static int readCount(DataInputStream in) throws IOException {
+        long count = readUnsignedVarint(in);
+        if (count > MAX_COUNT) {
+            throw new InvalidRequestException("Number " + count + " is too large!");
+        }
+        return (int) count;
+    }
+
+    /**
+     * @param previous Number written before it, or 0
+     * @return The number written
+     */
+    static double readNumber(DataInputStream in, double previous) throws IOException {
+        long value = readUnsignedVarint(in);
+        if ((value & 1) == 1) {
+            return in.readDouble();
+        }
+        long difference = value >>> 1;
+        return previous + ((difference >>> 1) ^ -(difference & 1));
+    }
+
+    static void writeNumber(DataOutputStream out, double number, double previous) throws IOException {
+        double difference = number - previous;
+        if (Math.abs(difference) < MAX_WHOLE_DIFFERENCE && difference == Math.rint(difference)
+                && previous + (long) difference == number) {
+            long zigZag = ((long) difference << 1) ^ ((long) difference >> 63);
+            writeUnsignedVarint(out, zigZag << 1);
+        }
+        else {
+            writeUnsignedVarint(out, 1);
+            out.writeDouble(number);
+        }
+    }
+
+    static long readUnsignedVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidRequestException("Varint is longer than 10 bytes!");
+    }
+
+    static void writeUnsignedVarint(DataOutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative number " + value + " can not be written as unsigned varint!");
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static int readSignedVarint(DataInputStream in) throws IOException {
+        long value = readUnsignedVarint(in);
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    private static void writeSignedVarint(DataOutputStream out, int value) throws IOException {
+        writeUnsignedVarint(out, ((long) value << 1) ^ ((long) value >> 63));
+    }
+}
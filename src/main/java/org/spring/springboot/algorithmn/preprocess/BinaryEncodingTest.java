@@ -0,0 +1,129 @@
+package org.spring.springboot.algorithmn.preprocess;
+
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.exception.InvalidRequestException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryEncodingTest {
+
+    private static final String REQUEST = "{\"data\": {" +
+            "\"startNode\": [{\"startNode\": 1}, {\"startNode\": 2}, {\"startNode\": 3}]," +
+            "\"endNode\": [{\"endNode\": 2}, {\"endNode\": 3}, {\"endNode\": 4}]," +
+            "\"nodeDistance\": [{\"nodeDistance\": 4}, {\"nodeDistance\": 2.5}, {\"nodeDistance\": 6}]," +
+            "\"numberOfGraphNode\": 4," +
+            "\"tasks\": [{\"tasks\": \"1,3,2\"}, {\"tasks\": \"4,2,1\"}]," +
+            "\"time\": [{\"time\": 0}, {\"time\": 1.5}]," +
+            "\"paths\": [[{\"startNode\": 2, \"endNode\": 3, \"time\": 1.5, \"isLoop\": 0}, " +
+            "{\"startNode\": 3, \"endNode\": 3, \"time\": 4, \"isLoop\": 1}], []]," +
+            "\"bufferSet\": [[{\"paths\": 4}, {\"paths\": 3}]]," +
+            "\"bufferForAGV\": [{\"bufferForAGV\": 1}, {\"bufferForAGV\": 1}]," +
+            "\"speed\": 2, \"precision\": 0.1, \"timeBudget\": 500}}";
+
+    //The request written in the binary form and read back should be the same as read from the JSON, and take fewer bytes.
+    @Test
+    public void shouldBinaryRequestBeReadAsJsonRequest() throws IOException {
+        RequestData jsonRequest = new StreamingRequestParser().parse(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryEncoding.writeRequest(jsonRequest, bytes);
+        RequestData binaryRequest = BinaryEncoding.readRequest(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertArrayEquals(jsonRequest.createGraph().toAdjacencyMatrix(), binaryRequest.createGraph().toAdjacencyMatrix());
+        assertArrayEquals(jsonRequest.getTasks(), binaryRequest.getTasks());
+        assertEquals(jsonRequest.getTaskMap(), binaryRequest.getTaskMap());
+        assertArrayEquals(jsonRequest.getTimeAlreadyPassing(), binaryRequest.getTimeAlreadyPassing());
+        assertEquals(jsonRequest.getAGVPaths(), binaryRequest.getAGVPaths());
+        assertEquals(jsonRequest.getBufferSet(), binaryRequest.getBufferSet());
+        assertArrayEquals(jsonRequest.getBufferForAGV(), binaryRequest.getBufferForAGV());
+        assertEquals(jsonRequest.getSpeed(), binaryRequest.getSpeed(), 0);
+        assertEquals(jsonRequest.getPrecision(), binaryRequest.getPrecision(), 0);
+        assertEquals(jsonRequest.hasTimeBudget(), binaryRequest.hasTimeBudget());
+        assertEquals(jsonRequest.getTimeBudget(), binaryRequest.getTimeBudget());
+        assertEquals(jsonRequest.getLayoutId(), binaryRequest.getLayoutId());
+        assertTrue(bytes.size() * 5 < REQUEST.length());
+    }
+
+    //The paths of each AGV are prefixed with their number, with the nodes and times of the JSON plan.
+    @Test
+    public void shouldPlanBeWrittenWithLengthPrefixes() throws IOException {
+        List<List<Path>> paths = Arrays.asList(
+                Arrays.asList(new Path(0, 1, 0, false), new Path(1, 1, 2, true), new Path(1, 5, 3.25, false)),
+                Collections.<Path>emptyList());
+        List<List<Record>> records = Arrays.asList(Collections.singletonList(new Record(1, 0)), Collections.<Record>emptyList());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(BinaryEncoding.writePlan(paths, records)));
+
+        assertEquals(BinaryEncoding.VERSION, in.readUnsignedByte());
+        assertEquals(2, BinaryEncoding.readCount(in));
+        List<List<Path>> readPaths = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            int pathNumber = BinaryEncoding.readCount(in);
+            List<Path> readPathsOfAGV = new ArrayList<>();
+            double previousTime = 0;
+            for (int j = 0; j < pathNumber; j++) {
+                int startNode = BinaryEncoding.readCount(in);
+                int endNode = BinaryEncoding.readCount(in);
+                double time = BinaryEncoding.readNumber(in, previousTime);
+                readPathsOfAGV.add(new Path(startNode, endNode, time, in.readUnsignedByte() == 1));
+                previousTime = time;
+            }
+            readPaths.add(readPathsOfAGV);
+        }
+        assertEquals(Arrays.asList(
+                Arrays.asList(new Path(1, 2, 1, false), new Path(2, 2, 3, true), new Path(2, 6, 4.25, false)),
+                Collections.<Path>emptyList()), readPaths);
+        assertEquals(2, BinaryEncoding.readCount(in));
+        assertEquals(1, BinaryEncoding.readCount(in));
+        assertEquals(1, BinaryEncoding.readSignedVarint(in));
+        assertEquals(0, BinaryEncoding.readSignedVarint(in));
+        assertEquals(0, BinaryEncoding.readCount(in));
+        assertEquals(-1, in.read());
+    }
+
+    //Whole number differences take one byte, the other numbers are kept exactly.
+    @Test
+    public void shouldNumbersBeReadBackExactly() throws IOException {
+        double[] numbers = {0, 3, 10, 7, -2, 0.1, 1e9, 1e9 + 0.5, 1e300, -1e-300, Double.NaN, Double.POSITIVE_INFINITY, 5};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        double previous = 0;
+        for (double number : numbers) {
+            int size = bytes.size();
+            BinaryEncoding.writeNumber(out, number, previous);
+            if (number - previous == Math.rint(number - previous) && Math.abs(number - previous) < 32) {
+                assertEquals(1, bytes.size() - size);
+            }
+            previous = number;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        previous = 0;
+        for (double number : numbers) {
+            double readNumber = BinaryEncoding.readNumber(in, previous);
+            assertEquals(Double.doubleToLongBits(number), Double.doubleToLongBits(readNumber));
+            previous = readNumber;
+        }
+    }
+
+    @Test(expected = InvalidRequestException.class)
+    public void shouldTruncatedRequestBeRejected() throws IOException {
+        RequestData requestData = new StreamingRequestParser().parse(new ByteArrayInputStream(REQUEST.getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryEncoding.writeRequest(requestData, bytes);
+        BinaryEncoding.readRequest(new ByteArrayInputStream(Arrays.copyOf(bytes.toByteArray(), bytes.size() - 3)));
+    }
+
+    @Test(expected = InvalidRequestException.class)
+    public void shouldOtherVersionBeRejected() throws IOException {
+        BinaryEncoding.readRequest(new ByteArrayInputStream(new byte[]{(byte) (BinaryEncoding.VERSION + 1), 0}));
+    }
+}
@@ -0,0 +1,136 @@
+package org.spring.springboot.algorithmn.preprocess;
+
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.SparseGraph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Data of a request read by the streaming parser. Node numbers start from 0 as the arrays of the algorithm, the numbers from
+//the front end are already reduced by 1. The sub-tasks of a task are already split.
+public class RequestData {
+
+    //Each edge is given once and the road goes both ways, -1 node number if the graph is not given
+    int numberOfGraphNode = -1;
+    int[] edgeStartNodes;
+    int[] edgeEndNodes;
+    double[] edgeDistances;
+    //Start and end node of each sub-task, and the task in the request it is split from
+    int[][] tasks;
+    int[] taskOfSubTask;
+    double[] timeAlreadyPassing;
+    List<List<Path>> AGVPaths;
+    List<List<Integer>> bufferSet;
+    int[] bufferForAGV;
+    double speed;
+    double precision;
+    //Time budget in milliseconds, only if the request gives it
+    boolean hasTimeBudget;
+    long timeBudget;
+    //Null if the request gives the graph instead of a registered layout
+    String layoutId;
+
+    RequestData() {
+    }
+
+    /**
+     * Build the graph with both directions of each edge, in the same way as PreprocessData.createGraphFromJson
+     * @return Sparse graph of the request, null if the request gives no graph
+     */
+    public SparseGraph createGraph() {
+        if (numberOfGraphNode < 0 || edgeStartNodes == null) {
+            return null;
+        }
+        int edgeNumber = edgeStartNodes.length;
+        if (edgeEndNodes.length != edgeNumber || edgeDistances.length != edgeNumber) {
+            throw new IllegalArgumentException("Start nodes, end nodes and distances should have the same size!");
+        }
+        int[] startNodes = new int[edgeNumber * 2];
+        int[] endNodes = new int[edgeNumber * 2];
+        double[] distances = new double[edgeNumber * 2];
+        for (int i = 0; i < edgeNumber; i++) {
+            startNodes[2 * i] = edgeStartNodes[i];
+            endNodes[2 * i] = edgeEndNodes[i];
+            distances[2 * i] = edgeDistances[i];
+            startNodes[2 * i + 1] = edgeEndNodes[i];
+            endNodes[2 * i + 1] = edgeStartNodes[i];
+            distances[2 * i + 1] = edgeDistances[i];
+        }
+        return new SparseGraph(numberOfGraphNode, startNodes, endNodes, distances);
+    }
+
+    //The genetic algorithm takes the boxed arrays, they are as long as the tasks and AGVs so they are boxed only here
+
+    public Integer[][] getTasks() {
+        Integer[][] boxedTasks = new Integer[tasks.length][2];
+        for (int i = 0; i < tasks.length; i++) {
+            boxedTasks[i][0] = tasks[i][0];
+            boxedTasks[i][1] = tasks[i][1];
+        }
+        return boxedTasks;
+    }
+
+    /**
+     * @return Map from the index of each sub-task to the index of the task in the request
+     */
+    public Map<Integer, Integer> getTaskMap() {
+        Map<Integer, Integer> taskMap = new HashMap<>();
+        for (int i = 0; i < taskOfSubTask.length; i++) {
+            taskMap.put(i, taskOfSubTask[i]);
+        }
+        return taskMap;
+    }
+
+    public Double[] getTimeAlreadyPassing() {
+        Double[] boxedTime = new Double[timeAlreadyPassing.length];
+        for (int i = 0; i < timeAlreadyPassing.length; i++) {
+            boxedTime[i] = timeAlreadyPassing[i];
+        }
+        return boxedTime;
+    }
+
+    public Integer[] getBufferForAGV() {
+        Integer[] boxedBufferForAGV = new Integer[bufferForAGV.length];
+        for (int i = 0; i < bufferForAGV.length; i++) {
+            boxedBufferForAGV[i] = bufferForAGV[i];
+        }
+        return boxedBufferForAGV;
+    }
+
+    public int getNumberOfGraphNode() {
+        return numberOfGraphNode;
+    }
+
+    public int getNumberOfEdge() {
+        return edgeStartNodes == null ? 0 : edgeStartNodes.length;
+    }
+
+    public List<List<Path>> getAGVPaths() {
+        return AGVPaths;
+    }
+
+    public List<List<Integer>> getBufferSet() {
+        return bufferSet;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public double getPrecision() {
+        return precision;
+    }
+
+    public boolean hasTimeBudget() {
+        return hasTimeBudget;
+    }
+
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    public String getLayoutId() {
+        return layoutId;
+    }
+}
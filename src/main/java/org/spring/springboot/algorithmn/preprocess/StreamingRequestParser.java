@@ -0,0 +1,340 @@
+package org.spring.springboot.algorithmn.preprocess;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.spring.springboot.algorithmn.common.Path;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//Read the request of the front end token by token into the arrays of RequestData, without building the tree of maps.
+//It takes the same fields as PreprocessData, the fields can come in any order and the unknown ones are skipped.
+public class StreamingRequestParser {
+
+    //Thread safe once it is configured, so it is shared by all the requests
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Read the request, the fields of the problem are in the "data" object
+     * @param inputStream Body of the request
+     * @return Data of the request
+     * @throws IOException The body is not valid JSON or a field is not in the expected form
+     */
+    public RequestData parse(InputStream inputStream) throws IOException {
+        RequestData requestData = new RequestData();
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("data".equals(fieldName)) {
+                    readData(parser, requestData);
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return requestData;
+    }
+
+    private void readData(JsonParser parser, RequestData requestData) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        IntList subTaskNodes = null;
+        IntList taskOfSubTask = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (fieldName) {
+                case "numberOfGraphNode":
+                    requestData.numberOfGraphNode = readInt(parser);
+                    break;
+                case "startNode":
+                    requestData.edgeStartNodes = readIntOfEachObject(parser, "startNode", -1);
+                    break;
+                case "endNode":
+                    requestData.edgeEndNodes = readIntOfEachObject(parser, "endNode", -1);
+                    break;
+                case "nodeDistance":
+                    requestData.edgeDistances = readDoubleOfEachObject(parser, "nodeDistance");
+                    break;
+                case "tasks":
+                    subTaskNodes = new IntList();
+                    taskOfSubTask = new IntList();
+                    readTasks(parser, subTaskNodes, taskOfSubTask);
+                    break;
+                case "time":
+                    requestData.timeAlreadyPassing = readDoubleOfEachObject(parser, "time");
+                    break;
+                case "paths":
+                    requestData.AGVPaths = readAGVPaths(parser);
+                    break;
+                case "bufferSet":
+                    requestData.bufferSet = readBufferSet(parser);
+                    break;
+                case "bufferForAGV":
+                    requestData.bufferForAGV = readIntOfEachObject(parser, "bufferForAGV", -1);
+                    break;
+                case "speed":
+                    requestData.speed = readDouble(parser);
+                    break;
+                case "precision":
+                    requestData.precision = readDouble(parser);
+                    break;
+                case "timeBudget":
+                    requestData.timeBudget = readTimeBudget(parser);
+                    requestData.hasTimeBudget = true;
+                    break;
+                case "layoutId":
+                    requestData.layoutId = parser.getValueAsString();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (subTaskNodes != null) {
+            requestData.tasks = new int[taskOfSubTask.size()][];
+            for (int i = 0; i < taskOfSubTask.size(); i++) {
+                requestData.tasks[i] = new int[]{subTaskNodes.get(2 * i), subTaskNodes.get(2 * i + 1)};
+            }
+            requestData.taskOfSubTask = taskOfSubTask.toArray();
+        }
+    }
+
+    //Each task is like {"tasks": "1,2,20"}: start node, end node and how many times it is done, each time is a sub-task
+    private void readTasks(JsonParser parser, IntList subTaskNodes, IntList taskOfSubTask) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        int indexOfTask = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String task = readStringField(parser, "tasks");
+            int firstComma = task.indexOf(',');
+            int secondComma = task.indexOf(',', firstComma + 1);
+            if (firstComma < 0 || secondComma < 0) {
+                throw new JsonParseException(parser, "Task should be like \"start,end,times\" but it is \"" + task + "\"");
+            }
+            int startNode;
+            int endNode;
+            int times;
+            try {
+                startNode = Integer.parseInt(task.substring(0, firstComma).trim()) - 1;
+                endNode = Integer.parseInt(task.substring(firstComma + 1, secondComma).trim()) - 1;
+                int end = task.indexOf(',', secondComma + 1);
+                times = Integer.parseInt(task.substring(secondComma + 1, end < 0 ? task.length() : end).trim());
+            }
+            catch (NumberFormatException e) {
+                throw new JsonParseException(parser, "Task should be like \"start,end,times\" but it is \"" + task + "\"");
+            }
+            for (int i = 0; i < times; i++) {
+                subTaskNodes.add(startNode);
+                subTaskNodes.add(endNode);
+                taskOfSubTask.add(indexOfTask);
+            }
+            indexOfTask++;
+        }
+    }
+
+    //Each AGV has a list like [{"startNode": 1, "endNode": 2, "time": 3, "isLoop": 0}]
+    private List<List<Path>> readAGVPaths(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        List<List<Path>> AGVPaths = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+            List<Path> AGVPath = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+                int startNode = 0;
+                int endNode = 0;
+                double time = 0;
+                int isLoop = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (fieldName) {
+                        case "startNode":
+                            startNode = readInt(parser) - 1;
+                            break;
+                        case "endNode":
+                            endNode = readInt(parser) - 1;
+                            break;
+                        case "time":
+                            time = readDouble(parser);
+                            break;
+                        case "isLoop":
+                            isLoop = readInt(parser);
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+                AGVPath.add(new Path(startNode, endNode, time, isLoop == 1));
+            }
+            AGVPaths.add(AGVPath);
+        }
+        return AGVPaths;
+    }
+
+    //Each buffer is a list like [{"paths": 1}, {"paths": 2}]
+    private List<List<Integer>> readBufferSet(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        List<List<Integer>> bufferSet = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            List<Integer> bufferPath = new ArrayList<>();
+            for (int node : readIntOfEachObject(parser, "paths", -1)) {
+                bufferPath.add(node);
+            }
+            bufferSet.add(bufferPath);
+        }
+        return bufferSet;
+    }
+
+    /**
+     * Read a list of objects like [{"name": 1}, {"name": 2}]
+     * @param fieldName Name of the field read in each object
+     * @param offset Added to each value, -1 to change the node number from the front end into the index
+     * @return Value of the field in each object
+     */
+    private int[] readIntOfEachObject(JsonParser parser, String fieldName, int offset) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        IntList values = new IntList();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+            boolean found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (!found && fieldName.equals(name)) {
+                    values.add(readInt(parser) + offset);
+                    found = true;
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+            if (!found) {
+                throw new JsonParseException(parser, "Field " + fieldName + " is missing");
+            }
+        }
+        return values.toArray();
+    }
+
+    private double[] readDoubleOfEachObject(JsonParser parser, String fieldName) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        double[] values = new double[16];
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+            boolean found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (!found && fieldName.equals(name)) {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size++] = readDouble(parser);
+                    found = true;
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+            if (!found) {
+                throw new JsonParseException(parser, "Field " + fieldName + " is missing");
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private String readStringField(JsonParser parser, String fieldName) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (value == null && fieldName.equals(name)) {
+                value = parser.getValueAsString();
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        if (value == null) {
+            throw new JsonParseException(parser, "Field " + fieldName + " is missing");
+        }
+        return value;
+    }
+
+    private static int readInt(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        return (int) readDouble(parser);
+    }
+
+    //A fraction of a millisecond would be cut to 0, which means no time budget at all, so only whole numbers are taken
+    private static long readTimeBudget(JsonParser parser) throws IOException {
+        double timeBudget = readDouble(parser);
+        if (!(timeBudget >= 0 && timeBudget == Math.rint(timeBudget) && timeBudget <= Long.MAX_VALUE)) {
+            throw new IllegalArgumentException("Time budget should be a whole number of milliseconds, not negative, but it is "
+                    + parser.getText() + "!");
+        }
+        return (long) timeBudget;
+    }
+
+    //Numbers may come as strings from the front end
+    private static double readDouble(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(parser.getText().trim());
+            }
+            catch (NumberFormatException e) {
+                throw new JsonParseException(parser, "Number is expected but it is \"" + parser.getText() + "\"");
+            }
+        }
+        throw new JsonParseException(parser, "Number is expected but it is " + token);
+    }
+
+    private static void expect(JsonParser parser, JsonToken token, JsonToken expectedToken) throws JsonParseException {
+        if (token != expectedToken) {
+            throw new JsonParseException(parser, expectedToken + " is expected but it is " + token);
+        }
+    }
+
+    //Growing array of int, so the values are not boxed while the size is unknown
+    private static class IntList {
+
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
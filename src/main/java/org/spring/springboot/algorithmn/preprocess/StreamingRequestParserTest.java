@@ -0,0 +1,111 @@
+package org.spring.springboot.algorithmn.preprocess;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.CommonConstant;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingRequestParserTest {
+
+    //The fields are not in the order of the front end, the time of a path is a string and there are unknown fields
+    private static final String REQUEST = "{\"version\": 2, \"data\": {" +
+            "\"tasks\": [{\"tasks\": \"1,3,2\"}, {\"tasks\": \"4,2,1\"}]," +
+            "\"startNode\": [{\"startNode\": 1}, {\"startNode\": 2}, {\"startNode\": 3}]," +
+            "\"endNode\": [{\"endNode\": 2}, {\"endNode\": 3}, {\"endNode\": 4}]," +
+            "\"nodeDistance\": [{\"nodeDistance\": 4}, {\"nodeDistance\": 2.5}, {\"nodeDistance\": 6}]," +
+            "\"numberOfGraphNode\": 4," +
+            "\"time\": [{\"time\": 0}, {\"time\": 1.5}]," +
+            "\"paths\": [[{\"startNode\": 2, \"endNode\": 3, \"time\": \"1.5\", \"isLoop\": 0}], []]," +
+            "\"bufferSet\": [[{\"paths\": 4}, {\"paths\": 3}]]," +
+            "\"bufferForAGV\": [{\"bufferForAGV\": 1}, {\"bufferForAGV\": 1}]," +
+            "\"comment\": {\"author\": [\"front end\"]}," +
+            "\"speed\": 2, \"precision\": \"0.1\", \"timeBudget\": 500}}";
+
+    //Each field should be the same as PreprocessData reads from the tree of maps of the same request.
+    @Test
+    public void shouldStreamingParserReadAsPreprocessData() throws IOException {
+        RequestData requestData = parse(REQUEST);
+        Map<String, Object> request = new ObjectMapper().readValue(REQUEST, new TypeReference<Map<String, Object>>() {});
+        Map<String, Object> data = get(request, "data");
+        PreprocessData preprocessData = new PreprocessData();
+
+        assertArrayEquals(preprocessData.createGraphFromJson(get(data, "startNode"), get(data, "endNode"),
+                get(data, "nodeDistance"), (Integer) data.get("numberOfGraphNode"), (int) CommonConstant.MAX_EDGE).toDoubleArray(),
+                requestData.createGraph().toAdjacencyMatrix());
+        assertArrayEquals(preprocessData.getTasksFromJson(get(data, "tasks")), requestData.getTasks());
+        assertEquals(preprocessData.getTaskMap(get(data, "tasks")), requestData.getTaskMap());
+        assertArrayEquals(preprocessData.getTimeFromJson(get(data, "time")), requestData.getTimeAlreadyPassing());
+        assertEquals(preprocessData.getAGVPaths(get(data, "paths")), requestData.getAGVPaths());
+        assertEquals(preprocessData.getBufferPaths(get(data, "bufferSet")), requestData.getBufferSet());
+        assertArrayEquals(preprocessData.getBufferForAGVFromJson(get(data, "bufferForAGV")), requestData.getBufferForAGV());
+        assertEquals(2, requestData.getSpeed(), 0);
+        assertEquals(0.1, requestData.getPrecision(), 0);
+        assertTrue(requestData.hasTimeBudget());
+        assertEquals(500, requestData.getTimeBudget());
+        assertNull(requestData.getLayoutId());
+    }
+
+    //A request referencing a registered layout gives no graph.
+    @Test
+    public void shouldLayoutRequestGiveNoGraph() throws IOException {
+        RequestData requestData = parse("{\"data\": {\"layoutId\": \"abc\", \"tasks\": [{\"tasks\": \"2,1,3\"}]}}");
+        assertEquals("abc", requestData.getLayoutId());
+        assertNull(requestData.createGraph());
+        assertFalse(requestData.hasTimeBudget());
+        assertEquals(Arrays.asList(0, 0, 0), Arrays.asList(requestData.getTaskMap().values().toArray()));
+        assertArrayEquals(new Integer[][]{{1, 0}, {1, 0}, {1, 0}}, requestData.getTasks());
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void shouldInvalidTaskBeRejected() throws IOException {
+        parse("{\"data\": {\"tasks\": [{\"tasks\": \"1;3;2\"}]}}");
+    }
+
+    //A negative time budget is not taken as no time budget, the service answers it with 400.
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNegativeTimeBudgetBeRejected() throws IOException {
+        parse("{\"data\": {\"timeBudget\": -500}}");
+    }
+
+    //A fraction of a millisecond is not cut to 0, which would mean no time budget at all.
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFractionalTimeBudgetBeRejected() throws IOException {
+        parse("{\"data\": {\"timeBudget\": 0.5}}");
+    }
+
+    //A time budget of 0 is given, it is not mistaken for a request without one.
+    @Test
+    public void shouldZeroTimeBudgetBeGiven() throws IOException {
+        RequestData requestData = parse("{\"data\": {\"timeBudget\": \"0\"}}");
+        assertTrue(requestData.hasTimeBudget());
+        assertEquals(0, requestData.getTimeBudget());
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void shouldTruncatedRequestBeRejected() throws IOException {
+        parse("{\"data\": {\"startNode\": [{\"startNode\": 1}");
+    }
+
+    private static RequestData parse(String request) throws IOException {
+        return new StreamingRequestParser().parse(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    //The field as the map or the list of maps PreprocessData reads, Jackson gives no element type to check the cast against
+    @SuppressWarnings("unchecked")
+    private static <T> T get(Map<String, Object> data, String name) {
+        return (T) data.get(name);
+    }
+}
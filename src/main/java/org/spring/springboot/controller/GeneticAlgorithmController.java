@@ -1,59 +1,424 @@
 package org.spring.springboot.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.spring.springboot.algorithmn.common.CommonConstant;
 import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.LatencyHistogram;
 import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.common.SolverMetrics;
+import org.spring.springboot.algorithmn.common.SparseGraph;
+import org.spring.springboot.algorithmn.exception.InvalidRequestException;
 import org.spring.springboot.algorithmn.exception.NoAGVInTheBuffer;
 import org.spring.springboot.algorithmn.genetic_algorithm.AGV_GA;
-import org.spring.springboot.algorithmn.preprocess.PreprocessData;
+import org.spring.springboot.algorithmn.preprocess.BinaryEncoding;
+import org.spring.springboot.algorithmn.preprocess.RequestData;
+import org.spring.springboot.algorithmn.preprocess.StreamingRequestParser;
+import org.spring.springboot.service.GeneticAlgorithmJob;
+import org.spring.springboot.service.GeneticAlgorithmJobService;
+import org.spring.springboot.service.Layout;
+import org.spring.springboot.service.LayoutNotFoundException;
+import org.spring.springboot.service.LayoutRegistry;
+import org.spring.springboot.service.SolverMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.*;
 import org.ujmp.core.Matrix;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 public class GeneticAlgorithmController {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    //Number of threads to decode the individuals of one generation in the genetic algorithm
+    @Value("${genetic.parallelism:1}")
+    private int parallelism;
+
+    //Milliseconds the genetic algorithm may take if the request gives no time budget, 0 means no time budget
+    @Value("${genetic.time-budget:0}")
+    private long timeBudget;
+
+    @Autowired
+    private GeneticAlgorithmJobService jobService;
+
+    @Autowired
+    private LayoutRegistry layoutRegistry;
+
+    @Autowired
+    private SolverMetricsService metricsService;
+
+    //Only the clients on this host can read the metrics
+    @Value("${genetic.metrics.local-only:true}")
+    private boolean metricsLocalOnly;
+
+    //The body is read token by token into the arrays of the problem, without building the tree of maps of the request first
+    private final StreamingRequestParser requestParser = new StreamingRequestParser();
+
+    //Compact form of the request and the plan, JSON is used unless the client asks for it
+    private static final MediaType BINARY = MediaType.valueOf(BinaryEncoding.MEDIA_TYPE);
+
+    //Register the graph and the buffers once, the solves on it send the layout id instead of them
+    @PostMapping(value = "/api/layouts")
+    public ModelMap registerLayout(InputStream body,
+                                   @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType)
+            throws IOException {
+        RequestData requestData = readRequest(body, contentType);
+        SparseGraph graph = requestData.createGraph();
+        if (graph == null) {
+            throw new IllegalArgumentException("The layout should give the graph!");
+        }
+        List<List<Integer>> bufferSet = requestData.getBufferSet() == null ? new ArrayList<>() : requestData.getBufferSet();
+        Layout layout = layoutRegistry.register(graph, bufferSet);
+        return createLayoutModelMap(layout);
+    }
+
+    @GetMapping(value = "/api/layouts/{layoutId}")
+    public ResponseEntity<ModelMap> getLayout(@PathVariable String layoutId) {
+        Layout layout = layoutRegistry.getLayout(layoutId);
+        if (layout == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(createLayoutModelMap(layout));
+    }
+
     @PostMapping(value = "/api/genetic")
-    public ModelMap genetic(@RequestBody Map payload) throws NoAGVInTheBuffer {
-        logger.info("Size of input data: {}", payload.size());
-        Map map = (Map)payload.get("data");
-        PreprocessData preprocessData = new PreprocessData();
-
-        Matrix graph = preprocessData.createGraphFromJson
-                ((List<Map>) map.get("startNode"),(List<Map>)map.get("endNode"),(List<Map>)map.get("nodeDistance")
-                        ,(Integer)map.get("numberOfGraphNode"),
-                        (int)CommonConstant.MAX_EDGE);
-        Integer[][] tasks = preprocessData.getTasksFromJson((List<Map>)map.get("tasks"));
-        Double[] timeAlreadyPass = preprocessData.getTimeFromJson((List<Map>)map.get("time"));
-        List<List<Path>> pathsOfAGVs = preprocessData.getAGVPaths((List<List<Map>>)map.get("paths"));
-        List<List<Integer>> bufferSet = preprocessData.getBufferPaths((List<List<Map>>)map.get("bufferSet"));
-        Integer [] bufferForAGV = preprocessData.getBufferForAGVFromJson((List<Map>)map.get("bufferForAGV"));
-        double AGVSpeed = preprocessData.getDoubleData(map.get("speed"));
-        double min_distance = preprocessData.getDoubleData(map.get("precision"));
+    public ResponseEntity<?> genetic(InputStream body,
+                                     @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws NoAGVInTheBuffer, IOException {
+        long startTime = System.nanoTime();
+        List<List<Record>> bestGenRecords = new ArrayList<>();
+        AGV_GA agv_ga = readGeneticAlgorithm(body, contentType, bestGenRecords);
+        List<List<Path>> paths = agv_ga.singleObjectGenericAlgorithm();
+        //The id to read the metrics of this solve with
+        String solveId = UUID.randomUUID().toString();
+        metricsService.record(solveId, agv_ga.getMetrics(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return createPlanResponse(ResponseEntity.ok().header("X-Solve-Id", solveId), paths, bestGenRecords, accept);
+    }
 
-        //Construct the mapping from tasks' spilt indexes to their original index in the data set in case that the task is a sub-task.
-        Map<Integer,Integer> taskMap = preprocessData.getTaskMap((List<Map>)map.get("tasks"));
+    //Submit the genetic algorithm to run in the background, the job id is returned at once to poll the job with
+    @PostMapping(value = "/api/genetic/jobs")
+    public ResponseEntity<ModelMap> submitGeneticJob(InputStream body,
+                                                     @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType)
+            throws IOException {
         List<List<Record>> bestGenRecords = new ArrayList<>();
+        AGV_GA agv_ga = readGeneticAlgorithm(body, contentType, bestGenRecords);
+        GeneticAlgorithmJob job;
+        try {
+            job = jobService.submit(agv_ga, bestGenRecords, agv_ga.getTimeBudget());
+        }
+        catch (RejectedExecutionException e) {
+            ModelMap modelMap = new ModelMap();
+            modelMap.addAttribute("error", "Too many genetic algorithm jobs are waiting, try again later");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(modelMap);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(createJobModelMap(job));
+    }
+
+    @GetMapping(value = "/api/genetic/jobs/{jobId}")
+    public ResponseEntity<ModelMap> getGeneticJob(@PathVariable String jobId) {
+        GeneticAlgorithmJob job = jobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(createJobModelMap(job));
+    }
+
+    //The plan in the same form as /api/genetic once the job is done
+    @GetMapping(value = "/api/genetic/jobs/{jobId}/result")
+    public ResponseEntity<?> getGeneticJobResult(@PathVariable String jobId,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        GeneticAlgorithmJob job = jobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (job.getStatus() != GeneticAlgorithmJob.Status.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(createJobModelMap(job));
+        }
+        return createPlanResponse(ResponseEntity.ok(), job.getPaths(), job.getBestRecords(), accept);
+    }
+
+    @DeleteMapping(value = "/api/genetic/jobs/{jobId}")
+    public ResponseEntity<ModelMap> cancelGeneticJob(@PathVariable String jobId) {
+        GeneticAlgorithmJob job = jobService.cancel(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(createJobModelMap(job));
+    }
+
+    //Latency of each phase and counters of all the solves, and of the latest solves one by one
+    @GetMapping(value = "/api/metrics")
+    public ResponseEntity<ModelMap> getMetrics(HttpServletRequest request) throws IOException {
+        if (!isMetricsAllowed(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ModelMap modelMap = new ModelMap();
+        modelMap.addAttribute("numberOfSolves", metricsService.getNumberOfSolves());
+        modelMap.addAttribute("total", createMetricsModelMap(metricsService.getTotalMetrics()));
+        List<ModelMap> recentSolves = new ArrayList<>();
+        for (SolverMetricsService.SolveMetrics solve : metricsService.getRecentSolves()) {
+            recentSolves.add(createSolveMetricsModelMap(solve));
+        }
+        modelMap.addAttribute("recentSolves", recentSolves);
+        return ResponseEntity.ok(modelMap);
+    }
+
+    //The id is the job id, or the X-Solve-Id header of the plan returned by /api/genetic
+    @GetMapping(value = "/api/metrics/solves/{solveId}")
+    public ResponseEntity<ModelMap> getSolveMetrics(@PathVariable String solveId, HttpServletRequest request) throws IOException {
+        if (!isMetricsAllowed(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        SolverMetricsService.SolveMetrics solve = metricsService.getSolve(solveId);
+        if (solve == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(createSolveMetricsModelMap(solve));
+    }
+
+    //The body is not valid JSON or a field of it is not in the expected form
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<ModelMap> handleInvalidRequest(JsonProcessingException e) {
+        return createBadRequest(e.getOriginalMessage());
+    }
+
+    //The binary body is not of the supported version or is cut short, or the content type can not be read
+    @ExceptionHandler({InvalidRequestException.class, InvalidMediaTypeException.class})
+    public ResponseEntity<ModelMap> handleInvalidBinaryRequest(Exception e) {
+        return createBadRequest(e.getMessage());
+    }
+
+    //The request gives neither the graph nor the id of a registered layout, or a value of it is out of range
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ModelMap> handleIllegalArgument(IllegalArgumentException e) {
+        return createBadRequest(e.getMessage());
+    }
+
+    private ResponseEntity<ModelMap> createBadRequest(String message) {
+        logger.info("Invalid request: {}", message);
+        ModelMap modelMap = new ModelMap();
+        modelMap.addAttribute("error", message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(modelMap);
+    }
+
+    /**
+     * Read the request and create the genetic algorithm collecting the metrics of the solve, the time it takes is the
+     * preprocess phase of the solve
+     * @param body Body of the request
+     * @param contentType Content type of the body, JSON if it is not given
+     * @param bestGenRecords Records the genetic algorithm adds the records of the best plan to
+     * @return Genetic algorithm for the request
+     */
+    private AGV_GA readGeneticAlgorithm(InputStream body, String contentType, List<List<Record>> bestGenRecords) throws IOException {
+        long startTime = System.nanoTime();
+        AGV_GA agv_ga = createGeneticAlgorithm(readRequest(body, contentType), bestGenRecords);
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.record(SolverMetrics.Phase.PREPROCESS, System.nanoTime() - startTime);
+        agv_ga.setMetrics(metrics);
+        return agv_ga;
+    }
+
+    private RequestData readRequest(InputStream body, String contentType) throws IOException {
+        if (contentType != null && isBinary(MediaType.parseMediaType(contentType))) {
+            return BinaryEncoding.readRequest(body);
+        }
+        return requestParser.parse(body);
+    }
+
+    //The plan in the binary form if the client prefers it to JSON, otherwise in JSON
+    private ResponseEntity<?> createPlanResponse(ResponseEntity.BodyBuilder response, List<List<Path>> paths,
+                                                 List<List<Record>> bestGenRecords, String accept) {
+        if (accept != null && prefersBinary(accept)) {
+            return response.contentType(BINARY).body(BinaryEncoding.writePlan(paths, bestGenRecords));
+        }
+        return response.body(createPlanModelMap(paths, bestGenRecords));
+    }
 
-        logger.info("Graph: {}", graph);
-        logger.info("Node number: {}", map.get("numberOfGraphNode"));
+    //Only the binary type named in the header counts, a wildcard like */* keeps JSON
+    private static boolean prefersBinary(String accept) {
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        }
+        catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (isBinary(mediaType)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBinary(MediaType mediaType) {
+        return BINARY.getType().equals(mediaType.getType()) && BINARY.getSubtype().equals(mediaType.getSubtype());
+    }
+
+    /**
+     * Read the request and create the genetic algorithm with the settings of the service. The graph and the buffers are
+     * taken from the registered layout if the request gives its id.
+     * @param requestData Data of the request
+     * @param bestGenRecords Records the genetic algorithm adds the records of the best plan to
+     * @return Genetic algorithm for the request
+     */
+    private AGV_GA createGeneticAlgorithm(RequestData requestData, List<List<Record>> bestGenRecords) {
+        Layout layout = null;
+        SparseGraph graph;
+        List<List<Integer>> bufferSet;
+        if (requestData.getLayoutId() != null) {
+            layout = layoutRegistry.getLayout(requestData.getLayoutId());
+            if (layout == null) {
+                throw new LayoutNotFoundException(requestData.getLayoutId());
+            }
+            graph = layout.getGraph();
+            bufferSet = layout.getBufferSet();
+        }
+        else {
+            graph = requestData.createGraph();
+            if (graph == null) {
+                throw new IllegalArgumentException("The request should give the graph or the id of a registered layout!");
+            }
+            bufferSet = requestData.getBufferSet();
+        }
+        Integer[][] tasks = requestData.getTasks();
+        Double[] timeAlreadyPass = requestData.getTimeAlreadyPassing();
+        List<List<Path>> pathsOfAGVs = requestData.getAGVPaths();
+        Integer [] bufferForAGV = requestData.getBufferForAGV();
+        double AGVSpeed = requestData.getSpeed();
+        double min_distance = requestData.getPrecision();
+        long timeBudgetOfRequest = getTimeBudget(requestData);
+
+        //Construct the mapping from tasks' spilt indexes to their original index in the data set in case that the task is a sub-task.
+        Map<Integer,Integer> taskMap = requestData.getTaskMap();
+
+        logger.info("Graph: {}", layout == null ? graph : "layout " + layout.getId());
+        logger.info("Node number: {}", graph.getNodeNumber());
         logger.info("Tasks paths: {}", Matrix.Factory.importFromArray(tasks));
         logger.info("Time: {}", Matrix.Factory.importFromArray(timeAlreadyPass));
         logger.info("AGV paths: {}", pathsOfAGVs);
         logger.info("Buffer paths: {}", bufferSet);
         logger.info("Buffer number for AGV: {}", Matrix.Factory.importFromArray(bufferForAGV));
         logger.info("AGV speed: {}", AGVSpeed);
+        logger.info("Time budget: {}", timeBudgetOfRequest);
 
-        AGV_GA agv_ga = new AGV_GA(graph.toDoubleArray(), tasks, timeAlreadyPass, pathsOfAGVs, AGVSpeed, bufferSet,bufferForAGV, taskMap, min_distance, bestGenRecords);
+        AGV_GA agv_ga;
+        if (layout != null) {
+            //The routing graph and the least distances found on it are shared by the solves on the layout
+            agv_ga = new AGV_GA(layout.getRoutingGraph(), tasks, timeAlreadyPass, pathsOfAGVs, AGVSpeed, bufferSet, bufferForAGV,
+                    taskMap, min_distance, bestGenRecords);
+        }
+        else {
+            agv_ga = new AGV_GA(graph, tasks, timeAlreadyPass, pathsOfAGVs, AGVSpeed, bufferSet,bufferForAGV, taskMap, min_distance, bestGenRecords);
+        }
 
-        List<List<Path>> paths = agv_ga.singleObjectGenericAlgorithm();
+        agv_ga.setParallelism(parallelism);
+        agv_ga.setTimeBudget(timeBudgetOfRequest);
+        return agv_ga;
+    }
+
+    private ModelMap createLayoutModelMap(Layout layout) {
+        ModelMap modelMap = new ModelMap();
+        modelMap.addAttribute("layoutId", layout.getId());
+        modelMap.addAttribute("numberOfGraphNode", layout.getGraph().getNodeNumber());
+        modelMap.addAttribute("numberOfEdge", layout.getGraph().getEdgeNumber());
+        modelMap.addAttribute("numberOfBuffer", layout.getBufferSet().size());
+        return modelMap;
+    }
+
+    //Optional time budget in milliseconds, the best plan found is returned when it runs out
+    private long getTimeBudget(RequestData requestData) {
+        return requestData.hasTimeBudget() ? requestData.getTimeBudget() : timeBudget;
+    }
+
+    private boolean isMetricsAllowed(HttpServletRequest request) throws IOException {
+        //The remote address is an IP address, so it is not looked up
+        return !metricsLocalOnly || InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+    }
 
+    private ModelMap createSolveMetricsModelMap(SolverMetricsService.SolveMetrics solve) {
+        ModelMap modelMap = new ModelMap();
+        modelMap.addAttribute("solveId", solve.getId());
+        modelMap.addAttribute("runningTime", solve.getRunningTime());
+        modelMap.addAttribute("finishedAt", solve.getFinishedAt());
+        modelMap.addAllAttributes(createMetricsModelMap(solve.getMetrics()));
+        return modelMap;
+    }
+
+    //Latencies are in milliseconds, the names of the phases and counters are in camel case
+    private ModelMap createMetricsModelMap(SolverMetrics metrics) {
+        ModelMap phases = new ModelMap();
+        for (SolverMetrics.Phase phase : SolverMetrics.Phase.values()) {
+            LatencyHistogram histogram = metrics.getHistogram(phase);
+            ModelMap latency = new ModelMap();
+            latency.addAttribute("count", histogram.getCount());
+            latency.addAttribute("total", toMillis(histogram.getTotal()));
+            latency.addAttribute("mean", toMillis(histogram.getMean()));
+            latency.addAttribute("p50", toMillis(histogram.getValueAtPercentile(50)));
+            latency.addAttribute("p90", toMillis(histogram.getValueAtPercentile(90)));
+            latency.addAttribute("p99", toMillis(histogram.getValueAtPercentile(99)));
+            latency.addAttribute("max", toMillis(histogram.getMax()));
+            phases.addAttribute(toCamelCase(phase.name()), latency);
+        }
+        ModelMap counters = new ModelMap();
+        for (SolverMetrics.Counter counter : SolverMetrics.Counter.values()) {
+            counters.addAttribute(toCamelCase(counter.name()), metrics.getCount(counter));
+        }
+        ModelMap modelMap = new ModelMap();
+        modelMap.addAttribute("phases", phases);
+        modelMap.addAttribute("counters", counters);
+        return modelMap;
+    }
+
+    private static double toMillis(double nanoseconds) {
+        return nanoseconds / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String toCamelCase(String name) {
+        StringBuilder camelCase = new StringBuilder();
+        for (String word : name.toLowerCase().split("_")) {
+            camelCase.append(camelCase.length() == 0 ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+        }
+        return camelCase.toString();
+    }
+
+    private ModelMap createJobModelMap(GeneticAlgorithmJob job) {
+        ModelMap modelMap = new ModelMap();
+        modelMap.addAttribute("jobId", job.getId());
+        modelMap.addAttribute("status", job.getStatus());
+        modelMap.addAttribute("generation", job.getGeneration());
+        modelMap.addAttribute("bestTime", job.getBestTime());
+        modelMap.addAttribute("estimatedTimeLeft", job.getEstimatedTimeLeft());
+        modelMap.addAttribute("runningTime", job.getRunningTime());
+        if (job.getErrorMessage() != null) {
+            modelMap.addAttribute("error", job.getErrorMessage());
+        }
+        return modelMap;
+    }
+
+    private ModelMap createPlanModelMap(List<List<Path>> paths, List<List<Record>> bestGenRecords) {
         ModelMap modelMap = new ModelMap();
         ArrayList<ArrayList<ModelMap>> pathModelMap = new ArrayList<>();
         modelMap.addAttribute("paths",pathModelMap);
@@ -93,16 +458,6 @@ public class GeneticAlgorithmController {
             recordModelMap.add(recordForAGV);
         }
 
-        logger.info("Graph: {}", graph);
-        logger.info("Node number: {}", map.get("numberOfGraphNode"));
-        logger.info("Tasks paths: {}", Matrix.Factory.importFromArray(tasks));
-        logger.info("Time: {}", Matrix.Factory.importFromArray(timeAlreadyPass));
-        logger.info("AGV paths: {}", pathsOfAGVs);
-        logger.info("Buffer paths: {}", bufferSet);
-        logger.info("Buffer number for AGV: {}", Matrix.Factory.importFromArray(bufferForAGV));
-        logger.info("AGV speed: {}", AGVSpeed);
         return modelMap;
     }
-
-
 }
@@ -0,0 +1,187 @@
+package org.spring.springboot.service;
+
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.common.SolverMetrics;
+import org.spring.springboot.algorithmn.genetic_algorithm.AGV_GA;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+//One solve of the genetic algorithm submitted to run in the background. Its state is changed by the solver thread and read
+//by the request threads polling it.
+public class GeneticAlgorithmJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    private final String id;
+    private final AGV_GA geneticAlgorithm;
+    private final List<List<Record>> bestRecords;
+    private final long timeBudget;
+    private volatile Status status = Status.QUEUED;
+    //Time from System.nanoTime when the job starts running, and when it stops
+    private volatile long startTime;
+    private volatile long endTime;
+    private volatile List<List<Path>> paths;
+    private volatile String errorMessage;
+    private volatile Future<?> future;
+
+    /**
+     * @param id Id of the job
+     * @param geneticAlgorithm Genetic algorithm to run
+     * @param bestRecords Records the genetic algorithm adds the records of the best plan to
+     * @param timeBudget Milliseconds the genetic algorithm may take, 0 if there is no time budget
+     */
+    GeneticAlgorithmJob(String id, AGV_GA geneticAlgorithm, List<List<Record>> bestRecords, long timeBudget) {
+        this.id = id;
+        this.geneticAlgorithm = geneticAlgorithm;
+        this.bestRecords = bestRecords;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Run the genetic algorithm on this thread, unless the job is cancelled before it starts
+     */
+    void run() {
+        synchronized (this) {
+            if (status != Status.QUEUED) {
+                return;
+            }
+            startTime = System.nanoTime();
+            status = Status.RUNNING;
+        }
+        Status finalStatus;
+        try {
+            List<List<Path>> plan = geneticAlgorithm.singleObjectGenericAlgorithm();
+            if (geneticAlgorithm.isCancelled()) {
+                finalStatus = Status.CANCELLED;
+            }
+            else {
+                paths = plan;
+                finalStatus = Status.DONE;
+            }
+        }
+        catch (Exception e) {
+            errorMessage = e.getMessage() == null ? e.toString() : e.getMessage();
+            finalStatus = geneticAlgorithm.isCancelled() ? Status.CANCELLED : Status.FAILED;
+        }
+        endTime = System.nanoTime();
+        status = finalStatus;
+    }
+
+    /**
+     * Stop the job. A queued job never starts, a running job stops after the generation being evolved.
+     * @return If the job is cancelled, false if it has stopped already
+     */
+    boolean cancel() {
+        synchronized (this) {
+            if (status == Status.QUEUED) {
+                endTime = System.nanoTime();
+                status = Status.CANCELLED;
+                if (future != null) {
+                    future.cancel(false);
+                }
+                return true;
+            }
+        }
+        if (status == Status.RUNNING) {
+            geneticAlgorithm.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    boolean isStarted() {
+        return startTime != 0;
+    }
+
+    boolean isFinished() {
+        Status currentStatus = status;
+        return currentStatus == Status.DONE || currentStatus == Status.FAILED || currentStatus == Status.CANCELLED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getGeneration() {
+        return geneticAlgorithm.getGeneration();
+    }
+
+    /**
+     * @return Total time of the AGVs in the best plan so far, null before the first generation is evolved
+     */
+    public Double getBestTime() {
+        double bestTotalFitness = geneticAlgorithm.getBestTotalFitness();
+        return bestTotalFitness > 0 ? 1 / bestTotalFitness : null;
+    }
+
+    /**
+     * Estimate how long the job still runs from the mean time of the generations evolved. The evolution may stop earlier
+     * once the population is stable.
+     * @return Milliseconds left at most, null if it is not running or no generation is evolved yet
+     */
+    public Long getEstimatedTimeLeft() {
+        if (status != Status.RUNNING) {
+            return null;
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        long timeLeft = Long.MAX_VALUE;
+        if (timeBudget > 0) {
+            timeLeft = Math.max(timeBudget - elapsed, 0);
+        }
+        int generation = geneticAlgorithm.getGeneration();
+        if (generation > 0) {
+            timeLeft = Math.min(timeLeft, elapsed * (geneticAlgorithm.getMaxGeneration() - generation) / generation);
+        }
+        return timeLeft == Long.MAX_VALUE ? null : timeLeft;
+    }
+
+    /**
+     * @return Milliseconds the job has been running, or ran for once it stops. 0 if it has not started.
+     */
+    public long getRunningTime() {
+        long start = startTime;
+        if (start == 0) {
+            return 0;
+        }
+        long end = isFinished() ? endTime : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - start);
+    }
+
+    /**
+     * @return Paths of the AGVs in the best plan, null if the job is not done
+     */
+    public List<List<Path>> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return Records of the tasks in the best plan, only complete once the job is done
+     */
+    public List<List<Record>> getBestRecords() {
+        return bestRecords;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * @return Metrics of the genetic algorithm, null if it collects none
+     */
+    public SolverMetrics getMetrics() {
+        return geneticAlgorithm.getMetrics();
+    }
+}
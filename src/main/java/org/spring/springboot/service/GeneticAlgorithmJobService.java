@@ -0,0 +1,142 @@
+package org.spring.springboot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.genetic_algorithm.AGV_GA;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Runs the genetic algorithm jobs on a bounded pool of solver threads, so the request threads only submit and poll them.
+//A job is rejected when all the solver threads are busy and the queue is full.
+@Service
+public class GeneticAlgorithmJobService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final ThreadPoolExecutor solverExecutor;
+    //Jobs by id, the finished ones are kept for their results until there are too many of them
+    private final Map<String, GeneticAlgorithmJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finishedJobIds = new ConcurrentLinkedQueue<>();
+    private final int maxFinishedJobs;
+    //Metrics of the jobs which run are added to it once they stop, null if they are not kept
+    private SolverMetricsService metricsService;
+
+    /**
+     * @param solverThreads Number of jobs running at the same time
+     * @param queueDepth Number of jobs waiting for a solver thread at most
+     * @param maxFinishedJobs Number of finished jobs kept for their results, the oldest one is dropped first
+     */
+    public GeneticAlgorithmJobService(@Value("${genetic.jobs.solver-threads:1}") int solverThreads,
+                                      @Value("${genetic.jobs.queue-depth:10}") int queueDepth,
+                                      @Value("${genetic.jobs.max-finished:100}") int maxFinishedJobs) {
+        if (solverThreads < 1 || queueDepth < 0 || maxFinishedJobs < 0) {
+            throw new IllegalArgumentException("Solver threads should be at least 1, queue depth and finished jobs should not be negative!");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "genetic-solver-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        BlockingQueue<Runnable> queue = queueDepth == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueDepth);
+        this.solverExecutor = new ThreadPoolExecutor(solverThreads, solverThreads, 0, TimeUnit.MILLISECONDS, queue,
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.maxFinishedJobs = maxFinishedJobs;
+    }
+
+    @Autowired(required = false)
+    public void setMetricsService(SolverMetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Queue the genetic algorithm to run on a solver thread
+     * @param geneticAlgorithm Genetic algorithm with its settings
+     * @param bestRecords Records the genetic algorithm adds the records of the best plan to
+     * @param timeBudget Milliseconds the genetic algorithm may take, 0 if there is no time budget
+     * @return The job queued
+     * @throws RejectedExecutionException All the solver threads are busy and the queue is full
+     */
+    public GeneticAlgorithmJob submit(AGV_GA geneticAlgorithm, List<List<Record>> bestRecords, long timeBudget) {
+        GeneticAlgorithmJob job = new GeneticAlgorithmJob(UUID.randomUUID().toString(), geneticAlgorithm, bestRecords, timeBudget);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(solverExecutor.submit(() -> {
+                try {
+                    job.run();
+                }
+                finally {
+                    finish(job);
+                }
+            }));
+        }
+        catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.info("Genetic algorithm job is rejected, {} jobs are queued", solverExecutor.getQueue().size());
+            throw e;
+        }
+        logger.info("Genetic algorithm job {} is queued", job.getId());
+        return job;
+    }
+
+    /**
+     * @param id Id of the job
+     * @return The job, null if there is no such job or it is dropped
+     */
+    public GeneticAlgorithmJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Cancel the job, a queued job is taken out of the queue and a running one stops after the generation being evolved
+     * @param id Id of the job
+     * @return The job, null if there is no such job or it is dropped
+     */
+    public GeneticAlgorithmJob cancel(String id) {
+        GeneticAlgorithmJob job = jobs.get(id);
+        if (job != null && job.cancel()) {
+            logger.info("Genetic algorithm job {} is cancelled", id);
+            //The queued job never runs, so it is taken out of the queue here
+            if (job.isFinished()) {
+                solverExecutor.purge();
+                finish(job);
+            }
+        }
+        return job;
+    }
+
+    private synchronized void finish(GeneticAlgorithmJob job) {
+        //A job cancelled in the queue may be finished by both the cancel and the solver thread
+        if (finishedJobIds.contains(job.getId())) {
+            return;
+        }
+        finishedJobIds.add(job.getId());
+        logger.info("Genetic algorithm job {} is {} after {} ms", job.getId(), job.getStatus(), job.getRunningTime());
+        if (metricsService != null && job.getMetrics() != null && job.isStarted()) {
+            metricsService.record(job.getId(), job.getMetrics(), job.getRunningTime());
+        }
+        while (finishedJobIds.size() > maxFinishedJobs) {
+            String oldestId = finishedJobIds.poll();
+            if (oldestId != null) {
+                jobs.remove(oldestId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        solverExecutor.shutdownNow();
+        for (GeneticAlgorithmJob job : jobs.values()) {
+            job.cancel();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.spring.springboot.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.CommonTestConstant;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.genetic_algorithm.AGV_GA;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GeneticAlgorithmJobServiceTest {
+
+    private double[][] graph;
+    private GeneticAlgorithmJobService jobService;
+
+    @Before
+    public void initializeGraph() throws IOException {
+        graph = CommonTestConstant.initializeGraph();
+        //One solver thread and one job waiting for it
+        jobService = new GeneticAlgorithmJobService(1, 1, 100);
+    }
+
+    @After
+    public void shutdown() {
+        jobService.shutdown();
+    }
+
+    //Solve 6 tasks for 3 AGVs in the background, the job should be done with a complete plan.
+    @Test(timeout = 60000)
+    public void shouldJobBeDoneWithThePlan() throws InterruptedException {
+        GeneticAlgorithmJob job = submitJobForSixTasks();
+        waitUntilFinished(job);
+        assertEquals(GeneticAlgorithmJob.Status.DONE, job.getStatus());
+        assertEquals(3, job.getPaths().size());
+        assertEquals(3, job.getBestRecords().size());
+        assertTrue(job.getGeneration() > 0);
+        assertNotNull(job.getBestTime());
+        assertNull(job.getEstimatedTimeLeft());
+        assertEquals(job, jobService.getJob(job.getId()));
+    }
+
+    //Cancel a running job and a queued job, both should stop without a plan.
+    @Test(timeout = 60000)
+    public void shouldCancelledJobsStopWithoutThePlan() throws InterruptedException {
+        GeneticAlgorithmJob runningJob = submitJobForSixTasks();
+        GeneticAlgorithmJob queuedJob = submitJobForSixTasks();
+        while (runningJob.getStatus() == GeneticAlgorithmJob.Status.QUEUED) {
+            Thread.sleep(1);
+        }
+        jobService.cancel(queuedJob.getId());
+        assertEquals(GeneticAlgorithmJob.Status.CANCELLED, queuedJob.getStatus());
+        assertEquals(0, queuedJob.getRunningTime());
+        jobService.cancel(runningJob.getId());
+        waitUntilFinished(runningJob);
+        assertEquals(GeneticAlgorithmJob.Status.CANCELLED, runningJob.getStatus());
+        assertNull(runningJob.getPaths());
+    }
+
+    //With one job running and one waiting, the next job should be rejected.
+    @Test(timeout = 60000)
+    public void shouldJobBeRejectedWhenTheQueueIsFull() throws InterruptedException {
+        GeneticAlgorithmJob runningJob = submitJobForSixTasks();
+        GeneticAlgorithmJob queuedJob = submitJobForSixTasks();
+        try {
+            submitJobForSixTasks();
+            fail("The third job should be rejected");
+        }
+        catch (RejectedExecutionException e) {
+            //Rejected as expected
+        }
+        jobService.cancel(queuedJob.getId());
+        jobService.cancel(runningJob.getId());
+        waitUntilFinished(runningJob);
+    }
+
+    private GeneticAlgorithmJob submitJobForSixTasks() {
+        List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
+        List<List<Path>> pathsForAGVs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            pathsForAGVs.add(new ArrayList<>());
+        }
+        pathsForAGVs.get(0).add(new Path(105, 105, 0, false));
+        pathsForAGVs.get(1).add(new Path(205, 205, 0, false));
+        pathsForAGVs.get(2).add(new Path(104, 104, 0, false));
+        Integer[] bufferForAGVs = {0, 1, 0};
+        Integer[][] tasks = {{4, 2}, {3, 8}, {7, 8}, {2, 5}, {0, 6}, {5, 1}};
+        Double[] timeAlreadyPassed = {-1.0, -1.0, -1.0};
+        Map<Integer, Integer> taskMap = new HashMap<>();
+        for (int i = 0; i < tasks.length; i++) {
+            taskMap.put(i, i);
+        }
+        List<List<Record>> bestRecords = new ArrayList<>();
+        AGV_GA geneticAlgorithmForAGV = new AGV_GA(graph, tasks, timeAlreadyPassed, pathsForAGVs, CommonTestConstant.AGV_SPEED,
+                bufferSet, bufferForAGVs, taskMap, CommonConstant.BUFFER_PATH_LENGTH, bestRecords);
+        return jobService.submit(geneticAlgorithmForAGV, bestRecords, 0);
+    }
+
+    private void waitUntilFinished(GeneticAlgorithmJob job) throws InterruptedException {
+        while (!job.isFinished()) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.spring.springboot.service;
+
+import org.spring.springboot.algorithmn.common.SparseGraph;
+import org.spring.springboot.algorithmn.conflict_free_routing.RoutingGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//Graph and buffers of a layout registered once, with the routing graph built from them. Nothing of it is changed afterwards,
+//so the solves on the layout share it.
+public class Layout {
+
+    private final String id;
+    private final SparseGraph graph;
+    private final List<List<Integer>> bufferSet;
+    private final RoutingGraph routingGraph;
+
+    /**
+     * @param id Hash of the content of the layout
+     * @param graph Original graph without adding buffer node
+     * @param bufferSet A list stores the path of all buffers
+     */
+    Layout(String id, SparseGraph graph, List<List<Integer>> bufferSet) {
+        this.id = id;
+        this.graph = graph;
+        List<List<Integer>> bufferSetCopy = new ArrayList<>(bufferSet.size());
+        for (List<Integer> buffer : bufferSet) {
+            bufferSetCopy.add(Collections.unmodifiableList(new ArrayList<>(buffer)));
+        }
+        this.bufferSet = Collections.unmodifiableList(bufferSetCopy);
+        this.routingGraph = new RoutingGraph(graph, this.bufferSet);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SparseGraph getGraph() {
+        return graph;
+    }
+
+    public List<List<Integer>> getBufferSet() {
+        return bufferSet;
+    }
+
+    public RoutingGraph getRoutingGraph() {
+        return routingGraph;
+    }
+}
@@ -0,0 +1,15 @@
+package org.spring.springboot.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//A solve references a layout that is not registered, or is dropped for the layouts registered after it
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class LayoutNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LayoutNotFoundException(String layoutId) {
+        super("Layout " + layoutId + " is not registered, register it again!");
+    }
+}
@@ -0,0 +1,121 @@
+package org.spring.springboot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spring.springboot.algorithmn.common.SparseGraph;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//Layouts registered by the hash of their content, so a solve references the layout by id instead of sending the graph again.
+//Registering the same layout again gives the same id and keeps the layout built before.
+@Service
+public class LayoutRegistry {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    //Layouts by id in the order they are used, the least recently used one is dropped when there are too many
+    private final Map<String, Layout> layouts;
+
+    /**
+     * @param maxLayouts Number of layouts kept at most
+     */
+    public LayoutRegistry(@Value("${genetic.layouts.max-size:20}") int maxLayouts) {
+        if (maxLayouts < 1) {
+            throw new IllegalArgumentException("At least one layout should be kept!");
+        }
+        this.layouts = new LinkedHashMap<String, Layout>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Layout> eldest) {
+                return size() > maxLayouts;
+            }
+        };
+    }
+
+    /**
+     * Register the layout, the routing graph is built only if the layout is not registered yet
+     * @param graph Original graph without adding buffer node
+     * @param bufferSet A list stores the path of all buffers
+     * @return Layout registered
+     */
+    public Layout register(SparseGraph graph, List<List<Integer>> bufferSet) {
+        String id = hashLayout(graph, bufferSet);
+        synchronized (layouts) {
+            Layout layout = layouts.get(id);
+            if (layout != null) {
+                return layout;
+            }
+        }
+        //Built out of the lock, the first one put is kept if the same layout is registered at the same time
+        Layout newLayout = new Layout(id, graph, bufferSet);
+        synchronized (layouts) {
+            Layout layout = layouts.putIfAbsent(id, newLayout);
+            if (layout != null) {
+                return layout;
+            }
+        }
+        logger.info("Layout {} is registered with {} nodes and {} edges", id, graph.getNodeNumber(), graph.getEdgeNumber());
+        return newLayout;
+    }
+
+    /**
+     * @param id Id of the layout
+     * @return The layout, null if it is not registered or dropped
+     */
+    public Layout getLayout(String id) {
+        synchronized (layouts) {
+            return layouts.get(id);
+        }
+    }
+
+    /**
+     * Hash the nodes, the edges of each node sorted by the end node, and the buffers in the order they are given
+     * @param graph Original graph without adding buffer node
+     * @param bufferSet A list stores the path of all buffers
+     * @return SHA-256 of the layout in hex
+     */
+    static String hashLayout(SparseGraph graph, List<List<Integer>> bufferSet) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(graph.getNodeNumber()).putInt(graph.getEdgeNumber());
+        update(digest, buffer);
+        for (int node = 0; node < graph.getNodeNumber(); node++) {
+            for (int edge = graph.getFirstEdge(node); edge < graph.getEndEdge(node); edge++) {
+                buffer.putInt(node).putInt(graph.getEndNode(edge)).putDouble(graph.getEdgeDistance(edge));
+                update(digest, buffer);
+            }
+        }
+        buffer.putInt(bufferSet.size());
+        update(digest, buffer);
+        for (List<Integer> bufferPath : bufferSet) {
+            buffer.putInt(bufferPath.size());
+            update(digest, buffer);
+            for (Integer node : bufferPath) {
+                buffer.putInt(node);
+                update(digest, buffer);
+            }
+        }
+        StringBuilder id = new StringBuilder();
+        for (byte b : digest.digest()) {
+            id.append(String.format("%02x", b));
+        }
+        return id.toString();
+    }
+
+    private static void update(MessageDigest digest, ByteBuffer buffer) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package org.spring.springboot.service;
+
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.CommonTestConstant;
+import org.spring.springboot.algorithmn.common.SparseGraph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LayoutRegistryTest {
+
+    //Register the same layout without buffers twice, the edges given in another order. The layout built the first time should be kept.
+    @Test
+    public void shouldSameLayoutBeRegisteredOnce() {
+        LayoutRegistry layoutRegistry = new LayoutRegistry(2);
+        List<List<Integer>> bufferSet = new ArrayList<>();
+        Layout layout = layoutRegistry.register(new SparseGraph(3, new int[]{0, 1, 1}, new int[]{1, 0, 2}, new double[]{4, 4, 6}), bufferSet);
+        Layout sameLayout = layoutRegistry.register(new SparseGraph(3, new int[]{1, 1, 0}, new int[]{2, 0, 1}, new double[]{6, 4, 4}), bufferSet);
+        assertSame(layout, sameLayout);
+        assertSame(layout, layoutRegistry.getLayout(layout.getId()));
+        assertEquals(bufferSet, layout.getBufferSet());
+    }
+
+    //Layouts differing in a distance or a buffer should have different ids.
+    @Test
+    public void shouldDifferentLayoutsHaveDifferentIds() throws IOException {
+        List<List<Integer>> bufferSet = CommonTestConstant.getBufferForTestGraph2();
+        SparseGraph graph = SparseGraph.fromAdjacencyMatrix(CommonTestConstant.initializeGraph());
+        String id = LayoutRegistry.hashLayout(graph, bufferSet);
+        double[][] otherDistances = graph.toAdjacencyMatrix();
+        otherDistances[0][1] += 1;
+        assertFalse(id.equals(LayoutRegistry.hashLayout(SparseGraph.fromAdjacencyMatrix(otherDistances), bufferSet)));
+        assertFalse(id.equals(LayoutRegistry.hashLayout(graph, CommonTestConstant.getOneBufferForTestGraph2())));
+    }
+
+    //Keep 2 layouts at most, the least recently used one should be dropped for the third one.
+    @Test
+    public void shouldLeastRecentlyUsedLayoutBeDropped() {
+        LayoutRegistry layoutRegistry = new LayoutRegistry(2);
+        List<List<Integer>> bufferSet = new ArrayList<>();
+        Layout layout1 = layoutRegistry.register(new SparseGraph(2, new int[]{0}, new int[]{1}, new double[]{1}), bufferSet);
+        Layout layout2 = layoutRegistry.register(new SparseGraph(2, new int[]{0}, new int[]{1}, new double[]{2}), bufferSet);
+        layoutRegistry.getLayout(layout1.getId());
+        Layout layout3 = layoutRegistry.register(new SparseGraph(2, new int[]{0}, new int[]{1}, new double[]{3}), bufferSet);
+        assertSame(layout1, layoutRegistry.getLayout(layout1.getId()));
+        assertNull(layoutRegistry.getLayout(layout2.getId()));
+        assertSame(layout3, layoutRegistry.getLayout(layout3.getId()));
+    }
+}
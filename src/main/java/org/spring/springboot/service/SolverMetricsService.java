@@ -0,0 +1,109 @@
+package org.spring.springboot.service;
+
+import org.spring.springboot.algorithmn.common.SolverMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+//Metrics of all the solves since the service starts, and of the latest solves one by one
+@Service
+public class SolverMetricsService {
+
+    private final SolverMetrics totalMetrics = new SolverMetrics();
+    private final Deque<SolveMetrics> recentSolves = new ArrayDeque<>();
+    private final int maxRecentSolves;
+    private long numberOfSolves = 0;
+
+    /**
+     * @param maxRecentSolves Number of the latest solves kept one by one
+     */
+    public SolverMetricsService(@Value("${genetic.metrics.recent-solves:20}") int maxRecentSolves) {
+        if (maxRecentSolves < 0) {
+            throw new IllegalArgumentException("Number of recent solves should not be negative!");
+        }
+        this.maxRecentSolves = maxRecentSolves;
+    }
+
+    /**
+     * Add the metrics of a finished solve
+     * @param id Id of the solve, the job id if it runs in the background
+     * @param metrics Metrics of the solve, not changed any more
+     * @param runningTime Milliseconds the solve takes
+     */
+    public void record(String id, SolverMetrics metrics, long runningTime) {
+        synchronized (this) {
+            numberOfSolves++;
+            if (maxRecentSolves > 0) {
+                if (recentSolves.size() == maxRecentSolves) {
+                    recentSolves.pollFirst();
+                }
+                recentSolves.addLast(new SolveMetrics(id, metrics, runningTime, System.currentTimeMillis()));
+            }
+        }
+        totalMetrics.add(metrics);
+    }
+
+    public SolverMetrics getTotalMetrics() {
+        return totalMetrics;
+    }
+
+    public synchronized long getNumberOfSolves() {
+        return numberOfSolves;
+    }
+
+    /**
+     * @return The latest solves, the latest one last
+     */
+    public synchronized List<SolveMetrics> getRecentSolves() {
+        return new ArrayList<>(recentSolves);
+    }
+
+    /**
+     * @param id Id of the solve
+     * @return The solve, null if it is not one of the latest solves
+     */
+    public synchronized SolveMetrics getSolve(String id) {
+        for (SolveMetrics solve : recentSolves) {
+            if (solve.getId().equals(id)) {
+                return solve;
+            }
+        }
+        return null;
+    }
+
+    public static class SolveMetrics {
+
+        private final String id;
+        private final SolverMetrics metrics;
+        private final long runningTime;
+        private final long finishedAt;
+
+        SolveMetrics(String id, SolverMetrics metrics, long runningTime, long finishedAt) {
+            this.id = id;
+            this.metrics = metrics;
+            this.runningTime = runningTime;
+            this.finishedAt = finishedAt;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public SolverMetrics getMetrics() {
+            return metrics;
+        }
+
+        public long getRunningTime() {
+            return runningTime;
+        }
+
+        //Milliseconds since the epoch
+        public long getFinishedAt() {
+            return finishedAt;
+        }
+    }
+}
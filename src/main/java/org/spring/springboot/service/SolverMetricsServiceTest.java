@@ -0,0 +1,44 @@
+package org.spring.springboot.service;
+
+import org.junit.Test;
+import org.spring.springboot.algorithmn.common.SolverMetrics;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SolverMetricsServiceTest {
+
+    //Only the latest 2 solves should be kept one by one, the total should count all of them.
+    @Test
+    public void shouldOldestSolveBeDroppedAndTotalKeepIt() {
+        SolverMetricsService metricsService = new SolverMetricsService(2);
+        SolverMetrics lastMetrics = null;
+        for (int i = 0; i < 3; i++) {
+            lastMetrics = new SolverMetrics();
+            lastMetrics.record(SolverMetrics.Phase.DECODE, 1000 * (i + 1));
+            lastMetrics.increment(SolverMetrics.Counter.ROUTES);
+            metricsService.record("solve" + i, lastMetrics, i);
+        }
+        assertEquals(3, metricsService.getNumberOfSolves());
+        assertEquals(3, metricsService.getTotalMetrics().getCount(SolverMetrics.Counter.ROUTES));
+        assertEquals(3, metricsService.getTotalMetrics().getHistogram(SolverMetrics.Phase.DECODE).getCount());
+        assertEquals(3000, metricsService.getTotalMetrics().getHistogram(SolverMetrics.Phase.DECODE).getMax());
+        List<SolverMetricsService.SolveMetrics> recentSolves = metricsService.getRecentSolves();
+        assertEquals(2, recentSolves.size());
+        assertEquals("solve1", recentSolves.get(0).getId());
+        assertEquals("solve2", recentSolves.get(1).getId());
+        assertNull(metricsService.getSolve("solve0"));
+        assertSame(lastMetrics, metricsService.getSolve("solve2").getMetrics());
+    }
+
+    @Test
+    public void shouldNoSolveBeKeptIfThereAreNoRecentSolves() {
+        SolverMetricsService metricsService = new SolverMetricsService(0);
+        metricsService.record("solve", new SolverMetrics(), 1);
+        assertEquals(1, metricsService.getNumberOfSolves());
+        assertEquals(0, metricsService.getRecentSolves().size());
+    }
+}
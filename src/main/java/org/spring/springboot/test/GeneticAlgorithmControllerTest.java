@@ -1,18 +1,76 @@
 package org.spring.springboot.test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.RestAssured;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.spring.springboot.algorithmn.common.CommonConstant;
+import org.spring.springboot.algorithmn.common.CommonTestConstant;
+import org.spring.springboot.algorithmn.common.Path;
+import org.spring.springboot.algorithmn.common.Record;
+import org.spring.springboot.algorithmn.common.SolverMetrics;
+import org.spring.springboot.algorithmn.preprocess.BinaryEncoding;
+import org.spring.springboot.algorithmn.preprocess.StreamingRequestParser;
+import org.spring.springboot.controller.GeneticAlgorithmController;
+import org.spring.springboot.service.GeneticAlgorithmJobService;
+import org.spring.springboot.service.LayoutRegistry;
+import org.spring.springboot.service.SolverMetricsService;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 public class GeneticAlgorithmControllerTest {
 
+    private static final MediaType BINARY = MediaType.valueOf(BinaryEncoding.MEDIA_TYPE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GeneticAlgorithmJobService jobService;
+    private SolverMetricsService metricsService;
+    private MockMvc mockMvc;
 
     @Before
     public void setup() {
         RestAssured.port = 9090;
+        //One solver thread and one job waiting for it
+        jobService = new GeneticAlgorithmJobService(1, 1, 100);
+        GeneticAlgorithmController controller = new GeneticAlgorithmController();
+        ReflectionTestUtils.setField(controller, "parallelism", 1);
+        ReflectionTestUtils.setField(controller, "timeBudget", 0L);
+        ReflectionTestUtils.setField(controller, "jobService", jobService);
+        ReflectionTestUtils.setField(controller, "layoutRegistry", new LayoutRegistry(20));
+        metricsService = new SolverMetricsService(20);
+        ReflectionTestUtils.setField(controller, "metricsService", metricsService);
+        ReflectionTestUtils.setField(controller, "metricsLocalOnly", true);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @After
+    public void shutdown() {
+        jobService.shutdown();
     }
 
     @Test
@@ -22,4 +80,198 @@ public class GeneticAlgorithmControllerTest {
         jsonMap.put("precision", 2);
         jsonMap.put("numberOfGraphNode", 9);
     }
+
+    //Submit 10 tasks for 3 AGVs, the job should be accepted and its result should not be ready while it is queued or running.
+    @Test(timeout = 60000)
+    public void shouldJobBeAcceptedAndItsResultBeAConflictUntilItIsDone() throws Exception {
+        String jobId = submitJob(createRequestForTenTasks());
+        JsonNode job = objectMapper.readTree(mockMvc.perform(get("/api/genetic/jobs/{jobId}/result", jobId))
+                .andExpect(status().isConflict())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(jobId, job.get("jobId").asText());
+        assertTrue(Arrays.asList("QUEUED", "RUNNING").contains(job.get("status").asText()));
+        mockMvc.perform(get("/api/genetic/jobs/{jobId}", jobId))
+                .andExpect(status().isOk());
+    }
+
+    //With one job running and one waiting, the next job should be refused as the service is unavailable.
+    @Test(timeout = 60000)
+    public void shouldJobBeRefusedWhenTheQueueIsFull() throws Exception {
+        submitJob(createRequestForTenTasks());
+        submitJob(createRequestForTenTasks());
+        mockMvc.perform(post("/api/genetic/jobs").contentType(MediaType.APPLICATION_JSON).content(createRequestForTenTasks()))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void shouldUnknownJobBeNotFound() throws Exception {
+        mockMvc.perform(get("/api/genetic/jobs/{jobId}", "unknown"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/genetic/jobs/{jobId}/result", "unknown"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/genetic/jobs/{jobId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    //Solve the same request sent in JSON and in the binary form, the binary plan should be the JSON plan written in the binary form.
+    //One idle AGV and one task 4--9 so that there is only one best plan.
+    @Test(timeout = 60000)
+    public void shouldBinaryPlanBeTheSameAsTheJsonPlan() throws Exception {
+        String request = createRequest(1, "4,9,1");
+        JsonNode jsonPlan = objectMapper.readTree(mockMvc.perform(post("/api/genetic")
+                .contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        ByteArrayOutputStream binaryRequest = new ByteArrayOutputStream();
+        BinaryEncoding.writeRequest(new StreamingRequestParser().parse(
+                new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8))), binaryRequest);
+        byte[] binaryPlan = mockMvc.perform(post("/api/genetic")
+                .contentType(BINARY).accept(BINARY).content(binaryRequest.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BINARY))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<List<Path>> paths = readPaths(jsonPlan.get("paths"));
+        assertEquals(1, paths.size());
+        assertTrue(paths.get(0).size() > 1);
+        assertArrayEquals(BinaryEncoding.writePlan(paths, readRecords(jsonPlan.get("record"))), binaryPlan);
+    }
+
+    //Only the clients on this host can read the metrics, a client from another address is forbidden.
+    @Test
+    public void shouldMetricsBeReadOnlyFromTheLoopbackAddress() throws Exception {
+        metricsService.record("solve", new SolverMetrics(), 5);
+        mockMvc.perform(get("/api/metrics").with(remoteAddress("10.0.0.1")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/metrics/solves/{solveId}", "solve").with(remoteAddress("10.0.0.1")))
+                .andExpect(status().isForbidden());
+
+        JsonNode metrics = objectMapper.readTree(mockMvc.perform(get("/api/metrics").with(remoteAddress("127.0.0.1")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(1, metrics.get("numberOfSolves").asLong());
+        assertEquals("solve", metrics.get("recentSolves").get(0).get("solveId").asText());
+        mockMvc.perform(get("/api/metrics/solves/{solveId}", "solve").with(remoteAddress("127.0.0.1")))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private String submitJob(String request) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/genetic/jobs").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("jobId").asText();
+    }
+
+    //Tasks 5--3 four times, 4--9 and 8--9 three times each, for the 3 idle AGVs at 105, 205 and 104 of TestGraph2
+    private String createRequestForTenTasks() throws IOException {
+        return createRequest(3, "5,3,4", "4,9,3", "8,9,3");
+    }
+
+    /**
+     * Create the request of the front end on TestGraph2, node numbers start from 1
+     * @param numberOfAGV Number of idle AGVs, the first ones of the AGVs at 105, 205 and 104
+     * @param tasks Each task as "start,end,times"
+     * @return Body of the request in JSON
+     */
+    private String createRequest(int numberOfAGV, String... tasks) throws IOException {
+        double[][] graph = CommonTestConstant.initializeGraph();
+        List<Map<String, Object>> startNodes = new ArrayList<>();
+        List<Map<String, Object>> endNodes = new ArrayList<>();
+        List<Map<String, Object>> nodeDistances = new ArrayList<>();
+        //Each edge is given once and the road goes both ways
+        for (int i = 0; i < graph.length; i++) {
+            for (int j = i + 1; j < graph.length; j++) {
+                if (graph[i][j] < CommonConstant.MAX_EDGE) {
+                    startNodes.add(createObject("startNode", i + 1));
+                    endNodes.add(createObject("endNode", j + 1));
+                    nodeDistances.add(createObject("nodeDistance", graph[i][j]));
+                }
+            }
+        }
+        List<Map<String, Object>> tasksOfRequest = new ArrayList<>();
+        for (String task : tasks) {
+            tasksOfRequest.add(createObject("tasks", task));
+        }
+        int[] nodeOfAGV = {106, 206, 105};
+        int[] bufferOfAGV = {1, 2, 1};
+        List<Map<String, Object>> time = new ArrayList<>();
+        List<List<Map<String, Object>>> paths = new ArrayList<>();
+        List<Map<String, Object>> bufferForAGV = new ArrayList<>();
+        for (int i = 0; i < numberOfAGV; i++) {
+            time.add(createObject("time", -1));
+            Map<String, Object> path = new HashMap<>();
+            path.put("startNode", nodeOfAGV[i]);
+            path.put("endNode", nodeOfAGV[i]);
+            path.put("time", 0);
+            path.put("isLoop", 0);
+            paths.add(Arrays.asList(path));
+            bufferForAGV.add(createObject("bufferForAGV", bufferOfAGV[i]));
+        }
+        List<List<Map<String, Object>>> bufferSet = new ArrayList<>();
+        for (List<Integer> buffer : CommonTestConstant.getBufferForTestGraph2()) {
+            List<Map<String, Object>> bufferPaths = new ArrayList<>();
+            for (int node : buffer) {
+                bufferPaths.add(createObject("paths", node + 1));
+            }
+            bufferSet.add(bufferPaths);
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("startNode", startNodes);
+        data.put("endNode", endNodes);
+        data.put("nodeDistance", nodeDistances);
+        data.put("numberOfGraphNode", graph.length);
+        data.put("tasks", tasksOfRequest);
+        data.put("time", time);
+        data.put("paths", paths);
+        data.put("bufferSet", bufferSet);
+        data.put("bufferForAGV", bufferForAGV);
+        data.put("speed", CommonTestConstant.AGV_SPEED);
+        data.put("precision", CommonConstant.BUFFER_PATH_LENGTH);
+        Map<String, Object> request = new HashMap<>();
+        request.put("data", data);
+        return objectMapper.writeValueAsString(request);
+    }
+
+    //Paths of each AGV in the JSON plan, back to the node numbers and times of the algorithm, without the -1 path at the end
+    private static List<List<Path>> readPaths(JsonNode pathsOfAGVs) {
+        List<List<Path>> paths = new ArrayList<>();
+        for (JsonNode pathsOfAGV : pathsOfAGVs) {
+            List<Path> pathsForAGV = new ArrayList<>();
+            for (JsonNode path : pathsOfAGV) {
+                if (path.get("startNode").asInt() == -1) {
+                    break;
+                }
+                pathsForAGV.add(new Path(path.get("startNode").asInt() - 1, path.get("endNode").asInt() - 1,
+                        path.get("time").asDouble() - 1, path.get("isLoop").asInt() == 1));
+            }
+            paths.add(pathsForAGV);
+        }
+        return paths;
+    }
+
+    private static List<List<Record>> readRecords(JsonNode recordsOfAGVs) {
+        List<List<Record>> records = new ArrayList<>();
+        for (JsonNode recordsOfAGV : recordsOfAGVs) {
+            List<Record> recordsForAGV = new ArrayList<>();
+            for (JsonNode record : recordsOfAGV) {
+                recordsForAGV.add(new Record(record.get("record").get("taskNum").asInt(), record.get("record").get("times").asInt()));
+            }
+            records.add(recordsForAGV);
+        }
+        return records;
+    }
+
+    private static Map<String, Object> createObject(String fieldName, Object value) {
+        Map<String, Object> object = new HashMap<>();
+        object.put(fieldName, value);
+        return object;
+    }
 }